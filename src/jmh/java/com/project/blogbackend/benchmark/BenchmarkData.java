@@ -0,0 +1,85 @@
+package com.project.blogbackend.benchmark;
+
+import com.project.blogbackend.entity.Comment;
+import com.project.blogbackend.entity.Like;
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.entity.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic entity fixtures shared by the benchmarks.
+ */
+public class BenchmarkData {
+    public static final int POST_TEXT_LENGTH = 2000;
+
+    public static User user(long id) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setPassword("password" + id);
+        return user;
+    }
+
+    public static Post post(long id, User user) {
+        Post post = new Post();
+        post.setId(id);
+        post.setTitle("Post title " + id);
+        post.setText(text(POST_TEXT_LENGTH, id));
+        post.setUser(user);
+        post.setLikeCount(id % 100);
+        post.setCommentCount(id % 10);
+        return post;
+    }
+
+    public static List<Post> posts(int size) {
+        User user = user(1);
+        List<Post> posts = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            posts.add(post(id, user));
+        }
+        return posts;
+    }
+
+    public static List<Comment> comments(int size) {
+        User user = user(1);
+        Post post = post(1, user);
+        List<Comment> comments = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Comment comment = new Comment();
+            comment.setId(id);
+            comment.setText(text(200, id));
+            comment.setPost(post);
+            comment.setUser(user);
+            comments.add(comment);
+        }
+        return comments;
+    }
+
+    public static List<Like> likes(int size) {
+        User user = user(1);
+        Post post = post(1, user);
+        List<Like> likes = new ArrayList<>(size);
+        for (long id = 1; id <= size; id++) {
+            Like like = new Like();
+            like.setId(id);
+            like.setPost(post);
+            like.setUser(user);
+            likes.add(like);
+        }
+        return likes;
+    }
+
+    public static String text(int length, long seed) {
+        StringBuilder text = new StringBuilder(length);
+        String words = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor ";
+        int offset = (int) (seed % words.length());
+        while (text.length() < length) {
+            text.append(words, offset, words.length());
+            offset = 0;
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.blogbackend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.project.blogbackend.entity.Comment;
+import com.project.blogbackend.entity.Like;
+import com.project.blogbackend.entity.Post;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Cost of writing list endpoint payloads with a Jackson mapper configured like the application's.
+ *
+ * Each operation writes one response body the way the message converter does, streaming into the response, here a
+ * byte-counting sink, either as is or through gzip as Tomcat's response compression does. The time per operation is
+ * the CPU cost of one response; the bytes on the wire of each payload and encoding are printed once per trial.
+ * {@code accessors} compares Jackson's reflective property access with the Blackbird module the application installs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonSerializationBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    @Param({"reflection", "blackbird"})
+    private String accessors;
+
+    @Param({"identity", "gzip"})
+    private String encoding;
+
+    private ObjectWriter writer;
+    private List<Post> posts;
+    private List<Comment> comments;
+    private List<Like> likes;
+
+    @Setup
+    public void setUp() throws IOException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        if (accessors.equals("blackbird")) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        ObjectMapper mapper = builder.build();
+        writer = mapper.writer();
+        posts = BenchmarkData.posts(size);
+        comments = BenchmarkData.comments(size);
+        likes = BenchmarkData.likes(size);
+        System.out.printf("%nbytes on the wire (%s, size %d): posts %d, comments %d, likes %d%n", encoding, size,
+                write(posts), write(comments), write(likes));
+    }
+
+    @Benchmark
+    public long posts() throws IOException {
+        return write(posts);
+    }
+
+    @Benchmark
+    public long comments() throws IOException {
+        return write(comments);
+    }
+
+    @Benchmark
+    public long likes() throws IOException {
+        return write(likes);
+    }
+
+    private long write(Object body) throws IOException {
+        CountingSink sink = new CountingSink();
+        OutputStream out = encoding.equals("gzip") ? new GZIPOutputStream(sink, 8192) : sink;
+        writer.writeValue(out, body);
+        return sink.count;
+    }
+
+    private static final class CountingSink extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.project.blogbackend.benchmark;
+
+import com.project.blogbackend.entity.Comment;
+import com.project.blogbackend.entity.Like;
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.entity.User;
+import com.project.blogbackend.service.dto.*;
+import com.project.blogbackend.service.mapper.CommentMapper;
+import com.project.blogbackend.service.mapper.LikeMapper;
+import com.project.blogbackend.service.mapper.PostMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the DTO to entity conversions done on every write.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MapperBenchmark {
+    private User user;
+    private Post post;
+    private Comment comment;
+    private PostCreateDTO postCreateDTO;
+    private PostUpdateDTO postUpdateDTO;
+    private CommentCreateDTO commentCreateDTO;
+    private CommentUpdateDTO commentUpdateDTO;
+    private LikeCreateDTO likeCreateDTO;
+
+    @Setup
+    public void setUp() {
+        user = BenchmarkData.user(1);
+        post = BenchmarkData.post(1, user);
+        comment = BenchmarkData.comments(1).get(0);
+        postCreateDTO = new PostCreateDTO();
+        postCreateDTO.setTitle("title");
+        postCreateDTO.setText(BenchmarkData.text(BenchmarkData.POST_TEXT_LENGTH, 1));
+        postCreateDTO.setUserId(1L);
+        postUpdateDTO = new PostUpdateDTO();
+        postUpdateDTO.setTitle("new title");
+        postUpdateDTO.setText(BenchmarkData.text(BenchmarkData.POST_TEXT_LENGTH, 2));
+        commentCreateDTO = new CommentCreateDTO();
+        commentCreateDTO.setText("comment");
+        commentCreateDTO.setPostId(1L);
+        commentCreateDTO.setUserId(1L);
+        commentUpdateDTO = new CommentUpdateDTO();
+        commentUpdateDTO.setText("new comment");
+        likeCreateDTO = new LikeCreateDTO();
+        likeCreateDTO.setPostId(1L);
+        likeCreateDTO.setUserId(1L);
+    }
+
+    @Benchmark
+    public Post postToEntity() {
+        return PostMapper.toEntity(postCreateDTO, user);
+    }
+
+    @Benchmark
+    public Post postToUpdateEntity() {
+        return PostMapper.toUpdateEntity(postUpdateDTO, post);
+    }
+
+    @Benchmark
+    public Comment commentToEntity() {
+        return CommentMapper.toEntity(commentCreateDTO, user, post, null);
+    }
+
+    @Benchmark
+    public Comment commentToUpdateEntity() {
+        return CommentMapper.toUpdateEntity(commentUpdateDTO, comment);
+    }
+
+    @Benchmark
+    public Like likeToEntity() {
+        return LikeMapper.toEntity(likeCreateDTO, post, user);
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.blogbackend.benchmark;
+
+import com.project.blogbackend.ratelimit.WriteRateLimiter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of admitting one write through the per-user rate limiter, for one hot user shared by all threads and for
+ * writes spread over many users.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+    @Param({"1", "100000"})
+    private int users;
+
+    private WriteRateLimiter writeRateLimiter;
+    private Long[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // a rate no benchmark reaches, so every write takes the admit path
+        writeRateLimiter = new WriteRateLimiter(true, 1e9, 1_000_000);
+        // boxed up front, as the ids of a request are already boxed by the time they reach the limiter
+        userIds = new Long[users];
+        for (int i = 0; i < users; i++) {
+            userIds[i] = (long) i;
+            writeRateLimiter.tryAcquire(userIds[i]);
+        }
+    }
+
+    @Benchmark
+    public long tryAcquire() {
+        return writeRateLimiter.tryAcquire(userIds[ThreadLocalRandom.current().nextInt(users)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public long tryAcquireContended() {
+        return writeRateLimiter.tryAcquire(userIds[ThreadLocalRandom.current().nextInt(users)]);
+    }
+}
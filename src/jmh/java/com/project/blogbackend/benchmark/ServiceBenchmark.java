@@ -0,0 +1,98 @@
+package com.project.blogbackend.benchmark;
+
+import com.project.blogbackend.BlogBackendApplication;
+import com.project.blogbackend.entity.Like;
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.service.LikeService;
+import com.project.blogbackend.service.PostService;
+import com.project.blogbackend.service.UserService;
+import com.project.blogbackend.service.dto.LikeCreateDTO;
+import com.project.blogbackend.service.dto.PostCreateDTO;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.util.CursorPaging;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end service calls, including transactions and Hibernate, against an in-memory H2 database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ServiceBenchmark {
+    @Param({"100"})
+    private int users;
+
+    @Param({"2000"})
+    private int posts;
+
+    private ConfigurableApplicationContext context;
+    private PostService postService;
+    private LikeService likeService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlogBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        postService = context.getBean(PostService.class);
+        likeService = context.getBean(LikeService.class);
+        UserService userService = context.getBean(UserService.class);
+        for (long id = 1; id <= users; id++) {
+            userService.saveUser(BenchmarkData.user(id));
+        }
+        for (long id = 1; id <= posts; id++) {
+            PostCreateDTO postCreateDTO = new PostCreateDTO();
+            postCreateDTO.setTitle("Post title " + id);
+            postCreateDTO.setText(BenchmarkData.text(BenchmarkData.POST_TEXT_LENGTH, id));
+            postCreateDTO.setUserId(1 + id % users);
+            postService.savePost(postCreateDTO);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Post getPostById() {
+        return postService.getPostById(randomPostId());
+    }
+
+    @Benchmark
+    public List<Post> getPostsPage() {
+        return postService.getAllPosts(Optional.empty(), Optional.of(CursorPaging.encode(randomPostId())), 20);
+    }
+
+    @Benchmark
+    public List<PostSummaryDTO> getPostSummariesPage() {
+        return postService.getPostSummaries(Optional.empty(), Optional.of(CursorPaging.encode(randomPostId())), 20);
+    }
+
+    @Benchmark
+    public List<Like> getLikesOfPost() {
+        return likeService.getAllLikes(Optional.empty(), Optional.of(randomPostId()), Optional.empty(), 20);
+    }
+
+    @Benchmark
+    public Like saveLike() {
+        LikeCreateDTO likeCreateDTO = new LikeCreateDTO();
+        likeCreateDTO.setPostId(randomPostId());
+        likeCreateDTO.setUserId(1 + ThreadLocalRandom.current().nextLong(users));
+        return likeService.saveLike(likeCreateDTO);
+    }
+
+    private long randomPostId() {
+        return 1 + ThreadLocalRandom.current().nextLong(posts);
+    }
+}
@@ -0,0 +1,92 @@
+package com.project.blogbackend.benchmark;
+
+import com.project.blogbackend.BlogBackendApplication;
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.service.PostService;
+import com.project.blogbackend.service.UserService;
+import com.project.blogbackend.service.dto.PostCreateDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Platform versus virtual request threads under high concurrency.
+ *
+ * Each operation is one simulated request: it is handed to the request executor, as Tomcat does, and runs a
+ * transactional PostService read that then blocks for {@code latencyMillis} while still holding the transaction,
+ * standing in for a slow JDBC round trip. With far more concurrent callers than the 200 platform threads of
+ * Tomcat's default pool, throughput and the p99 of the sampled latencies show the queueing that virtual threads
+ * remove. Pinned virtual threads are printed by {@code -Djdk.tracePinnedThreads}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(1000)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class ThreadModelBenchmark {
+    @Param({"platform", "virtual"})
+    private String threads;
+
+    @Param({"200"})
+    private int platformThreads;
+
+    @Param({"300"})
+    private int connectionPoolSize;
+
+    @Param({"5"})
+    private int latencyMillis;
+
+    private ConfigurableApplicationContext context;
+    private ExecutorService requestExecutor;
+    private PostService postService;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BlogBackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:threads;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.hikari.maximum-pool-size=" + connectionPoolSize,
+                        "--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN");
+        postService = context.getBean(PostService.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        context.getBean(UserService.class).saveUser(BenchmarkData.user(1));
+        for (long id = 1; id <= 100; id++) {
+            PostCreateDTO postCreateDTO = new PostCreateDTO();
+            postCreateDTO.setTitle("Post title " + id);
+            postCreateDTO.setText(BenchmarkData.text(BenchmarkData.POST_TEXT_LENGTH, id));
+            postCreateDTO.setUserId(1L);
+            postService.savePost(postCreateDTO);
+        }
+        requestExecutor = "virtual".equals(threads)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        requestExecutor.shutdownNow();
+        context.close();
+    }
+
+    @Benchmark
+    public Post request() throws Exception {
+        return requestExecutor.submit(() -> transactionTemplate.execute(status -> {
+            Post post = postService.getPostById(1 + ThreadLocalRandom.current().nextLong(100));
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return post;
+        })).get();
+    }
+}
@@ -0,0 +1,124 @@
+package com.project.blogbackend.loadtest;
+
+import com.project.blogbackend.entity.User;
+import com.project.blogbackend.service.CommentService;
+import com.project.blogbackend.service.LikeService;
+import com.project.blogbackend.service.PostService;
+import com.project.blogbackend.service.UserService;
+import com.project.blogbackend.service.dto.BatchResultDTO;
+import com.project.blogbackend.service.dto.CommentCreateDTO;
+import com.project.blogbackend.service.dto.LikeCreateDTO;
+import com.project.blogbackend.service.dto.PostCreateDTO;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fills the database of the application under test through its services, so that the seeded rows carry the same
+ * counters, outbox events and index entries as rows created over the API. The data depends only on the options, so
+ * runs with the same options start from the same database.
+ */
+public class DataSeeder {
+    private static final Duration OUTBOX_DRAIN_TIMEOUT = Duration.ofMinutes(5);
+    private static final String WORDS = "lorem ipsum dolor sit amet consectetur adipiscing elit sed do eiusmod tempor ";
+
+    private final UserService userService;
+    private final PostService postService;
+    private final CommentService commentService;
+    private final LikeService likeService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public DataSeeder(ApplicationContext context) {
+        this.userService = context.getBean(UserService.class);
+        this.postService = context.getBean(PostService.class);
+        this.commentService = context.getBean(CommentService.class);
+        this.likeService = context.getBean(LikeService.class);
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+    }
+
+    public SeededData seed(LoadTestOptions options) throws InterruptedException {
+        Random random = new Random(options.seed());
+        for (int i = 1; i <= options.users(); i++) {
+            User user = new User();
+            user.setUsername("user" + i);
+            user.setPassword("password" + i);
+            this.userService.saveUser(user);
+        }
+        List<Long> userIds = this.jdbcTemplate.queryForList("select id from user order by id", Long.class);
+
+        List<PostCreateDTO> posts = new ArrayList<>(options.posts());
+        for (int i = 1; i <= options.posts(); i++) {
+            PostCreateDTO post = new PostCreateDTO();
+            post.setTitle("Post title " + i);
+            post.setText(text(500 + random.nextInt(1500), i));
+            post.setUserId(userIds.get(i % userIds.size()));
+            posts.add(post);
+        }
+        check("posts", this.postService.savePosts(posts));
+        List<Long> postIds = this.jdbcTemplate.queryForList("select id from post order by id", Long.class);
+
+        List<CommentCreateDTO> comments = new ArrayList<>(options.comments());
+        for (int i = 1; i <= options.comments(); i++) {
+            CommentCreateDTO comment = new CommentCreateDTO();
+            comment.setText(text(20 + random.nextInt(280), i));
+            comment.setPostId(postIds.get(random.nextInt(postIds.size())));
+            comment.setUserId(userIds.get(random.nextInt(userIds.size())));
+            comments.add(comment);
+        }
+        check("comments", this.commentService.saveComments(comments));
+
+        List<LikeCreateDTO> likes = new ArrayList<>(options.likes());
+        Set<Long> pairs = new HashSet<>(options.likes() * 2);
+        while (likes.size() < options.likes()) {
+            int user = random.nextInt(userIds.size());
+            int post = random.nextInt(postIds.size());
+            if (pairs.add((long) user * postIds.size() + post)) {
+                LikeCreateDTO like = new LikeCreateDTO();
+                like.setUserId(userIds.get(user));
+                like.setPostId(postIds.get(post));
+                likes.add(like);
+            }
+        }
+        check("likes", this.likeService.saveLikes(likes));
+
+        awaitOutbox();
+        return new SeededData(userIds, postIds, Math.min(options.hotPosts(), postIds.size()));
+    }
+
+    private static void check(String rows, BatchResultDTO result) {
+        if (result.rejected() > 0) {
+            throw new IllegalStateException("Seeding rejected " + result.rejected() + " of " + result.received() + " " + rows);
+        }
+    }
+
+    /**
+     * Waits until the seeding events are dispatched, so that indexing and feed fan-out of the seed do not run into the
+     * measurements.
+     */
+    private void awaitOutbox() throws InterruptedException {
+        long deadline = System.nanoTime() + OUTBOX_DRAIN_TIMEOUT.toNanos();
+        while (this.jdbcTemplate.queryForObject("select count(*) from outbox_event", Long.class) > 0) {
+            if (System.nanoTime() > deadline) {
+                throw new IllegalStateException("The outbox was not drained within " + OUTBOX_DRAIN_TIMEOUT);
+            }
+            Thread.sleep(200);
+        }
+    }
+
+    private static String text(int length, long seed) {
+        StringBuilder text = new StringBuilder(length);
+        int offset = (int) (seed % WORDS.length());
+        while (text.length() < length) {
+            text.append(WORDS, offset, WORDS.length());
+            offset = 0;
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+}
@@ -0,0 +1,179 @@
+package com.project.blogbackend.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a scenario with a fixed number of workers, each on its own virtual thread with a blocking HTTP client call.
+ *
+ * Without a rate, every worker sends its next request as soon as the previous one is answered. With a rate, the
+ * workers share it evenly and each request is due at a fixed time; its latency is measured from that time rather than
+ * from when it was actually sent, so a stalled server is charged for the requests it held up and not only for the one
+ * it stalled on.
+ *
+ * The warmup runs under the same load as the measurement and only requests due after it are recorded. Every worker
+ * keeps its own histograms, which are merged when the scenario ends. A request counts as an error if it fails or is
+ * answered with a status other than 2xx.
+ */
+public class LoadGenerator {
+    private final HttpClient client;
+    private final int workers;
+    private final double rate;
+
+    public LoadGenerator(HttpClient client, int workers, double rate) {
+        this.client = client;
+        this.workers = workers;
+        this.rate = rate;
+    }
+
+    public ScenarioResult run(Scenario scenario, long warmupNanos, long durationNanos) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmupNanos;
+        long until = measureFrom + durationNanos;
+        Map<String, LongAdder> errorCauses = new ConcurrentHashMap<>();
+        List<Worker> running = new ArrayList<>(this.workers);
+        List<Thread> threads = new ArrayList<>(this.workers);
+        for (int i = 0; i < this.workers; i++) {
+            Worker worker = new Worker(scenario, start, measureFrom, until, i, errorCauses);
+            running.add(worker);
+            threads.add(Thread.ofVirtual().name("loadtest-" + scenario.name() + "-" + i).start(worker));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        List<Scenario.Operation> operations = scenario.operations();
+        List<OperationResult> results = new ArrayList<>(operations.size());
+        for (int op = 0; op < operations.size(); op++) {
+            Histogram latencies = new Histogram(3);
+            long errors = 0;
+            for (Worker worker : running) {
+                latencies.add(worker.latencies[op]);
+                errors += worker.errors[op];
+            }
+            results.add(new OperationResult(operations.get(op).name(), latencies, errors));
+        }
+        Map<String, Long> causes = new TreeMap<>();
+        errorCauses.forEach((cause, count) -> causes.put(cause, count.sum()));
+        return new ScenarioResult(scenario.name(), results, durationNanos, causes);
+    }
+
+    /**
+     * The recorded requests of one operation.
+     *
+     * @param name      The name of the operation.
+     * @param latencies The latencies of all recorded requests in nanoseconds, failed ones included.
+     * @param errors    The number of recorded requests that failed.
+     */
+    public record OperationResult(String name, Histogram latencies, long errors) {
+    }
+
+    /**
+     * The recorded requests of one scenario.
+     *
+     * @param name          The name of the scenario.
+     * @param operations    The results per operation, in the order of the scenario.
+     * @param durationNanos The measured time.
+     * @param errorCauses   The number of errors by status or exception.
+     */
+    public record ScenarioResult(String name, List<OperationResult> operations, long durationNanos,
+                                 Map<String, Long> errorCauses) {
+    }
+
+    private final class Worker implements Runnable {
+        private final Scenario scenario;
+        private final long measureFrom;
+        private final long until;
+        private final Map<String, LongAdder> errorCauses;
+        private final int[] cumulativeWeights;
+        private final Histogram[] latencies;
+        private final long[] errors;
+        private final long intervalNanos;
+        private long due;
+
+        Worker(Scenario scenario, long start, long measureFrom, long until, int index, Map<String, LongAdder> errorCauses) {
+            this.scenario = scenario;
+            this.measureFrom = measureFrom;
+            this.until = until;
+            this.errorCauses = errorCauses;
+            List<Scenario.Operation> operations = scenario.operations();
+            this.cumulativeWeights = new int[operations.size()];
+            this.latencies = new Histogram[operations.size()];
+            this.errors = new long[operations.size()];
+            int total = 0;
+            for (int op = 0; op < operations.size(); op++) {
+                total += operations.get(op).weight();
+                this.cumulativeWeights[op] = total;
+                this.latencies[op] = new Histogram(3);
+            }
+            this.intervalNanos = rate > 0 ? (long) (workers * 1e9 / rate) : 0;
+            // spread the first requests of the workers over one interval
+            this.due = start + this.intervalNanos * index / workers;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                long sent;
+                if (this.intervalNanos > 0) {
+                    long wait;
+                    while ((wait = this.due - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    sent = this.due;
+                    this.due += this.intervalNanos;
+                } else {
+                    sent = System.nanoTime();
+                }
+                if (sent >= this.until) {
+                    return;
+                }
+                int op = nextOperation();
+                Scenario.Operation operation = this.scenario.operations().get(op);
+                String error = send(operation);
+                if (sent >= this.measureFrom) {
+                    this.latencies[op].recordValue(System.nanoTime() - sent);
+                    if (error != null) {
+                        this.errors[op]++;
+                        this.errorCauses.computeIfAbsent(operation.name() + ": " + error, key -> new LongAdder()).increment();
+                    }
+                }
+            }
+        }
+
+        private int nextOperation() {
+            int pick = ThreadLocalRandom.current().nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+            int op = 0;
+            while (this.cumulativeWeights[op] <= pick) {
+                op++;
+            }
+            return op;
+        }
+
+        /**
+         * @return The cause of the error, or null if the request succeeded.
+         */
+        private String send(Scenario.Operation operation) {
+            try {
+                HttpResponse<Void> response = client.send(operation.request().get(), HttpResponse.BodyHandlers.discarding());
+                return response.statusCode() / 100 == 2 ? null : "HTTP " + response.statusCode();
+            } catch (IOException e) {
+                return e.getClass().getSimpleName();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return "interrupted";
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.project.blogbackend.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formats the results of a load test as a table for the console and as CSV for comparing runs.
+ *
+ * The CSV has one row per operation and one {@code total} row per scenario, in the order the scenarios and their
+ * operations were defined, under a fixed header. Latencies are in milliseconds, throughput in requests per second
+ * of measured time, and all numbers use a dot as decimal separator.
+ */
+public class LoadReport {
+    private static final String HEADER = "scenario,operation,requests,errors,error_rate,throughput_per_s,p50_ms,p99_ms,p999_ms,max_ms";
+
+    private final List<Row> rows = new ArrayList<>();
+
+    public void add(LoadGenerator.ScenarioResult result) {
+        double seconds = result.durationNanos() / 1e9;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        for (LoadGenerator.OperationResult operation : result.operations()) {
+            this.rows.add(Row.of(result.name(), operation.name(), operation.latencies(), operation.errors(), seconds));
+            total.add(operation.latencies());
+            totalErrors += operation.errors();
+        }
+        this.rows.add(Row.of(result.name(), "total", total, totalErrors, seconds));
+    }
+
+    public void print(PrintStream out) {
+        out.printf(Locale.ROOT, "%-14s %-14s %10s %8s %8s %12s %10s %10s %10s %10s%n", "scenario", "operation",
+                "requests", "errors", "err %", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+        for (Row row : this.rows) {
+            out.printf(Locale.ROOT, "%-14s %-14s %10d %8d %8.3f %12.1f %10.3f %10.3f %10.3f %10.3f%n", row.scenario,
+                    row.operation, row.requests, row.errors, row.errorRate * 100, row.throughput, row.p50, row.p99,
+                    row.p999, row.max);
+        }
+    }
+
+    public void write(Path file) throws IOException {
+        List<String> lines = new ArrayList<>(this.rows.size() + 1);
+        lines.add(HEADER);
+        for (Row row : this.rows) {
+            lines.add(String.format(Locale.ROOT, "%s,%s,%d,%d,%.5f,%.1f,%.3f,%.3f,%.3f,%.3f", row.scenario, row.operation,
+                    row.requests, row.errors, row.errorRate, row.throughput, row.p50, row.p99, row.p999, row.max));
+        }
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        Files.write(file, lines);
+    }
+
+    private record Row(String scenario, String operation, long requests, long errors, double errorRate,
+                       double throughput, double p50, double p99, double p999, double max) {
+
+        static Row of(String scenario, String operation, Histogram latencies, long errors, double seconds) {
+            long requests = latencies.getTotalCount();
+            return new Row(scenario, operation, requests, errors, requests == 0 ? 0 : errors / (double) requests,
+                    requests / seconds, millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(99)), millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
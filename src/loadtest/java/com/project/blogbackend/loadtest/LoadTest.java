@@ -0,0 +1,69 @@
+package com.project.blogbackend.loadtest;
+
+import com.project.blogbackend.BlogBackendApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the application on a random port against an in-memory H2 database, seeds it, runs the selected scenarios one
+ * after another over HTTP and reports throughput, latency percentiles and error rates.
+ *
+ * The write rate limit is disabled, since the workers write for a limited set of users far faster than any person
+ * would. Run with {@code mvn -Ploadtest verify}; see {@link LoadTestOptions} for the options.
+ */
+public class LoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = LoadTestOptions.parse(args);
+        // a devtools restart would run main again in a new class loader, with the arguments of the application
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BlogBackendApplication.class)
+                .run("--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+                        "--spring.jpa.show-sql=false",
+                        "--blog.rate-limit.enabled=false",
+                        "--blog.search.index-dir=target/loadtest-search-index",
+                        "--logging.level.root=WARN")) {
+            long seedStart = System.nanoTime();
+            SeededData data = new DataSeeder(context).seed(options);
+            System.out.printf(Locale.ROOT, "Seeded %d users, %d posts, %d comments and %d likes in %.1f s%n",
+                    options.users(), options.posts(), options.comments(), options.likes(),
+                    (System.nanoTime() - seedStart) / 1e9);
+
+            URI base = URI.create("http://localhost:" + ((WebServerApplicationContext) context).getWebServer().getPort());
+            List<Scenario> scenarios = new ArrayList<>(options.scenarios().size());
+            for (String name : options.scenarios()) {
+                scenarios.add(Scenario.named(name.trim(), base, data));
+            }
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(10))
+                    .build();
+            LoadGenerator generator = new LoadGenerator(client, options.workers(), options.rate());
+            LoadReport report = new LoadReport();
+            for (Scenario scenario : scenarios) {
+                System.out.printf(Locale.ROOT, "Running %s with %d workers%s, %d s warmup and %d s measured%n",
+                        scenario.name(), options.workers(),
+                        options.rate() > 0 ? String.format(Locale.ROOT, " at %.0f req/s", options.rate()) : "",
+                        options.warmup(), options.duration());
+                LoadGenerator.ScenarioResult result = generator.run(scenario, TimeUnit.SECONDS.toNanos(options.warmup()),
+                        TimeUnit.SECONDS.toNanos(options.duration()));
+                result.errorCauses().forEach((cause, count) -> System.out.printf("  %s: %d errors%n", cause, count));
+                report.add(result);
+            }
+            System.out.println();
+            report.print(System.out);
+            report.write(options.result());
+            System.out.println("Results written to " + options.result().toAbsolutePath());
+        }
+    }
+}
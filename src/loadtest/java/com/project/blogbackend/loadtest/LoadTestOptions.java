@@ -0,0 +1,71 @@
+package com.project.blogbackend.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command line options of the load test, given as {@code --name value} pairs.
+ *
+ * @param users      The number of users to seed.
+ * @param posts      The number of posts to seed, spread evenly over the users.
+ * @param comments   The number of comments to seed, on random posts.
+ * @param likes      The number of likes to seed, on random posts.
+ * @param hotPosts   The number of most recent posts the like storm and the comment burst concentrate on.
+ * @param workers    The number of concurrent clients.
+ * @param rate       The total request rate in requests per second, or 0 to let every worker send its next request
+ *                   as soon as the previous one is answered.
+ * @param warmup     The warmup time of each scenario in seconds, not measured.
+ * @param duration   The measured time of each scenario in seconds.
+ * @param scenarios  The names of the scenarios to run, in order.
+ * @param seed       The seed of the random seeding data.
+ * @param result     The CSV file the results are written to.
+ */
+public record LoadTestOptions(int users, int posts, int comments, int likes, int hotPosts, int workers, double rate,
+                              int warmup, int duration, List<String> scenarios, long seed, Path result) {
+
+    public static LoadTestOptions parse(String[] args) {
+        if (args.length % 2 != 0) {
+            throw new IllegalArgumentException("Options are given as --name value pairs: " + Arrays.toString(args));
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option name but found " + args[i]);
+            }
+            values.put(args[i].substring(2), args[i + 1]);
+        }
+        LoadTestOptions options = new LoadTestOptions(
+                Integer.parseInt(option(values, "users", "1000")),
+                Integer.parseInt(option(values, "posts", "10000")),
+                Integer.parseInt(option(values, "comments", "20000")),
+                Integer.parseInt(option(values, "likes", "50000")),
+                Integer.parseInt(option(values, "hot-posts", "20")),
+                Integer.parseInt(option(values, "workers", "32")),
+                Double.parseDouble(option(values, "rate", "0")),
+                Integer.parseInt(option(values, "warmup", "10")),
+                Integer.parseInt(option(values, "duration", "30")),
+                List.of(option(values, "scenarios", "browse,like-storm,comment-burst").split(",")),
+                Long.parseLong(option(values, "seed", "42")),
+                Path.of(option(values, "result", "target/loadtest-result.csv")));
+        if (!values.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options " + values.keySet());
+        }
+        if (options.users < 1 || options.posts < 1 || options.comments < 0 || options.likes < 0 || options.hotPosts < 1
+                || options.workers < 1 || options.rate < 0 || options.warmup < 0 || options.duration < 1) {
+            throw new IllegalArgumentException("--users, --posts, --hot-posts, --workers and --duration must be positive, "
+                    + "--comments, --likes, --rate and --warmup must not be negative");
+        }
+        if ((long) options.users * options.posts < options.likes) {
+            throw new IllegalArgumentException("--likes cannot exceed one like per user and post");
+        }
+        return options;
+    }
+
+    private static String option(Map<String, String> values, String name, String defaultValue) {
+        String value = values.remove(name);
+        return value == null ? defaultValue : value;
+    }
+}
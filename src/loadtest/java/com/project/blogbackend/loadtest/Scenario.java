@@ -0,0 +1,93 @@
+package com.project.blogbackend.loadtest;
+
+import com.project.blogbackend.service.util.CursorPaging;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * A weighted mix of requests that every worker draws from while the scenario runs.
+ *
+ * @param name       The name the scenario is selected and reported by.
+ * @param operations The requests of the mix, in report order.
+ */
+public record Scenario(String name, List<Operation> operations) {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * One kind of request of a scenario.
+     *
+     * @param name    The name the operation is reported by.
+     * @param weight  The share of the operation in the mix, relative to the other operations.
+     * @param request Creates the next request, with randomly chosen ids.
+     */
+    public record Operation(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    public static Scenario named(String name, URI base, SeededData data) {
+        return switch (name) {
+            case "browse" -> browse(base, data);
+            case "like-storm" -> likeStorm(base, data);
+            case "comment-burst" -> commentBurst(base, data);
+            default -> throw new IllegalArgumentException("Unknown scenario " + name
+                    + ", expected browse, like-storm or comment-burst");
+        };
+    }
+
+    /**
+     * Readers paging through posts, opening them with their comment threads, and looking at trending posts, search
+     * results and authors.
+     */
+    public static Scenario browse(URI base, SeededData data) {
+        return new Scenario("browse", List.of(
+                new Operation("list-posts", 25, () -> get(base, "/posts?view=summary&limit=20&after=" + CursorPaging.encode(data.randomPost()))),
+                new Operation("get-post", 35, () -> get(base, "/posts/" + data.randomPost())),
+                new Operation("get-threads", 20, () -> get(base, "/comments/threads?postId=" + data.randomPost())),
+                new Operation("trending", 10, () -> get(base, "/posts/trending")),
+                new Operation("search", 5, () -> get(base, "/posts/search?q=" + searchTerm())),
+                new Operation("get-user", 5, () -> get(base, "/users/" + data.randomUser()))));
+    }
+
+    /**
+     * Many users liking and unliking the few most recent posts at once, while readers open them.
+     */
+    public static Scenario likeStorm(URI base, SeededData data) {
+        return new Scenario("like-storm", List.of(
+                new Operation("like", 60, () -> request(base, "/posts/" + data.hotPost() + "/likes/" + data.randomUser())
+                        .PUT(HttpRequest.BodyPublishers.noBody()).build()),
+                new Operation("unlike", 20, () -> request(base, "/posts/" + data.hotPost() + "/likes/" + data.randomUser())
+                        .DELETE().build()),
+                new Operation("get-post", 20, () -> get(base, "/posts/" + data.hotPost()))));
+    }
+
+    /**
+     * Many users commenting on the few most recent posts at once, while readers follow the threads.
+     */
+    public static Scenario commentBurst(URI base, SeededData data) {
+        return new Scenario("comment-burst", List.of(
+                new Operation("comment", 50, () -> request(base, "/comments")
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"text\":\"Load test comment\",\"postId\":"
+                                + data.hotPost() + ",\"userId\":" + data.randomUser() + "}"))
+                        .build()),
+                new Operation("get-threads", 30, () -> get(base, "/comments/threads?postId=" + data.hotPost())),
+                new Operation("list-comments", 20, () -> get(base, "/comments?limit=20&postId=" + data.hotPost()))));
+    }
+
+    private static String searchTerm() {
+        String[] terms = {"lorem", "ipsum", "dolor", "amet", "tempor"};
+        return terms[ThreadLocalRandom.current().nextInt(terms.length)];
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return request(base, path).GET().build();
+    }
+
+    private static HttpRequest.Builder request(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(REQUEST_TIMEOUT);
+    }
+}
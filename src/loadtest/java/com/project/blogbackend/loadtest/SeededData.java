@@ -0,0 +1,26 @@
+package com.project.blogbackend.loadtest;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The identifiers of the seeded rows the scenarios pick their requests from.
+ *
+ * @param userIds  The ids of all users.
+ * @param postIds  The ids of all posts, oldest first.
+ * @param hotPosts The number of most recent posts that draw the like storm and the comment burst.
+ */
+public record SeededData(List<Long> userIds, List<Long> postIds, int hotPosts) {
+
+    public long randomUser() {
+        return this.userIds.get(ThreadLocalRandom.current().nextInt(this.userIds.size()));
+    }
+
+    public long randomPost() {
+        return this.postIds.get(ThreadLocalRandom.current().nextInt(this.postIds.size()));
+    }
+
+    public long hotPost() {
+        return this.postIds.get(this.postIds.size() - 1 - ThreadLocalRandom.current().nextInt(this.hotPosts));
+    }
+}
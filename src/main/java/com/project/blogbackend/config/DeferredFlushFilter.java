@@ -0,0 +1,102 @@
+package com.project.blogbackend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lets Tomcat apply {@code server.compression.min-response-size} to JSON responses.
+ *
+ * Tomcat only knows the size of a response, and so only skips compressing a small one, when the whole body is
+ * still in its response buffer when the request completes. The JSON message converter flushes the stream after
+ * writing the body, which commits the response without a length, so every response would be compressed, even a
+ * body of a few bytes. This filter ignores explicit flushes of the stream and of the response buffer; a body
+ * larger than the response buffer is still streamed as the buffer fills.
+ *
+ * The NDJSON exports under {@value #EXPORT_PATH} are not filtered, since they are streamed and rely on their
+ * flushes to reach the client while the export runs.
+ */
+@Component
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+public class DeferredFlushFilter extends OncePerRequestFilter {
+    private static final String EXPORT_PATH = "/export/";
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + EXPORT_PATH);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        filterChain.doFilter(request, new DeferredFlushResponse(response));
+    }
+
+    private static final class DeferredFlushResponse extends HttpServletResponseWrapper {
+        private ServletOutputStream outputStream;
+
+        private DeferredFlushResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (this.outputStream == null) {
+                this.outputStream = new DeferredFlushOutputStream(super.getOutputStream());
+            }
+            return this.outputStream;
+        }
+
+        @Override
+        public void flushBuffer() {
+            // the container flushes when the request completes
+        }
+    }
+
+    private static final class DeferredFlushOutputStream extends ServletOutputStream {
+        private final ServletOutputStream delegate;
+
+        private DeferredFlushOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.delegate.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.delegate.write(b, off, len);
+        }
+
+        @Override
+        public void flush() {
+            // the container flushes when the request completes
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return this.delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.delegate.setWriteListener(writeListener);
+        }
+    }
+}
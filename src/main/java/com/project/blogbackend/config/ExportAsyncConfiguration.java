@@ -0,0 +1,48 @@
+package com.project.blogbackend.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Runs streamed response bodies, which are only used by the NDJSON exports, on an executor of their own.
+ *
+ * An export can take minutes and holds a database connection for all of that time. Without this, Spring MVC would
+ * run it on the application task executor and a few exports would starve the like buffer flushes and search index
+ * rebuilds queued there. The pool caps how many exports run at once, further ones wait in a short queue, and the
+ * request timeout is raised so that a large table is not cut off halfway.
+ *
+ * The executor is deliberately not exposed as a bean: any {@code Executor} bean would replace the auto-configured
+ * application task executor.
+ */
+@Configuration
+public class ExportAsyncConfiguration implements WebMvcConfigurer, DisposableBean {
+    private final ThreadPoolTaskExecutor exportTaskExecutor;
+    private final long timeoutMs;
+
+    public ExportAsyncConfiguration(@Value("${blog.export.max-concurrent:4}") int maxConcurrent,
+                                    @Value("${blog.export.queue-capacity:16}") int queueCapacity,
+                                    @Value("${blog.export.timeout-ms:3600000}") long timeoutMs) {
+        this.exportTaskExecutor = new ThreadPoolTaskExecutor();
+        this.exportTaskExecutor.setCorePoolSize(maxConcurrent);
+        this.exportTaskExecutor.setMaxPoolSize(maxConcurrent);
+        this.exportTaskExecutor.setQueueCapacity(queueCapacity);
+        this.exportTaskExecutor.setThreadNamePrefix("export-");
+        this.exportTaskExecutor.initialize();
+        this.timeoutMs = timeoutMs;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(this.exportTaskExecutor);
+        configurer.setDefaultTimeout(this.timeoutMs);
+    }
+
+    @Override
+    public void destroy() {
+        this.exportTaskExecutor.shutdown();
+    }
+}
@@ -0,0 +1,66 @@
+package com.project.blogbackend.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.Map;
+
+/**
+ * Aligns the id sequences of posts and comments with the ids already in use.
+ *
+ * Post and Comment draw their ids from pooled sequences so that Hibernate can batch their inserts. MySQL has no
+ * sequences, so Hibernate emulates each one with a single-row table holding the next value; on a database that
+ * was created while the tables still used auto-increment ids that table starts at 1 and would hand out ids that
+ * are already taken. Before the application serves any request, every emulated sequence is moved past the
+ * highest id of its table. Native sequences are left alone.
+ */
+@Component
+public class IdSequenceInitializer {
+    private static final int ALLOCATION_SIZE = 50;
+    private static final Map<String, String> SEQUENCES = Map.of("post_seq", "post", "comment_seq", "comment");
+
+    private final Logger log = LoggerFactory.getLogger(IdSequenceInitializer.class);
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * The EntityManagerFactory is only injected so that Hibernate has created or updated the schema, including the
+     * sequence tables, before the sequences are aligned.
+     */
+    public IdSequenceInitializer(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void alignSequences() {
+        SEQUENCES.forEach((sequence, table) -> {
+            if (!isTable(sequence)) {
+                return;
+            }
+            Long maxId = this.jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+            if (maxId == null) {
+                return;
+            }
+            // the pooled optimizer hands out the block below the value it reads, so skip a whole block past max(id)
+            long nextValue = maxId + ALLOCATION_SIZE + 1;
+            int updated = this.jdbcTemplate.update("update " + sequence + " set next_val = ? where next_val < ?", nextValue, nextValue);
+            if (updated > 0) {
+                log.info("Moved sequence {} past the highest {} id {}", sequence, table, maxId);
+            }
+        });
+    }
+
+    private boolean isTable(String name) {
+        Boolean table = this.jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet tables = connection.getMetaData().getTables(connection.getCatalog(), null, name, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        });
+        return Boolean.TRUE.equals(table);
+    }
+}
@@ -0,0 +1,21 @@
+package com.project.blogbackend.config;
+
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Tuning of the application's Jackson mapper.
+ *
+ * Spring Boot installs every {@link Module} bean into the mapper used by the HTTP message converters. Blackbird
+ * replaces Jackson's reflective getter, setter and constructor calls with generated lambdas, which makes the
+ * property access of large list responses markedly cheaper; properties it cannot optimize keep using reflection.
+ */
+@Configuration
+public class JacksonConfiguration {
+    @Bean
+    public Module blackbirdModule() {
+        return new BlackbirdModule();
+    }
+}
@@ -0,0 +1,107 @@
+package com.project.blogbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write split, enabled with {@code blog.datasource.replica.enabled=true} and one or more replica URLs in
+ * {@code blog.datasource.replica.urls[0]}, {@code blog.datasource.replica.urls[1]} and so on.
+ *
+ * The primary pool is still configured by {@code spring.datasource.*}. Each replica gets its own read-only pool,
+ * sharing the driver of the primary and the replica credentials. Transactions marked read-only run on a replica,
+ * everything else, including non-transactional access such as schema management at startup, on the primary.
+ * Replicas are validated every {@code health-check-interval-ms}; reads fall back to the primary while none is
+ * healthy. With {@code read-your-writes-ms} above zero a client's reads stay on the primary for that long after
+ * it wrote, see {@link ReadYourWritesFilter}.
+ *
+ * Requires {@code spring.jpa.open-in-view=false}. An EntityManager held open for the whole request keeps the
+ * connection of its first transaction, so a write after a read-only transaction would run on the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.datasource.replica.enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+    private final Logger log = LoggerFactory.getLogger(ReadReplicaConfiguration.class);
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        if (!StringUtils.hasText(dataSource.getPoolName())) {
+            dataSource.setPoolName("primary");
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                 DataSourceProperties properties,
+                                                                 ObjectProvider<MeterRegistry> meterRegistry,
+                                                                 Environment environment,
+                                                                 @Value("${blog.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                                                 @Value("${blog.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                                                 @Value("${blog.datasource.replica.maximum-pool-size:10}") int maximumPoolSize,
+                                                                 @Value("${blog.datasource.replica.connection-timeout-ms:1000}") long connectionTimeoutMs,
+                                                                 @Value("${blog.datasource.replica.health-check-timeout-seconds:1}") int healthCheckTimeoutSeconds) {
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("blog.datasource.replica.enabled requires spring.jpa.open-in-view=false");
+        }
+        // bound as an indexed list, a comma separated value would split JDBC URLs that contain commas
+        List<String> urls = Binder.get(environment).bind("blog.datasource.replica.urls", Bindable.listOf(String.class))
+                .orElseThrow(() -> new IllegalStateException("blog.datasource.replica.urls must list at least one replica"));
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : urls) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setMaximumPoolSize(maximumPoolSize);
+            // a dead replica must fail fast, the read is then retried on the primary
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            // connect lazily so that an unreachable replica does not stop the application from starting
+            replica.setInitializationFailTimeout(-1);
+            meterRegistry.ifAvailable(replica::setMetricRegistry);
+            replicas.add(replica);
+        }
+        log.info("Routing read-only transactions to {} replica(s)", replicas.size());
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, healthCheckTimeoutSeconds);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "blog.datasource.replica.read-your-writes-ms")
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(@Value("${blog.datasource.replica.read-your-writes-ms}") long windowMs) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(windowMs));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        registration.setEnabled(windowMs > 0);
+        return registration;
+    }
+}
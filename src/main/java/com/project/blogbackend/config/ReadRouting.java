@@ -0,0 +1,45 @@
+package com.project.blogbackend.config;
+
+/**
+ * Per-thread override of the read/write routing done by {@link ReadWriteRoutingDataSource}.
+ *
+ * Read-only transactions normally go to a replica. While a scope opened by {@link #onPrimary()} is open they go to
+ * the primary instead, for callers that must see their own writes before replication has caught up.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    /**
+     * Sends every transaction of the current thread to the primary, including read-only ones, until the returned
+     * scope is closed. Scopes may be nested.
+     *
+     * @return The scope to close, typically in a try-with-resources statement.
+     */
+    public static Scope onPrimary() {
+        Scope scope = new Scope(PRIMARY.get() != null);
+        PRIMARY.set(Boolean.TRUE);
+        return scope;
+    }
+
+    static boolean isPrimaryForced() {
+        return PRIMARY.get() != null;
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final boolean nested;
+
+        private Scope(boolean nested) {
+            this.nested = nested;
+        }
+
+        @Override
+        public void close() {
+            if (!this.nested) {
+                PRIMARY.remove();
+            }
+        }
+    }
+}
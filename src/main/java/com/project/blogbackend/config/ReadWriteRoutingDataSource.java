@@ -0,0 +1,112 @@
+package com.project.blogbackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out connections to the primary for read-write work and to a replica for read-only transactions.
+ *
+ * The decision is made when a connection is requested, so this data source has to sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the transaction manager asks for a
+ * connection before it publishes the read-only flag of the transaction, the lazy proxy only asks this data source
+ * once the first statement runs. Replicas are used round-robin. A replica that fails a health check or refuses a
+ * connection is taken out of rotation until a later health check succeeds; while no replica is healthy, reads go to
+ * the primary.
+ */
+public class ReadWriteRoutingDataSource extends AbstractDataSource {
+    private final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final int healthCheckTimeoutSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, int healthCheckTimeoutSeconds) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadRouting.isPrimaryForced()) {
+            for (int attempt = 0; attempt < this.replicas.size(); attempt++) {
+                Replica replica = this.replicas.get(Math.floorMod(this.next.getAndIncrement(), this.replicas.size()));
+                if (!replica.healthy) {
+                    continue;
+                }
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    markDown(replica, e);
+                }
+            }
+        }
+        return this.primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Routing data source does not support per-call credentials");
+    }
+
+    /**
+     * Checks every replica with a short validation and updates which of them take reads.
+     */
+    @Scheduled(fixedDelayString = "${blog.datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicas() {
+        for (Replica replica : this.replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (!connection.isValid(this.healthCheckTimeoutSeconds)) {
+                    throw new SQLException("Connection is not valid");
+                }
+                if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Replica {} is healthy again, routing reads to it", replica.dataSource.getPoolName());
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    /**
+     * Counts the replicas that currently take reads.
+     *
+     * @return The number of healthy replicas.
+     */
+    public int getHealthyReplicaCount() {
+        return (int) this.replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    /**
+     * Closes the replica pools; the primary pool is a bean of its own and closed by the container.
+     */
+    public void close() {
+        this.replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} is unavailable, routing its reads to the primary: {}", replica.dataSource.getPoolName(), cause.getMessage());
+        }
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.project.blogbackend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Keeps a client on the primary for a short window after it wrote, so that it reads its own writes even when the
+ * replicas lag behind.
+ *
+ * A request that may write (any method other than GET, HEAD and OPTIONS) runs entirely on the primary and sets a
+ * cookie holding the time of the write. Reads carrying a cookie younger than the window also run on the primary.
+ * The window travels with the client, so it holds whichever application node serves the next request.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    static final String COOKIE = "blog_last_write";
+
+    private final long windowMs;
+
+    public ReadYourWritesFilter(long windowMs) {
+        this.windowMs = windowMs;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.currentTimeMillis();
+        if (isWrite(request)) {
+            ResponseCookie cookie = ResponseCookie.from(COOKIE, Long.toString(now))
+                    .path("/").httpOnly(true).maxAge((this.windowMs + 999) / 1000).build();
+            response.addHeader(HttpHeaders.SET_COOKIE, cookie.toString());
+        } else if (!wroteWithinWindow(request, now)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        try (ReadRouting.Scope ignored = ReadRouting.onPrimary()) {
+            filterChain.doFilter(request, response);
+        }
+    }
+
+    private static boolean isWrite(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method) || "OPTIONS".equals(method));
+    }
+
+    private boolean wroteWithinWindow(HttpServletRequest request, long now) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return false;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return now - Long.parseLong(cookie.getValue()) < this.windowMs;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+}
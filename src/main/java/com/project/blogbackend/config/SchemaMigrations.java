@@ -0,0 +1,179 @@
+package com.project.blogbackend.config;
+
+import com.project.blogbackend.service.util.CommentPaths;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prepares an existing database for Hibernate's schema update.
+ *
+ * The schema is kept up to date by {@code ddl-auto=update}, which adds tables, columns, indexes and constraints but
+ * never touches rows, so a constraint that the existing rows violate would never be created. The migrations here
+ * fix such rows first. They run before the EntityManagerFactory is created, that is, before Hibernate updates the
+ * schema, and each of them checks the schema first and does nothing on a database that is already migrated or that
+ * Hibernate has yet to create.
+ */
+@Component
+public class SchemaMigrations {
+    private static final String LIKE_UNIQUE_KEY = "uk_post_like_user_post";
+    private static final String COMMENT_PATH_INDEX = "ix_comment_path";
+    private static final int CHUNK_SIZE = 1000;
+
+    private final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+    private final JdbcTemplate jdbcTemplate;
+
+    public SchemaMigrations(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void migrate() {
+        deduplicateLikes();
+        storeCommentPaths();
+    }
+
+    /**
+     * Keeps the oldest like of every user and post, corrects the like counters of the posts that had duplicates and
+     * adds the unique (user_id, post_id) key the idempotent like toggle relies on.
+     */
+    private void deduplicateLikes() {
+        if (!isTable("post_like") || hasUniqueKey("post_like", Set.of("user_id", "post_id"))) {
+            return;
+        }
+        List<Long> postIds = this.jdbcTemplate.queryForList(
+                "select distinct post_id from post_like group by user_id, post_id having count(*) > 1", Long.class);
+        int deleted = this.jdbcTemplate.update("delete from post_like where id in (select id from ("
+                + "select l.id from post_like l join post_like k on k.user_id = l.user_id and k.post_id = l.post_id and k.id < l.id"
+                + ") duplicate)");
+        if (hasColumn("post", "like_count")) {
+            for (int from = 0; from < postIds.size(); from += CHUNK_SIZE) {
+                List<Long> chunk = postIds.subList(from, Math.min(from + CHUNK_SIZE, postIds.size()));
+                this.jdbcTemplate.update("update post set like_count = (select count(*) from post_like l where l.post_id = post.id) where id in ("
+                        + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")", chunk.toArray());
+            }
+        }
+        this.jdbcTemplate.execute("alter table post_like add constraint " + LIKE_UNIQUE_KEY + " unique (user_id, post_id)");
+        log.info("Deleted {} duplicate likes of {} posts and added the unique key {}", deleted, postIds.size(), LIKE_UNIQUE_KEY);
+    }
+
+    /**
+     * Gives the comments of a database from before the stored path column their paths: the comments of a database
+     * from before threaded comments are all root comments, whose path is their own id, and the paths of a database
+     * that computed them in a generated column are computed the same way and stored instead. Hibernate adds the
+     * path index back afterwards.
+     */
+    private void storeCommentPaths() {
+        if (!isTable("comment") || hasColumn("comment", "path") && !isGeneratedColumn("comment", "path")) {
+            return;
+        }
+        if (hasColumn("comment", "path")) {
+            if (hasIndex("comment", COMMENT_PATH_INDEX)) {
+                this.jdbcTemplate.execute("alter table comment drop index " + COMMENT_PATH_INDEX);
+            }
+            this.jdbcTemplate.execute("alter table comment drop column path");
+        }
+        this.jdbcTemplate.execute("alter table comment add column path varchar(" + CommentPaths.MAX_LENGTH + ")");
+        String segment = "lpad(id, " + CommentPaths.SEGMENT_LENGTH + ", '0')";
+        String path = hasColumn("comment", "parent_path") ? "concat(coalesce(parent_path, ''), " + segment + ")" : segment;
+        int stored = 0;
+        int updated;
+        do {
+            updated = this.jdbcTemplate.update("update comment set path = " + path + " where path is null limit " + CHUNK_SIZE);
+            stored += updated;
+        } while (updated == CHUNK_SIZE);
+        log.info("Stored the paths of {} comments", stored);
+    }
+
+    private boolean isTable(String name) {
+        return metaData(metaData -> {
+            try (ResultSet tables = metaData.getTables(metaData.getConnection().getCatalog(), null, name, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        });
+    }
+
+    private boolean hasColumn(String table, String column) {
+        return metaData(metaData -> {
+            try (ResultSet columns = metaData.getColumns(metaData.getConnection().getCatalog(), null, table, column)) {
+                return columns.next();
+            }
+        });
+    }
+
+    private boolean isGeneratedColumn(String table, String column) {
+        return metaData(metaData -> {
+            try (ResultSet columns = metaData.getColumns(metaData.getConnection().getCatalog(), null, table, column)) {
+                return columns.next() && "YES".equals(columns.getString("IS_GENERATEDCOLUMN"));
+            }
+        });
+    }
+
+    private boolean hasIndex(String table, String index) {
+        return metaData(metaData -> {
+            try (ResultSet indexes = metaData.getIndexInfo(metaData.getConnection().getCatalog(), null, table, false, false)) {
+                while (indexes.next()) {
+                    if (index.equalsIgnoreCase(indexes.getString("INDEX_NAME"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+    }
+
+    /**
+     * Looks the key up by its columns rather than its name, which some databases give to the constraint but not to
+     * the index behind it.
+     */
+    private boolean hasUniqueKey(String table, Set<String> columns) {
+        return metaData(metaData -> {
+            Map<String, Set<String>> columnsByIndex = new HashMap<>();
+            try (ResultSet indexes = metaData.getIndexInfo(metaData.getConnection().getCatalog(), null, table, true, false)) {
+                while (indexes.next()) {
+                    String column = indexes.getString("COLUMN_NAME");
+                    if (column != null) {
+                        columnsByIndex.computeIfAbsent(indexes.getString("INDEX_NAME"), index -> new HashSet<>())
+                                .add(column.toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            return columnsByIndex.containsValue(columns);
+        });
+    }
+
+    private boolean metaData(MetaDataCheck check) {
+        Boolean result = this.jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> check.test(connection.getMetaData()));
+        return Boolean.TRUE.equals(result);
+    }
+
+    @FunctionalInterface
+    private interface MetaDataCheck {
+        boolean test(DatabaseMetaData metaData) throws SQLException;
+    }
+
+    /**
+     * Makes the EntityManagerFactory, and with it Hibernate's schema update, wait for the migrations.
+     */
+    @Component
+    static class EntityManagerFactoryDependsOnMigrations extends EntityManagerFactoryDependsOnPostProcessor {
+        EntityManagerFactoryDependsOnMigrations() {
+            super(SchemaMigrations.class);
+        }
+    }
+}
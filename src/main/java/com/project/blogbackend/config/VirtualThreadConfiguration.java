@@ -0,0 +1,38 @@
+package com.project.blogbackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Opt-in virtual-thread execution mode, enabled with {@code blog.threads.virtual.enabled=true}.
+ *
+ * Tomcat hands every request to a new virtual thread instead of its bounded worker pool. Controllers and the
+ * transactional service calls they make run on that thread, so a request blocked on JDBC no longer holds one of a
+ * few hundred platform threads; the Hikari pool becomes the only concurrency limit. The application task executor
+ * used for asynchronous work is switched to virtual threads as well.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        log.info("Serving requests on virtual threads");
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -0,0 +1,98 @@
+package com.project.blogbackend.config;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Detects virtual threads that stay pinned to their carrier thread while blocking.
+ *
+ * A virtual thread that blocks inside a {@code synchronized} block or a native frame cannot unmount, so it keeps a
+ * carrier thread busy; in the JDBC and Hibernate path this typically comes from driver or pool code. The monitor
+ * streams the JFR {@code jdk.VirtualThreadPinned} event for pins longer than
+ * {@code blog.threads.virtual.pinned-threshold-ms}, logs each new pinning site once with its stack, and
+ * periodically reports the sites that pinned since the previous report, ordered by how often they pinned.
+ */
+@Component
+@ConditionalOnProperty(name = "blog.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+    private static final int REPORTED_FRAMES = 8;
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private final Duration threshold;
+    private final Map<String, LongAdder> pinnedSites = new ConcurrentHashMap<>();
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(@Value("${blog.threads.virtual.pinned-threshold-ms:20}") long thresholdMillis) {
+        this.threshold = Duration.ofMillis(thresholdMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        this.recordingStream = new RecordingStream();
+        this.recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(this.threshold).withStackTrace();
+        this.recordingStream.onEvent("jdk.VirtualThreadPinned", this::record);
+        this.recordingStream.startAsync();
+        log.info("Reporting virtual threads pinned for more than {} ms", this.threshold.toMillis());
+    }
+
+    @PreDestroy
+    public void stop() {
+        this.recordingStream.close();
+    }
+
+    /**
+     * Returns how often each pinning site was seen since the last report, keyed by the top frames of the pinned stack.
+     *
+     * @return A snapshot of the pin counts per site.
+     */
+    public Map<String, Long> getPinnedSites() {
+        return this.pinnedSites.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sum()));
+    }
+
+    @Scheduled(fixedDelayString = "${blog.threads.virtual.pinned-report-interval-ms:60000}")
+    public void report() {
+        Map<String, Long> sinceLastReport = this.pinnedSites.entrySet().stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().sumThenReset()));
+        sinceLastReport.entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> log.warn("Virtual threads pinned {} times at:\n{}", entry.getValue(), entry.getKey()));
+    }
+
+    private void record(RecordedEvent event) {
+        String site = site(event);
+        LongAdder count = this.pinnedSites.computeIfAbsent(site, key -> {
+            log.warn("Virtual thread pinned for {} ms at:\n{}", event.getDuration().toMillis(), key);
+            return new LongAdder();
+        });
+        count.increment();
+    }
+
+    private String site(RecordedEvent event) {
+        if (event.getStackTrace() == null) {
+            return "<no stack trace>";
+        }
+        List<RecordedFrame> frames = event.getStackTrace().getFrames();
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .limit(REPORTED_FRAMES)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                .collect(Collectors.joining("\n"));
+    }
+}
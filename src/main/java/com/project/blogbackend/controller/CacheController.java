@@ -0,0 +1,37 @@
+package com.project.blogbackend.controller;
+
+import com.project.blogbackend.service.EntityCacheService;
+import com.project.blogbackend.service.dto.EntityCacheStatistics;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/cache")
+@Tag(name = "Cache", description = "actions api documentation.")
+public class CacheController {
+    private final Logger log= LoggerFactory.getLogger(CacheController.class);
+    private final EntityCacheService entityCacheService;
+
+    public CacheController(EntityCacheService entityCacheService) {
+        this.entityCacheService = entityCacheService;
+    }
+
+    /**
+     * Retrieves the hit, miss and eviction statistics of the Post and User entity caches.
+     *
+     * @return ResponseEntity with one EntityCacheStatistics entry per cache region and HTTP status 200 (OK).
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<List<EntityCacheStatistics>> getStatistics(){
+        log.debug("REST request to get entity cache statistics");
+        return new ResponseEntity<>(this.entityCacheService.getStatistics(),HttpStatus.OK);
+    }
+}
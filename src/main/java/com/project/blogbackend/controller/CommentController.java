@@ -1,13 +1,20 @@
 package com.project.blogbackend.controller;
 
 import com.project.blogbackend.entity.Comment;
-import com.project.blogbackend.repository.CommentRepository;
+import com.project.blogbackend.ratelimit.WriteRateLimiter;
 import com.project.blogbackend.service.CommentService;
+import com.project.blogbackend.service.dto.BatchResultDTO;
+import com.project.blogbackend.service.dto.BulkDeleteResultDTO;
 import com.project.blogbackend.service.dto.CommentCreateDTO;
+import com.project.blogbackend.service.dto.CommentThreadDTO;
 import com.project.blogbackend.service.dto.CommentUpdateDTO;
+import com.project.blogbackend.service.util.CursorPaging;
+import com.project.blogbackend.service.util.ETags;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,37 +28,122 @@ import java.util.Optional;
 public class CommentController {
     private final Logger log= LoggerFactory.getLogger(CommentController.class);
     private final CommentService commentService;
-    private final CommentRepository commentRepository;
+    private final WriteRateLimiter writeRateLimiter;
 
-    public CommentController(CommentService commentService, CommentRepository commentRepository) {
+    public CommentController(CommentService commentService, WriteRateLimiter writeRateLimiter) {
         this.commentService = commentService;
-        this.commentRepository = commentRepository;
+        this.writeRateLimiter = writeRateLimiter;
     }
 
     /**
-     * Retrieves a list of comments based on the provided filters.
+     * Retrieves one page of comments based on the provided filters.
      *
-     * This endpoint allows fetching all comments or comments filtered by userId or postId.
+     * This endpoint allows paging through all comments or comments filtered by userId or postId.
+     * When more comments may follow, the cursor of the next page is returned in the
+     * {@value CursorPaging#NEXT_CURSOR_HEADER} response header and is passed back unchanged as {@code after}.
+     * Pages filtered by postId alone carry a weak ETag ({@code W/"..."}) computed from an aggregate over the post's
+     * comments, and are answered with HttpStatus.NOT_MODIFIED without loading the comments while If-None-Match
+     * still matches it. Being weak, the tag only identifies the page, not the bytes of one content encoding.
      *
      * @param postId An optional parameter representing the postId to filter comments by.
      *               If provided, only comments associated with the specified postId will be returned.
      * @param userId An optional parameter representing the userId to filter comments by.
      *               If provided, only comments associated with the specified userId will be returned.
+     * @param after  An optional cursor returned by the previous page. If not provided, the first page is returned.
+     * @param limit  The maximum number of comments to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @param ifNoneMatch The entity tags the client already has, if any.
      * @return ResponseEntity<List<Comment>> A ResponseEntity containing the list of Comment objects
-     *                                        that match the provided filters, or HttpStatus.NOT_FOUND
-     *                                        if no comments are found for the given filters.
+     *                                        that match the provided filters, HttpStatus.NOT_FOUND
+     *                                        if no comments are found for the given filters, or
+     *                                        HttpStatus.BAD_REQUEST if the cursor is invalid.
      *
      * @see Comment
-     * @see CommentService#getAllComments(Optional, Optional)
+     * @see CommentService#getAllComments(Optional, Optional, Optional, int)
      */
     @GetMapping
-    public ResponseEntity<List<Comment>> getAllComments(@RequestParam Optional<Long> postId, @RequestParam Optional<Long> userId){
-        log.debug("REST request to get all Comments or Comments is userId {} or Comments is postId: {}", userId,postId);
-        List<Comment> comments=this.commentService.getAllComments(postId,userId);
-        if (comments == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<List<Comment>> getAllComments(@RequestParam Optional<Long> postId, @RequestParam Optional<Long> userId,
+                                                        @RequestParam Optional<String> after,
+                                                        @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
+        log.debug("REST request to get all Comments or Comments is userId {} or Comments is postId: {} after: {} limit: {}", userId,postId,after,limit);
+        try {
+            HttpHeaders headers=new HttpHeaders();
+            if (postId.isPresent() && userId.isEmpty()) {
+                String eTag=this.commentService.getCommentsETag(postId.get(),after,limit);
+                headers.setETag(eTag);
+                if (ETags.matches(ifNoneMatch,eTag)) {
+                    return new ResponseEntity<>(headers,HttpStatus.NOT_MODIFIED);
+                }
+            }
+            List<Comment> comments=this.commentService.getAllComments(userId,postId,after,limit);
+            if (comments == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            CursorPaging.nextCursor(comments,limit,Comment::getId).ifPresent(cursor -> headers.set(CursorPaging.NEXT_CURSOR_HEADER,cursor));
+            return new ResponseEntity<>(comments,headers,HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Retrieves one page of the comment threads of a Post: its root Comments, each with its first replies.
+     *
+     * When more threads may follow, the cursor of the next page is returned in the
+     * {@value CursorPaging#NEXT_CURSOR_HEADER} response header and is passed back unchanged as {@code after}. The
+     * rest of a thread is paged with {@link #getReplies(Long, Optional, int)}.
+     *
+     * @param postId  The ID of the Post whose threads are read.
+     * @param after   An optional cursor returned by the previous page. If not provided, the first page is returned.
+     * @param limit   The maximum number of threads to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @param replies The maximum number of replies to return with each thread, 3 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @return ResponseEntity<List<CommentThreadDTO>> A ResponseEntity containing the threads, oldest first, each with its
+     *         first replies nested to any depth in depth-first order, with HttpStatus.OK, or HttpStatus.BAD_REQUEST if
+     *         the cursor is invalid.
+     */
+    @GetMapping("/threads")
+    public ResponseEntity<List<CommentThreadDTO>> getThreads(@RequestParam Long postId, @RequestParam Optional<String> after,
+                                                             @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit,
+                                                             @RequestParam(defaultValue = "3") int replies){
+        log.debug("REST request to get Comment threads of postId: {} after: {} limit: {} replies: {}", postId,after,limit,replies);
+        try {
+            List<CommentThreadDTO> threads=this.commentService.getThreads(postId,after,limit,replies);
+            HttpHeaders headers=new HttpHeaders();
+            CursorPaging.nextCursor(threads,limit,thread -> thread.comment().getId()).ifPresent(cursor -> headers.set(CursorPaging.NEXT_CURSOR_HEADER,cursor));
+            return new ResponseEntity<>(threads,headers,HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Retrieves one page of the replies to a Comment, nested to any depth, in depth-first order.
+     *
+     * Each reply carries its parentId, depth and path. When more replies may follow, the cursor of the next page,
+     * the path of the last reply, is returned in the {@value CursorPaging#NEXT_CURSOR_HEADER} response header and
+     * is passed back unchanged as {@code after}.
+     *
+     * @param id    The ID of the Comment whose replies are read.
+     * @param after An optional cursor returned by the previous page. If not provided, the first page is returned.
+     * @param limit The maximum number of replies to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @return ResponseEntity<List<Comment>> A ResponseEntity containing the replies, a NOT_FOUND status if the Comment
+     *         does not exist, or a BAD_REQUEST status if the cursor is invalid.
+     */
+    @GetMapping("/{id}/replies")
+    public ResponseEntity<List<Comment>> getReplies(@PathVariable Long id, @RequestParam Optional<String> after,
+                                                    @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit){
+        log.debug("REST request to get replies of Comment Id: {} after: {} limit: {}", id,after,limit);
+        try {
+            List<Comment> replies=this.commentService.getReplies(id,after,limit);
+            if (replies == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            HttpHeaders headers=new HttpHeaders();
+            CursorPaging.nextKey(replies,limit,Comment::getPath).ifPresent(cursor -> headers.set(CursorPaging.NEXT_CURSOR_HEADER,cursor));
+            return new ResponseEntity<>(replies,headers,HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return new ResponseEntity<>(comments,HttpStatus.OK);
     }
 
     /**
@@ -73,20 +165,55 @@ public class CommentController {
     /**
      * Saves a new Comment using a POST request.
      *
+     * A reply names the Comment it answers as parentId, which must belong to the same Post.
+     *
      * @param commentCreateDTO The Data Transfer Object (DTO) containing the information for creating the Comment.
-     * @return ResponseEntity<Comment> The ResponseEntity containing the saved Comment if successful, or an INTERNAL_SERVER_ERROR status if an error occurs during the process.
+     * @return ResponseEntity<Comment> The ResponseEntity containing the saved Comment if successful, a TOO_MANY_REQUESTS status with a Retry-After header if the User writes faster than its rate limit, a NOT_FOUND status if the User, the Post or the parent Comment does not exist, a BAD_REQUEST status if the reply would be nested too deep, or an INTERNAL_SERVER_ERROR status if an error occurs during the process.
      */
     @PostMapping
     public ResponseEntity<Comment> saveComment(@RequestBody CommentCreateDTO commentCreateDTO){
         log.debug("REST request to save Comment : {}", commentCreateDTO);
+        Optional<ResponseEntity<Comment>> limited=this.writeRateLimiter.rejectIfLimited(commentCreateDTO.getUserId());
+        if (limited.isPresent()) {
+            return limited.get();
+        }
         try {
             Comment comment=this.commentService.saveComment(commentCreateDTO);
+            if (comment == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
             return new ResponseEntity<>(comment,HttpStatus.CREATED);
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         } catch (Exception e) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
 
+    /**
+     * Creates many Comments in one request.
+     *
+     * The Comments are written in chunks, each chunk in its own transaction with batched inserts. Comments for which
+     * the User or the Post does not exist are skipped and counted as rejected.
+     *
+     * @param commentCreateDTOs The data transfer objects of the Comments to create.
+     * @return ResponseEntity<BatchResultDTO> with HTTP status 200 (OK) and the number of Comments received, written and
+     *         rejected, or HTTP status 500 (Internal Server Error) if a chunk fails; the chunks before it stay written.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDTO> saveComments(@RequestBody List<CommentCreateDTO> commentCreateDTOs) {
+        log.debug("REST request to save {} Comments", commentCreateDTOs.size());
+        try {
+            BatchResultDTO result = this.commentService.saveComments(commentCreateDTOs);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (Exception e) {
+            log.debug("Exception: {}", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Updates an existing Comment using a PUT request.
      *
@@ -98,15 +225,39 @@ public class CommentController {
     public ResponseEntity<Comment> updateComment(@RequestBody CommentUpdateDTO commentUpdateDTO, @PathVariable Long id){
         log.debug("REST request to update Comment : {}, {}", id, commentUpdateDTO);
         Comment comment=this.commentService.updateComment(commentUpdateDTO,id);
-        if (!this.commentRepository.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
         if (comment == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
         return new ResponseEntity<>(comment,HttpStatus.OK);
     }
 
+    /**
+     * Deletes all Comments of a Post, of a User, or of a User on a Post, with their replies.
+     *
+     * The Comments are removed with set-based deletes in chunks without being loaded, and the comment counters of
+     * their Posts are adjusted.
+     *
+     * @param postId Optional ID of the Post whose Comments are deleted.
+     * @param userId Optional ID of the User whose Comments are deleted.
+     * @return ResponseEntity<BulkDeleteResultDTO> with HttpStatus.OK and the number of Comments deleted and of Posts
+     *         they belonged to, HttpStatus.BAD_REQUEST if neither a Post nor a User is given, or
+     *         HttpStatus.INTERNAL_SERVER_ERROR if a chunk fails; the chunks before it stay deleted.
+     */
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResultDTO> deleteComments(@RequestParam Optional<Long> postId, @RequestParam Optional<Long> userId){
+        log.debug("REST request to delete Comments of postId: {} userId: {}", postId, userId);
+        if (postId.isEmpty() && userId.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            BulkDeleteResultDTO result=this.commentService.deleteComments(postId.orElse(null),userId.orElse(null));
+            return new ResponseEntity<>(result,HttpStatus.OK);
+        } catch (Exception e) {
+            log.debug("Exception: {}",e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Deletes a Comment by its ID using a DELETE request.
      *
@@ -0,0 +1,71 @@
+package com.project.blogbackend.controller;
+
+import com.project.blogbackend.service.ExportService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/export")
+@Tag(name = "Export", description = "actions api documentation.")
+public class ExportController {
+    private final Logger log= LoggerFactory.getLogger(ExportController.class);
+    private final ExportService exportService;
+
+    public ExportController(ExportService exportService) {
+        this.exportService = exportService;
+    }
+
+    /**
+     * Streams all Posts as newline-delimited JSON, one Post per line in ascending id order.
+     *
+     * @param after An optional cursor, the id of the last Post already received, to resume an interrupted export.
+     * @return ResponseEntity with HTTP status 200 (OK) and a body that is written while it is read from the database.
+     */
+    @GetMapping(value = "/posts", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportPosts(@RequestParam Optional<Long> after){
+        log.debug("REST request to export Posts after: {}", after);
+        return ndjson(out -> this.exportService.exportPosts(after, out));
+    }
+
+    /**
+     * Streams all Comments as newline-delimited JSON, one Comment per line in ascending id order.
+     *
+     * @param after An optional cursor, the id of the last Comment already received, to resume an interrupted export.
+     * @return ResponseEntity with HTTP status 200 (OK) and a body that is written while it is read from the database.
+     */
+    @GetMapping(value = "/comments", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportComments(@RequestParam Optional<Long> after){
+        log.debug("REST request to export Comments after: {}", after);
+        return ndjson(out -> this.exportService.exportComments(after, out));
+    }
+
+    /**
+     * Streams all Likes as newline-delimited JSON, one Like per line in ascending id order.
+     *
+     * @param after An optional cursor, the id of the last Like already received, to resume an interrupted export.
+     * @return ResponseEntity with HTTP status 200 (OK) and a body that is written while it is read from the database.
+     */
+    @GetMapping(value = "/likes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportLikes(@RequestParam Optional<Long> after){
+        log.debug("REST request to export Likes after: {}", after);
+        return ndjson(out -> this.exportService.exportLikes(after, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> ndjson(StreamingResponseBody body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_NDJSON);
+        return new ResponseEntity<>(body, headers, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,94 @@
+package com.project.blogbackend.controller;
+
+import com.project.blogbackend.service.FeedService;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.util.CursorPaging;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/users/{userId}")
+@Tag(name = "Feed", description = "actions api documentation.")
+public class FeedController {
+    private final Logger log= LoggerFactory.getLogger(FeedController.class);
+    private final FeedService feedService;
+
+    public FeedController(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    /**
+     * Retrieves one page of the home feed of a user: their own Posts and the Posts of the users they follow, newest first.
+     *
+     * When more Posts may follow, the cursor of the next page is returned in the
+     * {@value CursorPaging#NEXT_CURSOR_HEADER} response header and is passed back unchanged as {@code before}.
+     *
+     * @param userId The unique identifier of the user whose feed is read.
+     * @param before An optional cursor returned by the previous page. If not provided, the newest Posts are returned.
+     * @param limit  The maximum number of Posts to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @return ResponseEntity<List<PostSummaryDTO>> with HTTP status 200 (OK) and the summaries of the Posts of the page,
+     *         or 400 (Bad Request) if the cursor is invalid.
+     */
+    @GetMapping("/feed")
+    public ResponseEntity<List<PostSummaryDTO>> getFeed(@PathVariable Long userId, @RequestParam Optional<String> before,
+                                                        @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit){
+        log.debug("REST request to get Feed of User : {} before: {} limit: {}", userId, before, limit);
+        try {
+            List<PostSummaryDTO> feed=this.feedService.getFeed(userId,before,limit);
+            HttpHeaders headers=new HttpHeaders();
+            CursorPaging.nextCursor(feed,limit,PostSummaryDTO::id).ifPresent(cursor -> headers.set(CursorPaging.NEXT_CURSOR_HEADER,cursor));
+            return new ResponseEntity<>(feed,headers,HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Idempotently makes a user follow another user.
+     *
+     * @param userId     The unique identifier of the user who follows.
+     * @param followeeId The unique identifier of the user to follow.
+     * @return ResponseEntity with HTTP status 201 (Created) if the follow was created, 200 (OK) if it already existed,
+     *         400 (Bad Request) if a user tries to follow themselves, or 404 (Not Found) if either user does not exist.
+     */
+    @PutMapping("/following/{followeeId}")
+    public ResponseEntity<Void> follow(@PathVariable Long userId, @PathVariable Long followeeId){
+        log.debug("REST request to follow User : {} by User : {}", followeeId, userId);
+        if (userId.equals(followeeId)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            Boolean created=this.feedService.follow(userId,followeeId);
+            if (created == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(created ? HttpStatus.CREATED : HttpStatus.OK);
+        } catch (DataIntegrityViolationException e) {
+            // a concurrent request created the same follow first
+            return new ResponseEntity<>(HttpStatus.OK);
+        }
+    }
+
+    /**
+     * Idempotently makes a user stop following another user.
+     *
+     * @param userId     The unique identifier of the user who follows.
+     * @param followeeId The unique identifier of the followed user.
+     * @return ResponseEntity with HTTP status 200 (OK), whether or not the follow existed.
+     */
+    @DeleteMapping("/following/{followeeId}")
+    public ResponseEntity<Void> unfollow(@PathVariable Long userId, @PathVariable Long followeeId){
+        log.debug("REST request to unfollow User : {} by User : {}", followeeId, userId);
+        this.feedService.unfollow(userId,followeeId);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
@@ -1,11 +1,17 @@
 package com.project.blogbackend.controller;
 
 import com.project.blogbackend.entity.Like;
+import com.project.blogbackend.ratelimit.WriteRateLimiter;
 import com.project.blogbackend.service.LikeService;
+import com.project.blogbackend.service.dto.BatchResultDTO;
+import com.project.blogbackend.service.dto.BulkDeleteResultDTO;
 import com.project.blogbackend.service.dto.LikeCreateDTO;
+import com.project.blogbackend.service.util.CursorPaging;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,28 +25,43 @@ import java.util.Optional;
 public class LikeController {
     private final Logger log= LoggerFactory.getLogger(LikeController.class);
     private final LikeService likeService;
+    private final WriteRateLimiter writeRateLimiter;
 
-    public LikeController(LikeService likeService) {
+    public LikeController(LikeService likeService, WriteRateLimiter writeRateLimiter) {
         this.likeService = likeService;
+        this.writeRateLimiter = writeRateLimiter;
     }
 
     /**
-     * Retrieves all Like entities based on the provided optional parameters.
+     * Retrieves one page of Like entities based on the provided optional parameters.
+     *
+     * When more Likes may follow, the cursor of the next page is returned in the
+     * {@value CursorPaging#NEXT_CURSOR_HEADER} response header and is passed back unchanged as {@code after}.
      *
      * @param userId Optional parameter to filter Likes by user ID.
      * @param postId Optional parameter to filter Likes by post ID.
+     * @param after Optional cursor returned by the previous page. If not provided, the first page is returned.
+     * @param limit The maximum number of Likes to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
      * @return ResponseEntity with a list of Like entities that match the specified criteria.
      *         Returns HTTP status 200 (OK) if Likes are found, or HTTP status 404 (Not Found)
-     *         if no Likes are found for the given parameters.
+     *         if no Likes are found for the given parameters, or HTTP status 400 (Bad Request) if the cursor is invalid.
      */
     @GetMapping
-    public ResponseEntity<List<Like>> getAllLikes(@RequestParam Optional<Long> userId, @RequestParam Optional<Long> postId){
-        log.debug("REST request to get all Like or Like is userId {} or Like is postId: {}", userId,postId);
-        List<Like> likes=this.likeService.getAllLikes(userId,postId);
-        if (likes == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<List<Like>> getAllLikes(@RequestParam Optional<Long> userId, @RequestParam Optional<Long> postId,
+                                                  @RequestParam Optional<String> after,
+                                                  @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit){
+        log.debug("REST request to get all Like or Like is userId {} or Like is postId: {} after: {} limit: {}", userId,postId,after,limit);
+        try {
+            List<Like> likes=this.likeService.getAllLikes(userId,postId,after,limit);
+            if (likes == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            HttpHeaders headers=new HttpHeaders();
+            CursorPaging.nextCursor(likes,limit,Like::getId).ifPresent(cursor -> headers.set(CursorPaging.NEXT_CURSOR_HEADER,cursor));
+            return new ResponseEntity<>(likes,headers,HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return new ResponseEntity<>(likes,HttpStatus.OK);
     }
 
     /**
@@ -63,17 +84,83 @@ public class LikeController {
     /**
      * Saves a new Like based on the provided LikeCreateDTO.
      *
+     * When write-behind is enabled the Like is only accepted into the buffer and HTTP status 202 (Accepted)
+     * is returned without a body; the Like is written by the next flush.
+     *
      * @param likeCreateDTO The data object containing the details of the Like to be saved.
-     * @return ResponseEntity with the saved Like entity if successful, or HTTP status 500 (Internal Server Error)
-     *         if an unexpected error occurs during the saving process.
+     * @return ResponseEntity with the saved Like entity if successful, HTTP status 202 (Accepted) if the Like was
+     *         buffered, HTTP status 429 (Too Many Requests) with a Retry-After header if the User writes faster than its rate limit, HTTP status 404 (Not Found) if the User or the Post does not exist, HTTP status 409 (Conflict) if the User already likes the Post, or HTTP status 500 (Internal Server Error) if an unexpected error occurs during the saving process.
      */
     @PostMapping
     public ResponseEntity<Like> saveLike(@RequestBody LikeCreateDTO likeCreateDTO){
         log.debug("REST request to save Like : {}", likeCreateDTO);
+        Optional<ResponseEntity<Like>> limited=this.writeRateLimiter.rejectIfLimited(likeCreateDTO.getUserId());
+        if (limited.isPresent()) {
+            return limited.get();
+        }
+        if (this.likeService.bufferLike(likeCreateDTO)) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
         try {
             Like like=this.likeService.saveLike(likeCreateDTO);
+            if (like == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
             return new ResponseEntity<>(like,HttpStatus.OK);
+        } catch (DataIntegrityViolationException e) {
+            // the insert hit either the unique key or the foreign key to the User; only an existing Like tells them apart
+            boolean duplicate=this.likeService.likeExists(likeCreateDTO.getUserId(),likeCreateDTO.getPostId());
+            return new ResponseEntity<>(duplicate ? HttpStatus.CONFLICT : HttpStatus.NOT_FOUND);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Creates many Likes in one request.
+     *
+     * The Likes are written in chunks, each chunk in its own transaction with batched inserts. Likes for which
+     * the User or the Post does not exist are skipped and counted as rejected.
+     *
+     * @param likeCreateDTOs The data transfer objects of the Likes to create.
+     * @return ResponseEntity<BatchResultDTO> with HTTP status 200 (OK) and the number of Likes received, written and
+     *         rejected, or HTTP status 500 (Internal Server Error) if a chunk fails; the chunks before it stay written.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDTO> saveLikes(@RequestBody List<LikeCreateDTO> likeCreateDTOs) {
+        log.debug("REST request to save {} Likes", likeCreateDTOs.size());
+        try {
+            BatchResultDTO result = this.likeService.saveLikes(likeCreateDTOs);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (Exception e) {
+            log.debug("Exception: {}", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Deletes all Likes of a Post, of a User, or of a User on a Post.
+     *
+     * The Likes are removed with set-based deletes in chunks without being loaded, and the like counters of their
+     * Posts are adjusted.
+     *
+     * @param postId Optional ID of the Post whose Likes are deleted.
+     * @param userId Optional ID of the User whose Likes are deleted.
+     * @return ResponseEntity with HTTP status 200 (OK) and the number of Likes deleted and of Posts they belonged to,
+     *         HTTP status 400 (Bad Request) if neither a Post nor a User is given, or HTTP status 500
+     *         (Internal Server Error) if a chunk fails; the chunks before it stay deleted.
+     */
+    @DeleteMapping
+    public ResponseEntity<BulkDeleteResultDTO> deleteLikes(@RequestParam Optional<Long> postId, @RequestParam Optional<Long> userId){
+        log.debug("REST request to delete Likes of postId: {} userId: {}", postId, userId);
+        if (postId.isEmpty() && userId.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            BulkDeleteResultDTO result=this.likeService.deleteLikes(postId.orElse(null),userId.orElse(null));
+            return new ResponseEntity<>(result,HttpStatus.OK);
         } catch (Exception e) {
+            log.debug("Exception: {}",e);
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
@@ -1,13 +1,20 @@
 package com.project.blogbackend.controller;
 
 import com.project.blogbackend.entity.Post;
-import com.project.blogbackend.repository.PostRepository;
+import com.project.blogbackend.ratelimit.WriteRateLimiter;
 import com.project.blogbackend.service.PostService;
+import com.project.blogbackend.service.dto.BatchResultDTO;
 import com.project.blogbackend.service.dto.PostCreateDTO;
+import com.project.blogbackend.service.dto.PostSearchPageDTO;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.dto.TrendingPostDTO;
 import com.project.blogbackend.service.dto.PostUpdateDTO;
+import com.project.blogbackend.service.util.CursorPaging;
+import com.project.blogbackend.service.util.ETags;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -21,55 +28,155 @@ import java.util.Optional;
 public class PostController {
     private final Logger log = LoggerFactory.getLogger(PostController.class);
     private final PostService postService;
-    private final PostRepository postRepository;
+    private final WriteRateLimiter writeRateLimiter;
 
-    public PostController(PostService postService, PostRepository postRepository) {
+    public PostController(PostService postService, WriteRateLimiter writeRateLimiter) {
         this.postService = postService;
-        this.postRepository = postRepository;
+        this.writeRateLimiter = writeRateLimiter;
     }
 
     /**
-     * Retrieves all the Posts or Posts associated with a specific userId from the database.
+     * Retrieves one page of Posts or Posts associated with a specific userId from the database.
+     *
+     * Pages are addressed with a keyset cursor. When more Posts may follow, the cursor of the next page is returned
+     * in the {@value CursorPaging#NEXT_CURSOR_HEADER} response header and is passed back unchanged as {@code after}.
+     *
+     * With {@code view=summary} only the id, title and userId of each Post are selected and returned, which is what
+     * list pages need; the full text is then fetched with {@link #getPostById(Long, String)}.
      *
      * @param userId An optional parameter representing the user ID. If provided, the method will retrieve
-     *               Posts associated with the given userId. If not provided, all Posts in the database will be fetched.
-     * @return A ResponseEntity containing a list of Post objects if successful, or HttpStatus.NOT_FOUND if no Posts are found.
+     *               Posts associated with the given userId. If not provided, Posts of all users are paged through.
+     * @param after  An optional cursor returned by the previous page. If not provided, the first page is returned.
+     * @param limit  The maximum number of Posts to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @param view   The listing mode, {@code full} (default) for Post objects or {@code summary} for PostSummaryDTO objects.
+     * @return A ResponseEntity containing a list of Post or PostSummaryDTO objects if successful, HttpStatus.NOT_FOUND if no Posts are found,
+     *         or HttpStatus.BAD_REQUEST if the cursor is invalid.
      */
     @GetMapping
-    public ResponseEntity<List<Post>> getAllPosts(@RequestParam Optional<Long> userId) {
-        log.debug("REST request to get all Posts or Posts is userId: {}", userId);
-        List<Post> posts = this.postService.getAllPosts(userId);
-        if (posts == null) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    public ResponseEntity<List<?>> getAllPosts(@RequestParam Optional<Long> userId, @RequestParam Optional<String> after,
+                                               @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit,
+                                               @RequestParam(defaultValue = "full") String view) {
+        log.debug("REST request to get all Posts or Posts is userId: {} after: {} limit: {} view: {}", userId, after, limit, view);
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            if ("summary".equalsIgnoreCase(view)) {
+                List<PostSummaryDTO> summaries = this.postService.getPostSummaries(userId, after, limit);
+                CursorPaging.nextCursor(summaries, limit, PostSummaryDTO::id).ifPresent(cursor -> headers.set(CursorPaging.NEXT_CURSOR_HEADER, cursor));
+                return new ResponseEntity<>(summaries, headers, HttpStatus.OK);
+            }
+            List<Post> posts = this.postService.getAllPosts(userId, after, limit);
+            if (posts == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            CursorPaging.nextCursor(posts, limit, Post::getId).ifPresent(cursor -> headers.set(CursorPaging.NEXT_CURSOR_HEADER, cursor));
+            return new ResponseEntity<>(posts, headers, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Searches the titles and texts of Posts, best matches first.
+     *
+     * Results come from the embedded full-text index. When more matches may follow, the cursor of the next page is
+     * returned in the {@value CursorPaging#NEXT_CURSOR_HEADER} response header and is passed back unchanged as {@code after}.
+     *
+     * @param q     The query: all terms must match, {@code |} means OR, {@code -} excludes a term, {@code "..."}
+     *              matches a phrase and {@code *} a prefix.
+     * @param after An optional cursor returned by the previous page. If not provided, the best matches are returned.
+     * @param limit The maximum number of Posts to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @return A ResponseEntity containing the summaries of the matching Posts, or HttpStatus.BAD_REQUEST if the cursor is invalid.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<PostSummaryDTO>> searchPosts(@RequestParam String q, @RequestParam Optional<String> after,
+                                                            @RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        log.debug("REST request to search Posts : {} after: {} limit: {}", q, after, limit);
+        try {
+            PostSearchPageDTO page = this.postService.searchPosts(q, after, limit);
+            HttpHeaders headers = new HttpHeaders();
+            if (page.nextCursor() != null) {
+                headers.set(CursorPaging.NEXT_CURSOR_HEADER, page.nextCursor());
+            }
+            return new ResponseEntity<>(page.posts(), headers, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
         }
-        return new ResponseEntity<>(posts, HttpStatus.OK);
+    }
+
+    /**
+     * Retrieves the Posts with the most likes and comments recently, weighing recent activity more.
+     *
+     * The ranking is kept in memory and refreshed periodically, so it may lag the latest likes by a few seconds.
+     *
+     * @param limit The maximum number of Posts to return, 20 by default and at most {@value CursorPaging#MAX_LIMIT}.
+     * @return A ResponseEntity containing the trending Posts, highest score first, with HttpStatus.OK.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingPostDTO>> getTrendingPosts(@RequestParam(defaultValue = CursorPaging.DEFAULT_LIMIT) int limit) {
+        log.debug("REST request to get trending Posts limit: {}", limit);
+        return new ResponseEntity<>(this.postService.getTrendingPosts(limit), HttpStatus.OK);
+    }
+
+    /**
+     * Starts a full rebuild of the search index in the background.
+     *
+     * Searches keep being answered from the current index until the rebuilt one replaces it.
+     *
+     * @return A ResponseEntity with HttpStatus.ACCEPTED if the rebuild was started, or HttpStatus.CONFLICT if one is already running.
+     */
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<Void> rebuildSearchIndex() {
+        log.debug("REST request to rebuild the search index");
+        if (this.postService.rebuildSearchIndex()) {
+            return new ResponseEntity<>(HttpStatus.ACCEPTED);
+        }
+        return new ResponseEntity<>(HttpStatus.CONFLICT);
     }
 
     /**
      * Retrieves a specific Post from the database by its ID.
      *
-     * @param id The ID of the Post to retrieve.
-     * @return A ResponseEntity containing the Post object if found, or HttpStatus.NOT_FOUND if the Post with the given ID does not exist.
+     * The response carries a weak ETag ({@code W/"..."}) built from the Post's version and counters; it is weak so
+     * that the gzip-compressed and the identity encoding of the same Post share it. When the request's
+     * If-None-Match header still matches it, HttpStatus.NOT_MODIFIED is returned without loading the Post.
+     *
+     * @param id          The ID of the Post to retrieve.
+     * @param ifNoneMatch The entity tags the client already has, if any.
+     * @return A ResponseEntity containing the Post object and its ETag if found, HttpStatus.NOT_MODIFIED if the client's copy
+     * is current, or HttpStatus.NOT_FOUND if the Post with the given ID does not exist.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<Post> getPostById(@PathVariable Long id) {
+    public ResponseEntity<Post> getPostById(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("REST request to get Post Id {}",id);
+        String eTag = this.postService.getPostETag(id);
+        if (eTag == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        if (ETags.matches(ifNoneMatch, eTag)) {
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
         Post post = this.postService.getPostById(id);
         if (post == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(post, HttpStatus.OK);
+        return new ResponseEntity<>(post, headers, HttpStatus.OK);
     }
 
     /**
      * Creates and saves a new Post based on the provided PostCreateDTO in the database.
      *
      * @param newPostCreateDTO The data transfer object containing the information to create the new Post.
-     * @return A ResponseEntity containing the newly created Post object if successful, or HttpStatus.INTERNAL_SERVER_ERROR if an error occurs.
+     * @return A ResponseEntity containing the newly created Post object if successful, HttpStatus.TOO_MANY_REQUESTS with a Retry-After header if the User writes faster than its rate limit, or HttpStatus.INTERNAL_SERVER_ERROR if an error occurs.
      */
     @PostMapping
     public ResponseEntity<Post> savePost(@RequestBody PostCreateDTO newPostCreateDTO) {
         log.debug("REST request to save Post : {}", newPostCreateDTO);
+        Optional<ResponseEntity<Post>> limited = this.writeRateLimiter.rejectIfLimited(newPostCreateDTO.getUserId());
+        if (limited.isPresent()) {
+            return limited.get();
+        }
         try {
             Post post = this.postService.savePost(newPostCreateDTO);
             return new ResponseEntity<>(post, HttpStatus.CREATED);
@@ -78,6 +185,28 @@ public class PostController {
         }
     }
 
+    /**
+     * Creates many Posts in one request.
+     *
+     * The Posts are written in chunks, each chunk in its own transaction with batched inserts. Posts for which
+     * the User does not exist are skipped and counted as rejected.
+     *
+     * @param postCreateDTOs The data transfer objects of the Posts to create.
+     * @return ResponseEntity<BatchResultDTO> with HTTP status 200 (OK) and the number of Posts received, written and
+     *         rejected, or HTTP status 500 (Internal Server Error) if a chunk fails; the chunks before it stay written.
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchResultDTO> savePosts(@RequestBody List<PostCreateDTO> postCreateDTOs) {
+        log.debug("REST request to save {} Posts", postCreateDTOs.size());
+        try {
+            BatchResultDTO result = this.postService.savePosts(postCreateDTOs);
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        } catch (Exception e) {
+            log.debug("Exception: {}", e);
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
     /**
      * Updates an existing Post in the database with the provided data in the PostUpdateDTO.
      *
@@ -90,9 +219,6 @@ public class PostController {
     public ResponseEntity<Post> updatePost(@RequestBody PostUpdateDTO postUpdateDTO, @PathVariable Long id) {
         log.debug("REST request to update User : {}, {}", id, postUpdateDTO);
         Post post = this.postService.updatePost(postUpdateDTO, id);
-        if (!this.postRepository.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
         if (post == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -102,15 +228,19 @@ public class PostController {
     /**
      * Deletes a Post from the database with the given ID.
      *
+     * The Post disappears at once; its comments and likes are removed in the background.
+     *
      * @param id The ID of the Post to be deleted.
-     * @return A ResponseEntity with no content (HttpStatus.OK) if the deletion is successful, or HttpStatus.INTERNAL_SERVER_ERROR
-     * if an error occurs during the deletion process.
+     * @return A ResponseEntity with no content (HttpStatus.OK) if the deletion is successful, HttpStatus.NOT_FOUND if the
+     * Post does not exist, or HttpStatus.INTERNAL_SERVER_ERROR if an error occurs during the deletion process.
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePost(@PathVariable Long id) {
         log.debug("REST request to delete Post : {}", id);
         try {
-            this.postService.deletePost(id);
+            if (!this.postService.deletePost(id)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
             return new ResponseEntity<>(HttpStatus.OK);
         } catch (Exception e) {
             log.debug("Exception: {}", e);
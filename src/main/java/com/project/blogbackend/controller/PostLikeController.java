@@ -0,0 +1,70 @@
+package com.project.blogbackend.controller;
+
+import com.project.blogbackend.ratelimit.WriteRateLimiter;
+import com.project.blogbackend.service.LikeService;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/posts/{postId}/likes")
+@Tag(name = "Like", description = "actions api documentation.")
+public class PostLikeController {
+    private final Logger log= LoggerFactory.getLogger(PostLikeController.class);
+    private final LikeService likeService;
+    private final WriteRateLimiter writeRateLimiter;
+
+    public PostLikeController(LikeService likeService, WriteRateLimiter writeRateLimiter) {
+        this.likeService = likeService;
+        this.writeRateLimiter = writeRateLimiter;
+    }
+
+    /**
+     * Idempotently records that a User likes a Post.
+     *
+     * Repeating the request, or sending it concurrently for the same pair, never creates a second Like.
+     *
+     * @param postId The unique identifier of the Post to like.
+     * @param userId The unique identifier of the User who likes the Post.
+     * @return ResponseEntity with HTTP status 201 (Created) if the Like was created, 200 (OK) if the User already
+     *         liked the Post, 429 (Too Many Requests) with a Retry-After header if the User writes faster than its rate limit,
+     *         or 404 (Not Found) if the Post or the User does not exist.
+     */
+    @PutMapping("/{userId}")
+    public ResponseEntity<Void> likePost(@PathVariable Long postId, @PathVariable Long userId){
+        log.debug("REST request to like Post : {} by User : {}", postId, userId);
+        Optional<ResponseEntity<Void>> limited=this.writeRateLimiter.rejectIfLimited(userId);
+        if (limited.isPresent()) {
+            return limited.get();
+        }
+        try {
+            Boolean created=this.likeService.likePost(postId,userId);
+            if (created == null) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
+            return new ResponseEntity<>(created ? HttpStatus.CREATED : HttpStatus.OK);
+        } catch (DataIntegrityViolationException e) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+    }
+
+    /**
+     * Idempotently removes the Like of a User on a Post.
+     *
+     * @param postId The unique identifier of the liked Post.
+     * @param userId The unique identifier of the User whose Like is removed.
+     * @return ResponseEntity with HTTP status 200 (OK), whether or not a Like existed.
+     */
+    @DeleteMapping("/{userId}")
+    public ResponseEntity<Void> unlikePost(@PathVariable Long postId, @PathVariable Long userId){
+        log.debug("REST request to unlike Post : {} by User : {}", postId, userId);
+        this.likeService.unlikePost(postId,userId);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
@@ -1,12 +1,13 @@
 package com.project.blogbackend.controller;
 
 import com.project.blogbackend.entity.User;
-import com.project.blogbackend.repository.UserRepository;
 import com.project.blogbackend.service.UserService;
+import com.project.blogbackend.service.util.ETags;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,12 +19,10 @@ import java.util.List;
 public class UserController {
     private final Logger log= LoggerFactory.getLogger(UserController.class);
     private final UserService userService;
-    private final UserRepository userRepository;
 
     @Autowired
-    public UserController(UserService userService, UserRepository userRepository) {
+    public UserController(UserService userService) {
         this.userService = userService;
-        this.userRepository = userRepository;
     }
 
     /**
@@ -48,20 +47,34 @@ public class UserController {
      * GET endpoint to retrieve a user by their ID.
      *
      * This method handles incoming HTTP GET requests to fetch a user with the specified ID.
+     * The response carries a weak ETag ({@code W/"..."}) built from the user's version, valid for every content
+     * encoding of the response. When the request's If-None-Match header still matches it, the user is not loaded
+     * at all.
      *
      * @param id The unique identifier of the user to retrieve.
-     * @return ResponseEntity<User> A ResponseEntity containing the User object if found,
-     *         HttpStatus.OK (200) status code. If no user is found with the given ID,
+     * @param ifNoneMatch The entity tags the client already has, if any.
+     * @return ResponseEntity<User> A ResponseEntity containing the User object and its ETag if found,
+     *         HttpStatus.OK (200) status code. If the client's copy is current, it returns
+     *         HttpStatus.NOT_MODIFIED (304). If no user is found with the given ID,
      *         it returns HttpStatus.NOT_FOUND (404).
      */
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id){
+    public ResponseEntity<User> getUserById(@PathVariable Long id, @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch){
         log.debug("REST request to get User Id {}",id);
+        String eTag=this.userService.getUserETag(id);
+        if (eTag == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        HttpHeaders headers=new HttpHeaders();
+        headers.setETag(eTag);
+        if (ETags.matches(ifNoneMatch,eTag)) {
+            return new ResponseEntity<>(headers,HttpStatus.NOT_MODIFIED);
+        }
         User user=this.userService.getUserById(id);
         if (user == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(user,HttpStatus.OK);
+        return new ResponseEntity<>(user,headers,HttpStatus.OK);
     }
 
     /**
@@ -100,9 +113,6 @@ public class UserController {
     public ResponseEntity<User> updateUser(@RequestBody User newUser, @PathVariable Long id){
         log.debug("REST request to update User : {}, {}", id, newUser);
         User user=this.userService.updateUser(newUser,id);
-        if (!userRepository.existsById(id)) {
-            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
-        }
         if (user == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -114,16 +124,22 @@ public class UserController {
      *
      * This method handles incoming HTTP DELETE requests to delete a user with the specified ID.
      *
+     * The user and their posts disappear at once; their posts, comments, likes and follows are
+     * removed in the background.
+     *
      * @param id The unique identifier of the user to be deleted.
      * @return ResponseEntity<Void> A ResponseEntity with no content if the deletion is successful,
-     *         HttpStatus.OK (200) status code. If there was an error during the deletion,
+     *         HttpStatus.OK (200) status code. If the user does not exist, it returns
+     *         HttpStatus.NOT_FOUND (404). If there was an error during the deletion,
      *         it returns HttpStatus.INTERNAL_SERVER_ERROR (500).
      */
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id){
         log.debug("REST request to delete User : {}", id);
         try {
-            this.userService.deleteUser(id);
+            if (!this.userService.deleteUser(id)) {
+                return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+            }
             return new ResponseEntity<>(HttpStatus.OK);
         } catch (Exception e) {
             log.debug("Exception: {}",e);
@@ -1,29 +1,55 @@
 package com.project.blogbackend.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.project.blogbackend.service.util.CommentPaths;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Schema(name = "Comment")
 @Entity
-@Table(name = "comment")
+@Table(name = "comment", indexes = {@Index(name = "ix_comment_created_at", columnList = "created_at"),
+        @Index(name = "ix_comment_path", columnList = "path", unique = true),
+        @Index(name = "ix_comment_post_root", columnList = "post_id, parent_id, id")})
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "comment_seq")
+    @SequenceGenerator(name = "comment_seq", sequenceName = "comment_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(name = "text",columnDefinition = "text")
     private String text;
-    @ManyToOne(fetch = FetchType.LAZY,cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id",nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore
     private Post post;
-    @ManyToOne(fetch = FetchType.LAZY,cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id",nullable = false)
     @JsonIgnore
     private User user;
+    @Column(name = "parent_id")
+    private Long parentId;
+    @Column(name = "parent_path",length = CommentPaths.MAX_LENGTH - CommentPaths.SEGMENT_LENGTH)
+    @JsonIgnore
+    private String parentPath;
+    @GeneratedCommentPath
+    @Column(name = "path",updatable = false,length = CommentPaths.MAX_LENGTH)
+    private String path;
+    @Column(name = "depth",nullable = false)
+    private int depth;
+    @Version
+    @Column(name = "version",nullable = false)
+    @JsonIgnore
+    private long version;
+    @CreationTimestamp
+    @Column(name = "created_at",updatable = false)
+    private Instant createdAt;
 
     public Long getId() {
         return id;
@@ -57,17 +83,65 @@ public class Comment {
         this.user = user;
     }
 
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getParentPath() {
+        return parentPath;
+    }
+
+    public void setParentPath(String parentPath) {
+        this.parentPath = parentPath;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Comment comment = (Comment) o;
-        return Objects.equals(id, comment.id) && Objects.equals(text, comment.text) && Objects.equals(post, comment.post) && Objects.equals(user, comment.user);
+        return Objects.equals(id, comment.id) && Objects.equals(text, comment.text) && Objects.equals(post, comment.post) && Objects.equals(user, comment.user) && Objects.equals(parentId, comment.parentId) && Objects.equals(path, comment.path) && depth == comment.depth && version == comment.version && Objects.equals(createdAt, comment.createdAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, text, post, user);
+        return Objects.hash(id, text, post, user, parentId, path, depth, version, createdAt);
     }
 
     @Override
@@ -77,6 +151,11 @@ public class Comment {
                 ", text='" + text + '\'' +
                 ", post=" + post +
                 ", user=" + user +
+                ", parentId=" + parentId +
+                ", path='" + path + '\'' +
+                ", depth=" + depth +
+                ", version=" + version +
+                ", createdAt=" + createdAt +
                 '}';
     }
 }
@@ -0,0 +1,60 @@
+package com.project.blogbackend.entity;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * One Post in the precomputed home feed of one User.
+ *
+ * The primary key is (user_id, post_id), so the newest entries of a feed are a single descending range scan of the
+ * clustered index. The table has no foreign keys; entries are written with plain SQL by the feed fan-out and removed
+ * when their Post is deleted, when the reader unfollows the author, or when the feed grows past its maximum length.
+ */
+@Schema(name = "FeedEntry")
+@Entity
+@Table(name = "feed_entry", indexes = @Index(name = "ix_feed_entry_post", columnList = "post_id"))
+public class FeedEntry {
+    @EmbeddedId
+    private FeedEntryId id;
+    @Column(name = "author_id",nullable = false)
+    private Long authorId;
+
+    public FeedEntryId getId() {
+        return id;
+    }
+
+    public void setId(FeedEntryId id) {
+        this.id = id;
+    }
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FeedEntry feedEntry = (FeedEntry) o;
+        return Objects.equals(id, feedEntry.id) && Objects.equals(authorId, feedEntry.authorId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, authorId);
+    }
+
+    @Override
+    public String toString() {
+        return "FeedEntry{" +
+                "id=" + id +
+                ", authorId=" + authorId +
+                '}';
+    }
+}
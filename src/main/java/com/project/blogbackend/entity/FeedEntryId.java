@@ -0,0 +1,60 @@
+package com.project.blogbackend.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+@Embeddable
+public class FeedEntryId implements Serializable {
+    @Column(name = "user_id")
+    private Long userId;
+    @Column(name = "post_id")
+    private Long postId;
+
+    public FeedEntryId() {
+    }
+
+    public FeedEntryId(Long userId, Long postId) {
+        this.userId = userId;
+        this.postId = postId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FeedEntryId that = (FeedEntryId) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(postId, that.postId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, postId);
+    }
+
+    @Override
+    public String toString() {
+        return "FeedEntryId{" +
+                "userId=" + userId +
+                ", postId=" + postId +
+                '}';
+    }
+}
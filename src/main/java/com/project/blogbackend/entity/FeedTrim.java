@@ -0,0 +1,47 @@
+package com.project.blogbackend.entity;
+
+import jakarta.persistence.*;
+
+import java.util.Objects;
+
+/**
+ * An author whose Posts were added to home feeds since the feeds were last trimmed.
+ *
+ * Rows are upserted with plain SQL when a Post is added to the feeds and deleted by the trim that covers the feeds
+ * of the author, so only the feeds that may have outgrown their maximum length are trimmed, also after a restart.
+ */
+@Entity
+@Table(name = "feed_trim")
+public class FeedTrim {
+    @Id
+    @Column(name = "author_id")
+    private Long authorId;
+
+    public Long getAuthorId() {
+        return authorId;
+    }
+
+    public void setAuthorId(Long authorId) {
+        this.authorId = authorId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FeedTrim feedTrim = (FeedTrim) o;
+        return Objects.equals(authorId, feedTrim.authorId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(authorId);
+    }
+
+    @Override
+    public String toString() {
+        return "FeedTrim{" +
+                "authorId=" + authorId +
+                '}';
+    }
+}
@@ -0,0 +1,77 @@
+package com.project.blogbackend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.persistence.*;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.util.Objects;
+
+@Schema(name = "Follow")
+@Entity
+@Table(name = "user_follow",
+        uniqueConstraints = @UniqueConstraint(name = "uk_user_follow_follower_followee", columnNames = {"follower_id", "followee_id"}),
+        indexes = @Index(name = "ix_user_follow_followee", columnList = "followee_id"))
+public class Follow {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "follower_id",nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private User follower;
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "followee_id",nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @JsonIgnore
+    private User followee;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public User getFollower() {
+        return follower;
+    }
+
+    public void setFollower(User follower) {
+        this.follower = follower;
+    }
+
+    public User getFollowee() {
+        return followee;
+    }
+
+    public void setFollowee(User followee) {
+        this.followee = followee;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        Follow follow = (Follow) o;
+        return Objects.equals(id, follow.id) && Objects.equals(follower, follow.follower) && Objects.equals(followee, follow.followee);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, follower, followee);
+    }
+
+    @Override
+    public String toString() {
+        return "Follow{" +
+                "id=" + id +
+                ", follower=" + follower +
+                ", followee=" + followee +
+                '}';
+    }
+}
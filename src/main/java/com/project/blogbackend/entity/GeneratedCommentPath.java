@@ -0,0 +1,36 @@
+package com.project.blogbackend.entity;
+
+import com.project.blogbackend.service.util.CommentPaths;
+import org.hibernate.annotations.ValueGenerationType;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.EnumSet;
+
+/**
+ * Fills in the materialized path of a comment when it is inserted, from the path of its parent and the id the
+ * comment has drawn from its sequence by then, so the path is written by the same INSERT, see {@link CommentPaths}.
+ */
+@ValueGenerationType(generatedBy = GeneratedCommentPath.Generator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface GeneratedCommentPath {
+    class Generator implements BeforeExecutionGenerator {
+        @Override
+        public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+            Comment comment = (Comment) owner;
+            return CommentPaths.of(comment.getParentPath(), comment.getId());
+        }
+
+        @Override
+        public EnumSet<EventType> getEventTypes() {
+            return EventTypeSets.INSERT_ONLY;
+        }
+    }
+}
@@ -3,25 +3,34 @@ package com.project.blogbackend.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Schema(name = "Like")
 @Entity
-@Table(name = "post_like")
+@Table(name = "post_like", uniqueConstraints = @UniqueConstraint(name = "uk_post_like_user_post", columnNames = {"user_id", "post_id"}),
+        indexes = @Index(name = "ix_post_like_created_at", columnList = "created_at"))
 public class Like {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "id")
     private Long id;
-    @ManyToOne(fetch = FetchType.LAZY,cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id",nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore
     private Post post;
-    @ManyToOne(fetch = FetchType.LAZY,cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id",nullable = false)
     @JsonIgnore
     private User user;
+    @CreationTimestamp
+    @Column(name = "created_at",updatable = false)
+    private Instant createdAt;
 
     public Long getId() {
         return id;
@@ -47,17 +56,25 @@ public class Like {
         this.user = user;
     }
 
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Like like = (Like) o;
-        return Objects.equals(id, like.id) && Objects.equals(post, like.post) && Objects.equals(user, like.user);
+        return Objects.equals(id, like.id) && Objects.equals(post, like.post) && Objects.equals(user, like.user) && Objects.equals(createdAt, like.createdAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, post, user);
+        return Objects.hash(id, post, user, createdAt);
     }
 
     @Override
@@ -66,6 +83,7 @@ public class Like {
                 "id=" + id +
                 ", post=" + post +
                 ", user=" + user +
+                ", createdAt=" + createdAt +
                 '}';
     }
 }
@@ -0,0 +1,84 @@
+package com.project.blogbackend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A receiver of the outbox: a shared subscriber, or a node-local subscriber on one node.
+ *
+ * Every event is appended to the outbox once for each registered consumer. Rows are upserted with plain SQL when the
+ * dispatcher of a node starts and again on every heartbeat, and a consumer that has not been seen for
+ * {@code blog.events.consumer-retention-ms} is deleted together with the events waiting for it. The events of a
+ * shared consumer are delivered by the one dispatcher that holds its lease until the lease expires.
+ */
+@Entity
+@Table(name = "outbox_consumer")
+public class OutboxConsumer {
+    @Id
+    @Column(name = "name",length = 255)
+    private String name;
+    @Column(name = "last_seen_at",nullable = false)
+    private Instant lastSeenAt;
+    @Column(name = "leased_by",length = 255)
+    private String leasedBy;
+    @Column(name = "leased_until")
+    private Instant leasedUntil;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Instant getLastSeenAt() {
+        return lastSeenAt;
+    }
+
+    public void setLastSeenAt(Instant lastSeenAt) {
+        this.lastSeenAt = lastSeenAt;
+    }
+
+    public String getLeasedBy() {
+        return leasedBy;
+    }
+
+    public void setLeasedBy(String leasedBy) {
+        this.leasedBy = leasedBy;
+    }
+
+    public Instant getLeasedUntil() {
+        return leasedUntil;
+    }
+
+    public void setLeasedUntil(Instant leasedUntil) {
+        this.leasedUntil = leasedUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxConsumer that = (OutboxConsumer) o;
+        return Objects.equals(name, that.name) && Objects.equals(lastSeenAt, that.lastSeenAt)
+                && Objects.equals(leasedBy, that.leasedBy) && Objects.equals(leasedUntil, that.leasedUntil);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, lastSeenAt, leasedBy, leasedUntil);
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxConsumer{" +
+                "name='" + name + '\'' +
+                ", lastSeenAt=" + lastSeenAt +
+                ", leasedBy='" + leasedBy + '\'' +
+                ", leasedUntil=" + leasedUntil +
+                '}';
+    }
+}
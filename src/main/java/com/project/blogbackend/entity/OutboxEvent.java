@@ -0,0 +1,95 @@
+package com.project.blogbackend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * A domain event waiting to be delivered to one {@link OutboxConsumer}.
+ *
+ * Rows are appended with plain SQL in the transaction of the change they describe, one for each registered
+ * consumer, and deleted once their consumer has received them, so the table only holds the backlog of each consumer,
+ * including whatever was pending when the application stopped. A consumer that fails leaves only its own rows behind.
+ */
+@Entity
+@Table(name = "outbox_event", indexes = @Index(name = "ix_outbox_event_consumer", columnList = "consumer, id"))
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id")
+    private Long id;
+    @Column(name = "consumer",nullable = false,length = 255)
+    private String consumer;
+    @Column(name = "type",nullable = false,length = 64)
+    private String type;
+    @Column(name = "payload",nullable = false,length = 1000)
+    private String payload;
+    @Column(name = "created_at",nullable = false)
+    private Instant createdAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getConsumer() {
+        return consumer;
+    }
+
+    public void setConsumer(String consumer) {
+        this.consumer = consumer;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        OutboxEvent that = (OutboxEvent) o;
+        return Objects.equals(id, that.id) && Objects.equals(consumer, that.consumer) && Objects.equals(type, that.type) && Objects.equals(payload, that.payload)
+                && Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, consumer, type, payload, createdAt);
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxEvent{" +
+                "id=" + id +
+                ", consumer='" + consumer + '\'' +
+                ", type='" + type + '\'' +
+                ", payload='" + payload + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
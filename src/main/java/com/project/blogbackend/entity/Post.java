@@ -3,24 +3,43 @@ package com.project.blogbackend.entity;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Where;
 
+import java.time.Instant;
 import java.util.Objects;
 @Schema(name = "Post")
 @Entity
-@Table(name = "post")
+@Table(name = "post", indexes = @Index(name = "ix_post_deleted_at", columnList = "deleted_at"))
+@Where(clause = "deleted_at is null")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "post")
 public class Post {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "post_seq")
+    @SequenceGenerator(name = "post_seq", sequenceName = "post_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     @Column(name = "title")
     private String title;
     @Column(name = "text",columnDefinition = "text")
     private String text;
-    @ManyToOne(fetch = FetchType.LAZY,cascade = CascadeType.ALL)
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id",nullable = false)
     @JsonIgnore
     private User user;
+    @Column(name = "like_count",nullable = false,updatable = false)
+    private long likeCount;
+    @Column(name = "comment_count",nullable = false,updatable = false)
+    private long commentCount;
+    @Version
+    @Column(name = "version",nullable = false)
+    @JsonIgnore
+    private long version;
+    @Column(name = "deleted_at",insertable = false,updatable = false)
+    @JsonIgnore
+    private Instant deletedAt;
 
     public Long getId() {
         return id;
@@ -54,17 +73,49 @@ public class Post {
         this.user = user;
     }
 
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Post post = (Post) o;
-        return Objects.equals(id, post.id) && Objects.equals(title, post.title) && Objects.equals(text, post.text) && Objects.equals(user, post.user);
+        return Objects.equals(id, post.id) && Objects.equals(title, post.title) && Objects.equals(text, post.text) && Objects.equals(user, post.user) && likeCount == post.likeCount && commentCount == post.commentCount && version == post.version && Objects.equals(deletedAt, post.deletedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, title, text, user);
+        return Objects.hash(id, title, text, user, likeCount, commentCount, version, deletedAt);
     }
 
     @Override
@@ -74,6 +125,10 @@ public class Post {
                 ", title='" + title + '\'' +
                 ", text='" + text + '\'' +
                 ", user=" + user +
+                ", likeCount=" + likeCount +
+                ", commentCount=" + commentCount +
+                ", version=" + version +
+                ", deletedAt=" + deletedAt +
                 '}';
     }
 }
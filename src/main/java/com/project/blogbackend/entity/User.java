@@ -1,13 +1,21 @@
 package com.project.blogbackend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.Where;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Schema(name = "User")
 @Entity
-@Table(name = "user")
+@Table(name = "user", indexes = @Index(name = "ix_user_deleted_at", columnList = "deleted_at"))
+@Where(clause = "deleted_at is null")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,6 +25,16 @@ public class User {
     private String username;
     @Column(name = "password")
     private String password;
+    @Column(name = "follower_count",nullable = false,updatable = false)
+    @JsonIgnore
+    private long followerCount;
+    @Version
+    @Column(name = "version",nullable = false)
+    @JsonIgnore
+    private long version;
+    @Column(name = "deleted_at",insertable = false,updatable = false)
+    @JsonIgnore
+    private Instant deletedAt;
 
     public Long getId() {
         return id;
@@ -42,17 +60,41 @@ public class User {
         this.password=password;
     }
 
+    public long getFollowerCount() {
+        return followerCount;
+    }
+
+    public void setFollowerCount(long followerCount) {
+        this.followerCount=followerCount;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version=version;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+
+    public void setDeletedAt(Instant deletedAt) {
+        this.deletedAt=deletedAt;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         User user = (User) o;
-        return Objects.equals(id, user.id) && Objects.equals(username, user.username) && Objects.equals(password, user.password);
+        return Objects.equals(id, user.id) && Objects.equals(username, user.username) && Objects.equals(password, user.password) && followerCount == user.followerCount && version == user.version && Objects.equals(deletedAt, user.deletedAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, username, password);
+        return Objects.hash(id, username, password, followerCount, version, deletedAt);
     }
 
     @Override
@@ -61,6 +103,9 @@ public class User {
                 "id=" + id +
                 ", username='" + username + '\'' +
                 ", password='" + password + '\'' +
+                ", followerCount=" + followerCount +
+                ", version=" + version +
+                ", deletedAt=" + deletedAt +
                 '}';
     }
 }
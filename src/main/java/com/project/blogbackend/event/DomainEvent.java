@@ -0,0 +1,26 @@
+package com.project.blogbackend.event;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A change to a post, comment or like that other parts of the application react to.
+ *
+ * Events are written to the outbox in the transaction of the change and delivered to the
+ * {@link DomainEventSubscriber}s after it commits, at least once: a subscriber may see an event again after a crash
+ * or a failed delivery, and must apply it idempotently. Events only carry identifiers; subscribers read whatever
+ * else they need, so an event never holds stale entity state.
+ */
+public sealed interface DomainEvent permits PostCreated, PostUpdated, PostDeleted, CommentAdded, LikeAdded {
+    /**
+     * The event types by the name stored in the outbox.
+     */
+    Map<String, Class<? extends DomainEvent>> TYPES = Arrays.stream(DomainEvent.class.getPermittedSubclasses())
+            .map(type -> type.asSubclass(DomainEvent.class))
+            .collect(Collectors.toUnmodifiableMap(Class::getSimpleName, Function.identity()));
+
+    Instant occurredAt();
+}
@@ -0,0 +1,298 @@
+package com.project.blogbackend.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.blogbackend.config.ReadRouting;
+import com.project.blogbackend.entity.OutboxEvent;
+import com.project.blogbackend.repository.OutboxConsumerRepository;
+import com.project.blogbackend.repository.OutboxEventRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ClassUtils;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers the events of the outbox to the {@link DomainEventSubscriber}s.
+ *
+ * Delivery runs on a single thread of its own and is pulled, not pushed. Every subscriber is an outbox consumer with
+ * its own rows: the publisher writes each event once per registered consumer, and each round reads the oldest
+ * {@code blog.events.batch-size} events of a consumer, hands them to its subscriber and deletes them. A burst of
+ * writes therefore grows the outbox table rather than a queue in memory, and the subscribers work through it at
+ * their own pace in batches, while writers never wait for them. A round starts when a transaction that published
+ * events commits, and every {@code blog.events.poll-interval-ms}, which also picks up the events left over from
+ * before a restart. At most one round runs and at most one more is queued at any time.
+ *
+ * With several nodes on one database, the consumer of a shared subscriber, whose state is in the database, is named
+ * after the subscriber class and its events are delivered by one node at a time: the node that takes the lease on
+ * the consumer keeps it for {@code blog.events.lease-ms} and renews it before every batch, and another node takes
+ * over once the lease has expired, so the clocks of the nodes should agree to well within the lease. A node-local subscriber, such as
+ * the search index or the trending posts, is a consumer of its own on every node, named after the subscriber class
+ * and {@code blog.events.node-id} (the host name by default), so every node receives every event. The node id should
+ * survive restarts where the local state does, like the search index on disk, so that the events published while
+ * the node was down are still waiting for it. The dispatcher registers the consumers of its node on startup and
+ * refreshes them every quarter of {@code blog.events.consumer-retention-ms}; a consumer that has not been refreshed
+ * for that long is taken to be gone, and it is deleted together with its events. A consumer of this node that has
+ * to be registered again, after its events were deleted, tells its subscriber to rebuild its state.
+ *
+ * Rounds run on the primary database, including the reads of the subscribers, so that they see the changes the
+ * events describe even when the replicas lag behind.
+ *
+ * Delivery is at least once: a batch is delivered again when the node that delivered it fails before deleting it,
+ * or when it takes longer than the lease. A batch that fails in a subscriber is delivered to it again one event at a time, so
+ * that only the events that fail on their own are skipped; if all of them fail, the cause is taken to be outside
+ * the events, such as an unavailable database, and the batch stays in the outbox for the next round of that
+ * subscriber, while the other subscribers carry on with their own events.
+ */
+@Component
+public class DomainEventDispatcher implements SmartInitializingSingleton {
+    private final Logger log= LoggerFactory.getLogger(DomainEventDispatcher.class);
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxConsumerRepository outboxConsumerRepository;
+    private final List<Consumer> consumers;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long consumerRetentionMillis;
+    private final String leaseHolder;
+    private final long leaseMillis;
+    private final ThreadPoolTaskExecutor executor;
+    private final AtomicBoolean roundQueued = new AtomicBoolean();
+    private volatile long nextHeartbeat;
+
+    @Autowired
+    public DomainEventDispatcher(OutboxEventRepository outboxEventRepository, OutboxConsumerRepository outboxConsumerRepository,
+                                 List<DomainEventSubscriber> subscribers, ObjectMapper objectMapper,
+                                 TransactionTemplate transactionTemplate,
+                                 @Value("${blog.events.batch-size:500}") int batchSize,
+                                 @Value("${blog.events.node-id:}") String nodeId,
+                                 @Value("${blog.events.consumer-retention-ms:3600000}") long consumerRetentionMillis,
+                                 @Value("${blog.events.lease-ms:60000}") long leaseMillis) {
+        if (consumerRetentionMillis < 4 || leaseMillis < 1) {
+            throw new IllegalArgumentException("blog.events.consumer-retention-ms must be at least 4 and blog.events.lease-ms positive");
+        }
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxConsumerRepository = outboxConsumerRepository;
+        String node = nodeId.isBlank() ? hostName() : nodeId;
+        this.consumers = consumers(subscribers, node);
+        // unique per process, so that two processes on one host never share a lease
+        this.leaseHolder = node + "/" + UUID.randomUUID();
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.consumerRetentionMillis = consumerRetentionMillis;
+        this.leaseMillis = leaseMillis;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(1);
+        this.executor.setMaxPoolSize(1);
+        this.executor.setQueueCapacity(1);
+        this.executor.setThreadNamePrefix("domain-events-");
+        this.executor.setWaitForTasksToCompleteOnShutdown(true);
+        this.executor.setAwaitTerminationSeconds(30);
+        this.executor.initialize();
+    }
+
+    private static List<Consumer> consumers(List<DomainEventSubscriber> subscribers, String nodeId) {
+        List<Consumer> consumers = new ArrayList<>(subscribers.size());
+        Set<String> names = new HashSet<>();
+        for (DomainEventSubscriber subscriber : subscribers) {
+            String name = ClassUtils.getUserClass(subscriber).getSimpleName();
+            if (subscriber.isNodeLocal()) {
+                name = name + "@" + nodeId;
+            }
+            if (!names.add(name)) {
+                throw new IllegalStateException("Two domain event subscribers are named " + name);
+            }
+            consumers.add(new Consumer(name, subscriber));
+        }
+        return List.copyOf(consumers);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("The host name is unknown, set blog.events.node-id", e);
+        }
+    }
+
+    /**
+     * Registers the consumers of this node, so that the events published from now on are written for them too. This
+     * runs once all beans are created, since the subscribers may still be starting up in the background before.
+     */
+    @Override
+    public void afterSingletonsInstantiated() {
+        try (ReadRouting.Scope ignored = ReadRouting.onPrimary()) {
+            heartbeat();
+        }
+        log.info("Registered the outbox consumers {}", this.consumers.stream().map(Consumer::name).toList());
+    }
+
+    /**
+     * Makes sure a delivery round runs soon, without waiting for it.
+     */
+    public void wakeUp() {
+        if (this.roundQueued.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::dispatchPending);
+            } catch (TaskRejectedException e) {
+                // shutting down; the events stay in the outbox for the next start
+                this.roundQueued.set(false);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.events.poll-interval-ms:1000}")
+    public void poll() {
+        wakeUp();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        this.executor.shutdown();
+    }
+
+    private void dispatchPending() {
+        this.roundQueued.set(false);
+        // the subscribers read what the events refer to, which a lagging replica may not have yet
+        try (ReadRouting.Scope ignored = ReadRouting.onPrimary()) {
+            if (System.currentTimeMillis() >= this.nextHeartbeat) {
+                try {
+                    heartbeat();
+                } catch (RuntimeException e) {
+                    log.warn("Refreshing the outbox consumers failed, it is retried on the next poll", e);
+                }
+            }
+            for (Consumer consumer : this.consumers) {
+                try {
+                    dispatchPending(consumer);
+                } catch (RuntimeException e) {
+                    log.warn("Dispatching domain events to {} failed, they are retried on the next poll", consumer.name(), e);
+                }
+            }
+        }
+    }
+
+    private void dispatchPending(Consumer consumer) {
+        List<OutboxEvent> batch;
+        do {
+            if (!consumer.subscriber().isNodeLocal() && !lease(consumer)) {
+                log.debug("The outbox consumer {} is leased by another node", consumer.name());
+                return;
+            }
+            batch = this.transactionTemplate.execute(status -> this.outboxEventRepository
+                    .findByConsumerOrderByIdAsc(consumer.name(), PageRequest.of(0, this.batchSize)));
+            if (batch.isEmpty()) {
+                return;
+            }
+            dispatch(consumer, batch);
+            List<Long> ids = batch.stream().map(OutboxEvent::getId).toList();
+            this.transactionTemplate.executeWithoutResult(status -> this.outboxEventRepository.deleteByIdIn(ids));
+            log.debug("Dispatched {} domain events to {}", batch.size(), consumer.name());
+        } while (batch.size() == this.batchSize);
+    }
+
+    /**
+     * Takes or renews the lease on a shared consumer for the next batch.
+     *
+     * @return true if this node holds the lease, false if another node does.
+     */
+    private boolean lease(Consumer consumer) {
+        Instant now = Instant.now();
+        Integer leased = this.transactionTemplate.execute(status -> this.outboxConsumerRepository
+                .lease(consumer.name(), this.leaseHolder, now, now.plusMillis(this.leaseMillis)));
+        return leased != null && leased > 0;
+    }
+
+    /**
+     * Refreshes the consumers of this node, registering those that are missing, and deletes the consumers of other nodes that are gone, with their events
+     * and any events no consumer is registered for.
+     */
+    private void heartbeat() {
+        long now = System.currentTimeMillis();
+        Instant seenAt = Instant.ofEpochMilli(now);
+        List<Consumer> registered = this.transactionTemplate.execute(status -> this.consumers.stream()
+                .filter(consumer -> this.outboxConsumerRepository.heartbeat(consumer.name(), seenAt)).toList());
+        for (Consumer consumer : registered) {
+            try {
+                consumer.subscriber().onRegistered();
+            } catch (RuntimeException e) {
+                log.warn("The subscriber of the registered outbox consumer {} failed to catch up", consumer.name(), e);
+            }
+        }
+        this.transactionTemplate.executeWithoutResult(status -> {
+            List<String> gone = this.outboxConsumerRepository.findNamesLastSeenBefore(seenAt.minusMillis(this.consumerRetentionMillis));
+            if (!gone.isEmpty()) {
+                this.outboxConsumerRepository.deleteByNameIn(gone);
+                log.info("Removed the outbox consumers {}, which were not seen for {} ms", gone, this.consumerRetentionMillis);
+            }
+            int dropped = this.outboxEventRepository.deleteUnaddressed();
+            if (dropped > 0) {
+                log.info("Dropped {} domain events of removed outbox consumers", dropped);
+            }
+        });
+        this.nextHeartbeat = now + this.consumerRetentionMillis / 4;
+    }
+
+    private void dispatch(Consumer consumer, List<OutboxEvent> batch) {
+        List<DomainEvent> events = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            Class<? extends DomainEvent> type = DomainEvent.TYPES.get(outboxEvent.getType());
+            try {
+                if (type == null) {
+                    throw new IllegalArgumentException("Unknown domain event type " + outboxEvent.getType());
+                }
+                events.add(this.objectMapper.readValue(outboxEvent.getPayload(), type));
+            } catch (JsonProcessingException | IllegalArgumentException e) {
+                log.warn("Skipping unreadable domain event {}", outboxEvent, e);
+            }
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+        DomainEventSubscriber subscriber = consumer.subscriber();
+        try {
+            subscriber.onEvents(events);
+        } catch (RuntimeException e) {
+            log.debug("Batch of {} domain events failed in {}, retrying one by one: {}", events.size(), consumer.name(), e.getMessage());
+            int failed = 0;
+            RuntimeException last = e;
+            for (DomainEvent event : events) {
+                try {
+                    subscriber.onEvents(List.of(event));
+                } catch (RuntimeException eventException) {
+                    failed++;
+                    last = eventException;
+                    log.debug("Domain event {} failed in {}: {}", event, consumer.name(), eventException.getMessage());
+                }
+            }
+            if (failed == events.size()) {
+                throw last;
+            }
+            if (failed > 0) {
+                log.warn("Skipped {} of {} domain events that failed in {}", failed, events.size(), consumer.name());
+            }
+        }
+    }
+
+    private record Consumer(String name, DomainEventSubscriber subscriber) {
+    }
+}
@@ -0,0 +1,90 @@
+package com.project.blogbackend.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.blogbackend.repository.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.UncheckedIOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Publishes domain events through the transactional outbox.
+ *
+ * An event is appended to the outbox table in the transaction of the change it describes, so it is stored if and
+ * only if the change commits, and the dispatcher is woken up once the transaction has committed. The cost for the
+ * writer is one INSERT per event, or one JDBC batch for a bulk write, however many subscribers there are: the
+ * statement writes a row for every registered outbox consumer at once. The subscribers run later on the dispatcher
+ * thread.
+ */
+@Component
+public class DomainEventPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final DomainEventDispatcher domainEventDispatcher;
+    private final ObjectMapper objectMapper;
+
+    public DomainEventPublisher(OutboxEventRepository outboxEventRepository, DomainEventDispatcher domainEventDispatcher,
+                                ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.domainEventDispatcher = domainEventDispatcher;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Appends an event to the outbox in the current transaction.
+     *
+     * @param event The event to publish.
+     * @throws IllegalStateException if no transaction is active.
+     */
+    public void publish(DomainEvent event) {
+        requireTransaction();
+        this.outboxEventRepository.append(event.getClass().getSimpleName(), toJson(event), event.occurredAt());
+        dispatchAfterCommit();
+    }
+
+    /**
+     * Appends events to the outbox in the current transaction with one JDBC batch.
+     *
+     * @param events The events to publish, in order.
+     * @throws IllegalStateException if no transaction is active.
+     */
+    public void publishAll(List<? extends DomainEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        requireTransaction();
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (DomainEvent event : events) {
+            rows.add(new Object[]{event.getClass().getSimpleName(), toJson(event), Timestamp.from(event.occurredAt())});
+        }
+        this.outboxEventRepository.appendAll(rows);
+        dispatchAfterCommit();
+    }
+
+    private String toJson(DomainEvent event) {
+        try {
+            return this.objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Domain events must be published inside the transaction of their change");
+        }
+    }
+
+    private void dispatchAfterCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                domainEventDispatcher.wakeUp();
+            }
+        });
+    }
+}
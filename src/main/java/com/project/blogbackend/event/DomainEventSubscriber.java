@@ -0,0 +1,34 @@
+package com.project.blogbackend.event;
+
+import java.util.List;
+
+/**
+ * Receives the domain events after their transactions commit, on the dispatcher thread.
+ *
+ * Every subscriber bean receives every event, in outbox order and in batches, and ignores the events it is not
+ * interested in. Each subscriber has its own backlog in the outbox, so a subscriber that fails holds back only its
+ * own events, and the others do not receive theirs again. A batch that fails is delivered again one event at a
+ * time, and an event that still fails on its own is logged and skipped for that subscriber.
+ */
+public interface DomainEventSubscriber {
+    void onEvents(List<DomainEvent> events);
+
+    /**
+     * Whether the subscriber keeps its state on the node it runs on, such as an index on local disk or counts in
+     * memory, so that every node must receive every event. The events of a shared subscriber, whose state is in the
+     * database, are received by whichever node gets to them first.
+     */
+    default boolean isNodeLocal() {
+        return false;
+    }
+
+    /**
+     * Called on the dispatcher thread when the consumer of the subscriber has been registered because it was not,
+     * on the first start, or after a node was gone or could not reach the database for longer than
+     * {@code blog.events.consumer-retention-ms}, which dropped the consumer together with its events. A subscriber
+     * whose state the events keep up to date should rebuild it from the database. The events published from now on
+     * are kept for the subscriber.
+     */
+    default void onRegistered() {
+    }
+}
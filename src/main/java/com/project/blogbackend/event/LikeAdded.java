@@ -0,0 +1,10 @@
+package com.project.blogbackend.event;
+
+import java.time.Instant;
+
+/**
+ * A like was added. The bulk like writes cannot always tell new likes from existing ones, in which case the event
+ * may also be published for a like that already existed.
+ */
+public record LikeAdded(Long postId, Long userId, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,6 @@
+package com.project.blogbackend.event;
+
+import java.time.Instant;
+
+public record PostCreated(Long postId, Long userId, Instant occurredAt) implements DomainEvent {
+}
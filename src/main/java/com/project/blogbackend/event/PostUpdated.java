@@ -0,0 +1,6 @@
+package com.project.blogbackend.event;
+
+import java.time.Instant;
+
+public record PostUpdated(Long postId, Instant occurredAt) implements DomainEvent {
+}
@@ -0,0 +1,32 @@
+package com.project.blogbackend.metrics;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * The endpoint the current thread is serving, as a low-cardinality metric tag.
+ *
+ * The value is the matched request mapping pattern, for example {@code /posts/{id}}, the same value Spring uses for
+ * the {@code uri} tag of {@code http.server.requests}, so service, repository and request metrics can be joined on
+ * it. Work that is not part of a request, such as scheduled jobs, is tagged {@value #NONE}.
+ */
+final class EndpointTag {
+    static final String KEY = "uri";
+    static final String NONE = "none";
+
+    private EndpointTag() {
+    }
+
+    static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NONE;
+        }
+        return of(attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    static String of(Object pattern) {
+        return pattern instanceof String value ? value : NONE;
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.blogbackend.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.internal.StatisticsInitiator;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Turns on Hibernate statistics, which feed the {@code hibernate.*} meters and the per-request counts of
+ * {@link RequestStatisticsFilter}, without Hibernate logging a metrics summary for every session.
+ */
+@Configuration
+public class HibernateStatisticsConfiguration {
+    @Bean
+    public HibernatePropertiesCustomizer statisticsHibernatePropertiesCustomizer() {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, "true");
+            properties.put(AvailableSettings.LOG_SESSION_METRICS, "false");
+            properties.put(StatisticsInitiator.STATS_BUILDER, new RequestStatisticsFactory());
+        };
+    }
+}
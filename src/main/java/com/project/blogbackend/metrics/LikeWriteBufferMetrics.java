@@ -0,0 +1,43 @@
+package com.project.blogbackend.metrics;
+
+import com.project.blogbackend.service.LikeWriteBuffer;
+import com.project.blogbackend.service.dto.LikeWriteBufferStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters of the write-behind like buffer as {@code blog.likes.buffer.*} meters.
+ */
+@Component
+public class LikeWriteBufferMetrics implements MeterBinder {
+    private final LikeWriteBuffer likeWriteBuffer;
+
+    public LikeWriteBufferMetrics(LikeWriteBuffer likeWriteBuffer) {
+        this.likeWriteBuffer = likeWriteBuffer;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "blog.likes.buffer.accepted", "Likes accepted into the buffer", LikeWriteBufferStatistics::accepted);
+        counter(registry, "blog.likes.buffer.deduplicated", "Likes already pending in the buffer", LikeWriteBufferStatistics::deduplicated);
+        counter(registry, "blog.likes.buffer.rejected", "Likes rejected because the buffer was full", LikeWriteBufferStatistics::rejected);
+        counter(registry, "blog.likes.buffer.flushes", "Flushes of the buffer", LikeWriteBufferStatistics::flushes);
+        counter(registry, "blog.likes.buffer.flushed.rows", "Likes written by flushes", LikeWriteBufferStatistics::flushedRows);
+        counter(registry, "blog.likes.buffer.failed.rows", "Likes dropped because they violate a constraint", LikeWriteBufferStatistics::failedRows);
+        counter(registry, "blog.likes.buffer.requeued.rows", "Likes put back into the buffer after a failed flush", LikeWriteBufferStatistics::requeuedRows);
+        Gauge.builder("blog.likes.buffer.pending", this.likeWriteBuffer, buffer -> buffer.getStatistics().pending())
+                .description("Likes waiting to be flushed")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<LikeWriteBufferStatistics> value) {
+        FunctionCounter.builder(name, this.likeWriteBuffer, buffer -> value.applyAsDouble(buffer.getStatistics()))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.blogbackend.metrics;
+
+/**
+ * Hibernate work done on behalf of the request the current thread is serving.
+ *
+ * A request opens the tally in {@link RequestStatisticsFilter}; Hibernate adds to it through
+ * {@link RequestStatisticsFactory} from the same thread. The counters are plain fields because a tally is only
+ * ever touched by the thread that opened it. Work done on other threads, such as asynchronous flushes or streamed
+ * exports, is not attributed to any request.
+ */
+final class RequestStatistics {
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    long statements;
+    long entityLoads;
+    long flushes;
+
+    private RequestStatistics() {
+    }
+
+    static RequestStatistics open() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static RequestStatistics current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,47 @@
+package com.project.blogbackend.metrics;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.internal.StatisticsImpl;
+import org.hibernate.stat.spi.StatisticsFactory;
+import org.hibernate.stat.spi.StatisticsImplementor;
+
+/**
+ * Builds Hibernate's regular statistics, which also count JDBC statements, entity loads and flushes against the
+ * request the calling thread is serving.
+ *
+ * The session factory wide totals keep feeding the {@code hibernate.*} meters; the per-request numbers are recorded
+ * by {@link RequestStatisticsFilter}. Hibernate only reports to its statistics when statistics are enabled.
+ */
+public class RequestStatisticsFactory implements StatisticsFactory {
+    @Override
+    public StatisticsImplementor buildStatistics(SessionFactoryImplementor sessionFactory) {
+        return new StatisticsImpl(sessionFactory) {
+            @Override
+            public void prepareStatement() {
+                super.prepareStatement();
+                RequestStatistics statistics = RequestStatistics.current();
+                if (statistics != null) {
+                    statistics.statements++;
+                }
+            }
+
+            @Override
+            public void loadEntity(String entityName) {
+                super.loadEntity(entityName);
+                RequestStatistics statistics = RequestStatistics.current();
+                if (statistics != null) {
+                    statistics.entityLoads++;
+                }
+            }
+
+            @Override
+            public void flush() {
+                super.flush();
+                RequestStatistics statistics = RequestStatistics.current();
+                if (statistics != null) {
+                    statistics.flushes++;
+                }
+            }
+        };
+    }
+}
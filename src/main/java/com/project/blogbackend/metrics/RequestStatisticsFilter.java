@@ -0,0 +1,54 @@
+package com.project.blogbackend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records how many JDBC statements, entity loads and flushes each request caused, tagged by endpoint and HTTP
+ * method, so that endpoints issuing N+1 queries stand out.
+ *
+ * Requests that continue asynchronously are not recorded, their work runs on another thread.
+ */
+@Component
+public class RequestStatisticsFilter extends OncePerRequestFilter {
+    private final MeterRegistry meterRegistry;
+
+    public RequestStatisticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestStatistics statistics = RequestStatistics.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestStatistics.close();
+            if (!isAsyncStarted(request)) {
+                String uri = EndpointTag.of(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+                record("blog.request.statements", "JDBC statements prepared by Hibernate per request", request, uri, statistics.statements);
+                record("blog.request.entity.loads", "Entities loaded from the database per request", request, uri, statistics.entityLoads);
+                record("blog.request.flushes", "Persistence context flushes per request", request, uri, statistics.flushes);
+            }
+        }
+    }
+
+    private void record(String name, String description, HttpServletRequest request, String uri, long amount) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag(EndpointTag.KEY, uri)
+                .tag("method", request.getMethod())
+                .register(this.meterRegistry)
+                .record(amount);
+    }
+}
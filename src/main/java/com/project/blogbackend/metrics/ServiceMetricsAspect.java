@@ -0,0 +1,49 @@
+package com.project.blogbackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Times every public method of the service layer.
+ *
+ * Each call is recorded in the {@value #METRIC} timer, tagged with the service class, the method, the exception
+ * it threw ({@code none} on success) and the endpoint being served. Repository calls are timed by Spring Boot
+ * itself in {@code spring.data.repository.invocations}, tagged the same way by {@link EndpointRepositoryTagsProvider}.
+ *
+ * Calls a service makes to its own methods bypass the proxy and are counted as part of the outer call only.
+ */
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+    static final String METRIC = "blog.service.invocations";
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.project.blogbackend.service.*.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        Timer.Sample sample = Timer.start(this.meterRegistry);
+        String exception = "none";
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(METRIC)
+                    .description("Time spent in service methods")
+                    .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .tag(EndpointTag.KEY, EndpointTag.current())
+                    .register(this.meterRegistry));
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.blogbackend.metrics;
+
+import com.project.blogbackend.service.SoftDeletePurger;
+import com.project.blogbackend.service.dto.SoftDeletePurgeStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the progress of the purge of soft-deleted users and posts as {@code blog.purge.*} meters.
+ */
+@Component
+public class SoftDeletePurgerMetrics implements MeterBinder {
+    private final SoftDeletePurger softDeletePurger;
+
+    public SoftDeletePurgerMetrics(SoftDeletePurger softDeletePurger) {
+        this.softDeletePurger = softDeletePurger;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "blog.purge.users", "Deleted users removed by the purge", SoftDeletePurgeStatistics::purgedUsers);
+        counter(registry, "blog.purge.posts", "Deleted posts removed by the purge", SoftDeletePurgeStatistics::purgedPosts);
+        counter(registry, "blog.purge.rows", "Dependent rows removed by the purge", SoftDeletePurgeStatistics::deletedRows);
+        counter(registry, "blog.purge.chunks", "Chunk transactions run by the purge", SoftDeletePurgeStatistics::chunks);
+        counter(registry, "blog.purge.failures", "Users and posts whose purge failed and is retried", SoftDeletePurgeStatistics::failures);
+        gauge(registry, "blog.purge.pending.users", "Deleted users not removed yet", SoftDeletePurgeStatistics::pendingUsers);
+        gauge(registry, "blog.purge.pending.posts", "Deleted posts not removed yet", SoftDeletePurgeStatistics::pendingPosts);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<SoftDeletePurgeStatistics> value) {
+        FunctionCounter.builder(name, this.softDeletePurger, purger -> value.applyAsDouble(purger.getStatistics()))
+                .description(description)
+                .register(registry);
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, ToDoubleFunction<SoftDeletePurgeStatistics> value) {
+        Gauge.builder(name, this.softDeletePurger, purger -> value.applyAsDouble(purger.getStatistics()))
+                .description(description)
+                .register(registry);
+    }
+}
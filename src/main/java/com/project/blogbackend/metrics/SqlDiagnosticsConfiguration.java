@@ -0,0 +1,54 @@
+package com.project.blogbackend.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Per-request SQL diagnostics, enabled with {@code blog.diagnostics.sql.enabled=true}, which the
+ * {@code diagnostics} profile sets.
+ *
+ * The application data source is wrapped in a datasource-proxy that counts the statements, rows and JDBC time of
+ * each request, and {@link SqlDiagnosticsFilter} reports them. Result sets are proxied as well to count the rows
+ * read, which costs a little on every row, so the diagnostics are off by default.
+ */
+@Configuration
+@ConditionalOnProperty(name = "blog.diagnostics.sql.enabled", havingValue = "true")
+public class SqlDiagnosticsConfiguration {
+    private static final Logger log = LoggerFactory.getLogger(SqlDiagnosticsConfiguration.class);
+
+    @Bean
+    static BeanPostProcessor sqlDiagnosticsDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    log.info("Counting the SQL statements of each request");
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name("diagnostics")
+                            .listener(new SqlStatisticsListener())
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlDiagnosticsFilter> sqlDiagnosticsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlDiagnosticsFilter> registration = new FilterRegistrationBean<>(new SqlDiagnosticsFilter(meterRegistry));
+        // outside the filters that may query the database or start the response
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,138 @@
+package com.project.blogbackend.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reports the SQL statements, rows and JDBC time of each request, registered by {@link SqlDiagnosticsConfiguration}.
+ *
+ * The numbers are returned in the {@value #STATEMENTS_HEADER}, {@value #ROWS_HEADER} and {@value #TIME_HEADER}
+ * response headers and recorded as {@code blog.request.sql.*} meters, tagged by endpoint and HTTP method. Headers
+ * have to be written before the body, so they cover the SQL up to the moment the response body is started; SQL
+ * issued while the body is serialized, such as lazy loading, is only in the meters. Requests that continue
+ * asynchronously are not recorded, their work runs on another thread.
+ */
+public class SqlDiagnosticsFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private final MeterRegistry meterRegistry;
+
+    public SqlDiagnosticsFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlStatistics statistics = SqlStatistics.open();
+        SqlHeadersResponse headersResponse = new SqlHeadersResponse(response, statistics);
+        try {
+            filterChain.doFilter(request, headersResponse);
+        } finally {
+            SqlStatistics.close();
+            headersResponse.writeHeaders();
+            if (!isAsyncStarted(request)) {
+                record(request, statistics);
+            }
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatistics statistics) {
+        String uri = EndpointTag.of(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+        String method = request.getMethod();
+        DistributionSummary.builder("blog.request.sql.statements")
+                .description("SQL statements sent to the database per request")
+                .tag(EndpointTag.KEY, uri)
+                .tag("method", method)
+                .register(this.meterRegistry)
+                .record(statistics.statements);
+        DistributionSummary.builder("blog.request.sql.rows")
+                .description("Rows read and written by the SQL statements of a request")
+                .tag(EndpointTag.KEY, uri)
+                .tag("method", method)
+                .register(this.meterRegistry)
+                .record(statistics.rows);
+        Timer.builder("blog.request.sql.time")
+                .description("Time spent executing the SQL statements of a request")
+                .tag(EndpointTag.KEY, uri)
+                .tag("method", method)
+                .register(this.meterRegistry)
+                .record(statistics.nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Adds the headers just before the response can be committed: when its body is started, when an error or a
+     * redirect is sent, or when the request completes without a body.
+     */
+    private static final class SqlHeadersResponse extends HttpServletResponseWrapper {
+        private final SqlStatistics statistics;
+        private boolean written;
+
+        private SqlHeadersResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        void writeHeaders() {
+            if (this.written || isCommitted()) {
+                return;
+            }
+            this.written = true;
+            setHeader(STATEMENTS_HEADER, Long.toString(this.statistics.statements));
+            setHeader(ROWS_HEADER, Long.toString(this.statistics.rows));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", this.statistics.nanos / 1_000_000.0));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
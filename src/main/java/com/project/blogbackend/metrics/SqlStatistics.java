@@ -0,0 +1,35 @@
+package com.project.blogbackend.metrics;
+
+/**
+ * SQL sent to the database on behalf of the request the current thread is serving, as seen by the JDBC driver.
+ *
+ * Unlike {@link RequestStatistics}, which only sees the statements Hibernate prepares, this tally also covers the
+ * statements sent through {@code JdbcTemplate}. A request opens it in {@link SqlDiagnosticsFilter}; the
+ * {@link SqlStatisticsListener} of the proxied data source adds to it from the same thread, so the counters are plain
+ * fields.
+ */
+final class SqlStatistics {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    long statements;
+    long rows;
+    long nanos;
+    long executionStart;
+
+    private SqlStatistics() {
+    }
+
+    static SqlStatistics open() {
+        SqlStatistics statistics = new SqlStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void close() {
+        CURRENT.remove();
+    }
+
+    static SqlStatistics current() {
+        return CURRENT.get();
+    }
+}
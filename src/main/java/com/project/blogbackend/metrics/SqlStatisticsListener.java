@@ -0,0 +1,54 @@
+package com.project.blogbackend.metrics;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Adds every statement execution on the proxied data source to the {@link SqlStatistics} of the current request.
+ *
+ * A JDBC batch is one statement, its rows are the sum of the update counts. Rows read are counted as the result sets
+ * are advanced, so the result sets must be proxied as well.
+ */
+class SqlStatisticsListener extends JdbcLifecycleEventListenerAdapter {
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null) {
+            statistics.executionStart = System.nanoTime();
+        }
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics == null) {
+            return;
+        }
+        statistics.nanos += System.nanoTime() - statistics.executionStart;
+        statistics.statements++;
+        Object result = execInfo.getResult();
+        if (result instanceof Integer updateCount) {
+            statistics.rows += Math.max(updateCount, 0);
+        } else if (result instanceof Long updateCount) {
+            statistics.rows += Math.max(updateCount, 0);
+        } else if (result instanceof int[] updateCounts) {
+            for (int updateCount : updateCounts) {
+                // a driver that does not report the count of a batched statement returns SUCCESS_NO_INFO
+                statistics.rows += updateCount == Statement.SUCCESS_NO_INFO ? 1 : Math.max(updateCount, 0);
+            }
+        }
+    }
+
+    @Override
+    public void afterNext(MethodExecutionContext executionContext) {
+        SqlStatistics statistics = SqlStatistics.current();
+        if (statistics != null && Boolean.TRUE.equals(executionContext.getResult())) {
+            statistics.rows++;
+        }
+    }
+}
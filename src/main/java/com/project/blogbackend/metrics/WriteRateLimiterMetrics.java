@@ -0,0 +1,41 @@
+package com.project.blogbackend.metrics;
+
+import com.project.blogbackend.ratelimit.WriteRateLimiter;
+import com.project.blogbackend.ratelimit.WriteRateLimiterStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publishes the counters of the per-user write rate limiter as {@code blog.rate.limit.*} meters.
+ *
+ * Rejections per endpoint are already visible as status 429 of {@code http.server.requests}.
+ */
+@Component
+public class WriteRateLimiterMetrics implements MeterBinder {
+    private final WriteRateLimiter writeRateLimiter;
+
+    public WriteRateLimiterMetrics(WriteRateLimiter writeRateLimiter) {
+        this.writeRateLimiter = writeRateLimiter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "blog.rate.limit.admitted", "Writes admitted by the rate limiter", WriteRateLimiterStatistics::admitted);
+        counter(registry, "blog.rate.limit.rejected", "Writes rejected by the rate limiter", WriteRateLimiterStatistics::rejected);
+        counter(registry, "blog.rate.limit.evicted", "Idle rate limit buckets evicted", WriteRateLimiterStatistics::evicted);
+        Gauge.builder("blog.rate.limit.buckets", this.writeRateLimiter, limiter -> limiter.getStatistics().buckets())
+                .description("Users with a rate limit bucket that has not refilled yet")
+                .register(registry);
+    }
+
+    private void counter(MeterRegistry registry, String name, String description, ToDoubleFunction<WriteRateLimiterStatistics> value) {
+        FunctionCounter.builder(name, this.writeRateLimiter, limiter -> value.applyAsDouble(limiter.getStatistics()))
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,154 @@
+package com.project.blogbackend.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-user token bucket in front of the create endpoints, so that one client cannot hold the JDBC pool for everyone.
+ *
+ * Each user may write {@code blog.rate-limit.writes-per-second} times per second on average, with bursts of up to
+ * {@code blog.rate-limit.burst} writes. The bucket is kept in the GCRA form: a single {@code long} per user holding
+ * the theoretical arrival time of the next write, advanced with one compare-and-set, so admitting a write takes no
+ * lock and allocates nothing once the user has a bucket. The buckets live in a {@link ConcurrentHashMap}, whose
+ * lookups do not lock either.
+ *
+ * The limiter is off unless {@code blog.rate-limit.enabled} is set.
+ *
+ * A bucket that has refilled completely is indistinguishable from a missing one and is evicted by
+ * {@link #evictIdleBuckets()}, so the map only holds users that wrote recently.
+ */
+@Component
+public class WriteRateLimiter {
+    private static final long EVICTED = Long.MIN_VALUE;
+
+    private final Logger log = LoggerFactory.getLogger(WriteRateLimiter.class);
+    private final boolean enabled;
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+
+    private final ConcurrentHashMap<Long, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+
+    @Autowired
+    public WriteRateLimiter(@Value("${blog.rate-limit.enabled:false}") boolean enabled,
+                            @Value("${blog.rate-limit.writes-per-second:5}") double writesPerSecond,
+                            @Value("${blog.rate-limit.burst:20}") int burst) {
+        if (writesPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("blog.rate-limit.writes-per-second must be positive and blog.rate-limit.burst at least 1");
+        }
+        this.enabled = enabled;
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / writesPerSecond));
+        this.burstToleranceNanos = this.emissionIntervalNanos * (burst - 1);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Takes one write from the bucket of a user.
+     *
+     * @param userId The unique identifier of the user who writes. Writes without a user are not limited; they are
+     *               rejected further down.
+     * @return 0 if the write is admitted, otherwise the number of nanoseconds after which the next write of the user
+     *         will be admitted.
+     */
+    public long tryAcquire(Long userId) {
+        if (!this.enabled || userId == null) {
+            return 0;
+        }
+        long now = System.nanoTime();
+        while (true) {
+            AtomicLong bucket = this.buckets.get(userId);
+            if (bucket == null) {
+                bucket = this.buckets.computeIfAbsent(userId, id -> new AtomicLong(now));
+            }
+            long arrival = bucket.get();
+            if (arrival == EVICTED) {
+                // lost the race with the eviction sweep; retry on the replacement bucket
+                this.buckets.remove(userId, bucket);
+                continue;
+            }
+            long start = Math.max(arrival, now);
+            long wait = start - now - this.burstToleranceNanos;
+            if (wait > 0) {
+                this.rejected.increment();
+                return wait;
+            }
+            if (bucket.compareAndSet(arrival, start + this.emissionIntervalNanos)) {
+                this.admitted.increment();
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Takes one write from the bucket of a user and turns a rejection into the response of the endpoint.
+     *
+     * @param userId The unique identifier of the user who writes.
+     * @return Empty if the write is admitted, otherwise a 429 (Too Many Requests) response with a {@code Retry-After}
+     *         header.
+     * @see #tryAcquire(Long)
+     */
+    public <T> Optional<ResponseEntity<T>> rejectIfLimited(Long userId) {
+        long wait = tryAcquire(userId);
+        if (wait <= 0) {
+            return Optional.empty();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, retryAfterSeconds(wait));
+        return Optional.of(new ResponseEntity<>(headers, HttpStatus.TOO_MANY_REQUESTS));
+    }
+
+    /**
+     * Removes the buckets that have refilled completely.
+     *
+     * A bucket is first marked as evicted with a compare-and-set and only then removed, so a write racing with the
+     * sweep either lands before the mark, and the bucket stays, or sees the mark and starts a new bucket.
+     */
+    @Scheduled(fixedDelayString = "${blog.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        int count = 0;
+        for (Map.Entry<Long, AtomicLong> entry : this.buckets.entrySet()) {
+            AtomicLong bucket = entry.getValue();
+            long arrival = bucket.get();
+            if (arrival != EVICTED && arrival - now <= 0 && bucket.compareAndSet(arrival, EVICTED)) {
+                this.buckets.remove(entry.getKey(), bucket);
+                count++;
+            }
+        }
+        this.evicted.add(count);
+        log.debug("Evicted {} idle rate limit buckets, {} left", count, this.buckets.size());
+    }
+
+    public WriteRateLimiterStatistics getStatistics() {
+        return new WriteRateLimiterStatistics(this.admitted.sum(), this.rejected.sum(), this.buckets.size(), this.evicted.sum());
+    }
+
+    /**
+     * The value of a {@code Retry-After} header for a wait returned by {@link #tryAcquire(Long)}.
+     *
+     * @param waitNanos The wait in nanoseconds.
+     * @return The wait in whole seconds, rounded up, and at least 1.
+     */
+    private static String retryAfterSeconds(long waitNanos) {
+        return Long.toString(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+    }
+}
@@ -0,0 +1,4 @@
+package com.project.blogbackend.ratelimit;
+
+public record WriteRateLimiterStatistics(long admitted, long rejected, int buckets, long evicted) {
+}
@@ -0,0 +1,42 @@
+package com.project.blogbackend.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code post_id} and {@code user_id} condition of a bulk delete, restricted to one id range.
+ */
+record BulkDeleteFilter(Long postId, Long userId) {
+    BulkDeleteFilter {
+        if (postId == null && userId == null) {
+            throw new IllegalArgumentException("A bulk delete needs a post or a user");
+        }
+    }
+
+    /**
+     * @return The condition, with placeholders for the filter and then for the exclusive lower and the inclusive
+     *         upper bound of the id range; without an upper bound the range is open.
+     */
+    String where(boolean bounded) {
+        StringBuilder where = new StringBuilder();
+        if (this.postId != null) {
+            where.append("post_id = ? and ");
+        }
+        if (this.userId != null) {
+            where.append("user_id = ? and ");
+        }
+        return where.append(bounded ? "id > ? and id <= ?" : "id > ?").toString();
+    }
+
+    Object[] arguments(Object... bounds) {
+        List<Object> arguments = new ArrayList<>(4);
+        if (this.postId != null) {
+            arguments.add(this.postId);
+        }
+        if (this.userId != null) {
+            arguments.add(this.userId);
+        }
+        arguments.addAll(List.of(bounds));
+        return arguments.toArray();
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.blogbackend.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Evicts entities from the Hibernate second-level cache for the JDBC fragments that update their rows behind
+ * Hibernate's back.
+ *
+ * Statements Hibernate cannot see through, upserts, deletes with a limit and the like, are run by repository
+ * fragments on a JdbcTemplate rather than as native {@code @Modifying} queries: Hibernate does not know which tables
+ * a native query writes, so after each one it evicts every region of the second-level cache. A fragment that
+ * changes rows of a cached entity evicts just those rows through this class.
+ *
+ * The eviction runs after the surrounding transaction commits, so a concurrent read cannot put the old row back
+ * into the cache between the eviction and the commit. Without a transaction it runs at once.
+ */
+@Component
+public class CacheEvictions {
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CacheEvictions(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void evictAfterCommit(Class<?> entityClass, Long id) {
+        evictAfterCommit(entityClass, List.of(id));
+    }
+
+    public void evictAfterCommit(Class<?> entityClass, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> evicted = List.copyOf(ids);
+        Runnable evict = () -> evicted.forEach(id -> this.entityManagerFactory.getCache().evict(entityClass, id));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+}
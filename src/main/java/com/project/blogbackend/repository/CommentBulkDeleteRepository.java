@@ -0,0 +1,18 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.service.dto.BulkDeleteChunkDTO;
+
+/**
+ * Set-based deletes of the comments of a post or of a user, one id range at a time.
+ *
+ * A range is bounded by {@link #findChunkEnd}, so each chunk holds at most {@code chunkSize} matching comments
+ * however sparse their ids are. Replies follow the comments they answer, as with the delete of a single comment.
+ * The purger removes the comments of a soft-deleted post {@code limit} rows at a time instead, without a range.
+ */
+public interface CommentBulkDeleteRepository {
+    Long findChunkEnd(Long postId, Long userId, long after, int chunkSize);
+
+    BulkDeleteChunkDTO deleteChunk(Long postId, Long userId, long after, Long end);
+
+    int deleteChunkByPostId(Long postId, int limit);
+}
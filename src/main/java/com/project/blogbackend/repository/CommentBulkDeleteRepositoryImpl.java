@@ -0,0 +1,72 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.service.dto.BulkDeleteChunkDTO;
+import com.project.blogbackend.service.dto.CommentPathDTO;
+import com.project.blogbackend.service.util.CommentPaths;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CommentBulkDeleteRepositoryImpl implements CommentBulkDeleteRepository {
+    private static final String FIND_CHUNK_END = "select id from comment where %s order by id limit 1 offset ?";
+    private static final String DELETE = "delete from comment where %s";
+    private static final String FIND_PATHS = "select id, post_id, path, depth from comment where %s order by path";
+    private static final String DELETE_SUBTREE = "delete from comment where path like ?";
+    private static final String DELETE_CHUNK_OF_POST = "delete from comment where post_id = ? limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CommentBulkDeleteRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Long findChunkEnd(Long postId, Long userId, long after, int chunkSize) {
+        BulkDeleteFilter filter = new BulkDeleteFilter(postId, userId);
+        List<Long> end = this.jdbcTemplate.queryForList(FIND_CHUNK_END.formatted(filter.where(false)), Long.class,
+                filter.arguments(after, chunkSize - 1));
+        return end.isEmpty() ? null : end.get(0);
+    }
+
+    /**
+     * Deletes the comments of the range with one statement when they all belong to one post. Comments of a user
+     * are spread over many threads, so their subtrees are deleted with one JDBC batch of path range deletes,
+     * shallowest first, so that a comment inside an earlier subtree is already gone and counted once.
+     */
+    @Override
+    public BulkDeleteChunkDTO deleteChunk(Long postId, Long userId, long after, Long end) {
+        BulkDeleteFilter filter = new BulkDeleteFilter(postId, userId);
+        Object[] arguments = end == null ? filter.arguments(after) : filter.arguments(after, end);
+        if (userId == null) {
+            int deleted = this.jdbcTemplate.update(DELETE.formatted(filter.where(end != null)), arguments);
+            return new BulkDeleteChunkDTO(deleted, deleted == 0 ? Map.of() : Map.of(postId, (long) deleted), true);
+        }
+        List<CommentPathDTO> comments = this.jdbcTemplate.query(FIND_PATHS.formatted(filter.where(end != null)),
+                (rs, rowNum) -> new CommentPathDTO(rs.getLong("id"), rs.getLong("post_id"), rs.getString("path"), rs.getInt("depth")),
+                arguments);
+        if (comments.isEmpty()) {
+            return new BulkDeleteChunkDTO(0, Map.of(), true);
+        }
+        List<Object[]> subtrees = new ArrayList<>(comments.size());
+        comments.forEach(comment -> subtrees.add(new Object[]{CommentPaths.subtree(comment.path())}));
+        int[] counts = this.jdbcTemplate.batchUpdate(DELETE_SUBTREE, subtrees);
+        int deleted = 0;
+        boolean exact = true;
+        Map<Long, Long> deletedPerPost = new HashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            // the driver may not report the count of a statement of the batch
+            exact &= counts[i] >= 0;
+            deleted += Math.max(counts[i], 0);
+            deletedPerPost.merge(comments.get(i).postId(), (long) Math.max(counts[i], 0), Long::sum);
+        }
+        return new BulkDeleteChunkDTO(deleted, deletedPerPost, exact);
+    }
+
+    @Override
+    public int deleteChunkByPostId(Long postId, int limit) {
+        return this.jdbcTemplate.update(DELETE_CHUNK_OF_POST, postId, limit);
+    }
+}
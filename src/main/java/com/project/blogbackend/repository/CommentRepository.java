@@ -1,16 +1,86 @@
 package com.project.blogbackend.repository;
 
 import com.project.blogbackend.entity.Comment;
+import com.project.blogbackend.service.dto.CommentExportDTO;
+import com.project.blogbackend.service.dto.CommentPathDTO;
+import com.project.blogbackend.service.dto.CommentsVersionDTO;
+import com.project.blogbackend.service.dto.PostActivityDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface CommentRepository extends JpaRepository<Comment,Long> {
-    List<Comment> findByUserIdAndPostId(Long postId, Long userId);
+public interface CommentRepository extends JpaRepository<Comment,Long>, CommentThreadRepository, CommentBulkDeleteRepository {
+    /**
+     * The comments that are shown: those on posts and of users that are not soft-deleted. The rows of the others
+     * stay until the purger removes them, so the finders of the purger and the deletes do not use this.
+     */
+    String VISIBLE = "from Comment c join c.post p join c.user u where p.deletedAt is null and u.deletedAt is null";
 
-    List<Comment> findByPostId(Long postId);
+    @Query("select c " + VISIBLE + " and c.id = :id")
+    Optional<Comment> findVisibleById(@Param("id") Long id);
 
-    List<Comment> findByUserId(Long userId);
+    @Query("select c " + VISIBLE + " and c.id > :after order by c.id")
+    List<Comment> findByIdGreaterThanOrderByIdAsc(@Param("after") Long after, Pageable pageable);
+
+    @Query("select c " + VISIBLE + " and p.id = :postId and c.id > :after order by c.id")
+    List<Comment> findByPostIdAndIdGreaterThanOrderByIdAsc(@Param("postId") Long postId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select c " + VISIBLE + " and u.id = :userId and c.id > :after order by c.id")
+    List<Comment> findByUserIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select c " + VISIBLE + " and u.id = :userId and p.id = :postId and c.id > :after order by c.id")
+    List<Comment> findByUserIdAndPostIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId, @Param("postId") Long postId,
+                                                                    @Param("after") Long after, Pageable pageable);
+
+    @Query("select c " + VISIBLE + " and p.id = :postId and c.parentId is null and c.id > :after order by c.id")
+    List<Comment> findByPostIdAndParentIdIsNullAndIdGreaterThanOrderByIdAsc(@Param("postId") Long postId, @Param("after") Long after,
+                                                                            Pageable pageable);
+
+    @Query("select c " + VISIBLE + " and c.path like :subtree and c.path > :after order by c.path")
+    List<Comment> findSubtreePage(@Param("subtree") String subtree, @Param("after") String after, Pageable pageable);
+
+    @Query("select new com.project.blogbackend.service.dto.CommentPathDTO(c.id, c.post.id, c.path, c.depth) " +
+            "from Comment c where c.id = :id")
+    CommentPathDTO findPathById(@Param("id") Long id);
+
+    @Query("select new com.project.blogbackend.service.dto.CommentPathDTO(c.id, c.post.id, c.path, c.depth) " +
+            "from Comment c where c.id in :ids")
+    List<CommentPathDTO> findPathsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from Comment c where c.path like :subtree")
+    int deleteSubtree(@Param("subtree") String subtree);
+
+    @Query("select new com.project.blogbackend.service.dto.CommentPathDTO(c.id, c.post.id, c.path, c.depth) " +
+            "from Comment c where c.user.id = :userId order by c.path")
+    List<CommentPathDTO> findPathsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("select new com.project.blogbackend.service.dto.CommentsVersionDTO(count(c), coalesce(max(c.id), 0), coalesce(sum(c.version), 0)) " +
+            VISIBLE + " and p.id = :postId and c.id > :after")
+    CommentsVersionDTO findVersionByPostIdAndIdGreaterThan(@Param("postId") Long postId, @Param("after") Long after);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.project.blogbackend.service.dto.CommentExportDTO(c.id, c.text, p.id, u.id) " +
+            VISIBLE + " and c.id > :after order by c.id")
+    Stream<CommentExportDTO> streamExportByIdGreaterThan(@Param("after") Long after);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.project.blogbackend.service.dto.PostActivityDTO(p.id, c.createdAt) " +
+            VISIBLE + " and c.createdAt >= :from and c.createdAt < :to")
+    Stream<PostActivityDTO> streamActivityBetween(@Param("from") Instant from, @Param("to") Instant to);
 }
@@ -0,0 +1,12 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.Comment;
+
+import java.util.List;
+
+/**
+ * Reads of several comment threads at once over the materialized {@code path} of comments.
+ */
+public interface CommentThreadRepository {
+    List<Comment> findFirstReplies(List<String> threadPaths, int limit);
+}
@@ -0,0 +1,44 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.Comment;
+import com.project.blogbackend.service.util.CommentPaths;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+public class CommentThreadRepositoryImpl implements CommentThreadRepository {
+    // the roots were read visible, so their post is; the replies of soft-deleted users are skipped like in the finders
+    private static final String FIRST_REPLIES_OF_THREAD = "(select c.* from comment c where c.path like ?%d and c.path > ?%d " +
+            "and exists (select 1 from user u where u.id = c.user_id and u.deleted_at is null) order by c.path limit %d)";
+
+    private final EntityManager entityManager;
+
+    public CommentThreadRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Reads the first replies of each of the given threads, in depth-first order, with one statement: a
+     * {@code union all} of one limited range scan of the path index per thread, so no more than {@code limit} rows
+     * are read of any thread however many replies it has.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Comment> findFirstReplies(List<String> threadPaths, int limit) {
+        if (threadPaths.isEmpty()) {
+            return List.of();
+        }
+        StringJoiner sql = new StringJoiner(" union all ");
+        for (int i = 0; i < threadPaths.size(); i++) {
+            sql.add(String.format(FIRST_REPLIES_OF_THREAD, 2 * i + 1, 2 * i + 2, limit));
+        }
+        Query query = this.entityManager.createNativeQuery(sql.toString(), Comment.class);
+        for (int i = 0; i < threadPaths.size(); i++) {
+            query.setParameter(2 * i + 1, CommentPaths.subtree(threadPaths.get(i)));
+            query.setParameter(2 * i + 2, threadPaths.get(i));
+        }
+        return query.getResultList();
+    }
+}
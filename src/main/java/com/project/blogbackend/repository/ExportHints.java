@@ -0,0 +1,15 @@
+package com.project.blogbackend.repository;
+
+/**
+ * Query hint values shared by the streaming export queries.
+ *
+ * The MySQL driver only honours a positive fetch size when {@code useCursorFetch=true} is set on the connection
+ * URL; it then reads the result through a server-side cursor, {@link #FETCH_SIZE} rows per round trip, instead of
+ * buffering the whole result set in the heap.
+ */
+public final class ExportHints {
+    public static final String FETCH_SIZE = "1000";
+
+    private ExportHints() {
+    }
+}
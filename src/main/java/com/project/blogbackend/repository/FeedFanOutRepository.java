@@ -0,0 +1,23 @@
+package com.project.blogbackend.repository;
+
+/**
+ * Set-based writes of feed entries.
+ *
+ * Each method is a single {@code INSERT ... SELECT} or {@code DELETE}, so fanning a Post out to all followers of its
+ * author, or trimming all of their feeds, costs one statement regardless of the number of followers. The inserts
+ * skip entries that already exist, so they can be repeated safely. The purger empties the feed of a soft-deleted
+ * user {@code limit} entries at a time.
+ */
+public interface FeedFanOutRepository {
+    int addToOwnFeed(Long postId, Long authorId);
+
+    int fanOut(Long postId, Long authorId);
+
+    int backfill(Long userId, Long authorId, int limit);
+
+    int trim(Long userId, int maxLength);
+
+    int trimFeedsOfAuthor(Long authorId, int maxLength);
+
+    int deleteChunkByUserId(Long userId, int limit);
+}
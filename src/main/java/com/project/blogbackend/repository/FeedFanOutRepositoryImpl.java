@@ -0,0 +1,62 @@
+package com.project.blogbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class FeedFanOutRepositoryImpl implements FeedFanOutRepository {
+    private static final String INSERT_OWN_ENTRY = "insert into feed_entry (user_id, post_id, author_id) " +
+            "select p.user_id, p.id, p.user_id from post p where p.id = ? and p.user_id = ? " +
+            "and not exists (select 1 from feed_entry e where e.user_id = p.user_id and e.post_id = p.id)";
+    private static final String FAN_OUT = "insert into feed_entry (user_id, post_id, author_id) " +
+            "select f.follower_id, p.id, p.user_id from post p join user_follow f on f.followee_id = p.user_id " +
+            "where p.id = ? and p.user_id = ? " +
+            "and not exists (select 1 from feed_entry e where e.user_id = f.follower_id and e.post_id = p.id)";
+    private static final String BACKFILL = "insert into feed_entry (user_id, post_id, author_id) " +
+            "select ?, p.id, p.user_id from post p where p.user_id = ? " +
+            "and not exists (select 1 from feed_entry e where e.user_id = ? and e.post_id = p.id) " +
+            "order by p.id desc limit ?";
+    // the derived tables are materialized, which lets MySQL read feed_entry while deleting from it
+    private static final String TRIM = "delete from feed_entry where user_id = ? and post_id < (" +
+            "select post_id from (select post_id from feed_entry where user_id = ? order by post_id desc limit 1 offset ?) oldest_kept)";
+    private static final String TRIM_FEEDS_OF_AUTHOR = "delete from feed_entry where (user_id, post_id) in (" +
+            "select user_id, post_id from (select e.user_id, e.post_id, " +
+            "row_number() over (partition by e.user_id order by e.post_id desc) as position from feed_entry e " +
+            "where e.user_id = ? or e.user_id in (select f.follower_id from user_follow f where f.followee_id = ?)) ranked " +
+            "where ranked.position > ?)";
+    private static final String DELETE_CHUNK_OF_USER = "delete from feed_entry where user_id = ? limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeedFanOutRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int addToOwnFeed(Long postId, Long authorId) {
+        return this.jdbcTemplate.update(INSERT_OWN_ENTRY, postId, authorId);
+    }
+
+    @Override
+    public int fanOut(Long postId, Long authorId) {
+        return this.jdbcTemplate.update(FAN_OUT, postId, authorId);
+    }
+
+    @Override
+    public int backfill(Long userId, Long authorId, int limit) {
+        return this.jdbcTemplate.update(BACKFILL, userId, authorId, userId, limit);
+    }
+
+    @Override
+    public int trim(Long userId, int maxLength) {
+        return this.jdbcTemplate.update(TRIM, userId, userId, maxLength - 1);
+    }
+
+    @Override
+    public int trimFeedsOfAuthor(Long authorId, int maxLength) {
+        return this.jdbcTemplate.update(TRIM_FEEDS_OF_AUTHOR, authorId, authorId, maxLength);
+    }
+
+    @Override
+    public int deleteChunkByUserId(Long userId, int limit) {
+        return this.jdbcTemplate.update(DELETE_CHUNK_OF_USER, userId, limit);
+    }
+}
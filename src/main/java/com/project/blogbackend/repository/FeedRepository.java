@@ -0,0 +1,29 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.FeedEntry;
+import com.project.blogbackend.entity.FeedEntryId;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeedRepository extends JpaRepository<FeedEntry, FeedEntryId>, FeedFanOutRepository {
+    @Query("select new com.project.blogbackend.service.dto.PostSummaryDTO(p.id, p.title, p.user.id) " +
+            "from FeedEntry e join Post p on p.id = e.id.postId " +
+            "where e.id.userId = :userId and e.id.postId < :before and p.deletedAt is null order by e.id.postId desc")
+    List<PostSummaryDTO> findPageByUserId(@Param("userId") Long userId, @Param("before") Long before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from FeedEntry e where e.id.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    @Modifying
+    @Query("delete from FeedEntry e where e.id.userId = :userId and e.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+}
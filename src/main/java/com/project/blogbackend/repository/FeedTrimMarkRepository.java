@@ -0,0 +1,9 @@
+package com.project.blogbackend.repository;
+
+/**
+ * Marks an author for the next feed trim with a single upsert, so the feed fan-out of every Post costs one
+ * statement more rather than a lookup and an insert.
+ */
+public interface FeedTrimMarkRepository {
+    int markIfAbsent(Long authorId);
+}
@@ -0,0 +1,18 @@
+package com.project.blogbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class FeedTrimMarkRepositoryImpl implements FeedTrimMarkRepository {
+    private static final String MARK_IF_ABSENT = "insert into feed_trim (author_id) values (?) on duplicate key update author_id = author_id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FeedTrimMarkRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int markIfAbsent(Long authorId) {
+        return this.jdbcTemplate.update(MARK_IF_ABSENT, authorId);
+    }
+}
@@ -0,0 +1,23 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.FeedTrim;
+import com.project.blogbackend.service.dto.FeedTrimDTO;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FeedTrimRepository extends JpaRepository<FeedTrim,Long>, FeedTrimMarkRepository {
+    // the follower count is null for an author who has been deleted since
+    @Query("select new com.project.blogbackend.service.dto.FeedTrimDTO(t.authorId, u.followerCount) " +
+            "from FeedTrim t left join User u on u.id = t.authorId order by t.authorId")
+    List<FeedTrimDTO> findAllWithFollowerCount();
+
+    @Modifying
+    @Query("delete from FeedTrim t where t.authorId = :authorId")
+    int deleteByAuthorId(@Param("authorId") Long authorId);
+}
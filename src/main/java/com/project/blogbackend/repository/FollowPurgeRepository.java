@@ -0,0 +1,8 @@
+package com.project.blogbackend.repository;
+
+/**
+ * Removes the follows of a soft-deleted user's followers {@code limit} rows at a time, for the purger.
+ */
+public interface FollowPurgeRepository {
+    int deleteChunkByFolloweeId(Long followeeId, int limit);
+}
@@ -0,0 +1,18 @@
+package com.project.blogbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class FollowPurgeRepositoryImpl implements FollowPurgeRepository {
+    private static final String DELETE_CHUNK_OF_FOLLOWEE = "delete from user_follow where followee_id = ? limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FollowPurgeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int deleteChunkByFolloweeId(Long followeeId, int limit) {
+        return this.jdbcTemplate.update(DELETE_CHUNK_OF_FOLLOWEE, followeeId, limit);
+    }
+}
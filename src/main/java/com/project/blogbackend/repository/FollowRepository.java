@@ -0,0 +1,24 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.Follow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FollowRepository extends JpaRepository<Follow,Long>, FollowToggleRepository, FollowPurgeRepository {
+    @Modifying
+    @Query("delete from Follow f where f.follower.id = :followerId and f.followee.id = :followeeId")
+    int deleteByFollowerIdAndFolloweeId(@Param("followerId") Long followerId, @Param("followeeId") Long followeeId);
+
+    @Query("select f.followee.id from Follow f where f.follower.id = :followerId and f.followee.followerCount > :threshold")
+    List<Long> findFolloweeIdsWithFollowerCountAbove(@Param("followerId") Long followerId, @Param("threshold") long threshold);
+
+    @Query("select f.followee.id from Follow f where f.follower.id = :followerId order by f.id")
+    List<Long> findFolloweeIdsByFollowerId(@Param("followerId") Long followerId, Pageable pageable);
+}
@@ -0,0 +1,9 @@
+package com.project.blogbackend.repository;
+
+/**
+ * Creates a follow with a single upsert keyed by the unique (follower, followee) index instead of looking the
+ * follow up first.
+ */
+public interface FollowToggleRepository {
+    int insertIfAbsent(Long followerId, Long followeeId);
+}
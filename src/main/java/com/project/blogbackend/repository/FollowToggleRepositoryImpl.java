@@ -0,0 +1,19 @@
+package com.project.blogbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class FollowToggleRepositoryImpl implements FollowToggleRepository {
+    // "update id = id" is a no-op, so an existing follow reports 0 affected rows and a new one 1 (see useAffectedRows)
+    private static final String INSERT_IF_ABSENT = "insert into user_follow (follower_id, followee_id) values (?, ?) on duplicate key update id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FollowToggleRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertIfAbsent(Long followerId, Long followeeId) {
+        return this.jdbcTemplate.update(INSERT_IF_ABSENT, followerId, followeeId);
+    }
+}
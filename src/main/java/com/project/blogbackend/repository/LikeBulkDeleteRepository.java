@@ -0,0 +1,18 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.service.dto.BulkDeleteChunkDTO;
+
+/**
+ * Set-based deletes of the likes of a post or of a user, one id range at a time.
+ *
+ * A range is bounded by {@link #findChunkEnd}, so each chunk holds at most {@code chunkSize} matching likes however
+ * sparse their ids are. The purger removes the likes of a soft-deleted post {@code limit} rows at a time instead,
+ * without a range.
+ */
+public interface LikeBulkDeleteRepository {
+    Long findChunkEnd(Long postId, Long userId, long after, int chunkSize);
+
+    BulkDeleteChunkDTO deleteChunk(Long postId, Long userId, long after, Long end);
+
+    int deleteChunkByPostId(Long postId, int limit);
+}
@@ -0,0 +1,60 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.service.dto.BulkDeleteChunkDTO;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LikeBulkDeleteRepositoryImpl implements LikeBulkDeleteRepository {
+    private static final String FIND_CHUNK_END = "select id from post_like where %s order by id limit 1 offset ?";
+    private static final String COUNT_PER_POST = "select post_id, count(*) from post_like where %s group by post_id";
+    private static final String DELETE = "delete from post_like where %s";
+    private static final String DELETE_CHUNK_OF_POST = "delete from post_like where post_id = ? limit ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LikeBulkDeleteRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Long findChunkEnd(Long postId, Long userId, long after, int chunkSize) {
+        BulkDeleteFilter filter = new BulkDeleteFilter(postId, userId);
+        List<Long> end = this.jdbcTemplate.queryForList(FIND_CHUNK_END.formatted(filter.where(false)), Long.class,
+                filter.arguments(after, chunkSize - 1));
+        return end.isEmpty() ? null : end.get(0);
+    }
+
+    /**
+     * Deletes the likes of the range with one statement. Likes of a user are spread over many posts, so they are
+     * counted per post first; when the delete removes a different number of likes than were counted, because of a
+     * concurrent like or unlike, the numbers per post are reported as inexact.
+     */
+    @Override
+    public BulkDeleteChunkDTO deleteChunk(Long postId, Long userId, long after, Long end) {
+        BulkDeleteFilter filter = new BulkDeleteFilter(postId, userId);
+        Object[] arguments = end == null ? filter.arguments(after) : filter.arguments(after, end);
+        String where = filter.where(end != null);
+        if (postId != null) {
+            int deleted = this.jdbcTemplate.update(DELETE.formatted(where), arguments);
+            return new BulkDeleteChunkDTO(deleted, deleted == 0 ? Map.of() : Map.of(postId, (long) deleted), true);
+        }
+        Map<Long, Long> counted = new HashMap<>();
+        this.jdbcTemplate.query(COUNT_PER_POST.formatted(where),
+                (RowCallbackHandler) rs -> counted.put(rs.getLong(1), rs.getLong(2)), arguments);
+        if (counted.isEmpty()) {
+            return new BulkDeleteChunkDTO(0, Map.of(), true);
+        }
+        int deleted = this.jdbcTemplate.update(DELETE.formatted(where), arguments);
+        long expected = counted.values().stream().mapToLong(Long::longValue).sum();
+        return new BulkDeleteChunkDTO(deleted, counted, deleted == expected);
+    }
+
+    @Override
+    public int deleteChunkByPostId(Long postId, int limit) {
+        return this.jdbcTemplate.update(DELETE_CHUNK_OF_POST, postId, limit);
+    }
+}
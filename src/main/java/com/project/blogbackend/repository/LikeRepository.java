@@ -1,16 +1,61 @@
 package com.project.blogbackend.repository;
 
 import com.project.blogbackend.entity.Like;
+import com.project.blogbackend.service.dto.LikeExportDTO;
+import com.project.blogbackend.service.dto.PostActivityDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface LikeRepository extends JpaRepository<Like,Long> {
-    List<Like> findByUserIdAndPostId(Long userId, Long postId);
+public interface LikeRepository extends JpaRepository<Like,Long>, LikeToggleRepository, LikeBulkDeleteRepository {
+    /**
+     * The likes that are shown: those on posts and of users that are not soft-deleted. The rows of the others stay
+     * until the purger removes them, so the finders of the purger and the deletes do not use this.
+     */
+    String VISIBLE = "from Like l join l.post p join l.user u where p.deletedAt is null and u.deletedAt is null";
 
-    List<Like> findByUserId(Long userId);
+    @Query("select l " + VISIBLE + " and l.id = :id")
+    Optional<Like> findVisibleById(@Param("id") Long id);
 
-    List<Like> findByPostId(Long postId);
+    @Query("select count(l) > 0 " + VISIBLE + " and u.id = :userId and p.id = :postId")
+    boolean existsVisibleByUserIdAndPostId(@Param("userId") Long userId, @Param("postId") Long postId);
+
+    @Query("select l " + VISIBLE + " and l.id > :after order by l.id")
+    List<Like> findByIdGreaterThanOrderByIdAsc(@Param("after") Long after, Pageable pageable);
+
+    @Query("select l " + VISIBLE + " and u.id = :userId and l.id > :after order by l.id")
+    List<Like> findByUserIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select l " + VISIBLE + " and p.id = :postId and l.id > :after order by l.id")
+    List<Like> findByPostIdAndIdGreaterThanOrderByIdAsc(@Param("postId") Long postId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select l " + VISIBLE + " and u.id = :userId and p.id = :postId and l.id > :after order by l.id")
+    List<Like> findByUserIdAndPostIdAndIdGreaterThanOrderByIdAsc(@Param("userId") Long userId, @Param("postId") Long postId,
+                                                                 @Param("after") Long after, Pageable pageable);
+
+    @Query("select l.post.id from Like l where l.user.id = :userId order by l.id")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.project.blogbackend.service.dto.LikeExportDTO(l.id, p.id, u.id) " +
+            VISIBLE + " and l.id > :after order by l.id")
+    Stream<LikeExportDTO> streamExportByIdGreaterThan(@Param("after") Long after);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.project.blogbackend.service.dto.PostActivityDTO(p.id, l.createdAt) " +
+            VISIBLE + " and l.createdAt >= :from and l.createdAt < :to")
+    Stream<PostActivityDTO> streamActivityBetween(@Param("from") Instant from, @Param("to") Instant to);
 }
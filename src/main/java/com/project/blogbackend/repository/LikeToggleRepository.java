@@ -0,0 +1,20 @@
+package com.project.blogbackend.repository;
+
+import java.util.List;
+
+/**
+ * Single-statement writes of likes keyed by (user, post), relying on the unique {@code uk_post_like_user_post}
+ * index instead of looking the like up first. A like is only inserted while its post and its user exist and are
+ * not soft-deleted, which the insert checks itself.
+ */
+public interface LikeToggleRepository {
+    int insertIfAbsent(Long userId, Long postId);
+
+    int deleteByUserIdAndPostId(Long userId, Long postId);
+
+    int[] insertAllIfAbsent(List<Object[]> postAndUserIds);
+
+    List<Object[]> findExisting(List<Object[]> postAndUserIds);
+
+    int[] deleteAllByUserIdAndPostIdIn(Long userId, List<Long> postIds);
+}
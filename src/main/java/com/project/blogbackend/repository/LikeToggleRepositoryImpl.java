@@ -0,0 +1,69 @@
+package com.project.blogbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class LikeToggleRepositoryImpl implements LikeToggleRepository {
+    // "update id = id" is a no-op, so an existing like reports 0 affected rows and a new one 1. On MySQL this needs
+    // useAffectedRows=true on the connection URL: Connector/J reports found rather than changed rows by default, and
+    // then an existing like reports 1 as well. A missing or soft-deleted post or user selects no row and reports 0
+    private static final String INSERT_IF_ABSENT = "insert into post_like (post_id, user_id, created_at) select ?, ?, ? from dual "
+            + "where exists (select 1 from post p where p.id = ? and p.deleted_at is null) "
+            + "and exists (select 1 from user u where u.id = ? and u.deleted_at is null) on duplicate key update id = id";
+    private static final String SELECT_EXISTING = "select post_id, user_id from post_like where (user_id, post_id) in (%s)";
+    private static final String DELETE = "delete from post_like where user_id = ? and post_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LikeToggleRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public int insertIfAbsent(Long userId, Long postId) {
+        return this.jdbcTemplate.update(INSERT_IF_ABSENT, postId, userId, Timestamp.from(Instant.now()), postId, userId);
+    }
+
+    @Override
+    public int deleteByUserIdAndPostId(Long userId, Long postId) {
+        return this.jdbcTemplate.update(DELETE, userId, postId);
+    }
+
+    @Override
+    public int[] insertAllIfAbsent(List<Object[]> postAndUserIds) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(postAndUserIds.size());
+        for (Object[] postAndUserId : postAndUserIds) {
+            rows.add(new Object[]{postAndUserId[0], postAndUserId[1], now, postAndUserId[0], postAndUserId[1]});
+        }
+        return this.jdbcTemplate.batchUpdate(INSERT_IF_ABSENT, rows);
+    }
+
+    @Override
+    public List<Object[]> findExisting(List<Object[]> postAndUserIds) {
+        if (postAndUserIds.isEmpty()) {
+            return List.of();
+        }
+        Object[] arguments = new Object[postAndUserIds.size() * 2];
+        for (int i = 0; i < postAndUserIds.size(); i++) {
+            arguments[2 * i] = postAndUserIds.get(i)[1];
+            arguments[2 * i + 1] = postAndUserIds.get(i)[0];
+        }
+        String sql = String.format(SELECT_EXISTING, String.join(", ", Collections.nCopies(postAndUserIds.size(), "(?, ?)")));
+        return this.jdbcTemplate.query(sql, (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getLong(2)}, arguments);
+    }
+
+    @Override
+    public int[] deleteAllByUserIdAndPostIdIn(Long userId, List<Long> postIds) {
+        List<Object[]> rows = new ArrayList<>(postIds.size());
+        for (Long postId : postIds) {
+            rows.add(new Object[]{userId, postId});
+        }
+        return this.jdbcTemplate.batchUpdate(DELETE, rows);
+    }
+}
@@ -0,0 +1,15 @@
+package com.project.blogbackend.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Appends to the outbox with plain SQL, so that the events of a bulk write go out as one JDBC batch even though the
+ * outbox ids come from an identity column. Each event is written once for every registered outbox consumer by the
+ * same statement.
+ */
+public interface OutboxAppendRepository {
+    void append(String type, String payload, Instant createdAt);
+
+    void appendAll(List<Object[]> typesPayloadsAndTimes);
+}
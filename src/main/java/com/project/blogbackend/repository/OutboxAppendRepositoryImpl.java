@@ -0,0 +1,28 @@
+package com.project.blogbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+public class OutboxAppendRepositoryImpl implements OutboxAppendRepository {
+    private static final String APPEND = "insert into outbox_event (consumer, type, payload, created_at) "
+            + "select c.name, ?, ?, ? from outbox_consumer c";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxAppendRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void append(String type, String payload, Instant createdAt) {
+        this.jdbcTemplate.update(APPEND, type, payload, Timestamp.from(createdAt));
+    }
+
+    @Override
+    public void appendAll(List<Object[]> typesPayloadsAndTimes) {
+        this.jdbcTemplate.batchUpdate(APPEND, typesPayloadsAndTimes);
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.blogbackend.repository;
+
+import java.time.Instant;
+
+/**
+ * Records that an outbox consumer is still alive, or registers it if it is not, with an upsert.
+ */
+public interface OutboxConsumerHeartbeatRepository {
+    /**
+     * @return true if the consumer was not registered, so no events were kept for it until now.
+     */
+    boolean heartbeat(String name, Instant seenAt);
+}
@@ -0,0 +1,28 @@
+package com.project.blogbackend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+
+public class OutboxConsumerHeartbeatRepositoryImpl implements OutboxConsumerHeartbeatRepository {
+    // seenAt moves forward on every heartbeat, so a registered consumer always reports its row as changed
+    private static final String REFRESH = "update outbox_consumer set last_seen_at = ? where name = ?";
+    private static final String REGISTER = "insert into outbox_consumer (name, last_seen_at) values (?, ?) on duplicate key update last_seen_at = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboxConsumerHeartbeatRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public boolean heartbeat(String name, Instant seenAt) {
+        Timestamp timestamp = Timestamp.from(seenAt);
+        if (this.jdbcTemplate.update(REFRESH, timestamp, name) > 0) {
+            return false;
+        }
+        this.jdbcTemplate.update(REGISTER, name, timestamp, timestamp);
+        return true;
+    }
+}
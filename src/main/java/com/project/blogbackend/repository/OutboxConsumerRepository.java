@@ -0,0 +1,32 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.OutboxConsumer;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxConsumerRepository extends JpaRepository<OutboxConsumer,String>, OutboxConsumerHeartbeatRepository {
+    @Query("select c.name from OutboxConsumer c where c.lastSeenAt < :before")
+    List<String> findNamesLastSeenBefore(@Param("before") Instant before);
+
+    /**
+     * Takes or renews the lease of a consumer, unless another holder has a lease that has not expired yet.
+     *
+     * @return 1 if the holder has the lease until the given instant, 0 otherwise.
+     */
+    @Modifying
+    @Query("update OutboxConsumer c set c.leasedBy = :holder, c.leasedUntil = :until " +
+            "where c.name = :name and (c.leasedBy = :holder or c.leasedUntil is null or c.leasedUntil < :now)")
+    int lease(@Param("name") String name, @Param("holder") String holder, @Param("now") Instant now, @Param("until") Instant until);
+
+    @Modifying
+    @Query("delete from OutboxConsumer c where c.name in :names")
+    int deleteByNameIn(@Param("names") Collection<String> names);
+}
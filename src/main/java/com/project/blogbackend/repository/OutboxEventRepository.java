@@ -0,0 +1,25 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent,Long>, OutboxAppendRepository {
+    List<OutboxEvent> findByConsumerOrderByIdAsc(String consumer, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.consumer not in (select c.name from OutboxConsumer c)")
+    int deleteUnaddressed();
+}
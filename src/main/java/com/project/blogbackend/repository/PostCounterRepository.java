@@ -0,0 +1,31 @@
+package com.project.blogbackend.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Atomic updates of the denormalized like and comment counters of posts.
+ *
+ * The counters are changed with plain SQL rather than JPQL bulk updates: Hibernate drops the whole post
+ * second-level cache region on every JPQL bulk update of Post, whereas these methods only evict the posts
+ * they touched, after the transaction commits. The counters of soft-deleted posts are left alone, so a like or
+ * comment on a deleted post is reported as not found. The increments for one new like or comment also require its
+ * user to exist and not to be soft-deleted, so a deleted user cannot write either.
+ */
+public interface PostCounterRepository {
+    int incrementLikeCount(Long id, long delta);
+
+    int incrementCommentCount(Long id, long delta);
+
+    int incrementLikeCountForUser(Long id, Long userId);
+
+    int incrementCommentCountForUser(Long id, Long userId);
+
+    void incrementLikeCounts(Map<Long, Long> deltas);
+
+    void incrementCommentCounts(Map<Long, Long> deltas);
+
+    void recountLikes(Collection<Long> ids);
+
+    void recountComments(Collection<Long> ids);
+}
@@ -0,0 +1,88 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.Post;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class PostCounterRepositoryImpl implements PostCounterRepository {
+    private static final String INCREMENT_LIKE_COUNT = "update post set like_count = like_count + ? where id = ? and deleted_at is null";
+    private static final String INCREMENT_COMMENT_COUNT = "update post set comment_count = comment_count + ? where id = ? and deleted_at is null";
+    private static final String INCREMENT_LIKE_COUNT_FOR_USER = "update post set like_count = like_count + 1 where id = ? and deleted_at is null "
+            + "and exists (select 1 from user u where u.id = ? and u.deleted_at is null)";
+    private static final String INCREMENT_COMMENT_COUNT_FOR_USER = "update post set comment_count = comment_count + 1 where id = ? and deleted_at is null "
+            + "and exists (select 1 from user u where u.id = ? and u.deleted_at is null)";
+    private static final String RECOUNT_LIKES = "update post set like_count = (select count(*) from post_like l where l.post_id = ?) where id = ? and deleted_at is null";
+    private static final String RECOUNT_COMMENTS = "update post set comment_count = (select count(*) from comment c where c.post_id = ?) where id = ? and deleted_at is null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheEvictions cacheEvictions;
+
+    public PostCounterRepositoryImpl(JdbcTemplate jdbcTemplate, CacheEvictions cacheEvictions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictions = cacheEvictions;
+    }
+
+    @Override
+    public int incrementLikeCount(Long id, long delta) {
+        int updated = this.jdbcTemplate.update(INCREMENT_LIKE_COUNT, delta, id);
+        this.cacheEvictions.evictAfterCommit(Post.class, id);
+        return updated;
+    }
+
+    @Override
+    public int incrementCommentCount(Long id, long delta) {
+        int updated = this.jdbcTemplate.update(INCREMENT_COMMENT_COUNT, delta, id);
+        this.cacheEvictions.evictAfterCommit(Post.class, id);
+        return updated;
+    }
+
+    @Override
+    public int incrementLikeCountForUser(Long id, Long userId) {
+        int updated = this.jdbcTemplate.update(INCREMENT_LIKE_COUNT_FOR_USER, id, userId);
+        this.cacheEvictions.evictAfterCommit(Post.class, id);
+        return updated;
+    }
+
+    @Override
+    public int incrementCommentCountForUser(Long id, Long userId) {
+        int updated = this.jdbcTemplate.update(INCREMENT_COMMENT_COUNT_FOR_USER, id, userId);
+        this.cacheEvictions.evictAfterCommit(Post.class, id);
+        return updated;
+    }
+
+    @Override
+    public void incrementLikeCounts(Map<Long, Long> deltas) {
+        List<Object[]> increments = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> increments.add(new Object[]{delta, id}));
+        this.jdbcTemplate.batchUpdate(INCREMENT_LIKE_COUNT, increments);
+        this.cacheEvictions.evictAfterCommit(Post.class, deltas.keySet());
+    }
+
+    @Override
+    public void incrementCommentCounts(Map<Long, Long> deltas) {
+        List<Object[]> increments = new ArrayList<>(deltas.size());
+        deltas.forEach((id, delta) -> increments.add(new Object[]{delta, id}));
+        this.jdbcTemplate.batchUpdate(INCREMENT_COMMENT_COUNT, increments);
+        this.cacheEvictions.evictAfterCommit(Post.class, deltas.keySet());
+    }
+
+    @Override
+    public void recountLikes(Collection<Long> ids) {
+        List<Object[]> recounts = new ArrayList<>(ids.size());
+        ids.forEach(id -> recounts.add(new Object[]{id, id}));
+        this.jdbcTemplate.batchUpdate(RECOUNT_LIKES, recounts);
+        this.cacheEvictions.evictAfterCommit(Post.class, ids);
+    }
+
+    @Override
+    public void recountComments(Collection<Long> ids) {
+        List<Object[]> recounts = new ArrayList<>(ids.size());
+        ids.forEach(id -> recounts.add(new Object[]{id, id}));
+        this.jdbcTemplate.batchUpdate(RECOUNT_COMMENTS, recounts);
+        this.cacheEvictions.evictAfterCommit(Post.class, ids);
+    }
+}
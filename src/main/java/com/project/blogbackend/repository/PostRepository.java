@@ -1,12 +1,68 @@
 package com.project.blogbackend.repository;
 
 import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.service.dto.PostExportDTO;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.dto.PostVersionDTO;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
-public interface PostRepository extends JpaRepository<Post,Long> {
+public interface PostRepository extends JpaRepository<Post,Long>, PostCounterRepository, PostSoftDeleteRepository {
     List<Post> findByUserId(Long userId);
+
+    List<Post> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    List<Post> findByUserIdAndIdGreaterThanOrderByIdAsc(Long userId, Long after, Pageable pageable);
+
+    @Query("select new com.project.blogbackend.service.dto.PostSummaryDTO(p.id, p.title, p.user.id) " +
+            "from Post p where p.id > :after order by p.id")
+    List<PostSummaryDTO> findSummariesByIdGreaterThan(@Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.project.blogbackend.service.dto.PostSummaryDTO(p.id, p.title, p.user.id) " +
+            "from Post p where p.user.id = :userId and p.id > :after order by p.id")
+    List<PostSummaryDTO> findSummariesByUserIdAndIdGreaterThan(@Param("userId") Long userId, @Param("after") Long after, Pageable pageable);
+
+    @Query("select new com.project.blogbackend.service.dto.PostSummaryDTO(p.id, p.title, p.user.id) " +
+            "from Post p where p.user.id in :userIds and p.id < :before order by p.id desc")
+    List<PostSummaryDTO> findSummariesByUserIdInAndIdLessThan(@Param("userIds") Collection<Long> userIds, @Param("before") Long before, Pageable pageable);
+
+    @Query("select new com.project.blogbackend.service.dto.PostSummaryDTO(p.id, p.title, p.user.id) " +
+            "from Post p where p.id in :ids")
+    List<PostSummaryDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select new com.project.blogbackend.service.dto.PostVersionDTO(p.id, p.version, p.likeCount, p.commentCount) " +
+            "from Post p where p.id = :id")
+    Optional<PostVersionDTO> findVersionById(@Param("id") Long id);
+
+    @Query("select p.id from Post p where p.id in :ids")
+    Set<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select max(p.id) from Post p")
+    Long findMaxId();
+
+    @Modifying
+    @Query("update Post p set p.likeCount = (select count(l) from Like l where l.post.id = p.id), " +
+            "p.commentCount = (select count(c) from Comment c where c.post.id = p.id) " +
+            "where p.id between :fromId and :toId")
+    int reconcileCounters(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportHints.FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("select new com.project.blogbackend.service.dto.PostExportDTO(p.id, p.title, p.text, p.user.id, p.likeCount, p.commentCount) " +
+            "from Post p where p.id > :after order by p.id")
+    Stream<PostExportDTO> streamExportByIdGreaterThan(@Param("after") Long after);
 }
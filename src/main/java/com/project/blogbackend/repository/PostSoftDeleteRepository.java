@@ -0,0 +1,24 @@
+package com.project.blogbackend.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Soft deletion of posts and removal of the soft-deleted rows.
+ *
+ * A post is deleted by stamping its {@code deleted_at} column, which hides it from every finder of
+ * {@link PostRepository}; its comments, its likes and the row itself are removed later, in small chunks, by the
+ * purger. The column is written with plain SQL for the same reason as the counters: only the deleted posts are
+ * evicted from the second-level cache, after the transaction commits.
+ */
+public interface PostSoftDeleteRepository {
+    int softDelete(Long id, Instant at);
+
+    List<Long> softDeleteByUserId(Long userId, Instant at);
+
+    List<Long> findDeletedIdsGreaterThan(Long after, int limit);
+
+    long countDeleted();
+
+    int purge(Long id);
+}
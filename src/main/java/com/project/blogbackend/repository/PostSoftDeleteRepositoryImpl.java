@@ -0,0 +1,58 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.Post;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+public class PostSoftDeleteRepositoryImpl implements PostSoftDeleteRepository {
+    private static final String SOFT_DELETE = "update post set deleted_at = ? where id = ? and deleted_at is null";
+    private static final String FIND_LIVE_IDS_BY_USER = "select id from post where user_id = ? and deleted_at is null";
+    private static final String SOFT_DELETE_BY_USER = "update post set deleted_at = ? where user_id = ? and deleted_at is null";
+    private static final String FIND_DELETED_IDS = "select id from post where deleted_at is not null and id > ? order by id limit ?";
+    private static final String COUNT_DELETED = "select count(*) from post where deleted_at is not null";
+    private static final String PURGE = "delete from post where id = ? and deleted_at is not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheEvictions cacheEvictions;
+
+    public PostSoftDeleteRepositoryImpl(JdbcTemplate jdbcTemplate, CacheEvictions cacheEvictions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictions = cacheEvictions;
+    }
+
+    @Override
+    public int softDelete(Long id, Instant at) {
+        int updated = this.jdbcTemplate.update(SOFT_DELETE, Timestamp.from(at), id);
+        this.cacheEvictions.evictAfterCommit(Post.class, id);
+        return updated;
+    }
+
+    @Override
+    public List<Long> softDeleteByUserId(Long userId, Instant at) {
+        List<Long> ids = this.jdbcTemplate.queryForList(FIND_LIVE_IDS_BY_USER, Long.class, userId);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        this.jdbcTemplate.update(SOFT_DELETE_BY_USER, Timestamp.from(at), userId);
+        this.cacheEvictions.evictAfterCommit(Post.class, ids);
+        return ids;
+    }
+
+    @Override
+    public List<Long> findDeletedIdsGreaterThan(Long after, int limit) {
+        return this.jdbcTemplate.queryForList(FIND_DELETED_IDS, Long.class, after, limit);
+    }
+
+    @Override
+    public long countDeleted() {
+        return this.jdbcTemplate.queryForObject(COUNT_DELETED, Long.class);
+    }
+
+    @Override
+    public int purge(Long id) {
+        return this.jdbcTemplate.update(PURGE, id);
+    }
+}
@@ -0,0 +1,11 @@
+package com.project.blogbackend.repository;
+
+/**
+ * Atomic updates of the denormalized follower counter of users.
+ *
+ * Like the post counters, the follower counter is changed with plain SQL and only the touched user is evicted from
+ * the second-level cache, after the transaction commits.
+ */
+public interface UserCounterRepository {
+    int incrementFollowerCount(Long id, long delta);
+}
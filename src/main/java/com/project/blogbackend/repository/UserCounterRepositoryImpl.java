@@ -0,0 +1,23 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+public class UserCounterRepositoryImpl implements UserCounterRepository {
+    private static final String INCREMENT_FOLLOWER_COUNT = "update user set follower_count = follower_count + ? where id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheEvictions cacheEvictions;
+
+    public UserCounterRepositoryImpl(JdbcTemplate jdbcTemplate, CacheEvictions cacheEvictions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictions = cacheEvictions;
+    }
+
+    @Override
+    public int incrementFollowerCount(Long id, long delta) {
+        int updated = this.jdbcTemplate.update(INCREMENT_FOLLOWER_COUNT, delta, id);
+        this.cacheEvictions.evictAfterCommit(User.class, id);
+        return updated;
+    }
+}
@@ -2,8 +2,17 @@ package com.project.blogbackend.repository;
 
 import com.project.blogbackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
 @Repository
-public interface UserRepository extends JpaRepository<User,Long> {
+public interface UserRepository extends JpaRepository<User,Long>, UserCounterRepository, UserSoftDeleteRepository {
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    @Query("select u.followerCount from User u where u.id = :id")
+    Optional<Long> findFollowerCountById(@Param("id") Long id);
 }
@@ -0,0 +1,20 @@
+package com.project.blogbackend.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Soft deletion of users and removal of the soft-deleted rows.
+ *
+ * A user is deleted by stamping its {@code deleted_at} column, which hides it from every finder of
+ * {@link UserRepository}; the row itself is removed by the purger once nothing refers to it any more.
+ */
+public interface UserSoftDeleteRepository {
+    int softDelete(Long id, Instant at);
+
+    List<Long> findDeletedIdsGreaterThan(Long after, int limit);
+
+    long countDeleted();
+
+    int purge(Long id);
+}
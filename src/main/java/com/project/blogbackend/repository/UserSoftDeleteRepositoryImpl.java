@@ -0,0 +1,45 @@
+package com.project.blogbackend.repository;
+
+import com.project.blogbackend.entity.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+public class UserSoftDeleteRepositoryImpl implements UserSoftDeleteRepository {
+    private static final String SOFT_DELETE = "update user set deleted_at = ? where id = ? and deleted_at is null";
+    private static final String FIND_DELETED_IDS = "select id from user where deleted_at is not null and id > ? order by id limit ?";
+    private static final String COUNT_DELETED = "select count(*) from user where deleted_at is not null";
+    private static final String PURGE = "delete from user where id = ? and deleted_at is not null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CacheEvictions cacheEvictions;
+
+    public UserSoftDeleteRepositoryImpl(JdbcTemplate jdbcTemplate, CacheEvictions cacheEvictions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cacheEvictions = cacheEvictions;
+    }
+
+    @Override
+    public int softDelete(Long id, Instant at) {
+        int updated = this.jdbcTemplate.update(SOFT_DELETE, Timestamp.from(at), id);
+        this.cacheEvictions.evictAfterCommit(User.class, id);
+        return updated;
+    }
+
+    @Override
+    public List<Long> findDeletedIdsGreaterThan(Long after, int limit) {
+        return this.jdbcTemplate.queryForList(FIND_DELETED_IDS, Long.class, after, limit);
+    }
+
+    @Override
+    public long countDeleted() {
+        return this.jdbcTemplate.queryForObject(COUNT_DELETED, Long.class);
+    }
+
+    @Override
+    public int purge(Long id) {
+        return this.jdbcTemplate.update(PURGE, id);
+    }
+}
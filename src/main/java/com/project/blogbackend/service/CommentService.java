@@ -1,20 +1,36 @@
 package com.project.blogbackend.service;
 
 import com.project.blogbackend.entity.Comment;
-import com.project.blogbackend.entity.Post;
 import com.project.blogbackend.entity.User;
+import com.project.blogbackend.event.CommentAdded;
+import com.project.blogbackend.event.DomainEventPublisher;
 import com.project.blogbackend.repository.CommentRepository;
+import com.project.blogbackend.service.dto.BatchResultDTO;
+import com.project.blogbackend.service.dto.BulkDeleteResultDTO;
 import com.project.blogbackend.service.dto.CommentCreateDTO;
+import com.project.blogbackend.service.dto.CommentPathDTO;
+import com.project.blogbackend.service.dto.CommentThreadDTO;
+import com.project.blogbackend.service.dto.CommentsVersionDTO;
 import com.project.blogbackend.service.dto.CommentUpdateDTO;
 import com.project.blogbackend.service.mapper.CommentMapper;
+import com.project.blogbackend.service.util.ChunkedDeletes;
+import com.project.blogbackend.service.util.ChunkedWrites;
+import com.project.blogbackend.service.util.CommentPaths;
+import com.project.blogbackend.service.util.CursorPaging;
+import com.project.blogbackend.service.util.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -23,73 +39,237 @@ public class CommentService {
     private final CommentRepository commentRepository;
     private final UserService userService;
     private final PostService postService;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
 
     @Autowired
-    public CommentService(CommentRepository commentRepository, UserService userService, PostService postService) {
+    public CommentService(CommentRepository commentRepository, UserService userService, PostService postService,
+                          DomainEventPublisher domainEventPublisher, TransactionTemplate transactionTemplate, @Value("${blog.batch.chunk-size:1000}") int batchChunkSize) {
         this.commentRepository=commentRepository;
         this.userService = userService;
         this.postService = postService;
+        this.domainEventPublisher = domainEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchChunkSize = batchChunkSize;
     }
 
     /**
-     * Retrieves a list of comments based on the provided optional parameters.
+     * Retrieves one page of comments based on the provided optional parameters.
      *
      * If both userId and postId are present, it returns comments that match both the given userId and postId.
      * If only postId is present, it returns comments associated with the specified postId.
      * If only userId is present, it returns comments associated with the specified userId.
-     * If neither userId nor postId is present, it returns all comments in the system.
+     * If neither userId nor postId is present, it pages through all comments in the system.
+     *
+     * Comments are returned in ascending id order, starting after the given cursor, so every page is a single
+     * {@code id > ?} range scan regardless of how deep the client pages.
      *
      * @param userId Optional parameter representing the ID of the user whose comments are to be retrieved.
      * @param postId Optional parameter representing the ID of the post for which comments are to be retrieved.
-     * @return A list of Comment objects that match the given criteria, or all comments if no specific criteria are provided.
+     * @param after Optional cursor returned with the previous page.
+     * @param limit The maximum number of comments to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return A list of at most {@code limit} Comment objects that match the given criteria.
+     * @throws IllegalArgumentException if the cursor is invalid.
      */
     @Transactional(readOnly = true)
-    public List<Comment> getAllComments(Optional<Long> userId, Optional<Long> postId) {
-        log.debug("Request to get all Comments or Comments is userId {} or Comments is postId {}",userId,postId);
+    public List<Comment> getAllComments(Optional<Long> userId, Optional<Long> postId, Optional<String> after, int limit) {
+        log.debug("Request to get all Comments or Comments is userId {} or Comments is postId {} after {} limit {}",userId,postId,after,limit);
+        Long afterId=CursorPaging.after(after);
+        Pageable page=CursorPaging.limit(limit);
         if (postId.isPresent() && userId.isPresent()) {
-            return this.commentRepository.findByUserIdAndPostId(postId.get(),userId.get());
+            return this.commentRepository.findByUserIdAndPostIdAndIdGreaterThanOrderByIdAsc(userId.get(),postId.get(),afterId,page);
         } else if(postId.isPresent()){
-            return this.commentRepository.findByPostId(postId.get());
+            return this.commentRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(postId.get(),afterId,page);
         } else if(userId.isPresent()){
-            return this.commentRepository.findByUserId(userId.get());
+            return this.commentRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId.get(),afterId,page);
         } else {
-            return this.commentRepository.findAll();
+            return this.commentRepository.findByIdGreaterThanOrderByIdAsc(afterId,page);
         }
     }
 
+    /**
+     * Retrieves one page of the comment threads of a post, each root comment with its first replies.
+     *
+     * The root comments are read with one range scan of the {@code (post_id, parent_id, id)} index, and the first
+     * replies of all of them with one more statement that scans at most {@code replies} rows of each thread's path
+     * range, so a page costs two statements however many comments the post has. The rest of a thread is paged
+     * with {@link #getReplies(Long, Optional, int)}.
+     *
+     * @param postId  The ID of the post whose threads are read.
+     * @param after   Optional cursor returned with the previous page.
+     * @param limit   The maximum number of threads to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @param replies The maximum number of replies to return with each thread, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return The threads of the page in ascending id order of their root comment, each with its first replies
+     *         nested to any depth, in depth-first order.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public List<CommentThreadDTO> getThreads(Long postId, Optional<String> after, int limit, int replies) {
+        log.debug("Request to get Comment threads of post {} after {} limit {} replies {}",postId,after,limit,replies);
+        List<Comment> roots=this.commentRepository.findByPostIdAndParentIdIsNullAndIdGreaterThanOrderByIdAsc(postId,
+                CursorPaging.after(after),CursorPaging.limit(limit));
+        Map<String, List<Comment>> repliesByThread=new HashMap<>();
+        if (replies > 0) {
+            List<Comment> firstReplies=new ArrayList<>(this.commentRepository.findFirstReplies(
+                    roots.stream().map(Comment::getPath).toList(),CursorPaging.clamp(replies)));
+            firstReplies.sort(Comparator.comparing(Comment::getPath));
+            for (Comment reply : firstReplies) {
+                repliesByThread.computeIfAbsent(CommentPaths.root(reply.getPath()),path -> new ArrayList<>()).add(reply);
+            }
+        }
+        return roots.stream().map(root -> new CommentThreadDTO(root,repliesByThread.getOrDefault(root.getPath(),List.of()))).toList();
+    }
+
+    /**
+     * Retrieves one page of the replies to a comment, nested to any depth, in depth-first order.
+     *
+     * The replies are read with one range scan of the path index, starting after the path of the last reply of the
+     * previous page, so paging through a thread of any size costs the same per page.
+     *
+     * @param id    The ID of the comment whose replies are read.
+     * @param after Optional cursor, the path of the last reply of the previous page.
+     * @param limit The maximum number of replies to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return A list of at most {@code limit} replies, or null if the comment does not exist.
+     * @throws IllegalArgumentException if the cursor is not a comment path.
+     */
+    @Transactional(readOnly = true)
+    public List<Comment> getReplies(Long id, Optional<String> after, int limit) {
+        log.debug("Request to get replies of Comment {} after {} limit {}",id,after,limit);
+        if (after.isPresent() && !CommentPaths.isPath(after.get())) {
+            throw new IllegalArgumentException("Invalid cursor: " + after.get());
+        }
+        CommentPathDTO comment=this.commentRepository.findPathById(id);
+        if (comment == null) {
+            return null;
+        }
+        return this.commentRepository.findSubtreePage(CommentPaths.subtree(comment.path()),after.orElse(comment.path()),
+                CursorPaging.limit(limit));
+    }
+
+    /**
+     * Computes the entity tag of one page of the comments of a post without loading the comments.
+     *
+     * The tag is built from the number, the highest id and the sum of the versions of the post's comments from the
+     * cursor on, read with a single aggregate query. Adding or deleting a comment changes the count or the highest
+     * id, and editing one changes the version sum, so any change to the page changes the tag.
+     *
+     * @param postId The ID of the post whose comments are paged.
+     * @param after Optional cursor returned with the previous page.
+     * @param limit The maximum number of comments of the page.
+     * @return The entity tag of the page.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public String getCommentsETag(Long postId, Optional<String> after, int limit) {
+        log.debug("Request to get ETag of Comments of post {} after {} limit {}",postId,after,limit);
+        Long afterId=CursorPaging.after(after);
+        CommentsVersionDTO version=this.commentRepository.findVersionByPostIdAndIdGreaterThan(postId,afterId);
+        return ETags.of("comments",postId,afterId,CursorPaging.clamp(limit),version.count(),version.maxId(),version.versionSum());
+    }
+
     /**
      * Retrieves a single comment based on the provided comment ID.
      *
-     * This method fetches the comment with the specified ID from the repository.
+     * This method fetches the comment with the specified ID from the repository. A comment on a soft-deleted post or
+     * of a soft-deleted user is not found, although its row stays until it is purged.
      *
      * @param id The unique identifier of the comment to be retrieved.
-     * @return The Comment object with the given ID, or null if no comment exists with the provided ID.
+     * @return The Comment object with the given ID, or null if no visible comment exists with the provided ID.
      */
     @Transactional(readOnly = true)
     public Comment getCommentById(Long id) {
         log.debug("Request to get Comment : {}", id);
-        return this.commentRepository.findById(id).orElse(null);
+        return this.commentRepository.findVisibleById(id).orElse(null);
     }
 
     /**
      * Saves a new comment based on the information provided in the CommentCreateDTO.
      *
-     * This method creates and saves a new comment using the data from the CommentCreateDTO, which contains the necessary
-     * details to create a comment. The comment is associated with a specific user and a post.
+     * Neither the user nor the post is loaded. The comment counter of the post is incremented first, which also
+     * tells whether the post and the user exist and are not soft-deleted; the comment is then inserted with lazy
+     * references to its user and post, so creating a comment costs the counter update and a single INSERT, plus the
+     * INSERT of its {@link CommentAdded} event into the outbox. A reply also reads the path of its parent, which
+     * must belong to the same post. Any ID in the payload is ignored.
      *
      * @param commentCreateDTO The CommentCreateDTO object containing the data required to create the comment.
-     * @return The newly created Comment object if the associated user and post exist and the comment is successfully saved,
-     *         otherwise returns null if either the user or post does not exist.
+     * @return The newly created Comment object, or null if the post, the user or the parent comment does not exist.
+     * @throws IllegalArgumentException if the reply would be nested deeper than {@value CommentPaths#MAX_DEPTH} levels.
      */
     public Comment saveComment(CommentCreateDTO commentCreateDTO) {
         log.debug("Request to save Comment : {}", commentCreateDTO);
-        User user=this.userService.getUserById(commentCreateDTO.getUserId());
-        Post post=this.postService.getPostById(commentCreateDTO.getPostId());
-        if (user != null && post != null){
-            Comment comment= CommentMapper.toEntity(commentCreateDTO,user,post);
-            return this.commentRepository.save(comment);
+        if (commentCreateDTO.getUserId() == null || commentCreateDTO.getPostId() == null) {
+            return null;
         }
-        return null;
+        CommentPathDTO parent=null;
+        if (commentCreateDTO.getParentId() != null) {
+            parent=this.commentRepository.findPathById(commentCreateDTO.getParentId());
+            if (parent == null || !parent.postId().equals(commentCreateDTO.getPostId())) {
+                return null;
+            }
+            if (parent.depth() >= CommentPaths.MAX_DEPTH) {
+                throw new IllegalArgumentException("Replies are nested at most " + CommentPaths.MAX_DEPTH + " levels deep");
+            }
+        }
+        if (!this.postService.incrementCommentCountForUser(commentCreateDTO.getPostId(),commentCreateDTO.getUserId())) {
+            return null;
+        }
+        Comment comment= CommentMapper.toEntity(commentCreateDTO,this.userService.getUserReference(commentCreateDTO.getUserId()),
+                this.postService.getPostReference(commentCreateDTO.getPostId()),parent);
+        comment.setId(null);
+        Comment savedComment=this.commentRepository.save(comment);
+        this.domainEventPublisher.publish(new CommentAdded(savedComment.getId(),commentCreateDTO.getPostId(),
+                commentCreateDTO.getUserId(),Instant.now()));
+        return savedComment;
+    }
+
+    /**
+     * Saves many new comments at once.
+     *
+     * The comments are written in chunks of {@code blog.batch.chunk-size}, each chunk in its own transaction. The
+     * users and the existence of the posts of a chunk are resolved with one query each, the inserts are sent as JDBC
+     * batches thanks to the pooled comment id sequence, and the comment counters are adjusted with one update per
+     * post rather than one per comment. The {@link CommentAdded} events of a chunk are published with one more
+     * batch. The paths of the parents of the replies of a chunk are read with one more query; a reply can only
+     * answer a comment written before its chunk. Comments whose user, post or parent does not exist, whose parent
+     * belongs to another post or that would be nested too deep are rejected; IDs in the payload are ignored. Chunks
+     * already written stay committed if a later chunk fails.
+     *
+     * @param commentCreateDTOs The CommentCreateDTO objects of the comments to create.
+     * @return The number of comments received, written and rejected.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResultDTO saveComments(List<CommentCreateDTO> commentCreateDTOs) {
+        log.debug("Request to save {} Comments", commentCreateDTOs.size());
+        return ChunkedWrites.write(commentCreateDTOs, this.batchChunkSize, this.transactionTemplate, chunk -> {
+            Map<Long, User> users = this.userService.getUsersByIds(chunk.stream().map(CommentCreateDTO::getUserId)
+                    .filter(Objects::nonNull).collect(Collectors.toSet()));
+            Set<Long> postIds = this.postService.getExistingPostIds(chunk.stream().map(CommentCreateDTO::getPostId)
+                    .filter(Objects::nonNull).collect(Collectors.toSet()));
+            Set<Long> parentIds = chunk.stream().map(CommentCreateDTO::getParentId).filter(Objects::nonNull).collect(Collectors.toSet());
+            Map<Long, CommentPathDTO> parents = parentIds.isEmpty() ? Map.of() : this.commentRepository.findPathsByIdIn(parentIds)
+                    .stream().collect(Collectors.toMap(CommentPathDTO::id, parent -> parent));
+            List<Comment> comments = new ArrayList<>(chunk.size());
+            Map<Long, Long> commentsPerPost = new HashMap<>();
+            for (CommentCreateDTO commentCreateDTO : chunk) {
+                User user = users.get(commentCreateDTO.getUserId());
+                CommentPathDTO parent = commentCreateDTO.getParentId() == null ? null : parents.get(commentCreateDTO.getParentId());
+                boolean validParent = commentCreateDTO.getParentId() == null || parent != null
+                        && parent.postId().equals(commentCreateDTO.getPostId()) && parent.depth() < CommentPaths.MAX_DEPTH;
+                if (user != null && postIds.contains(commentCreateDTO.getPostId()) && validParent) {
+                    Comment comment = CommentMapper.toEntity(commentCreateDTO, user, this.postService.getPostReference(commentCreateDTO.getPostId()), parent);
+                    comment.setId(null);
+                    comments.add(comment);
+                    commentsPerPost.merge(commentCreateDTO.getPostId(), 1L, Long::sum);
+                }
+            }
+            this.commentRepository.saveAll(comments);
+            this.postService.incrementCommentCounts(commentsPerPost);
+            Instant now = Instant.now();
+            this.domainEventPublisher.publishAll(comments.stream()
+                    .map(comment -> new CommentAdded(comment.getId(), comment.getPost().getId(), comment.getUser().getId(), now)).toList());
+            return comments.size();
+        });
     }
 
     /**
@@ -105,7 +285,7 @@ public class CommentService {
      *         otherwise returns null if no comment is found with the provided ID.
      */
     public Comment updateComment(CommentUpdateDTO commentUpdateDTO, Long id) {
-        Optional<Comment> comment = this.commentRepository.findById(id);
+        Optional<Comment> comment = this.commentRepository.findVisibleById(id);
         if (comment.isPresent()){
             Comment convertComment=CommentMapper.toUpdateEntity(commentUpdateDTO,comment.get());
             log.debug("Request to update Comment : {}", convertComment);
@@ -118,12 +298,43 @@ public class CommentService {
     /**
      * Deletes a comment with the specified ID.
      *
-     * This method removes the comment with the provided ID from the repository, effectively deleting it from the system.
+     * This method removes the comment with the provided ID and all its replies, nested to any depth, with one range
+     * delete over their paths, and decrements the comment counter of its post by the number of comments removed in
+     * the same transaction. If no comment is found, no action is taken.
      *
      * @param id The unique identifier of the comment to be deleted.
      */
     public void deleteComment(Long id) {
         log.debug("Request to delete Comment : {}", id);
-        this.commentRepository.deleteById(id);
+        CommentPathDTO comment=this.commentRepository.findPathById(id);
+        if (comment != null) {
+            int deleted=this.commentRepository.deleteSubtree(CommentPaths.subtree(comment.path()));
+            this.postService.incrementCommentCount(comment.postId(),-deleted);
+        }
+    }
+
+    /**
+     * Deletes all comments of a post, of a user, or of a user on a post.
+     *
+     * The comments are deleted in consecutive id ranges of at most {@code blog.batch.chunk-size} of them, each range
+     * in its own transaction without loading a single comment: the comments of a post with one DELETE per range, the
+     * comments of a user with their replies, as for a single comment, with one JDBC batch of path range deletes per
+     * range. The comment counters of the affected posts are adjusted in the transaction of each range. Ranges already
+     * deleted stay committed if a later range fails.
+     *
+     * @param postId The unique identifier of the post whose comments are deleted, or null for comments on any post.
+     * @param userId The unique identifier of the user whose comments are deleted, or null for comments of any user.
+     * @return The number of comments deleted, of posts they belonged to and of ranges.
+     * @throws IllegalArgumentException if neither a post nor a user is given.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkDeleteResultDTO deleteComments(Long postId, Long userId) {
+        log.debug("Request to delete Comments of Post : {} and User : {}", postId, userId);
+        if (postId == null && userId == null) {
+            throw new IllegalArgumentException("A post or a user is required");
+        }
+        return ChunkedDeletes.delete((after, chunkSize) -> this.commentRepository.findChunkEnd(postId, userId, after, chunkSize),
+                (after, end) -> this.commentRepository.deleteChunk(postId, userId, after, end),
+                this.batchChunkSize, this.transactionTemplate, this.postService::discountDeletedComments);
     }
 }
@@ -0,0 +1,56 @@
+package com.project.blogbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.project.blogbackend.service.dto.EntityCacheStatistics;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheAccessImpl;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.cache.spi.Region;
+import org.hibernate.cache.spi.support.DomainDataRegionTemplate;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class EntityCacheService {
+    private final Logger log= LoggerFactory.getLogger(EntityCacheService.class);
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    public EntityCacheService(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Retrieves the statistics of every entity region of the Hibernate second-level cache.
+     *
+     * Post and User are cached in bounded Caffeine regions configured in {@code application.conf}. The
+     * numbers are Caffeine's own counters for each region, so they include every lookup Hibernate made,
+     * whether it came from a service call or from lazily resolving an association.
+     *
+     * @return The size, hit, miss and eviction counts of each region backed by Caffeine.
+     */
+    public List<EntityCacheStatistics> getStatistics() {
+        log.debug("Request to get entity cache statistics");
+        CacheImplementor cache=this.entityManagerFactory.unwrap(SessionFactoryImplementor.class).getCache();
+        List<EntityCacheStatistics> statistics=new ArrayList<>();
+        for (String regionName : cache.getCacheRegionNames()) {
+            Region region=cache.getRegion(regionName);
+            if (region instanceof DomainDataRegionTemplate domainRegion
+                    && domainRegion.getCacheStorageAccess() instanceof JCacheAccessImpl access) {
+                javax.cache.Cache<?, ?> jcache=access.getUnderlyingCache();
+                Cache<?, ?> caffeine=jcache.unwrap(Cache.class);
+                CacheStats stats=caffeine.stats();
+                statistics.add(new EntityCacheStatistics(regionName, caffeine.estimatedSize(), stats.hitCount(),
+                        stats.missCount(), stats.hitRate(), stats.evictionCount()));
+            }
+        }
+        return statistics;
+    }
+}
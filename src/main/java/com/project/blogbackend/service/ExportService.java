@@ -0,0 +1,116 @@
+package com.project.blogbackend.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.blogbackend.repository.CommentRepository;
+import com.project.blogbackend.repository.LikeRepository;
+import com.project.blogbackend.repository.PostRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole tables as newline-delimited JSON, one row per line.
+ *
+ * Rows are read as DTO projections from a forward-only, fetch-size-limited query and serialized to the output as
+ * they arrive, so neither entities nor the serialized body are held in the heap: memory use is the same for ten
+ * rows as for ten million. Each export runs in one read-only transaction and stops as soon as the client goes away.
+ */
+@Service
+public class ExportService {
+    private final Logger log= LoggerFactory.getLogger(ExportService.class);
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeRepository likeRepository;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter rowWriter;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportService(PostRepository postRepository, CommentRepository commentRepository,
+                         LikeRepository likeRepository, ObjectMapper objectMapper,
+                         PlatformTransactionManager transactionManager) {
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeRepository = likeRepository;
+        this.objectMapper = objectMapper;
+        // the generator is flushed by its own buffer, not after every row
+        this.rowWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Writes every Post with an id greater than the cursor to the given stream, in ascending id order.
+     *
+     * @param after An optional cursor, the id of the last Post already exported. If not provided, all Posts are
+     *              exported.
+     * @param out   The stream to write to; it is flushed but not closed.
+     * @return The number of Posts written.
+     */
+    public long exportPosts(Optional<Long> after, OutputStream out) {
+        log.debug("Request to export Posts after: {}", after);
+        return export(() -> this.postRepository.streamExportByIdGreaterThan(after.orElse(0L)), out);
+    }
+
+    /**
+     * Writes every Comment with an id greater than the cursor to the given stream, in ascending id order.
+     *
+     * @param after An optional cursor, the id of the last Comment already exported. If not provided, all Comments
+     *              are exported.
+     * @param out   The stream to write to; it is flushed but not closed.
+     * @return The number of Comments written.
+     */
+    public long exportComments(Optional<Long> after, OutputStream out) {
+        log.debug("Request to export Comments after: {}", after);
+        return export(() -> this.commentRepository.streamExportByIdGreaterThan(after.orElse(0L)), out);
+    }
+
+    /**
+     * Writes every Like with an id greater than the cursor to the given stream, in ascending id order.
+     *
+     * @param after An optional cursor, the id of the last Like already exported. If not provided, all Likes are
+     *              exported.
+     * @param out   The stream to write to; it is flushed but not closed.
+     * @return The number of Likes written.
+     */
+    public long exportLikes(Optional<Long> after, OutputStream out) {
+        log.debug("Request to export Likes after: {}", after);
+        return export(() -> this.likeRepository.streamExportByIdGreaterThan(after.orElse(0L)), out);
+    }
+
+    private <T> long export(Supplier<Stream<T>> query, OutputStream out) {
+        Long written = this.readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<T> rows = query.get();
+                 JsonGenerator generator = this.objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                Iterator<T> iterator = rows.iterator();
+                while (iterator.hasNext()) {
+                    this.rowWriter.writeValue(generator, iterator.next());
+                    generator.writeRaw('\n');
+                    count++;
+                }
+                generator.flush();
+            } catch (IOException e) {
+                // most likely the client disconnected; closing the stream releases the cursor and the connection
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+        log.debug("Exported {} rows", written);
+        return written == null ? 0 : written;
+    }
+}
@@ -0,0 +1,217 @@
+package com.project.blogbackend.service;
+
+import com.project.blogbackend.entity.User;
+import com.project.blogbackend.event.DomainEvent;
+import com.project.blogbackend.event.DomainEventSubscriber;
+import com.project.blogbackend.event.PostCreated;
+import com.project.blogbackend.event.PostDeleted;
+import com.project.blogbackend.repository.FeedRepository;
+import com.project.blogbackend.repository.FeedTrimRepository;
+import com.project.blogbackend.repository.FollowRepository;
+import com.project.blogbackend.repository.PostRepository;
+import com.project.blogbackend.service.dto.FeedTrimDTO;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.util.CursorPaging;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Maintains and serves the precomputed home feeds of users.
+ *
+ * The home feed of a user holds their own Posts and the Posts of the users they follow, newest first. When a Post
+ * has been saved, its {@link PostCreated} event writes it into the feed of every follower of its author with one
+ * {@code INSERT ... SELECT} (fan-out on write), so reading a feed is a single range scan of the {@code feed_entry}
+ * primary key. Authors with
+ * more than {@code blog.feed.fan-out-threshold} followers are not fanned out; their Posts are merged into the feeds
+ * of their followers at read time instead (fan-out on read). The follower count that decides between the two is
+ * read from the database, never from the second-level cache. Feeds are trimmed to {@code blog.feed.max-length}
+ * entries by {@link FeedTrimmer}; only the feeds of the authors marked in {@code feed_trim} since the last trim are
+ * looked at.
+ */
+@Service
+@Transactional
+public class FeedService implements DomainEventSubscriber {
+    private final Logger log= LoggerFactory.getLogger(FeedService.class);
+    private final FeedRepository feedRepository;
+    private final FeedTrimRepository feedTrimRepository;
+    private final FollowRepository followRepository;
+    private final PostRepository postRepository;
+    private final UserService userService;
+    private final TransactionTemplate transaction;
+    private final int maxLength;
+    private final long fanOutThreshold;
+
+    @Autowired
+    public FeedService(FeedRepository feedRepository, FeedTrimRepository feedTrimRepository, FollowRepository followRepository,
+                       PostRepository postRepository, UserService userService, PlatformTransactionManager transactionManager,
+                       @Value("${blog.feed.max-length:1000}") int maxLength,
+                       @Value("${blog.feed.fan-out-threshold:10000}") long fanOutThreshold) {
+        this.feedRepository = feedRepository;
+        this.feedTrimRepository = feedTrimRepository;
+        this.followRepository = followRepository;
+        this.postRepository = postRepository;
+        this.userService = userService;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.maxLength = maxLength;
+        this.fanOutThreshold = fanOutThreshold;
+    }
+
+    /**
+     * Retrieves one page of the home feed of a user, newest Posts first.
+     *
+     * The precomputed entries are read with one range scan of the user's feed. If the user follows authors above
+     * the fan-out threshold, their newest Posts before the cursor are read with one more query and merged in.
+     *
+     * @param userId The unique identifier of the user whose feed is read.
+     * @param before An optional cursor returned with the previous page. If not provided, the newest Posts are returned.
+     * @param limit  The maximum number of Posts to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return A list of at most {@code limit} Post summaries with an id lower than the cursor, in descending id order.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getFeed(Long userId, Optional<String> before, int limit) {
+        log.debug("Request to get Feed of User : {} before: {} limit: {}", userId, before, limit);
+        Long beforeId = CursorPaging.decode(before, Long.MAX_VALUE);
+        Pageable page = CursorPaging.limit(limit);
+        List<PostSummaryDTO> feed = this.feedRepository.findPageByUserId(userId, beforeId, page);
+        List<Long> prolificAuthors = this.followRepository.findFolloweeIdsWithFollowerCountAbove(userId, this.fanOutThreshold);
+        if (prolificAuthors.isEmpty()) {
+            return feed;
+        }
+        TreeMap<Long, PostSummaryDTO> merged = new TreeMap<>(Comparator.reverseOrder());
+        feed.forEach(post -> merged.put(post.id(), post));
+        this.postRepository.findSummariesByUserIdInAndIdLessThan(prolificAuthors, beforeId, page)
+                .forEach(post -> merged.putIfAbsent(post.id(), post));
+        return merged.values().stream().limit(page.getPageSize()).toList();
+    }
+
+    /**
+     * Applies the Post events to the feeds, in order, in one transaction.
+     *
+     * A created Post is added to the feed of its author and, unless the author is above the fan-out threshold, to
+     * the feeds of all of the author's followers, and the author is marked for the next trim; a deleted Post is
+     * removed from every feed it was written to. The inserts skip entries that already exist and Posts that no longer
+     * exist, so a redelivered event changes nothing.
+     *
+     * @param events The events to apply; events other than {@link PostCreated} and {@link PostDeleted} are ignored.
+     */
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        for (DomainEvent event : events) {
+            switch (event) {
+                case PostCreated created -> addPost(created.postId(), created.userId());
+                case PostDeleted deleted -> removePost(deleted.postId());
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void addPost(Long postId, Long authorId) {
+        Optional<Long> followerCount = this.userService.getFollowerCount(authorId);
+        if (followerCount.isEmpty()) {
+            return;
+        }
+        this.feedRepository.addToOwnFeed(postId, authorId);
+        if (followerCount.get() <= this.fanOutThreshold) {
+            int fannedOut = this.feedRepository.fanOut(postId, authorId);
+            log.debug("Fanned Post : {} out to {} followers of User : {}", postId, fannedOut, authorId);
+        }
+        this.feedTrimRepository.markIfAbsent(authorId);
+    }
+
+    private void removePost(Long postId) {
+        int removed = this.feedRepository.deleteByPostId(postId);
+        log.debug("Removed Post : {} from {} feeds", postId, removed);
+    }
+
+    /**
+     * Makes a user follow another user, if they do not follow them yet.
+     *
+     * The follow is inserted with {@code ON DUPLICATE KEY UPDATE}, so concurrent requests for the same pair cannot
+     * fail on the unique key; only the request that inserted the row increments the follower count. Unless the
+     * followed user is above the fan-out threshold, as counted after the increment, their newest Posts are copied
+     * into the follower's feed with one {@code INSERT ... SELECT}, so the feed is complete right away, and the feed
+     * is trimmed back to its maximum length with one {@code DELETE}.
+     *
+     * @param followerId The unique identifier of the user who follows.
+     * @param followeeId The unique identifier of the user to follow.
+     * @return true if the follow was created, false if it already existed, or null if either user does not exist.
+     */
+    public Boolean follow(Long followerId, Long followeeId) {
+        log.debug("Request to follow User : {} by User : {}", followeeId, followerId);
+        User follower = this.userService.getUserById(followerId);
+        User followee = this.userService.getUserById(followeeId);
+        if (follower == null || followee == null) {
+            return null;
+        }
+        if (this.followRepository.insertIfAbsent(followerId, followeeId) == 0) {
+            return false;
+        }
+        this.userService.incrementFollowerCount(followeeId, 1);
+        // read after the increment, in this transaction: the cached followee may be stale
+        if (this.userService.getFollowerCount(followeeId).orElse(0L) <= this.fanOutThreshold
+                && this.feedRepository.backfill(followerId, followeeId, this.maxLength) > 0) {
+            this.feedRepository.trim(followerId, this.maxLength);
+        }
+        return true;
+    }
+
+    /**
+     * Makes a user stop following another user and removes the other user's Posts from their feed.
+     *
+     * @param followerId The unique identifier of the user who follows.
+     * @param followeeId The unique identifier of the followed user.
+     * @return true if the follow was removed, false if the user did not follow the other user.
+     */
+    public boolean unfollow(Long followerId, Long followeeId) {
+        log.debug("Request to unfollow User : {} by User : {}", followeeId, followerId);
+        if (this.followRepository.deleteByFollowerIdAndFolloweeId(followerId, followeeId) == 0) {
+            return false;
+        }
+        this.userService.incrementFollowerCount(followeeId, -1);
+        this.feedRepository.deleteByUserIdAndAuthorId(followerId, followeeId);
+        return true;
+    }
+
+    /**
+     * Trims the feeds of the authors marked since the last call to their {@code blog.feed.max-length} newest entries.
+     *
+     * Only a feed that Posts were added to can have outgrown the limit, so the other feeds are never read. The marks
+     * are kept in the {@code feed_trim} table and survive a restart. For each marked author, the feeds of the author
+     * and of all of their followers are trimmed with one {@code DELETE}, in a transaction that also removes the mark,
+     * so a failed trim is retried on the next call. The own feed alone is trimmed for authors above the fan-out
+     * threshold, whose Posts are not written to the feeds of their followers.
+     *
+     * Runs without a surrounding transaction, so each author is trimmed by its own short transaction.
+     *
+     * @return The number of feed entries removed.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int trimFeeds() {
+        int trimmed = 0;
+        for (FeedTrimDTO author : this.feedTrimRepository.findAllWithFollowerCount()) {
+            trimmed += this.transaction.execute(status -> {
+                this.feedTrimRepository.deleteByAuthorId(author.authorId());
+                if (author.followerCount() == null) {
+                    return 0;
+                }
+                if (author.followerCount() <= this.fanOutThreshold) {
+                    return this.feedRepository.trimFeedsOfAuthor(author.authorId(), this.maxLength);
+                }
+                return this.feedRepository.trim(author.authorId(), this.maxLength);
+            });
+        }
+        return trimmed;
+    }
+}
@@ -0,0 +1,34 @@
+package com.project.blogbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class FeedTrimmer {
+    private final Logger log= LoggerFactory.getLogger(FeedTrimmer.class);
+    private final FeedService feedService;
+
+    @Autowired
+    public FeedTrimmer(FeedService feedService) {
+        this.feedService = feedService;
+    }
+
+    /**
+     * Keeps the precomputed home feeds bounded.
+     *
+     * Fan-out only ever appends to feeds; this job drops the entries beyond the {@code blog.feed.max-length}
+     * newest ones of the feeds of the authors who posted since its last run, and of their followers, so the
+     * size of the feed table grows with the number of users rather than with the number of Posts.
+     *
+     * @return The number of feed entries removed.
+     */
+    @Scheduled(cron = "${blog.feed.trim-cron:0 */10 * * * *}")
+    public int trim() {
+        int trimmed=this.feedService.trimFeeds();
+        log.info("Trimmed {} feed entries", trimmed);
+        return trimmed;
+    }
+}
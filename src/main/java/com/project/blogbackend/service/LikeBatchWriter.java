@@ -0,0 +1,89 @@
+package com.project.blogbackend.service;
+
+import com.project.blogbackend.event.DomainEventPublisher;
+import com.project.blogbackend.event.LikeAdded;
+import com.project.blogbackend.repository.LikeRepository;
+import com.project.blogbackend.repository.PostRepository;
+import org.springframework.stereotype.Component;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes likes in JDBC batches of idempotent inserts and adjusts the like counters of the affected posts.
+ *
+ * Shared by the write-behind buffer and the bulk like endpoint. Must be called inside a transaction, so that the
+ * likes and the counter updates commit together.
+ */
+@Component
+public class LikeBatchWriter {
+    private final LikeRepository likeRepository;
+    private final PostRepository postRepository;
+    private final DomainEventPublisher domainEventPublisher;
+
+    public LikeBatchWriter(LikeRepository likeRepository, PostRepository postRepository, DomainEventPublisher domainEventPublisher) {
+        this.likeRepository = likeRepository;
+        this.postRepository = postRepository;
+        this.domainEventPublisher = domainEventPublisher;
+    }
+
+    /**
+     * Inserts the given likes, skipping the ones that already exist and the ones of missing or soft-deleted posts
+     * and users, adds the number of new likes of each post to its like counter and publishes a {@link LikeAdded}
+     * event for each new like.
+     *
+     * The likes that already exist are read before the insert, so a like that did not exist then and was not
+     * inserted either was dropped. When the driver rewrites the batch into one statement and does not report which
+     * rows were new, the events are published for the likes that did not exist then, and the counters of the
+     * affected posts are recounted.
+     *
+     * @param rows The likes to insert, each as {@code {postId, userId}}.
+     * @return The number of likes dropped because their post or user is missing or soft-deleted, as far as the driver
+     *         reports it.
+     */
+    public int insert(List<Object[]> rows) {
+        Set<PostUser> seen = new HashSet<>();
+        for (Object[] existing : this.likeRepository.findExisting(rows)) {
+            seen.add(new PostUser((Long) existing[0], (Long) existing[1]));
+        }
+        int[] inserted = this.likeRepository.insertAllIfAbsent(rows);
+        Map<Long, Long> likesPerPost = new HashMap<>();
+        List<LikeAdded> events = new ArrayList<>(rows.size());
+        Instant now = Instant.now();
+        boolean countsKnown = true;
+        int dropped = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            Long postId = (Long) rows.get(i)[0];
+            Long userId = (Long) rows.get(i)[1];
+            // a like repeated within the batch is new only the first time
+            boolean absent = seen.add(new PostUser(postId, userId));
+            if (inserted[i] == Statement.SUCCESS_NO_INFO) {
+                countsKnown = false;
+            }
+            if (inserted[i] == 1 || (inserted[i] == Statement.SUCCESS_NO_INFO && absent)) {
+                events.add(new LikeAdded(postId, userId, now));
+            } else if (inserted[i] == 0 && absent) {
+                dropped++;
+            }
+            likesPerPost.merge(postId, inserted[i] == 1 ? 1L : 0L, Long::sum);
+        }
+        this.domainEventPublisher.publishAll(events);
+        if (countsKnown) {
+            likesPerPost.values().removeIf(likes -> likes == 0);
+            this.postRepository.incrementLikeCounts(likesPerPost);
+        } else {
+            // the driver rewrote the batch and did not report which rows were new, so count them instead
+            this.postRepository.recountLikes(likesPerPost.keySet());
+        }
+        return dropped;
+    }
+
+    private record PostUser(Long postId, Long userId) {
+    }
+}
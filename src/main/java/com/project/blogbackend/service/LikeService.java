@@ -1,19 +1,30 @@
 package com.project.blogbackend.service;
 
 import com.project.blogbackend.entity.Like;
-import com.project.blogbackend.entity.Post;
-import com.project.blogbackend.entity.User;
+import com.project.blogbackend.event.DomainEventPublisher;
+import com.project.blogbackend.event.LikeAdded;
 import com.project.blogbackend.repository.LikeRepository;
+import com.project.blogbackend.service.dto.BatchResultDTO;
+import com.project.blogbackend.service.dto.BulkDeleteResultDTO;
 import com.project.blogbackend.service.dto.LikeCreateDTO;
 import com.project.blogbackend.service.mapper.LikeMapper;
+import com.project.blogbackend.service.util.ChunkedDeletes;
+import com.project.blogbackend.service.util.ChunkedWrites;
+import com.project.blogbackend.service.util.CursorPaging;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -22,40 +33,60 @@ public class LikeService {
     private final LikeRepository likeRepository;
     private final PostService postService;
     private final UserService userService;
+    private final LikeWriteBuffer likeWriteBuffer;
+    private final LikeBatchWriter likeBatchWriter;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
 
     @Autowired
-    public LikeService(LikeRepository likeRepository, PostService postService, UserService userService) {
+    public LikeService(LikeRepository likeRepository, PostService postService, UserService userService, LikeWriteBuffer likeWriteBuffer,
+                       LikeBatchWriter likeBatchWriter, DomainEventPublisher domainEventPublisher, TransactionTemplate transactionTemplate,
+                       @Value("${blog.batch.chunk-size:1000}") int batchChunkSize) {
         this.likeRepository=likeRepository;
         this.postService = postService;
         this.userService = userService;
+        this.likeWriteBuffer = likeWriteBuffer;
+        this.likeBatchWriter = likeBatchWriter;
+        this.domainEventPublisher = domainEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchChunkSize = batchChunkSize;
     }
 
     /**
-     * Retrieves a list of Likes based on the provided criteria.
+     * Retrieves one page of Likes based on the provided criteria.
      *
      * This method fetches Likes from the repository based on the optional userId and postId parameters.
      * If both userId and postId are present, it returns Likes that match both the user and the post.
      * If only userId is present, it returns Likes associated with the specified user.
      * If only postId is present, it returns Likes associated with the specified post.
-     * If neither userId nor postId is provided, it returns all Likes available in the repository.
+     * If neither userId nor postId is provided, it pages through all Likes available in the repository.
+     *
+     * Likes are returned in ascending id order starting after the given cursor, so every page is a single
+     * {@code id > ?} range scan regardless of how deep the client pages.
      *
      * @param userId An optional parameter representing the unique identifier of the user whose Likes are to be retrieved.
      * @param postId An optional parameter representing the unique identifier of the post whose Likes are to be retrieved.
-     * @return A list of Like objects that match the provided criteria, or all Likes if no specific criteria are given.
+     * @param after An optional cursor returned with the previous page.
+     * @param limit The maximum number of Likes to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return A list of at most {@code limit} Like objects that match the provided criteria.
+     * @throws IllegalArgumentException if the cursor is invalid.
      * @Transactional(readOnly = true) Indicates that this method is read-only and does not modify the database.
      * @see Like
      */
     @Transactional(readOnly = true)
-    public List<Like> getAllLikes(Optional<Long> userId, Optional<Long> postId) {
-        log.debug("Request to get all Likes or Likes is userId {} or Likes is postId {}",userId,postId);
+    public List<Like> getAllLikes(Optional<Long> userId, Optional<Long> postId, Optional<String> after, int limit) {
+        log.debug("Request to get all Likes or Likes is userId {} or Likes is postId {} after {} limit {}",userId,postId,after,limit);
+        Long afterId=CursorPaging.after(after);
+        Pageable page=CursorPaging.limit(limit);
         if (userId.isPresent() && postId.isPresent()){
-            return this.likeRepository.findByUserIdAndPostId(userId.get(),postId.get());
+            return this.likeRepository.findByUserIdAndPostIdAndIdGreaterThanOrderByIdAsc(userId.get(),postId.get(),afterId,page);
         } else if(userId.isPresent()){
-            return this.likeRepository.findByUserId(userId.get());
+            return this.likeRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId.get(),afterId,page);
         } else if(postId.isPresent()){
-            return this.likeRepository.findByPostId(postId.get());
+            return this.likeRepository.findByPostIdAndIdGreaterThanOrderByIdAsc(postId.get(),afterId,page);
         } else {
-            return this.likeRepository.findAll();
+            return this.likeRepository.findByIdGreaterThanOrderByIdAsc(afterId,page);
         }
     }
 
@@ -74,46 +105,160 @@ public class LikeService {
     @Transactional(readOnly = true)
     public Like getLikeById(Long id) {
         log.debug("Request to get Like : {}", id);
-        return this.likeRepository.findById(id).orElse(null);
+        return this.likeRepository.findVisibleById(id).orElse(null);
+    }
+
+    /**
+     * Tells whether the given User already likes the given Post.
+     *
+     * Answered from the unique (user_id, post_id) index and the primary keys of the User and the Post without
+     * loading the Like; the Like of a soft-deleted User or on a soft-deleted Post does not count.
+     *
+     * @param userId The unique identifier of the User.
+     * @param postId The unique identifier of the Post.
+     * @return true if a Like of the User on the Post exists.
+     */
+    @Transactional(readOnly = true)
+    public boolean likeExists(Long userId, Long postId) {
+        log.debug("Request to check Like of User : {} on Post : {}", userId, postId);
+        return this.likeRepository.existsVisibleByUserIdAndPostId(userId,postId);
     }
 
     /**
      * Saves a new Like based on the provided LikeCreateDTO.
      *
-     * This method creates and saves a new Like object in the repository based on the information
-     * provided in the LikeCreateDTO. It first retrieves the corresponding Post and User objects
-     * using the PostService and UserService, respectively, by their unique identifiers (IDs) from
-     * the LikeCreateDTO. If both the User and Post are found, a new Like entity is created using
-     * the LikeMapper, and then it is saved in the repository using the LikeRepository.
+     * Neither the User nor the Post is loaded. The like counter of the Post is incremented first, which also tells
+     * whether the Post and the User exist and are not soft-deleted; the Like is then inserted with lazy references
+     * to its Post and User, so creating a Like costs the counter update and a single INSERT, plus the INSERT of its
+     * {@link LikeAdded} event into the outbox. A second Like of the same User on the same Post is reported by the
+     * database, through the unique key of the Like. Any ID in the payload is ignored.
      *
      * @param likeCreateDTO The LikeCreateDTO object containing the necessary information to create the Like.
-     * @return The newly created Like object if both the User and Post are found and the Like is successfully saved,
-     *         or null if either the User or the Post is not found, and the Like cannot be saved.
+     * @return The newly created Like object, or null if the Post or the User does not exist.
+     * @throws org.springframework.dao.DataIntegrityViolationException if the User already likes the Post.
      * @see LikeCreateDTO
      * @see Like
-     * @see Post
-     * @see User
      * @see LikeMapper
      * @see LikeRepository
-     * @see PostService
-     * @see UserService
      */
     public Like saveLike(LikeCreateDTO likeCreateDTO) {
         log.debug("Request to save Like : {}", likeCreateDTO);
-        Post post=this.postService.getPostById(likeCreateDTO.getPostId());
-        User user=this.userService.getUserById(likeCreateDTO.getUserId());
-        if (user != null && post != null) {
-            Like like= LikeMapper.toEntity(likeCreateDTO,post,user);
-            return this.likeRepository.save(like);
+        if (likeCreateDTO.getUserId() == null || likeCreateDTO.getPostId() == null
+                || !this.postService.incrementLikeCountForUser(likeCreateDTO.getPostId(),likeCreateDTO.getUserId())) {
+            return null;
+        }
+        Like like= LikeMapper.toEntity(likeCreateDTO,this.postService.getPostReference(likeCreateDTO.getPostId()),
+                this.userService.getUserReference(likeCreateDTO.getUserId()));
+        like.setId(null);
+        Like savedLike=this.likeRepository.save(like);
+        this.domainEventPublisher.publish(new LikeAdded(likeCreateDTO.getPostId(),likeCreateDTO.getUserId(),Instant.now()));
+        return savedLike;
+    }
+
+    /**
+     * Makes sure the given User likes the given Post, creating the Like only if it does not exist yet.
+     *
+     * The Like is written with a single idempotent insert that relies on the unique (user_id, post_id) index,
+     * so retries and concurrent toggles of the same pair never create duplicates and never need a prior SELECT.
+     * The insert itself checks that the Post and the User exist and are not soft-deleted. The like counter of the
+     * Post is incremented, and a {@link LikeAdded} event published, only when a row was actually inserted; when none
+     * was, the existing Like is looked up to tell a repeated like from a missing Post or User.
+     *
+     * @param postId The unique identifier of the Post to like.
+     * @param userId The unique identifier of the User who likes the Post.
+     * @return true if a new Like was created, false if the User already liked the Post, or null if the Post or the
+     *         User does not exist.
+     */
+    public Boolean likePost(Long postId, Long userId) {
+        log.debug("Request to like Post : {} by User : {}", postId, userId);
+        if (this.likeRepository.insertIfAbsent(userId,postId) == 1) {
+            if (!this.postService.incrementLikeCount(postId,1)) {
+                // the Post was soft-deleted since the insert checked it
+                throw new DataIntegrityViolationException("Post " + postId + " does not exist");
+            }
+            this.domainEventPublisher.publish(new LikeAdded(postId,userId,Instant.now()));
+            return true;
+        }
+        return this.likeRepository.existsVisibleByUserIdAndPostId(userId,postId) ? false : null;
+    }
+
+    /**
+     * Removes the Like of the given User on the given Post, if there is one.
+     *
+     * The Like is removed with a single DELETE keyed by the unique (user_id, post_id) index, and the like counter
+     * of the Post is decremented only when a row was actually deleted.
+     *
+     * @param postId The unique identifier of the liked Post.
+     * @param userId The unique identifier of the User whose Like is removed.
+     * @return true if a Like was deleted, false if the User did not like the Post.
+     */
+    public boolean unlikePost(Long postId, Long userId) {
+        log.debug("Request to unlike Post : {} by User : {}", postId, userId);
+        if (this.likeRepository.deleteByUserIdAndPostId(userId,postId) > 0) {
+            this.postService.incrementLikeCount(postId,-1);
+            return true;
         }
-        return null;
+        return false;
+    }
+
+    /**
+     * Saves many new Likes at once.
+     *
+     * The Likes are written in chunks of {@code blog.batch.chunk-size}, each chunk in its own transaction. The users
+     * and posts of a chunk are checked with one query each, and the Likes are written with the same batched,
+     * idempotent insert as the write-behind buffer, so Likes that already exist are counted as written without
+     * being duplicated. The like counters are adjusted with one update per post. Likes whose user or post does
+     * not exist are rejected. Chunks already written stay committed if a later chunk fails.
+     *
+     * @param likeCreateDTOs The LikeCreateDTO objects of the Likes to create.
+     * @return The number of Likes received, written and rejected.
+     * @see LikeBatchWriter
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResultDTO saveLikes(List<LikeCreateDTO> likeCreateDTOs) {
+        log.debug("Request to save {} Likes", likeCreateDTOs.size());
+        return ChunkedWrites.write(likeCreateDTOs, this.batchChunkSize, this.transactionTemplate, chunk -> {
+            Set<Long> userIds = this.userService.getUsersByIds(chunk.stream().map(LikeCreateDTO::getUserId)
+                    .filter(Objects::nonNull).collect(Collectors.toSet())).keySet();
+            Set<Long> postIds = this.postService.getExistingPostIds(chunk.stream().map(LikeCreateDTO::getPostId)
+                    .filter(Objects::nonNull).collect(Collectors.toSet()));
+            List<Object[]> rows = new ArrayList<>(chunk.size());
+            for (LikeCreateDTO likeCreateDTO : chunk) {
+                if (userIds.contains(likeCreateDTO.getUserId()) && postIds.contains(likeCreateDTO.getPostId())) {
+                    rows.add(new Object[]{likeCreateDTO.getPostId(), likeCreateDTO.getUserId()});
+                }
+            }
+            if (!rows.isEmpty()) {
+                this.likeBatchWriter.insert(rows);
+            }
+            return rows.size();
+        });
+    }
+
+    /**
+     * Hands a new Like to the write-behind buffer instead of writing it synchronously.
+     *
+     * When write-behind is enabled, the Like is accepted into the in-memory buffer and written, together with
+     * the like counter of its Post, by the next batch flush. The Post and User are not looked up; Likes that
+     * reference missing rows are dropped when the flush fails on them.
+     *
+     * @param likeCreateDTO The LikeCreateDTO object containing the user and post of the Like.
+     * @return true if the Like was accepted by the buffer, false if write-behind is disabled or the buffer is
+     *         full, in which case the Like has to be saved with {@link #saveLike(LikeCreateDTO)}.
+     * @see LikeWriteBuffer
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean bufferLike(LikeCreateDTO likeCreateDTO) {
+        log.debug("Request to buffer Like : {}", likeCreateDTO);
+        return this.likeWriteBuffer.offer(likeCreateDTO.getUserId(),likeCreateDTO.getPostId());
     }
 
     /**
      * Deletes a Like with the specified unique identifier (ID).
      *
      * This method deletes the Like object from the repository that matches the provided ID.
-     * If a Like with the given ID exists, it is removed from the repository.
+     * If a Like with the given ID exists, it is removed from the repository and the like counter
+     * of its Post is decremented in the same transaction.
      * If no Like with the provided ID is found, no action is taken.
      *
      * @param id The unique identifier of the Like to be deleted.
@@ -121,7 +266,36 @@ public class LikeService {
      * @see LikeRepository
      */
     public void deleteLike(Long id) {
-        log.debug("Request to delete Post : {}", id);
-        this.likeRepository.deleteById(id);
+        log.debug("Request to delete Like : {}", id);
+        Optional<Like> like=this.likeRepository.findById(id);
+        if (like.isPresent()) {
+            Long postId=like.get().getPost().getId();
+            this.likeRepository.delete(like.get());
+            this.postService.incrementLikeCount(postId,-1);
+        }
+    }
+
+    /**
+     * Deletes all Likes of a Post, of a User, or of a User on a Post.
+     *
+     * The Likes are deleted in consecutive id ranges of at most {@code blog.batch.chunk-size} of them, each range with
+     * one DELETE in its own transaction, without loading a single Like. The like counters of the affected Posts are
+     * adjusted in the transaction of each range; the Likes of a User are counted per Post before they are deleted.
+     * Ranges already deleted stay committed if a later range fails.
+     *
+     * @param postId The unique identifier of the Post whose Likes are deleted, or null for Likes on any Post.
+     * @param userId The unique identifier of the User whose Likes are deleted, or null for Likes of any User.
+     * @return The number of Likes deleted, of Posts they belonged to and of ranges.
+     * @throws IllegalArgumentException if neither a Post nor a User is given.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BulkDeleteResultDTO deleteLikes(Long postId, Long userId) {
+        log.debug("Request to delete Likes of Post : {} and User : {}", postId, userId);
+        if (postId == null && userId == null) {
+            throw new IllegalArgumentException("A Post or a User is required");
+        }
+        return ChunkedDeletes.delete((after, chunkSize) -> this.likeRepository.findChunkEnd(postId, userId, after, chunkSize),
+                (after, end) -> this.likeRepository.deleteChunk(postId, userId, after, end),
+                this.batchChunkSize, this.transactionTemplate, this.postService::discountDeletedLikes);
     }
 }
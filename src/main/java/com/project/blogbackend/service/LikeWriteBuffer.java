@@ -0,0 +1,276 @@
+package com.project.blogbackend.service;
+
+import com.project.blogbackend.service.dto.LikeWriteBufferStatistics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Optional write-behind buffer for likes.
+ *
+ * Accepted likes are kept in memory per post, deduplicated per (user, post), and written in JDBC batches of
+ * idempotent inserts together with one counter update per post, either when
+ * {@code blog.likes.write-behind.flush-size} likes are pending or every {@code blog.likes.write-behind.flush-interval-ms}. Likes accepted since the last flush are
+ * lost if the process crashes; that window is bounded by the flush interval and by
+ * {@code blog.likes.write-behind.max-pending}, beyond which likes are no longer buffered and callers fall back
+ * to the synchronous write path.
+ *
+ * Only likes of missing or soft-deleted posts and users are dropped. When the database cannot be
+ * reached, the unwritten likes are put back into the buffer and flushes pause for
+ * {@code blog.likes.write-behind.retry-backoff-ms}, doubling after every failed flush up to
+ * {@code blog.likes.write-behind.max-retry-backoff-ms}.
+ */
+@Component
+public class LikeWriteBuffer {
+    private final Logger log= LoggerFactory.getLogger(LikeWriteBuffer.class);
+    private final LikeBatchWriter likeBatchWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor taskExecutor;
+    private final boolean enabled;
+    private final int flushSize;
+    private final int maxPending;
+    private final int batchSize;
+    private final long retryBackoffMillis;
+    private final long maxRetryBackoffMillis;
+
+    private final ConcurrentHashMap<Long, Set<Long>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final ReentrantLock flushing = new ReentrantLock();
+    // guarded by flushing; retryAt is also read without the lock to skip flushes early
+    private long backoffMillis;
+    private volatile long retryAt;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedRows = new LongAdder();
+    private final LongAdder failedRows = new LongAdder();
+    private final LongAdder requeuedRows = new LongAdder();
+
+    @Autowired
+    public LikeWriteBuffer(LikeBatchWriter likeBatchWriter, TransactionTemplate transactionTemplate,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                           @Value("${blog.likes.write-behind.enabled:false}") boolean enabled,
+                           @Value("${blog.likes.write-behind.flush-size:500}") int flushSize,
+                           @Value("${blog.likes.write-behind.max-pending:50000}") int maxPending,
+                           @Value("${blog.likes.write-behind.batch-size:500}") int batchSize,
+                           @Value("${blog.likes.write-behind.retry-backoff-ms:1000}") long retryBackoffMillis,
+                           @Value("${blog.likes.write-behind.max-retry-backoff-ms:30000}") long maxRetryBackoffMillis) {
+        if (retryBackoffMillis < 1 || maxRetryBackoffMillis < retryBackoffMillis) {
+            throw new IllegalArgumentException("blog.likes.write-behind.retry-backoff-ms must be positive and at most blog.likes.write-behind.max-retry-backoff-ms");
+        }
+        this.likeBatchWriter = likeBatchWriter;
+        this.transactionTemplate = transactionTemplate;
+        this.taskExecutor = taskExecutor;
+        this.enabled = enabled;
+        this.flushSize = flushSize;
+        this.maxPending = maxPending;
+        this.batchSize = batchSize;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.maxRetryBackoffMillis = maxRetryBackoffMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Accepts a like into the buffer.
+     *
+     * Adding to a post's pending set happens inside {@link ConcurrentHashMap#compute}, which only locks the bin of
+     * that post, so writers to different posts never contend. A like already pending for the same (user, post) is
+     * accepted without being buffered twice.
+     *
+     * @param userId The unique identifier of the user who likes the post.
+     * @param postId The unique identifier of the liked post.
+     * @return true if the like was accepted and will be written by a later flush, false if write-behind is disabled
+     *         or the buffer is full and the like has to be written synchronously.
+     */
+    public boolean offer(Long userId, Long postId) {
+        if (!this.enabled || userId == null || postId == null) {
+            return false;
+        }
+        if (this.pendingCount.get() >= this.maxPending) {
+            this.rejected.increment();
+            return false;
+        }
+        boolean[] added = new boolean[1];
+        this.pending.compute(postId, (id, users) -> {
+            Set<Long> postUsers = users == null ? new HashSet<>() : users;
+            added[0] = postUsers.add(userId);
+            return postUsers;
+        });
+        this.accepted.increment();
+        if (!added[0]) {
+            this.deduplicated.increment();
+        } else if (this.pendingCount.incrementAndGet() >= this.flushSize && !this.flushing.isLocked()) {
+            this.taskExecutor.execute(this::flush);
+        }
+        return true;
+    }
+
+    /**
+     * Writes every pending like to the database.
+     *
+     * Runs on the flush interval, when the flush size is reached and on shutdown. Only one flush runs at a time, and
+     * none runs while flushes are backing off after a failure. Pending likes are drained per post and written in
+     * batches of {@code blog.likes.write-behind.batch-size}, each batch in its own transaction. When a batch violates
+     * a constraint, for example because a post or user does not exist, its likes are retried one by one so that only
+     * the offending rows are dropped. When a batch fails for any other reason, it and the rest of the drained likes
+     * are put back into the buffer.
+     */
+    @Scheduled(fixedDelayString = "${blog.likes.write-behind.flush-interval-ms:1000}")
+    public void flush() {
+        if (this.pending.isEmpty() || System.currentTimeMillis() < this.retryAt || !this.flushing.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            this.flushing.unlock();
+        }
+    }
+
+    /**
+     * Waits for a running flush and then writes the likes accepted until the buffer is empty, ignoring the backoff.
+     *
+     * Stops at the first failed flush; the likes still pending then are lost.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        log.debug("Flushing {} buffered Likes on shutdown", this.pendingCount.get());
+        this.flushing.lock();
+        try {
+            boolean written = true;
+            while (written && !this.pending.isEmpty()) {
+                written = writePending();
+            }
+            if (!written) {
+                log.warn("Could not flush buffered Likes on shutdown, {} are lost", this.pendingCount.get());
+            }
+        } finally {
+            this.flushing.unlock();
+        }
+    }
+
+    public LikeWriteBufferStatistics getStatistics() {
+        return new LikeWriteBufferStatistics(this.accepted.sum(), this.deduplicated.sum(), this.rejected.sum(),
+                this.pendingCount.get(), this.flushes.sum(), this.flushedRows.sum(), this.failedRows.sum(), this.requeuedRows.sum());
+    }
+
+    private List<Object[]> drain() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Long postId : this.pending.keySet()) {
+            // remove() takes the same bin lock as compute(), so no offer can add to the set once it is removed
+            Set<Long> users = this.pending.remove(postId);
+            if (users != null) {
+                this.pendingCount.addAndGet(-users.size());
+                for (Long userId : users) {
+                    rows.add(new Object[]{postId, userId});
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Drains the buffer and writes the drained likes, putting the unwritten ones back when a batch fails.
+     *
+     * @return true if every drained like was written or dropped, false if the flush failed and backs off.
+     */
+    private boolean writePending() {
+        List<Object[]> rows = drain();
+        for (int from = 0; from < rows.size(); from += this.batchSize) {
+            List<Object[]> batch = rows.subList(from, Math.min(from + this.batchSize, rows.size()));
+            int written = writeBatch(batch);
+            if (written < batch.size()) {
+                List<Object[]> unwritten = rows.subList(from + written, rows.size());
+                requeue(unwritten);
+                this.backoffMillis = this.backoffMillis == 0 ? this.retryBackoffMillis : Math.min(2 * this.backoffMillis, this.maxRetryBackoffMillis);
+                this.retryAt = System.currentTimeMillis() + this.backoffMillis;
+                log.warn("Flush of buffered Likes failed, {} put back, retrying in {} ms", unwritten.size(), this.backoffMillis);
+                return false;
+            }
+        }
+        this.backoffMillis = 0;
+        this.retryAt = 0;
+        this.flushes.increment();
+        log.debug("Flushed {} buffered Likes, {} still pending", rows.size(), this.pendingCount.get());
+        return true;
+    }
+
+    /**
+     * Writes one batch, falling back to one row at a time when the batch violates a constraint.
+     *
+     * @return The number of leading rows of the batch that were written or dropped; the rest could not be written
+     *         because of a failure that is not a constraint violation.
+     */
+    private int writeBatch(List<Object[]> rows) {
+        try {
+            Integer dropped = this.transactionTemplate.execute(status -> this.likeBatchWriter.insert(rows));
+            countWritten(rows.size(), dropped);
+            return rows.size();
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch of {} buffered Likes violates a constraint, retrying one by one: {}", rows.size(), e.getMessage());
+        } catch (DataAccessException | TransactionException e) {
+            log.debug("Batch of {} buffered Likes failed: {}", rows.size(), e.getMessage());
+            return 0;
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            try {
+                Integer dropped = this.transactionTemplate.execute(status -> this.likeBatchWriter.insert(List.<Object[]>of(row)));
+                countWritten(1, dropped);
+            } catch (DataIntegrityViolationException rowException) {
+                log.debug("Dropping buffered Like of user {} on post {}: {}", row[1], row[0], rowException.getMessage());
+                this.failedRows.increment();
+            } catch (DataAccessException | TransactionException rowException) {
+                log.debug("Buffered Like of user {} on post {} failed: {}", row[1], row[0], rowException.getMessage());
+                return i;
+            }
+        }
+        return rows.size();
+    }
+
+    private void countWritten(int rows, Integer dropped) {
+        int failed = dropped == null ? 0 : dropped;
+        if (failed > 0) {
+            log.debug("Dropped {} buffered Likes of missing posts or users", failed);
+        }
+        this.flushedRows.add(rows - failed);
+        this.failedRows.add(failed);
+    }
+
+    private void requeue(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long postId = (Long) row[0];
+            Long userId = (Long) row[1];
+            boolean[] added = new boolean[1];
+            this.pending.compute(postId, (id, users) -> {
+                Set<Long> postUsers = users == null ? new HashSet<>() : users;
+                added[0] = postUsers.add(userId);
+                return postUsers;
+            });
+            if (added[0]) {
+                this.pendingCount.incrementAndGet();
+            }
+        }
+        this.requeuedRows.add(rows.size());
+    }
+}
@@ -0,0 +1,43 @@
+package com.project.blogbackend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class PostCounterReconciler {
+    private final Logger log= LoggerFactory.getLogger(PostCounterReconciler.class);
+    private final PostService postService;
+    private final int chunkSize;
+
+    @Autowired
+    public PostCounterReconciler(PostService postService, @Value("${blog.counters.reconcile-chunk-size:1000}") int chunkSize) {
+        this.postService = postService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Rebuilds the like and comment counters of every Post from the like and comment tables.
+     *
+     * The counters are maintained incrementally by the like and comment services; this job corrects
+     * any drift, for example after rows were changed directly in the database. Posts are processed in
+     * id ranges of {@code blog.counters.reconcile-chunk-size}, each range in its own short transaction,
+     * so the job never locks the whole post table.
+     *
+     * @return The number of Posts whose counters were rewritten.
+     */
+    @Scheduled(cron = "${blog.counters.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        long maxId=this.postService.getMaxPostId();
+        log.debug("Reconciling Post counters up to Post : {}", maxId);
+        int reconciled=0;
+        for (long fromId=1; fromId<=maxId; fromId+=this.chunkSize) {
+            reconciled+=this.postService.reconcileCounters(fromId,fromId+this.chunkSize-1);
+        }
+        log.info("Reconciled counters of {} Posts", reconciled);
+        return reconciled;
+    }
+}
@@ -0,0 +1,424 @@
+package com.project.blogbackend.service;
+
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.event.DomainEvent;
+import com.project.blogbackend.event.DomainEventSubscriber;
+import com.project.blogbackend.event.PostCreated;
+import com.project.blogbackend.event.PostDeleted;
+import com.project.blogbackend.event.PostUpdated;
+import com.project.blogbackend.repository.PostRepository;
+import com.project.blogbackend.service.dto.PostSearchPageDTO;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.util.CursorPaging;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.document.*;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.*;
+import org.apache.lucene.store.FSDirectory;
+import org.apache.lucene.util.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene full-text index over the titles and texts of posts.
+ *
+ * The index lives on local disk under {@code blog.search.index-dir}, one sub-directory per generation. Saved,
+ * updated and deleted posts are applied to the index from their domain events, after their transaction commits;
+ * searches see them after the next near-real-time refresh, every {@code blog.search.refresh-interval-ms}, and they
+ * are made durable by the periodic commit every {@code blog.search.commit-interval-ms}. A full rebuild reads all
+ * posts into a fresh generation in the background, applies concurrent changes to both generations, and swaps the
+ * new one in when it is complete, so searches keep being served from the old index meanwhile. A post changed by an
+ * event while the rebuild runs is left to the event, so a chunk read before the change cannot bring back a deleted
+ * post or an older version of it. The index is rebuilt
+ * automatically when no generation exists yet. Every node keeps an index of its own, so the index receives the
+ * events of every node as a node-local subscriber.
+ */
+@Component
+public class PostSearchIndex implements DomainEventSubscriber {
+    private static final String ID = "id";
+    private static final String ID_SORT = "id_sort";
+    private static final String TITLE = "title";
+    private static final String TEXT = "text";
+    private static final String USER_ID = "userId";
+    private static final String GENERATION_PREFIX = "generation-";
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 2f, TEXT, 1f);
+    private static final Sort RANKING = new Sort(SortField.FIELD_SCORE, new SortField(ID_SORT, SortField.Type.LONG));
+
+    private final Logger log= LoggerFactory.getLogger(PostSearchIndex.class);
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final Path indexDir;
+    private final int rebuildChunkSize;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final ReadWriteLock generationLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    /** The posts events have written to {@link #next}; guards the writes to it. */
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private volatile Generation current;
+    private volatile Generation next;
+
+    @Autowired
+    public PostSearchIndex(PostRepository postRepository, PlatformTransactionManager transactionManager,
+                           @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                           @Value("${blog.search.index-dir:data/search-index}") String indexDir,
+                           @Value("${blog.search.rebuild-chunk-size:1000}") int rebuildChunkSize) {
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.indexDir = Paths.get(indexDir);
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        Files.createDirectories(this.indexDir);
+        Optional<Path> latest = latestCommittedGeneration();
+        this.current = Generation.open(latest.isPresent() ? latest.get() : newGenerationPath(), this.analyzer);
+        deleteGenerationsExcept(this.current.path);
+        if (latest.isPresent()) {
+            log.info("Opened search index {} with {} posts", latest.get(), this.current.writer.getDocStats().numDocs);
+        } else {
+            this.current.writer.commit();
+            log.info("No search index found, building one in the background");
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        this.generationLock.writeLock().lock();
+        try {
+            this.current.writer.commit();
+            this.current.close();
+        } finally {
+            this.generationLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean isNodeLocal() {
+        return true;
+    }
+
+    /**
+     * Rebuilds the index, which missed the events published while this node was not registered.
+     */
+    @Override
+    public void onRegistered() {
+        if (rebuild()) {
+            log.info("The outbox consumer of the search index was registered anew, rebuilding the index");
+        }
+    }
+
+    /**
+     * Applies the post events to the index.
+     *
+     * The latest event of each post decides: created and updated posts are read, with one query for the batch, and
+     * added or replaced; deleted posts, and posts that no longer exist by the time the batch is applied, are removed.
+     * Applying an event twice leaves the index unchanged.
+     *
+     * @param events The events to apply; events other than {@link PostCreated}, {@link PostUpdated} and
+     *               {@link PostDeleted} are ignored.
+     */
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        Map<Long, Boolean> present = new LinkedHashMap<>();
+        for (DomainEvent event : events) {
+            switch (event) {
+                case PostCreated created -> present.put(created.postId(), true);
+                case PostUpdated updated -> present.put(updated.postId(), true);
+                case PostDeleted deleted -> present.put(deleted.postId(), false);
+                default -> {
+                }
+            }
+        }
+        if (present.isEmpty()) {
+            return;
+        }
+        List<Long> ids = present.entrySet().stream().filter(Map.Entry::getValue).map(Map.Entry::getKey).toList();
+        List<Document> documents = ids.isEmpty() ? List.of() : this.readOnlyTransaction.execute(status ->
+                this.postRepository.findAllById(ids).stream().map(this::toDocument).toList());
+        Set<Long> absent = new HashSet<>(present.keySet());
+        documents.forEach(document -> absent.remove(Long.valueOf(document.get(ID))));
+        write(present.keySet(), writer -> {
+            for (Document document : documents) {
+                writer.updateDocument(new Term(ID, document.get(ID)), document);
+            }
+            for (Long id : absent) {
+                writer.deleteDocuments(new Term(ID, String.valueOf(id)));
+            }
+        });
+    }
+
+    /**
+     * Searches the titles and texts of posts, best matches first.
+     *
+     * The query uses Lucene's simple query syntax: all terms must match by default, {@code |} means OR, {@code -}
+     * excludes a term, {@code "..."} matches a phrase and {@code *} a prefix; it never fails on malformed input.
+     * Title matches weigh twice as much as text matches. Pages are addressed with the opaque cursor of the previous
+     * page, which resumes the ranking after its last hit, so deep pages never collect and skip all earlier hits.
+     *
+     * @param q     The query.
+     * @param after An optional cursor returned with the previous page.
+     * @param limit The maximum number of posts to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return The summaries of the matching posts of the page and the cursor of the next page, if there may be one.
+     */
+    public PostSearchPageDTO search(String q, Optional<String> after, int limit) {
+        SimpleQueryParser parser = new SimpleQueryParser(this.analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(q);
+        int size = CursorPaging.clamp(limit);
+        this.generationLock.readLock().lock();
+        try {
+            SearcherManager searcherManager = this.current.searcherManager;
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopFieldDocs hits = after.isPresent()
+                        ? searcher.searchAfter(decodeCursor(after.get(), searcher.getIndexReader().maxDoc() - 1), query, size, RANKING, true)
+                        : searcher.search(query, size, RANKING, true);
+                StoredFields storedFields = searcher.storedFields();
+                List<PostSummaryDTO> posts = new ArrayList<>(hits.scoreDocs.length);
+                for (ScoreDoc hit : hits.scoreDocs) {
+                    Document document = storedFields.document(hit.doc);
+                    posts.add(new PostSummaryDTO(Long.valueOf(document.get(ID)), document.get(TITLE),
+                            document.getField(USER_ID).numericValue().longValue()));
+                }
+                String nextCursor = hits.scoreDocs.length < size ? null
+                        : encodeCursor((FieldDoc) hits.scoreDocs[hits.scoreDocs.length - 1]);
+                return new PostSearchPageDTO(posts, nextCursor);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            this.generationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Starts a full rebuild of the index in the background.
+     *
+     * @return true if a rebuild was started, false if one is already running.
+     */
+    public boolean rebuild() {
+        if (!this.rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        this.taskExecutor.execute(() -> {
+            try {
+                rebuildNow();
+            } catch (Exception e) {
+                log.error("Rebuilding the search index failed", e);
+            } finally {
+                this.rebuilding.set(false);
+            }
+        });
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${blog.search.refresh-interval-ms:1000}")
+    public void refresh() throws IOException {
+        this.generationLock.readLock().lock();
+        try {
+            this.current.searcherManager.maybeRefresh();
+        } finally {
+            this.generationLock.readLock().unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${blog.search.commit-interval-ms:5000}")
+    public void commit() throws IOException {
+        this.generationLock.readLock().lock();
+        try {
+            if (this.current.writer.hasUncommittedChanges()) {
+                this.current.writer.commit();
+            }
+        } finally {
+            this.generationLock.readLock().unlock();
+        }
+    }
+
+    private void rebuildNow() throws IOException {
+        Generation rebuilt = Generation.open(newGenerationPath(), this.analyzer);
+        synchronized (this.changedDuringRebuild) {
+            this.changedDuringRebuild.clear();
+            this.next = rebuilt;
+        }
+        try {
+            long afterId = 0;
+            int indexed = 0;
+            while (true) {
+                long fromId = afterId;
+                List<Document> documents = this.readOnlyTransaction.execute(status -> this.postRepository
+                        .findByIdGreaterThanOrderByIdAsc(fromId, PageRequest.of(0, this.rebuildChunkSize))
+                        .stream().map(this::toDocument).toList());
+                synchronized (this.changedDuringRebuild) {
+                    for (Document document : documents) {
+                        if (!this.changedDuringRebuild.contains(Long.valueOf(document.get(ID)))) {
+                            rebuilt.writer.updateDocument(new Term(ID, document.get(ID)), document);
+                        }
+                    }
+                }
+                indexed += documents.size();
+                if (documents.size() < this.rebuildChunkSize) {
+                    break;
+                }
+                afterId = Long.parseLong(documents.get(documents.size() - 1).get(ID));
+            }
+            rebuilt.writer.commit();
+            rebuilt.searcherManager.maybeRefreshBlocking();
+            Generation previous;
+            this.generationLock.writeLock().lock();
+            try {
+                previous = this.current;
+                this.current = rebuilt;
+                synchronized (this.changedDuringRebuild) {
+                    this.next = null;
+                    this.changedDuringRebuild.clear();
+                }
+            } finally {
+                this.generationLock.writeLock().unlock();
+            }
+            previous.close();
+            deleteGenerationsExcept(rebuilt.path);
+            log.info("Rebuilt search index {} with {} posts", rebuilt.path, indexed);
+        } catch (IOException | RuntimeException e) {
+            synchronized (this.changedDuringRebuild) {
+                this.next = null;
+                this.changedDuringRebuild.clear();
+            }
+            rebuilt.close();
+            throw e;
+        }
+    }
+
+    private Document toDocument(Post post) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(post.getId()), Field.Store.YES));
+        document.add(new NumericDocValuesField(ID_SORT, post.getId()));
+        document.add(new TextField(TITLE, Objects.toString(post.getTitle(), ""), Field.Store.YES));
+        document.add(new TextField(TEXT, Objects.toString(post.getText(), ""), Field.Store.NO));
+        document.add(new StoredField(USER_ID, post.getUser().getId()));
+        return document;
+    }
+
+    /**
+     * Applies the operation to the current generation and, while a rebuild runs, to the next one, where the changed
+     * posts are recorded so the rebuild does not overwrite them with the rows it read before.
+     */
+    private void write(Collection<Long> postIds, IndexOperation operation) {
+        this.generationLock.readLock().lock();
+        try {
+            operation.apply(this.current.writer);
+            synchronized (this.changedDuringRebuild) {
+                Generation rebuilt = this.next;
+                if (rebuilt != null) {
+                    this.changedDuringRebuild.addAll(postIds);
+                    operation.apply(rebuilt.writer);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not update the search index, a rebuild will repair it", e);
+        } finally {
+            this.generationLock.readLock().unlock();
+        }
+    }
+
+    private static String encodeCursor(FieldDoc last) {
+        return Integer.toHexString(Float.floatToIntBits((Float) last.fields[0])) + ":" + last.fields[1];
+    }
+
+    /**
+     * Post ids are unique, so hits never tie on the whole ranking and the doc of the returned FieldDoc only has to
+     * be valid for the reader; the last doc keeps the hit the cursor points at itself out of the next page.
+     */
+    private static FieldDoc decodeCursor(String cursor, int lastDoc) {
+        String[] parts = cursor.split(":", 2);
+        try {
+            float score = Float.intBitsToFloat(Integer.parseUnsignedInt(parts[0], 16));
+            long id = Long.parseLong(parts[1]);
+            return new FieldDoc(lastDoc, score, new Object[]{score, id});
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid search cursor: " + cursor, e);
+        }
+    }
+
+    private Path newGenerationPath() {
+        long generation = System.currentTimeMillis();
+        while (Files.exists(this.indexDir.resolve(GENERATION_PREFIX + generation))) {
+            generation++;
+        }
+        return this.indexDir.resolve(GENERATION_PREFIX + generation);
+    }
+
+    private Optional<Path> latestCommittedGeneration() throws IOException {
+        try (Stream<Path> generations = Files.list(this.indexDir)) {
+            for (Path generation : generations.filter(path -> path.getFileName().toString().startsWith(GENERATION_PREFIX))
+                    .sorted(Comparator.reverseOrder()).toList()) {
+                try (FSDirectory directory = FSDirectory.open(generation)) {
+                    if (DirectoryReader.indexExists(directory)) {
+                        return Optional.of(generation);
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private void deleteGenerationsExcept(Path keep) throws IOException {
+        try (Stream<Path> generations = Files.list(this.indexDir)) {
+            for (Path generation : generations.filter(path -> !path.equals(keep)
+                    && path.getFileName().toString().startsWith(GENERATION_PREFIX)).toList()) {
+                IOUtils.rm(generation);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexOperation {
+        void apply(IndexWriter writer) throws IOException;
+    }
+
+    private record Generation(Path path, FSDirectory directory, IndexWriter writer, SearcherManager searcherManager) {
+        static Generation open(Path path, Analyzer analyzer) throws IOException {
+            FSDirectory directory = FSDirectory.open(path);
+            IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(analyzer));
+            return new Generation(path, directory, writer, new SearcherManager(writer, null));
+        }
+
+        void close() throws IOException {
+            IOUtils.close(this.searcherManager, this.writer, this.directory);
+        }
+    }
+}
@@ -2,18 +2,34 @@ package com.project.blogbackend.service;
 
 import com.project.blogbackend.entity.Post;
 import com.project.blogbackend.entity.User;
+import com.project.blogbackend.event.DomainEventPublisher;
+import com.project.blogbackend.event.PostCreated;
+import com.project.blogbackend.event.PostDeleted;
+import com.project.blogbackend.event.PostUpdated;
 import com.project.blogbackend.repository.PostRepository;
+import com.project.blogbackend.service.dto.BatchResultDTO;
+import com.project.blogbackend.service.dto.BulkDeleteChunkDTO;
 import com.project.blogbackend.service.dto.PostCreateDTO;
+import com.project.blogbackend.service.dto.PostSearchPageDTO;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.dto.TrendingPostDTO;
 import com.project.blogbackend.service.dto.PostUpdateDTO;
 import com.project.blogbackend.service.mapper.PostMapper;
+import com.project.blogbackend.service.util.ChunkedWrites;
+import com.project.blogbackend.service.util.CursorPaging;
+import com.project.blogbackend.service.util.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -21,36 +37,164 @@ public class PostService {
     private final Logger log= LoggerFactory.getLogger(PostService.class);
     private final PostRepository postRepository;
     private final UserService userService;
+    private final PostSearchIndex postSearchIndex;
+    private final TrendingPosts trendingPosts;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchChunkSize;
 
     @Autowired
-    public PostService(PostRepository postRepository, UserService userService) {
+    public PostService(PostRepository postRepository, UserService userService, PostSearchIndex postSearchIndex,
+                       TrendingPosts trendingPosts, DomainEventPublisher domainEventPublisher, TransactionTemplate transactionTemplate,
+                       @Value("${blog.batch.chunk-size:1000}") int batchChunkSize) {
         this.postRepository=postRepository;
         this.userService = userService;
+        this.postSearchIndex = postSearchIndex;
+        this.trendingPosts = trendingPosts;
+        this.domainEventPublisher = domainEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchChunkSize = batchChunkSize;
     }
 
     /**
-     * Retrieves a list of all Posts or Posts associated with the given user ID.
+     * Retrieves one page of Posts, optionally restricted to the given user ID.
      *
-     * If the user ID is provided, this method will return a list of Posts associated
-     * with the specified user. If no user ID is provided, it will return all Posts
-     * available in the system.
+     * Pages are addressed with a keyset cursor that encodes the id of the last Post of the
+     * previous page. Posts are returned in ascending id order and each page is a single
+     * {@code id > ?} range scan on the primary key, so the cost of a page stays the same
+     * however deep the client pages.
      *
      * This method operates in read-only mode to avoid modifying any data during the
      * retrieval process.
      *
      * @param userId An optional parameter representing the user ID for which to
-     *               retrieve the associated Posts. If not provided (empty), all Posts
-     *               will be fetched.
-     * @return A list of Post objects either associated with the provided user ID or
-     *         all Posts in the system if no user ID is given.
+     *               retrieve the associated Posts. If not provided (empty), Posts of
+     *               all users are paged through.
+     * @param after  An optional cursor returned with the previous page. If not provided,
+     *               the first page is returned.
+     * @param limit  The maximum number of Posts to return, clamped to
+     *               {@link CursorPaging#MAX_LIMIT}.
+     * @return A list of at most {@code limit} Post objects with an id greater than the cursor.
+     * @throws IllegalArgumentException if the cursor is invalid.
      */
     @Transactional(readOnly = true)
-    public List<Post> getAllPosts(Optional<Long> userId){
-        log.debug("Request to get all Posts or Posts is userId: {}",userId);
+    public List<Post> getAllPosts(Optional<Long> userId, Optional<String> after, int limit){
+        log.debug("Request to get all Posts or Posts is userId: {} after: {} limit: {}",userId,after,limit);
         if (userId.isPresent()) {
-            return this.postRepository.findByUserId(userId.get());
+            return this.postRepository.findByUserIdAndIdGreaterThanOrderByIdAsc(userId.get(), CursorPaging.after(after), CursorPaging.limit(limit));
         }
-        return this.postRepository.findAll();
+        return this.postRepository.findByIdGreaterThanOrderByIdAsc(CursorPaging.after(after), CursorPaging.limit(limit));
+    }
+
+    /**
+     * Retrieves one page of Post summaries, optionally restricted to the given user ID.
+     *
+     * Summaries carry only the id, title and author id of each Post. They are selected
+     * directly into {@link PostSummaryDTO} by the query, so the text column is never read
+     * and no Post entities are materialized. Paging works as in
+     * {@link #getAllPosts(Optional, Optional, int)}.
+     *
+     * @param userId An optional parameter representing the user ID for which to
+     *               retrieve the associated Posts. If not provided (empty), Posts of
+     *               all users are paged through.
+     * @param after  An optional cursor returned with the previous page. If not provided,
+     *               the first page is returned.
+     * @param limit  The maximum number of summaries to return, clamped to
+     *               {@link CursorPaging#MAX_LIMIT}.
+     * @return A list of at most {@code limit} summaries of Posts with an id greater than the cursor.
+     * @throws IllegalArgumentException if the cursor is invalid.
+     */
+    @Transactional(readOnly = true)
+    public List<PostSummaryDTO> getPostSummaries(Optional<Long> userId, Optional<String> after, int limit){
+        log.debug("Request to get Post summaries or Post summaries is userId: {} after: {} limit: {}",userId,after,limit);
+        if (userId.isPresent()) {
+            return this.postRepository.findSummariesByUserIdAndIdGreaterThan(userId.get(), CursorPaging.after(after), CursorPaging.limit(limit));
+        }
+        return this.postRepository.findSummariesByIdGreaterThan(CursorPaging.after(after), CursorPaging.limit(limit));
+    }
+
+    /**
+     * Computes the entity tag of the Post with the specified ID without loading the Post.
+     *
+     * The tag is built from the version column and the like and comment counters, read with a single projection
+     * query; the counters are part of the tag because they are updated outside of Hibernate and do not bump the
+     * version. Callers compute the tag before loading the Post, so a Post changed in between only makes the tag
+     * older than the body and the next poll fetches it again.
+     *
+     * @param id The unique identifier of the Post.
+     * @return The entity tag of the Post, or null if no Post exists with the specified ID.
+     */
+    @Transactional(readOnly = true)
+    public String getPostETag(Long id){
+        log.debug("Request to get ETag of Post : {}", id);
+        return this.postRepository.findVersionById(id)
+                .map(version -> ETags.of("post", version.id(), version.version(), version.likeCount(), version.commentCount()))
+                .orElse(null);
+    }
+
+    /**
+     * Returns which of the given Post IDs exist, without loading the Posts.
+     *
+     * @param ids The unique identifiers to check.
+     * @return The subset of the given IDs that belong to an existing Post.
+     */
+    @Transactional(readOnly = true)
+    public Set<Long> getExistingPostIds(Collection<Long> ids){
+        log.debug("Request to check Posts : {}", ids);
+        return this.postRepository.findExistingIds(ids);
+    }
+
+    /**
+     * Returns a reference to the Post with the given ID without loading it.
+     *
+     * The reference is enough to associate a new Comment with the Post; the caller must make sure the Post exists.
+     *
+     * @param id The unique identifier of an existing Post.
+     * @return A lazy reference to the Post.
+     */
+    public Post getPostReference(Long id){
+        return this.postRepository.getReferenceById(id);
+    }
+
+    /**
+     * Searches the titles and texts of Posts, best matches first.
+     *
+     * The search is answered by the embedded full-text index without touching the database.
+     *
+     * @param q     The query, in Lucene's simple query syntax.
+     * @param after An optional cursor returned with the previous page. If not provided, the best matches are returned.
+     * @param limit The maximum number of Posts to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return The summaries of the matching Posts of the page and the cursor of the next page, if there may be one.
+     * @see PostSearchIndex#search(String, Optional, int)
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public PostSearchPageDTO searchPosts(String q, Optional<String> after, int limit){
+        log.debug("Request to search Posts : {} after: {} limit: {}", q, after, limit);
+        return this.postSearchIndex.search(q, after, limit);
+    }
+
+    /**
+     * Retrieves the Posts with the most recent likes and comments, from the in-memory ranking.
+     *
+     * @param limit The maximum number of Posts to return, clamped to {@link CursorPaging#MAX_LIMIT}.
+     * @return The trending Posts as of the last refresh of the ranking, highest score first.
+     * @see TrendingPosts
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TrendingPostDTO> getTrendingPosts(int limit){
+        log.debug("Request to get trending Posts limit: {}", limit);
+        return this.trendingPosts.getTrending(Math.min(limit, CursorPaging.MAX_LIMIT));
+    }
+
+    /**
+     * Starts a full rebuild of the search index from the post table in the background.
+     *
+     * @return true if a rebuild was started, false if one is already running.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean rebuildSearchIndex(){
+        log.debug("Request to rebuild the search index");
+        return this.postSearchIndex.rebuild();
     }
 
     /**
@@ -75,7 +219,8 @@ public class PostService {
      *
      * This method takes a PostCreateDTO object as input, extracts the necessary data,
      * and creates a new Post associated with the corresponding User. The Post is then
-     * saved to the system.
+     * saved to the system together with a {@link PostCreated} event, from which the
+     * Post is added to the home feeds and indexed for search once the transaction commits.
      *
      * @param postCreateDTO The data transfer object containing information to create
      *                      the new Post. It must include the user ID to associate the
@@ -90,7 +235,43 @@ public class PostService {
             return null;
         }
         Post post = PostMapper.toEntity(postCreateDTO, user);
-        return this.postRepository.save(post);
+        Post savedPost = this.postRepository.save(post);
+        this.domainEventPublisher.publish(new PostCreated(savedPost.getId(), user.getId(), Instant.now()));
+        return savedPost;
+    }
+
+    /**
+     * Saves many new Posts at once.
+     *
+     * The Posts are written in chunks of {@code blog.batch.chunk-size}, each chunk in its own transaction. The
+     * authors of a chunk are loaded with a single query, and because Post ids come from a pooled sequence, Hibernate
+     * sends the inserts of a chunk as JDBC batches. The {@link PostCreated} events of a chunk are published with one
+     * more batch and handled like those of single saved Posts. Posts whose User does not exist are rejected; IDs in
+     * the payload are ignored. Chunks already written stay committed if a later chunk fails.
+     *
+     * @param postCreateDTOs The data transfer objects of the Posts to create.
+     * @return The number of Posts received, written and rejected.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public BatchResultDTO savePosts(List<PostCreateDTO> postCreateDTOs) {
+        log.debug("Request to save {} Posts", postCreateDTOs.size());
+        return ChunkedWrites.write(postCreateDTOs, this.batchChunkSize, this.transactionTemplate, chunk -> {
+            Map<Long, User> users = this.userService.getUsersByIds(chunk.stream().map(PostCreateDTO::getUserId)
+                    .filter(Objects::nonNull).collect(Collectors.toSet()));
+            List<Post> posts = new ArrayList<>(chunk.size());
+            for (PostCreateDTO postCreateDTO : chunk) {
+                User user = users.get(postCreateDTO.getUserId());
+                if (user != null) {
+                    Post post = PostMapper.toEntity(postCreateDTO, user);
+                    post.setId(null);
+                    posts.add(post);
+                }
+            }
+            Instant now = Instant.now();
+            this.domainEventPublisher.publishAll(this.postRepository.saveAll(posts).stream()
+                    .map(post -> new PostCreated(post.getId(), post.getUser().getId(), now)).toList());
+            return posts.size();
+        });
     }
 
     /**
@@ -99,7 +280,8 @@ public class PostService {
      * This method takes a PostUpdateDTO object as input, along with the ID of the Post
      * to be updated. It checks if a Post with the specified ID exists in the system,
      * and if so, updates the Post's properties with the data provided in the
-     * PostUpdateDTO. The updated Post is then saved to the system.
+     * PostUpdateDTO. The updated Post is then saved to the system together with a
+     * {@link PostUpdated} event, from which it is re-indexed for search once the transaction commits.
      *
      * @param postUpdateDTO The data transfer object containing the updated information
      *                      for the Post.
@@ -112,7 +294,9 @@ public class PostService {
         if (post.isPresent()){
             Post convertPost=PostMapper.toUpdateEntity(postUpdateDTO,post.get());
             log.debug("Request to update User : {}", convertPost);
-            return this.postRepository.save(convertPost);
+            Post savedPost=this.postRepository.save(convertPost);
+            this.domainEventPublisher.publish(new PostUpdated(savedPost.getId(), Instant.now()));
+            return savedPost;
         }
         log.debug("Request to update Id is null: {}", id);
         return null;
@@ -121,13 +305,162 @@ public class PostService {
     /**
      * Deletes a Post with the specified ID.
      *
-     * This method removes a Post from the system based on the provided ID. The Post
-     * with the matching ID will be deleted permanently from the data repository.
+     * The Post is soft-deleted with a single UPDATE, which hides it from every finder at once,
+     * and is removed from every home feed and from the search index once the transaction commits,
+     * through a {@link PostDeleted} event. Its comments, its likes and the row itself are removed
+     * later by the {@link SoftDeletePurger}, in small chunks outside of the request.
      *
      * @param id The unique identifier of the Post to be deleted.
+     * @return true if the Post was deleted, false if no Post with the given ID exists.
      */
-    public void deletePost(Long id) {
+    public boolean deletePost(Long id) {
         log.debug("Request to delete Post : {}", id);
-        this.postRepository.deleteById(id);
+        if (this.postRepository.softDelete(id, Instant.now()) == 0) {
+            return false;
+        }
+        this.domainEventPublisher.publish(new PostDeleted(id, Instant.now()));
+        return true;
+    }
+
+    /**
+     * Adjusts the denormalized like counter of a Post.
+     *
+     * The counter is changed with a single {@code UPDATE ... SET like_count = like_count + ?}
+     * statement, so concurrent likes never overwrite each other's increments.
+     *
+     * @param id    The unique identifier of the Post whose counter is adjusted.
+     * @param delta The amount to add, negative to decrement.
+     * @return true if a Post with the given ID exists and was updated, false otherwise.
+     */
+    public boolean incrementLikeCount(Long id, long delta) {
+        log.debug("Request to increment like count of Post : {} by {}", id, delta);
+        return this.postRepository.incrementLikeCount(id, delta) > 0;
+    }
+
+    /**
+     * Adjusts the denormalized comment counter of a Post.
+     *
+     * The counter is changed with a single {@code UPDATE ... SET comment_count = comment_count + ?}
+     * statement, so concurrent comments never overwrite each other's increments.
+     *
+     * @param id    The unique identifier of the Post whose counter is adjusted.
+     * @param delta The amount to add, negative to decrement.
+     * @return true if a Post with the given ID exists and was updated, false otherwise.
+     */
+    public boolean incrementCommentCount(Long id, long delta) {
+        log.debug("Request to increment comment count of Post : {} by {}", id, delta);
+        return this.postRepository.incrementCommentCount(id, delta) > 0;
+    }
+
+    /**
+     * Counts one new like of a User on a Post.
+     *
+     * The counter is incremented with a single {@code UPDATE} that also requires the User to exist and not to be
+     * soft-deleted, so it tells whether the like may be written.
+     *
+     * @param id     The unique identifier of the liked Post.
+     * @param userId The unique identifier of the User who likes the Post.
+     * @return true if the Post and the User exist and the counter was updated, false otherwise.
+     */
+    public boolean incrementLikeCountForUser(Long id, Long userId) {
+        log.debug("Request to increment like count of Post : {} for User : {}", id, userId);
+        return this.postRepository.incrementLikeCountForUser(id, userId) > 0;
+    }
+
+    /**
+     * Counts one new comment of a User on a Post.
+     *
+     * The counter is incremented with a single {@code UPDATE} that also requires the User to exist and not to be
+     * soft-deleted, so it tells whether the comment may be written.
+     *
+     * @param id     The unique identifier of the commented Post.
+     * @param userId The unique identifier of the User who comments.
+     * @return true if the Post and the User exist and the counter was updated, false otherwise.
+     */
+    public boolean incrementCommentCountForUser(Long id, Long userId) {
+        log.debug("Request to increment comment count of Post : {} for User : {}", id, userId);
+        return this.postRepository.incrementCommentCountForUser(id, userId) > 0;
+    }
+
+    /**
+     * Adjusts the denormalized comment counters of many Posts with one batched statement.
+     *
+     * @param deltas The amount to add to the comment counter, keyed by Post ID.
+     */
+    public void incrementCommentCounts(Map<Long, Long> deltas) {
+        log.debug("Request to increment comment counts of Posts : {}", deltas);
+        this.postRepository.incrementCommentCounts(deltas);
+    }
+
+    /**
+     * Takes the comments removed by one chunk of a bulk delete off the comment counters of their Posts.
+     *
+     * The counters are decremented with one batched statement, or recounted from the comment table when the
+     * chunk could not tell exactly how many comments each Post lost.
+     *
+     * @param chunk The comments removed, per Post ID.
+     */
+    public void discountDeletedComments(BulkDeleteChunkDTO chunk) {
+        log.debug("Request to discount deleted comments of Posts : {}", chunk.deletedPerPost());
+        if (chunk.deletedPerPost().isEmpty()) {
+            return;
+        }
+        if (chunk.exact()) {
+            this.postRepository.incrementCommentCounts(negated(chunk.deletedPerPost()));
+        } else {
+            this.postRepository.recountComments(chunk.deletedPerPost().keySet());
+        }
+    }
+
+    /**
+     * Takes the likes removed by one chunk of a bulk delete off the like counters of their Posts.
+     *
+     * The counters are decremented with one batched statement, or recounted from the like table when the
+     * chunk could not tell exactly how many likes each Post lost.
+     *
+     * @param chunk The likes removed, per Post ID.
+     */
+    public void discountDeletedLikes(BulkDeleteChunkDTO chunk) {
+        log.debug("Request to discount deleted likes of Posts : {}", chunk.deletedPerPost());
+        if (chunk.deletedPerPost().isEmpty()) {
+            return;
+        }
+        if (chunk.exact()) {
+            this.postRepository.incrementLikeCounts(negated(chunk.deletedPerPost()));
+        } else {
+            this.postRepository.recountLikes(chunk.deletedPerPost().keySet());
+        }
+    }
+
+    private static Map<Long, Long> negated(Map<Long, Long> deltas) {
+        Map<Long, Long> negated = new HashMap<>(deltas.size());
+        deltas.forEach((id, delta) -> negated.put(id, -delta));
+        return negated;
+    }
+
+    /**
+     * Returns the highest Post ID currently in use.
+     *
+     * @return The highest Post ID, or 0 if there are no Posts.
+     */
+    @Transactional(readOnly = true)
+    public long getMaxPostId() {
+        Long maxId = this.postRepository.findMaxId();
+        return maxId == null ? 0L : maxId;
+    }
+
+    /**
+     * Rebuilds the like and comment counters of a range of Posts from the like and comment tables.
+     *
+     * Each call runs in its own transaction, so a full rebuild can be done range by range
+     * without holding locks on the whole post table.
+     *
+     * @param fromId The first Post ID of the range, inclusive.
+     * @param toId   The last Post ID of the range, inclusive.
+     * @return The number of Posts whose counters were rewritten.
+     */
+    public int reconcileCounters(Long fromId, Long toId) {
+        log.debug("Request to reconcile counters of Posts : {} - {}", fromId, toId);
+        return this.postRepository.reconcileCounters(fromId, toId);
     }
 }
@@ -0,0 +1,287 @@
+package com.project.blogbackend.service;
+
+import com.project.blogbackend.event.DomainEventPublisher;
+import com.project.blogbackend.event.PostDeleted;
+import com.project.blogbackend.repository.CommentRepository;
+import com.project.blogbackend.repository.FeedRepository;
+import com.project.blogbackend.repository.FollowRepository;
+import com.project.blogbackend.repository.LikeRepository;
+import com.project.blogbackend.repository.PostRepository;
+import com.project.blogbackend.repository.UserRepository;
+import com.project.blogbackend.service.dto.CommentPathDTO;
+import com.project.blogbackend.service.dto.SoftDeletePurgeStatistics;
+import com.project.blogbackend.service.util.CommentPaths;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Removes the rows of soft-deleted users and posts in the background.
+ *
+ * Deleting a user or a post only stamps its {@code deleted_at} column, which hides it at once. This job then removes
+ * what depends on it, {@code blog.purge.chunk-size} rows per transaction with a pause of {@code blog.purge.pause-ms}
+ * after every full chunk, so that it never holds many locks for long and leaves room for the request traffic:
+ * <ul>
+ *     <li>of a deleted user, the posts that are still visible are soft-deleted and taken out of the feeds and the
+ *     search index with a {@link PostDeleted} event each, and the likes, comments with their replies, follows and
+ *     home feed entries are removed, adjusting the counters of the posts and users they counted towards, which
+ *     count them until then;</li>
+ *     <li>of a deleted post, the comments and likes are removed, then the post itself, and a {@link PostDeleted} event
+ *     takes it out of the feeds, the search index and the trending posts;</li>
+ *     <li>a deleted user is removed last, once none of its posts are left.</li>
+ * </ul>
+ * The chunk deletes with a limit run on the JDBC fragments of the repositories, so purging does not empty the
+ * second-level cache. A row that fails is logged and retried on the next run. Progress is logged per user and post, and counted in the
+ * {@link SoftDeletePurgeStatistics}.
+ */
+@Component
+public class SoftDeletePurger {
+    private final Logger log= LoggerFactory.getLogger(SoftDeletePurger.class);
+    private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    private final CommentRepository commentRepository;
+    private final LikeRepository likeRepository;
+    private final FollowRepository followRepository;
+    private final FeedRepository feedRepository;
+    private final DomainEventPublisher domainEventPublisher;
+    private final TransactionTemplate transaction;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final ReentrantLock running = new ReentrantLock();
+
+    private final LongAdder purgedUsers = new LongAdder();
+    private final LongAdder purgedPosts = new LongAdder();
+    private final LongAdder deletedRows = new LongAdder();
+    private final LongAdder chunks = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile long pendingUsers;
+    private volatile long pendingPosts;
+
+    @Autowired
+    public SoftDeletePurger(UserRepository userRepository, PostRepository postRepository, CommentRepository commentRepository,
+                            LikeRepository likeRepository, FollowRepository followRepository, FeedRepository feedRepository,
+                            DomainEventPublisher domainEventPublisher, PlatformTransactionManager transactionManager,
+                            @Value("${blog.purge.chunk-size:500}") int chunkSize,
+                            @Value("${blog.purge.pause-ms:100}") long pauseMillis) {
+        if (chunkSize < 1 || pauseMillis < 0) {
+            throw new IllegalArgumentException("blog.purge.chunk-size must be positive and blog.purge.pause-ms must not be negative");
+        }
+        this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.commentRepository = commentRepository;
+        this.likeRepository = likeRepository;
+        this.followRepository = followRepository;
+        this.feedRepository = feedRepository;
+        this.domainEventPublisher = domainEventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    /**
+     * Purges every user and post that is soft-deleted when the run starts, or waits for the run in progress.
+     *
+     * @return The number of users and posts removed.
+     */
+    @Scheduled(fixedDelayString = "${blog.purge.interval-ms:10000}")
+    public int purge() {
+        this.running.lock();
+        try {
+            this.pendingUsers = this.userRepository.countDeleted();
+            this.pendingPosts = this.postRepository.countDeleted();
+            if (this.pendingUsers == 0 && this.pendingPosts == 0) {
+                return 0;
+            }
+            log.info("Purging {} deleted Users and {} deleted Posts", this.pendingUsers, this.pendingPosts);
+            List<Long> users = this.userRepository.findDeletedIdsGreaterThan(0L, Integer.MAX_VALUE);
+            for (Long userId : users) {
+                attempt("User", userId, () -> purgeContentOfUser(userId));
+            }
+            int purged = 0;
+            for (Long after = 0L; ; ) {
+                List<Long> posts = this.postRepository.findDeletedIdsGreaterThan(after, this.chunkSize);
+                for (Long postId : posts) {
+                    if (attempt("Post", postId, () -> purgePost(postId))) {
+                        purged++;
+                    }
+                }
+                if (posts.size() < this.chunkSize || Thread.currentThread().isInterrupted()) {
+                    break;
+                }
+                after = posts.get(posts.size() - 1);
+            }
+            for (Long userId : users) {
+                if (attempt("User", userId, () -> purgeUser(userId))) {
+                    purged++;
+                }
+            }
+            return purged;
+        } finally {
+            this.running.unlock();
+        }
+    }
+
+    public SoftDeletePurgeStatistics getStatistics() {
+        return new SoftDeletePurgeStatistics(this.pendingUsers, this.pendingPosts, this.purgedUsers.sum(),
+                this.purgedPosts.sum(), this.deletedRows.sum(), this.chunks.sum(), this.failures.sum());
+    }
+
+    private boolean attempt(String kind, Long id, LongSupplier step) {
+        if (Thread.currentThread().isInterrupted()) {
+            return false;
+        }
+        try {
+            return step.getAsLong() > 0;
+        } catch (RuntimeException e) {
+            this.failures.increment();
+            log.warn("Purging {} : {} failed, retrying on the next run", kind, id, e);
+            return false;
+        }
+    }
+
+    private long purgeContentOfUser(Long userId) {
+        long before = this.deletedRows.sum();
+        // posts created after the user was deleted are hidden too, then purged with the other deleted posts
+        this.transaction.executeWithoutResult(status -> {
+            Instant now = Instant.now();
+            this.domainEventPublisher.publishAll(this.postRepository.softDeleteByUserId(userId, now).stream()
+                    .map(postId -> new PostDeleted(postId, now)).toList());
+        });
+        inChunks(() -> deleteLikesOfUser(userId));
+        inChunks(() -> deleteCommentsOfUser(userId));
+        inChunks(() -> deleteFollowsOfUser(userId));
+        inChunks(() -> this.followRepository.deleteChunkByFolloweeId(userId, this.chunkSize));
+        inChunks(() -> this.feedRepository.deleteChunkByUserId(userId, this.chunkSize));
+        long deleted = this.deletedRows.sum() - before;
+        log.info("Purged {} likes, comments, follows and feed entries of User : {}", deleted, userId);
+        return deleted;
+    }
+
+    private int deleteLikesOfUser(Long userId) {
+        List<Long> postIds = this.likeRepository.findPostIdsByUserId(userId, PageRequest.of(0, this.chunkSize));
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        int[] deleted = this.likeRepository.deleteAllByUserIdAndPostIdIn(userId, postIds);
+        Map<Long, Long> likesPerPost = new HashMap<>();
+        for (int i = 0; i < postIds.size(); i++) {
+            if (deleted[i] > 0) {
+                likesPerPost.merge(postIds.get(i), -1L, Long::sum);
+                this.deletedRows.increment();
+            }
+        }
+        this.postRepository.incrementLikeCounts(likesPerPost);
+        return postIds.size();
+    }
+
+    private int deleteCommentsOfUser(Long userId) {
+        // shallowest first, so a comment inside an earlier subtree is already gone and counted once
+        List<CommentPathDTO> comments = this.commentRepository.findPathsByUserId(userId, PageRequest.of(0, this.chunkSize));
+        Map<Long, Long> commentsPerPost = new HashMap<>();
+        for (CommentPathDTO comment : comments) {
+            int deleted = this.commentRepository.deleteSubtree(CommentPaths.subtree(comment.path()));
+            if (deleted > 0) {
+                commentsPerPost.merge(comment.postId(), (long) -deleted, Long::sum);
+                this.deletedRows.add(deleted);
+            }
+        }
+        this.postRepository.incrementCommentCounts(commentsPerPost);
+        return comments.size();
+    }
+
+    private int deleteFollowsOfUser(Long userId) {
+        List<Long> followeeIds = this.followRepository.findFolloweeIdsByFollowerId(userId, PageRequest.of(0, this.chunkSize));
+        for (Long followeeId : followeeIds) {
+            if (this.followRepository.deleteByFollowerIdAndFolloweeId(userId, followeeId) > 0) {
+                this.userRepository.incrementFollowerCount(followeeId, -1);
+                this.deletedRows.increment();
+            }
+        }
+        return followeeIds.size();
+    }
+
+    private long purgePost(Long postId) {
+        long before = this.deletedRows.sum();
+        inChunks(() -> countDeleted(this.commentRepository.deleteChunkByPostId(postId, this.chunkSize)));
+        inChunks(() -> countDeleted(this.likeRepository.deleteChunkByPostId(postId, this.chunkSize)));
+        Boolean purged = this.transaction.execute(status -> {
+            if (this.postRepository.purge(postId) == 0) {
+                return false;
+            }
+            this.domainEventPublisher.publish(new PostDeleted(postId, Instant.now()));
+            return true;
+        });
+        if (!Boolean.TRUE.equals(purged)) {
+            return 0;
+        }
+        this.purgedPosts.increment();
+        this.pendingPosts = Math.max(this.pendingPosts - 1, 0);
+        log.info("Purged Post : {} with {} comments and likes", postId, this.deletedRows.sum() - before);
+        return 1;
+    }
+
+    private long purgeUser(Long userId) {
+        try {
+            if (this.transaction.execute(status -> this.userRepository.purge(userId)) == 0) {
+                return 0;
+            }
+        } catch (DataIntegrityViolationException e) {
+            // a post, comment or like of the user was written while it was purged
+            log.debug("User : {} is still referenced, retrying on the next run", userId);
+            return 0;
+        }
+        this.purgedUsers.increment();
+        this.pendingUsers = Math.max(this.pendingUsers - 1, 0);
+        log.info("Purged User : {}", userId);
+        return 1;
+    }
+
+    private int countDeleted(int deleted) {
+        this.deletedRows.add(deleted);
+        return deleted;
+    }
+
+    /**
+     * Runs a step in its own transaction until it handles less than a full chunk, pausing after every full chunk.
+     *
+     * @param chunk Deletes one chunk and returns the number of rows it looked at.
+     */
+    private void inChunks(IntSupplier chunk) {
+        while (true) {
+            Integer handled = this.transaction.execute(status -> chunk.getAsInt());
+            this.chunks.increment();
+            if (handled == null || handled < this.chunkSize || !pause()) {
+                return;
+            }
+        }
+    }
+
+    private boolean pause() {
+        if (this.pauseMillis == 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(this.pauseMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,298 @@
+package com.project.blogbackend.service;
+
+import com.project.blogbackend.event.CommentAdded;
+import com.project.blogbackend.event.DomainEvent;
+import com.project.blogbackend.event.DomainEventSubscriber;
+import com.project.blogbackend.event.LikeAdded;
+import com.project.blogbackend.event.PostDeleted;
+import com.project.blogbackend.repository.CommentRepository;
+import com.project.blogbackend.repository.LikeRepository;
+import com.project.blogbackend.repository.PostRepository;
+import com.project.blogbackend.service.dto.PostActivityDTO;
+import com.project.blogbackend.service.dto.PostSummaryDTO;
+import com.project.blogbackend.service.dto.TrendingPostDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory ranking of the posts with the most likes and comments in the recent past.
+ *
+ * Every post with recent activity has a ring of time buckets, {@code blog.trending.bucket-minutes} wide and covering
+ * {@code blog.trending.window-minutes}, counting its likes and comments. The rings are fed from the {@link LikeAdded}
+ * and {@link CommentAdded} events, and a bucket that falls out of the window is reused for the newest one. The score
+ * of a post counts a like as 1 and a comment as {@code blog.trending.comment-weight}, and halves the weight of a
+ * bucket every {@code blog.trending.half-life-minutes} of its age, so that a burst of likes now outranks a larger
+ * number of likes yesterday.
+ *
+ * The ranking is recomputed every {@code blog.trending.refresh-interval-ms}: one pass over the active posts keeps the
+ * best {@code blog.trending.top-k} in a min-heap, and their titles are read with one query. Requests are answered from
+ * the last published ranking without touching the database. On startup the rings are rebuilt in the background from
+ * the likes and comments created within the window. The rings are kept in memory on every node, so the ranking
+ * receives the events of every node as a node-local subscriber.
+ */
+@Component
+public class TrendingPosts implements DomainEventSubscriber {
+    private final Logger log= LoggerFactory.getLogger(TrendingPosts.class);
+    private final LikeRepository likeRepository;
+    private final CommentRepository commentRepository;
+    private final PostRepository postRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor taskExecutor;
+    private final long bucketMillis;
+    private final int bucketCount;
+    private final double[] decay;
+    private final double commentWeight;
+    private final int topK;
+
+    private final ConcurrentHashMap<Long, Activity> activities = new ConcurrentHashMap<>();
+    private volatile Instant rebuiltUntil = Instant.MAX;
+    private volatile List<TrendingPostDTO> ranking = List.of();
+
+    @Autowired
+    public TrendingPosts(LikeRepository likeRepository, CommentRepository commentRepository, PostRepository postRepository,
+                         PlatformTransactionManager transactionManager,
+                         @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+                         @Value("${blog.trending.window-minutes:1440}") long windowMinutes,
+                         @Value("${blog.trending.bucket-minutes:60}") long bucketMinutes,
+                         @Value("${blog.trending.half-life-minutes:360}") double halfLifeMinutes,
+                         @Value("${blog.trending.comment-weight:2}") double commentWeight,
+                         @Value("${blog.trending.top-k:100}") int topK) {
+        if (bucketMinutes < 1 || windowMinutes < bucketMinutes || halfLifeMinutes <= 0 || topK < 1) {
+            throw new IllegalArgumentException("blog.trending.window-minutes must be at least blog.trending.bucket-minutes, "
+                    + "which must be at least 1, and blog.trending.half-life-minutes and blog.trending.top-k must be positive");
+        }
+        this.likeRepository = likeRepository;
+        this.commentRepository = commentRepository;
+        this.postRepository = postRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.taskExecutor = taskExecutor;
+        this.bucketMillis = Duration.ofMinutes(bucketMinutes).toMillis();
+        this.bucketCount = (int) (windowMinutes / bucketMinutes);
+        // the weight of a bucket by its age in buckets, taken at the middle of the bucket
+        this.decay = new double[this.bucketCount];
+        for (int age = 0; age < this.bucketCount; age++) {
+            this.decay[age] = Math.pow(2, -(age + 0.5) * bucketMinutes / halfLifeMinutes);
+        }
+        this.commentWeight = commentWeight;
+        this.topK = topK;
+    }
+
+    /**
+     * Starts rebuilding the rings from the database in the background.
+     *
+     * Activity before the moment the rebuild starts is counted from the database, later activity from its events, so
+     * that events still waiting in the outbox are not counted twice. The rebuild starts once the application is ready,
+     * after the dispatcher has registered this node for the events, so that no activity falls between the two.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Instant until = Instant.now();
+        this.rebuiltUntil = until;
+        this.taskExecutor.execute(() -> {
+            try {
+                rebuild(until);
+            } catch (RuntimeException e) {
+                log.error("Rebuilding the trending posts failed", e);
+            }
+        });
+    }
+
+    private void rebuild(Instant until) {
+        Instant since = until.minusMillis(this.bucketMillis * this.bucketCount);
+        this.readOnlyTransaction.executeWithoutResult(status -> {
+            try (Stream<PostActivityDTO> likes = this.likeRepository.streamActivityBetween(since, until)) {
+                likes.forEach(like -> record(like.postId(), like.createdAt(), 1, 0));
+            }
+            try (Stream<PostActivityDTO> comments = this.commentRepository.streamActivityBetween(since, until)) {
+                comments.forEach(comment -> record(comment.postId(), comment.createdAt(), 0, 1));
+            }
+        });
+        refresh();
+        log.info("Rebuilt the trending posts from the activity since {}, {} active posts", since, this.activities.size());
+    }
+
+    @Override
+    public boolean isNodeLocal() {
+        return true;
+    }
+
+    /**
+     * Rebuilds the rings, which missed the events published while this node was not registered. On startup the
+     * rings are rebuilt once the application is ready anyway.
+     */
+    @Override
+    public void onRegistered() {
+        if (!this.rebuiltUntil.equals(Instant.MAX)) {
+            this.activities.clear();
+            start();
+        }
+    }
+
+    @Override
+    public void onEvents(List<DomainEvent> events) {
+        Instant rebuiltUntil = this.rebuiltUntil;
+        for (DomainEvent event : events) {
+            switch (event) {
+                case LikeAdded like when !like.occurredAt().isBefore(rebuiltUntil) ->
+                        record(like.postId(), like.occurredAt(), 1, 0);
+                case CommentAdded comment when !comment.occurredAt().isBefore(rebuiltUntil) ->
+                        record(comment.postId(), comment.occurredAt(), 0, 1);
+                case PostDeleted deleted -> this.activities.remove(deleted.postId());
+                default -> {
+                }
+            }
+        }
+    }
+
+    private void record(Long postId, Instant at, int likes, int comments) {
+        long currentEpoch = System.currentTimeMillis() / this.bucketMillis;
+        // activity stamped slightly in the future by another node's clock counts as current
+        long epoch = Math.min(at.toEpochMilli() / this.bucketMillis, currentEpoch);
+        if (epoch <= currentEpoch - this.bucketCount) {
+            return;
+        }
+        // compute() locks the entry, so a concurrent eviction by refresh() cannot drop the update
+        this.activities.compute(postId, (id, activity) -> {
+            Activity recorded = activity == null ? new Activity(this.bucketCount) : activity;
+            recorded.add(epoch, likes, comments);
+            return recorded;
+        });
+    }
+
+    /**
+     * Recomputes the scores of all active posts and publishes the best {@code blog.trending.top-k} of them. Posts
+     * without activity in the window are evicted on the way.
+     */
+    @Scheduled(fixedDelayString = "${blog.trending.refresh-interval-ms:10000}")
+    public void refresh() {
+        long currentEpoch = System.currentTimeMillis() / this.bucketMillis;
+        PriorityQueue<Candidate> best = new PriorityQueue<>(this.topK + 1, Comparator.comparingDouble(Candidate::score));
+        int evicted = 0;
+        for (Map.Entry<Long, Activity> entry : this.activities.entrySet()) {
+            Candidate candidate = entry.getValue().score(entry.getKey(), currentEpoch, this.decay, this.commentWeight);
+            if (candidate == null) {
+                if (this.activities.computeIfPresent(entry.getKey(), (id, activity) -> activity.isIdle(currentEpoch) ? null : activity) == null) {
+                    evicted++;
+                }
+            } else if (best.size() < this.topK) {
+                best.add(candidate);
+            } else if (candidate.score() > best.peek().score()) {
+                best.poll();
+                best.add(candidate);
+            }
+        }
+        List<Candidate> ranked = new ArrayList<>(best);
+        ranked.sort(Comparator.comparingDouble(Candidate::score).reversed());
+        this.ranking = List.copyOf(withTitles(ranked));
+        log.debug("Refreshed the trending posts, {} active and {} evicted", this.activities.size(), evicted);
+    }
+
+    private List<TrendingPostDTO> withTitles(List<Candidate> ranked) {
+        if (ranked.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = ranked.stream().map(Candidate::postId).toList();
+        Map<Long, PostSummaryDTO> summaries = this.readOnlyTransaction.execute(status ->
+                this.postRepository.findSummariesByIdIn(ids).stream()
+                        .collect(Collectors.toMap(PostSummaryDTO::id, Function.identity())));
+        List<TrendingPostDTO> trending = new ArrayList<>(ranked.size());
+        for (Candidate candidate : ranked) {
+            PostSummaryDTO summary = summaries.get(candidate.postId());
+            // a post deleted since its last like has no summary; its PostDeleted event evicts it
+            if (summary != null) {
+                trending.add(new TrendingPostDTO(summary.id(), summary.title(), summary.userId(), candidate.score(),
+                        candidate.likes(), candidate.comments()));
+            }
+        }
+        return trending;
+    }
+
+    /**
+     * Retrieves the trending posts as of the last refresh.
+     *
+     * @param limit The maximum number of posts to return.
+     * @return At most {@code limit} posts, highest score first.
+     */
+    public List<TrendingPostDTO> getTrending(int limit) {
+        List<TrendingPostDTO> current = this.ranking;
+        return current.subList(0, Math.min(Math.max(limit, 0), current.size()));
+    }
+
+    private record Candidate(Long postId, double score, int likes, int comments) {
+    }
+
+    /**
+     * The like and comment counters of one post, one slot per bucket of the window. A slot holds the epoch of its
+     * bucket, so a slot left over from an earlier lap of the ring is recognized and reset.
+     */
+    private static final class Activity {
+        private final long[] epochs;
+        private final int[] likes;
+        private final int[] comments;
+
+        Activity(int bucketCount) {
+            this.epochs = new long[bucketCount];
+            this.likes = new int[bucketCount];
+            this.comments = new int[bucketCount];
+            Arrays.fill(this.epochs, Long.MIN_VALUE);
+        }
+
+        synchronized void add(long epoch, int likeCount, int commentCount) {
+            int slot = (int) Math.floorMod(epoch, (long) this.epochs.length);
+            if (this.epochs[slot] != epoch) {
+                if (this.epochs[slot] > epoch) {
+                    // the slot already holds a newer bucket, so this one has left the window
+                    return;
+                }
+                this.epochs[slot] = epoch;
+                this.likes[slot] = 0;
+                this.comments[slot] = 0;
+            }
+            this.likes[slot] += likeCount;
+            this.comments[slot] += commentCount;
+        }
+
+        synchronized Candidate score(Long postId, long currentEpoch, double[] decay, double commentWeight) {
+            double score = 0;
+            int likeTotal = 0;
+            int commentTotal = 0;
+            for (int slot = 0; slot < this.epochs.length; slot++) {
+                long age = currentEpoch - this.epochs[slot];
+                if (age >= 0 && age < decay.length) {
+                    score += (this.likes[slot] + commentWeight * this.comments[slot]) * decay[(int) age];
+                    likeTotal += this.likes[slot];
+                    commentTotal += this.comments[slot];
+                }
+            }
+            return likeTotal + commentTotal == 0 ? null : new Candidate(postId, score, likeTotal, commentTotal);
+        }
+
+        synchronized boolean isIdle(long currentEpoch) {
+            for (long epoch : this.epochs) {
+                if (epoch > currentEpoch - this.epochs.length) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
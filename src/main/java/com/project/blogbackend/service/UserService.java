@@ -1,26 +1,42 @@
 package com.project.blogbackend.service;
 
 import com.project.blogbackend.entity.User;
+import com.project.blogbackend.event.DomainEventPublisher;
+import com.project.blogbackend.event.PostDeleted;
+import com.project.blogbackend.repository.PostRepository;
 import com.project.blogbackend.repository.UserRepository;
+import com.project.blogbackend.service.util.ETags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class UserService {
     private final Logger log= LoggerFactory.getLogger(UserService.class);
     private final UserRepository userRepository;
+    private final PostRepository postRepository;
+    // looked up on use: the publisher's dispatcher depends on the FeedService, which depends on this service
+    private final ObjectProvider<DomainEventPublisher> domainEventPublisher;
 
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, PostRepository postRepository,
+                       ObjectProvider<DomainEventPublisher> domainEventPublisher) {
         this.userRepository = userRepository;
+        this.postRepository = postRepository;
+        this.domainEventPublisher = domainEventPublisher;
     }
 
     /**
@@ -62,6 +78,49 @@ public class UserService {
         return this.userRepository.findById(id).orElse(null);
     }
 
+    /**
+     * Returns a reference to the User with the given ID without loading it.
+     *
+     * The reference is enough to associate a new Comment or Like with the User. Whether the User exists is only
+     * checked by the foreign key when the new row is inserted.
+     *
+     * @param id The unique identifier of the User.
+     * @return A lazy reference to the User.
+     */
+    public User getUserReference(Long id){
+        return this.userRepository.getReferenceById(id);
+    }
+
+    /**
+     * Computes the entity tag of a user from its version column, without loading the user.
+     *
+     * @param id The unique identifier of the user.
+     * @return The entity tag of the user, or null if no user with the given ID exists in the system.
+     * @throws DataAccessException if there is any problem accessing the underlying data store.
+     */
+    @Transactional(readOnly = true)
+    public String getUserETag(Long id){
+        log.debug("Request to get ETag of User : {}", id);
+        return this.userRepository.findVersionById(id).map(version -> ETags.of("user", id, version)).orElse(null);
+    }
+
+    /**
+     * Retrieves the users with the given IDs, keyed by ID.
+     *
+     * The users are loaded with a single {@code IN} query, which lets bulk operations resolve the authors of a
+     * whole chunk of rows at once. IDs that do not belong to any user are simply absent from the result.
+     *
+     * @param ids The unique identifiers of the users to retrieve.
+     * @return A map from user ID to User for every ID that exists.
+     * @throws DataAccessException if there is any problem accessing the underlying data store.
+     * @see UserRepository#findAllById(Iterable)
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, User> getUsersByIds(Collection<Long> ids){
+        log.debug("Request to get Users : {}", ids);
+        return this.userRepository.findAllById(ids).stream().collect(Collectors.toMap(User::getId, Function.identity()));
+    }
+
     /**
      * Saves a new user or updates an existing user in the system.
      *
@@ -115,20 +174,59 @@ public class UserService {
         }
     }
 
+    /**
+     * Adjusts the denormalized follower counter of a user.
+     *
+     * @param id The unique identifier of the user whose counter is adjusted.
+     * @param delta The amount to add, negative to decrement.
+     * @return true if a user with the given ID exists and was updated, false otherwise.
+     */
+    public boolean incrementFollowerCount(Long id, long delta){
+        log.debug("Request to increment follower count of User : {} by {}", id, delta);
+        return this.userRepository.incrementFollowerCount(id, delta) > 0;
+    }
+
+    /**
+     * Reads the follower counter of a user from the database.
+     *
+     * Unlike {@link #getUserById(Long)}, this never answers from the second-level cache, and inside a transaction
+     * that changed the counter it sees the change.
+     *
+     * @param id The unique identifier of the user.
+     * @return The number of followers of the user, or empty if no user with the given ID exists.
+     */
+    public Optional<Long> getFollowerCount(Long id){
+        log.debug("Request to get follower count of User : {}", id);
+        return this.userRepository.findFollowerCountById(id);
+    }
+
     /**
      * Deletes a user from the system by their unique identifier (ID).
      *
-     * This method is used to remove a user entity from the data store based on the
-     * provided user ID. The method delegates the deletion process to the underlying
-     * repository's 'deleteById' method. If a user with the specified ID exists in
-     * the system, it will be deleted; otherwise, no action will be taken.
+     * The user and their Posts are soft-deleted with one UPDATE each, which hides them from
+     * every finder at once, however many Posts, comments and likes the user has. The Posts
+     * are removed from every home feed and from the search index once the transaction commits,
+     * through a {@link PostDeleted} event each. The rows themselves, and the user's comments,
+     * likes and follows, are removed later by the {@link SoftDeletePurger}, in small chunks
+     * outside of the request. The user's likes and comments are hidden at once too, but the
+     * like and comment counters of other users' Posts keep counting them until the purger
+     * removes them and adjusts the counters; discounting them here as well would make every
+     * later delete of the same rows discount them a second time.
      *
      * @param id The unique identifier of the user to be deleted.
+     * @return true if the user was deleted, false if no user with the given ID exists.
      * @throws DataAccessException if there is any problem accessing the underlying data store.
-     * @see UserRepository#deleteById(Object)
+     * @see UserRepository#softDelete(Long, Instant)
      */
-    public void deleteUser(Long id) {
+    public boolean deleteUser(Long id) {
         log.debug("Request to delete User : {}", id);
-        this.userRepository.deleteById(id);
+        Instant now = Instant.now();
+        if (this.userRepository.softDelete(id, now) == 0) {
+            return false;
+        }
+        List<Long> postIds = this.postRepository.softDeleteByUserId(id, now);
+        this.domainEventPublisher.getObject().publishAll(postIds.stream().map(postId -> new PostDeleted(postId, now)).toList());
+        log.debug("Deleted {} Posts of User : {}", postIds.size(), id);
+        return true;
     }
 }
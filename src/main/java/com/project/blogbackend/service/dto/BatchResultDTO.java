@@ -0,0 +1,7 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "BatchResultDTO")
+public record BatchResultDTO(int received, int written, int rejected) {
+}
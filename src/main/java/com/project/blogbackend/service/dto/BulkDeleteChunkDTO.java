@@ -0,0 +1,10 @@
+package com.project.blogbackend.service.dto;
+
+import java.util.Map;
+
+/**
+ * The rows removed by one chunk of a bulk delete, in total and per post. When {@code exact} is false the driver or a
+ * concurrent write left the numbers per post uncertain, and the counters of those posts have to be recounted.
+ */
+public record BulkDeleteChunkDTO(int deleted, Map<Long, Long> deletedPerPost, boolean exact) {
+}
@@ -8,6 +8,7 @@ public class CommentCreateDTO {
     private String text;
     private Long postId;
     private Long userId;
+    private Long parentId;
 
     public Long getId() {
         return id;
@@ -40,4 +41,12 @@ public class CommentCreateDTO {
     public void setUserId(Long userId) {
         this.userId = userId;
     }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
 }
@@ -0,0 +1,7 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "CommentExportDTO")
+public record CommentExportDTO(Long id, String text, Long postId, Long userId) {
+}
@@ -0,0 +1,4 @@
+package com.project.blogbackend.service.dto;
+
+public record CommentPathDTO(Long id, Long postId, String path, int depth) {
+}
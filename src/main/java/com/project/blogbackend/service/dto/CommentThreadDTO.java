@@ -0,0 +1,10 @@
+package com.project.blogbackend.service.dto;
+
+import com.project.blogbackend.entity.Comment;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "CommentThreadDTO")
+public record CommentThreadDTO(Comment comment, List<Comment> replies) {
+}
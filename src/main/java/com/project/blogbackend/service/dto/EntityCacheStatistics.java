@@ -0,0 +1,7 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "EntityCacheStatistics")
+public record EntityCacheStatistics(String region, long size, long hits, long misses, double hitRate, long evictions) {
+}
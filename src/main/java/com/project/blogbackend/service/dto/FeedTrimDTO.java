@@ -0,0 +1,4 @@
+package com.project.blogbackend.service.dto;
+
+public record FeedTrimDTO(Long authorId, Long followerCount) {
+}
@@ -0,0 +1,7 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "LikeExportDTO")
+public record LikeExportDTO(Long id, Long postId, Long userId) {
+}
@@ -0,0 +1,8 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "LikeWriteBufferStatistics")
+public record LikeWriteBufferStatistics(long accepted, long deduplicated, long rejected, int pending,
+                                        long flushes, long flushedRows, long failedRows, long requeuedRows) {
+}
@@ -0,0 +1,9 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+
+@Schema(name = "PostActivityDTO")
+public record PostActivityDTO(Long postId, Instant createdAt) {
+}
@@ -0,0 +1,7 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "PostExportDTO")
+public record PostExportDTO(Long id, String title, String text, Long userId, Long likeCount, Long commentCount) {
+}
@@ -0,0 +1,9 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(name = "PostSearchPageDTO")
+public record PostSearchPageDTO(List<PostSummaryDTO> posts, String nextCursor) {
+}
@@ -0,0 +1,7 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "PostVersionDTO")
+public record PostVersionDTO(Long id, Long version, Long likeCount, Long commentCount) {
+}
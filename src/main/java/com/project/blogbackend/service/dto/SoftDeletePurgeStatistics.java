@@ -0,0 +1,8 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "SoftDeletePurgeStatistics")
+public record SoftDeletePurgeStatistics(long pendingUsers, long pendingPosts, long purgedUsers, long purgedPosts,
+                                        long deletedRows, long chunks, long failures) {
+}
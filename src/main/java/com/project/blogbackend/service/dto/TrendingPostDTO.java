@@ -0,0 +1,7 @@
+package com.project.blogbackend.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(name = "TrendingPostDTO")
+public record TrendingPostDTO(Long id, String title, Long userId, double score, int likes, int comments) {
+}
@@ -4,15 +4,21 @@ import com.project.blogbackend.entity.Comment;
 import com.project.blogbackend.entity.Post;
 import com.project.blogbackend.entity.User;
 import com.project.blogbackend.service.dto.CommentCreateDTO;
+import com.project.blogbackend.service.dto.CommentPathDTO;
 import com.project.blogbackend.service.dto.CommentUpdateDTO;
 
 public class CommentMapper {
-    public static Comment toEntity(CommentCreateDTO commentCreateDTO, User user, Post post){
+    public static Comment toEntity(CommentCreateDTO commentCreateDTO, User user, Post post, CommentPathDTO parent){
         Comment comment=new Comment();
         comment.setId(commentCreateDTO.getId());
         comment.setUser(user);
         comment.setPost(post);
         comment.setText(commentCreateDTO.getText());
+        if (parent != null) {
+            comment.setParentId(parent.id());
+            comment.setParentPath(parent.path());
+            comment.setDepth(parent.depth()+1);
+        }
         return comment;
     }
 
@@ -0,0 +1,52 @@
+package com.project.blogbackend.service.util;
+
+import com.project.blogbackend.service.dto.BulkDeleteChunkDTO;
+import com.project.blogbackend.service.dto.BulkDeleteResultDTO;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+
+/**
+ * Helper for the bulk delete endpoints.
+ *
+ * The matching rows are deleted in consecutive id ranges that hold at most a chunk of them each, one set-based
+ * DELETE per range in its own transaction, so the locks and the undo log of a single transaction stay small however
+ * many rows match. Ranges that were deleted stay committed when a later range fails.
+ */
+public class ChunkedDeletes {
+    /**
+     * Deletes the matching rows range by range.
+     *
+     * @param findChunkEnd        Returns the id of the last of the next {@code chunkSize} matching rows after the given
+     *                            id, or null if fewer rows are left.
+     * @param deleteChunk         Deletes the matching rows with an id above the first argument and up to the second,
+     *                            or without upper bound if the second is null.
+     * @param chunkSize           The number of rows deleted per transaction.
+     * @param transactionTemplate The template that opens one transaction per range.
+     * @param afterChunk          Applies the rows deleted by a range to the denormalized state, in its transaction.
+     * @return The number of rows deleted, of posts they belonged to and of ranges.
+     */
+    public static BulkDeleteResultDTO delete(BiFunction<Long, Integer, Long> findChunkEnd,
+                                             BiFunction<Long, Long, BulkDeleteChunkDTO> deleteChunk, int chunkSize,
+                                             TransactionTemplate transactionTemplate, Consumer<BulkDeleteChunkDTO> afterChunk) {
+        long deleted = 0;
+        int chunks = 0;
+        Set<Long> posts = new HashSet<>();
+        for (Long after = 0L, end; after != null; after = end) {
+            Long from = after;
+            Long to = end = findChunkEnd.apply(from, chunkSize);
+            BulkDeleteChunkDTO chunk = transactionTemplate.execute(status -> {
+                BulkDeleteChunkDTO rows = deleteChunk.apply(from, to);
+                afterChunk.accept(rows);
+                return rows;
+            });
+            deleted += chunk.deleted();
+            posts.addAll(chunk.deletedPerPost().keySet());
+            chunks++;
+        }
+        return new BulkDeleteResultDTO(deleted, posts.size(), chunks);
+    }
+}
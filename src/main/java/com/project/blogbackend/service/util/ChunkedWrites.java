@@ -0,0 +1,36 @@
+package com.project.blogbackend.service.util;
+
+import com.project.blogbackend.service.dto.BatchResultDTO;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.ToIntFunction;
+
+/**
+ * Helper for the bulk create endpoints.
+ *
+ * A bulk request is written in chunks of a fixed size, each chunk in its own transaction. Within a chunk Hibernate
+ * and JDBC batch the inserts, while the chunk boundaries keep the persistence context and the undo log of a single
+ * transaction small however large the request is. Chunks that were written stay committed when a later chunk fails.
+ */
+public class ChunkedWrites {
+    /**
+     * Writes the given rows chunk by chunk.
+     *
+     * @param rows                The rows of the bulk request.
+     * @param chunkSize           The number of rows written per transaction.
+     * @param transactionTemplate The template that opens one transaction per chunk.
+     * @param writeChunk          Writes one chunk and returns how many of its rows were written; the others count as rejected.
+     * @return The totals of the whole request.
+     */
+    public static <T> BatchResultDTO write(List<T> rows, int chunkSize, TransactionTemplate transactionTemplate,
+                                           ToIntFunction<List<T>> writeChunk) {
+        int written = 0;
+        for (int from = 0; from < rows.size(); from += chunkSize) {
+            List<T> chunk = rows.subList(from, Math.min(from + chunkSize, rows.size()));
+            Integer chunkWritten = transactionTemplate.execute(status -> writeChunk.applyAsInt(chunk));
+            written += chunkWritten == null ? 0 : chunkWritten;
+        }
+        return new BatchResultDTO(rows.size(), written, rows.size() - written);
+    }
+}
@@ -0,0 +1,55 @@
+package com.project.blogbackend.service.util;
+
+/**
+ * Materialized paths of threaded comments.
+ *
+ * The path of a comment is the path of its parent followed by its own id, zero-padded to {@value #SEGMENT_LENGTH}
+ * digits; the path of a root comment is its own id alone. All comments of a thread therefore start with the path of
+ * its root, and ordering by path lists a thread depth-first, the replies to each comment in id order. A subtree is
+ * the range of paths starting with the path of its top comment, read with one {@code like 'prefix%'} range scan of
+ * the path index.
+ *
+ * A comment draws its id from the comment sequence when it is persisted, before its INSERT is sent, so the path is
+ * computed from the id and stored in the same INSERT, see {@code GeneratedCommentPath}. The path is not a generated column: MySQL does not allow one
+ * to refer to an auto-increment id, which the comment table of a database created before the sequence still has.
+ */
+public class CommentPaths {
+    public static final int SEGMENT_LENGTH = 19;
+    public static final int MAX_DEPTH = 31;
+    public static final int MAX_LENGTH = SEGMENT_LENGTH * (MAX_DEPTH + 1);
+
+    /**
+     * The path of a comment.
+     *
+     * @param parentPath The path of the parent, null for a root comment.
+     * @param id         The id of the comment.
+     * @return The path of the comment.
+     */
+    public static String of(String parentPath, long id) {
+        return (parentPath == null ? "" : parentPath) + String.format("%0" + SEGMENT_LENGTH + "d", id);
+    }
+
+    /**
+     * The {@code like} pattern matching a comment and all its replies, nested to any depth.
+     */
+    public static String subtree(String path) {
+        return path + "%";
+    }
+
+    /**
+     * The path of the root comment of the thread a path belongs to.
+     */
+    public static String root(String path) {
+        return path.substring(0, SEGMENT_LENGTH);
+    }
+
+    /**
+     * Tells whether a client supplied cursor is a well-formed path.
+     */
+    public static boolean isPath(String value) {
+        if (value == null || value.isEmpty() || value.length() % SEGMENT_LENGTH != 0 || value.length() > MAX_LENGTH) {
+            return false;
+        }
+        return value.chars().allMatch(c -> c >= '0' && c <= '9');
+    }
+}
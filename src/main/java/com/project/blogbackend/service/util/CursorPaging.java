@@ -0,0 +1,124 @@
+package com.project.blogbackend.service.util;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Helpers for the keyset ("after id") pagination used by the list endpoints.
+ *
+ * A page is requested with the cursor returned with the previous page and a limit. The cursor is
+ * opaque to clients: it encodes the id of the last row of the previous page together with the
+ * name of the key, so the key can change later without clients noticing, and anything that was
+ * not issued as a cursor is refused. The repository answers a page with an
+ * {@code id > ? order by id limit ?} range scan on the primary key, so the cost of a page does not
+ * depend on how deep the client has paged.
+ */
+public class CursorPaging {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String DEFAULT_LIMIT = "20";
+    public static final int MAX_LIMIT = 100;
+
+    private static final String ID_KEY = "id:";
+
+    /**
+     * Clamps a client supplied page size into the range accepted by the API.
+     *
+     * @param limit The requested page size.
+     * @return The page size that will actually be used, between 1 and {@link #MAX_LIMIT}.
+     */
+    public static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_LIMIT));
+    }
+
+    /**
+     * Resolves the optional cursor into the lower (exclusive) id bound of the next range scan.
+     *
+     * @param after The cursor returned with the previous page, if any.
+     * @return The id to scan after, 0 when the first page is requested.
+     * @throws IllegalArgumentException if the cursor was not issued by {@link #encode(long)}.
+     */
+    public static long after(Optional<String> after) {
+        return decode(after, 0L);
+    }
+
+    /**
+     * Resolves the optional cursor into the id bound of the next range scan.
+     *
+     * @param cursor The cursor returned with the previous page, if any.
+     * @param first  The bound of the first page, used when no cursor is given.
+     * @return The id encoded in the cursor, or {@code first}.
+     * @throws IllegalArgumentException if the cursor was not issued by {@link #encode(long)}.
+     */
+    public static long decode(Optional<String> cursor, long first) {
+        if (cursor.isEmpty()) {
+            return first;
+        }
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor.get()), StandardCharsets.UTF_8);
+            if (key.startsWith(ID_KEY)) {
+                long id = Long.parseLong(key.substring(ID_KEY.length()));
+                if (id > 0) {
+                    return id;
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor.get(), e);
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor.get());
+    }
+
+    /**
+     * Encodes the id of the last row of a page into the opaque cursor of the next page.
+     *
+     * @param id The id of the last row of the page.
+     * @return The cursor to return in the {@value #NEXT_CURSOR_HEADER} header.
+     */
+    public static String encode(long id) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString((ID_KEY + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Builds the Pageable that limits a keyset query to a single page.
+     *
+     * @param limit The requested page size, clamped with {@link #clamp(int)}.
+     * @return A first-page Pageable of the clamped size; ordering is part of the query itself.
+     */
+    public static Pageable limit(int limit) {
+        return PageRequest.of(0, clamp(limit));
+    }
+
+    /**
+     * Computes the opaque cursor of the page following the given one.
+     *
+     * @param page  The rows returned for the current page.
+     * @param limit The requested page size.
+     * @param idOf  Extracts the id the page is ordered by from a row.
+     * @return The cursor to pass as {@code after} for the next page, or empty when this was the last page.
+     */
+    public static <T> Optional<String> nextCursor(List<T> page, int limit, ToLongFunction<T> idOf) {
+        return nextKey(page, limit, row -> encode(idOf.applyAsLong(row)));
+    }
+
+    /**
+     * Computes the cursor of the page following the given one from a key the caller validates itself, such as the
+     * path of a comment.
+     *
+     * @param page  The rows returned for the current page.
+     * @param limit The requested page size.
+     * @param keyOf Extracts the key the page is ordered by from a row.
+     * @return The key of the last row, or empty when this was the last page.
+     */
+    public static <T> Optional<String> nextKey(List<T> page, int limit, Function<T, String> keyOf) {
+        if (page == null || page.isEmpty() || page.size() < clamp(limit)) {
+            return Optional.empty();
+        }
+        return Optional.of(keyOf.apply(page.get(page.size() - 1)));
+    }
+}
@@ -0,0 +1,52 @@
+package com.project.blogbackend.service.util;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Helpers for the entity tags of the conditional GET endpoints.
+ *
+ * A tag is built from the version column of the entity (plus, for posts, the counters that are updated outside of
+ * Hibernate), which is read with a small projection query. A poll whose {@code If-None-Match} still matches is
+ * answered with 304 without loading or serializing the entity.
+ */
+public class ETags {
+    /**
+     * Builds a weak entity tag from the given parts.
+     *
+     * The tag is weak because the same version of a representation may be sent gzip-compressed or not, and the
+     * two encodings are not byte-for-byte identical; Tomcat also leaves responses with a strong tag uncompressed.
+     *
+     * @param parts The values that together identify one version of the representation.
+     * @return The weak entity tag, for example {@code W/"post-1-3-10-2"}.
+     */
+    public static String of(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("-", "W/\"", "\""));
+    }
+
+    /**
+     * Checks an {@code If-None-Match} request header against the current entity tag.
+     *
+     * Uses the weak comparison that RFC 9110 prescribes for {@code If-None-Match}, so {@code W/} prefixes are ignored.
+     *
+     * @param ifNoneMatch The value of the request header, or null if it was not sent.
+     * @param eTag        The current entity tag of the resource.
+     * @return true if the client's copy is current and the request can be answered with 304 (Not Modified).
+     */
+    public static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || eTag == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || strip(tag).equals(strip(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String strip(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,162 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Deletes the comments and likes of a post, of a user, and of a user on a post in id ranges of two rows, and checks
+ * the reported counts, that the replies of deleted comments go with them, that nothing else is deleted and that the
+ * counters of the posts follow.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:bulkdelete;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/bulk-delete-search-index",
+		"blog.batch.chunk-size=2"})
+@AutoConfigureMockMvc
+class BulkDeleteTests {
+	@Autowired
+	private MockMvc mvc;
+
+	private long firstUserId;
+	private long secondUserId;
+	private long thirdUserId;
+	private long postId;
+	private long otherPostId;
+
+	@BeforeEach
+	void createUsersAndPosts() throws Exception {
+		firstUserId = create(post("/users"), "{\"username\":\"first\",\"password\":\"p\"}");
+		secondUserId = create(post("/users"), "{\"username\":\"second\",\"password\":\"p\"}");
+		thirdUserId = create(post("/users"), "{\"username\":\"third\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + firstUserId + "}");
+		otherPostId = create(post("/posts"), "{\"title\":\"o\",\"text\":\"b\",\"userId\":" + firstUserId + "}");
+	}
+
+	@Test
+	void likesOfAPostAreDeletedInRangesAndItsCounterFollows() throws Exception {
+		like(firstUserId, postId);
+		like(secondUserId, postId);
+		like(thirdUserId, postId);
+		like(secondUserId, otherPostId);
+
+		mvc.perform(delete("/likes").param("postId", Long.toString(postId)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(3))
+				.andExpect(jsonPath("$.posts").value(1))
+				.andExpect(jsonPath("$.chunks").value(2));
+
+		expectCounters(postId, 0, 0);
+		expectCounters(otherPostId, 1, 0);
+		mvc.perform(get("/likes").param("postId", Long.toString(otherPostId))).andExpect(jsonPath("$.length()").value(1));
+	}
+
+	@Test
+	void likesOfAUserAreDeletedAcrossPostsAndOnOnePost() throws Exception {
+		like(secondUserId, postId);
+		like(secondUserId, otherPostId);
+		like(thirdUserId, postId);
+		like(thirdUserId, otherPostId);
+
+		mvc.perform(delete("/likes").param("userId", Long.toString(secondUserId)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(2))
+				.andExpect(jsonPath("$.posts").value(2));
+		mvc.perform(delete("/likes").param("userId", Long.toString(thirdUserId)).param("postId", Long.toString(postId)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(1))
+				.andExpect(jsonPath("$.posts").value(1));
+
+		expectCounters(postId, 0, 0);
+		expectCounters(otherPostId, 1, 0);
+		assertThat(ids(mvc.perform(get("/likes").param("userId", Long.toString(thirdUserId))).andReturn()))
+				.hasSize(1);
+	}
+
+	@Test
+	void commentsOfAUserAreDeletedWithTheirReplies() throws Exception {
+		long root = comment(secondUserId, postId, null);
+		comment(thirdUserId, postId, root);
+		long othersRoot = comment(thirdUserId, postId, null);
+		long othersReply = comment(thirdUserId, postId, othersRoot);
+		comment(secondUserId, postId, othersReply);
+		comment(secondUserId, otherPostId, null);
+
+		mvc.perform(delete("/comments").param("userId", Long.toString(secondUserId)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(4))
+				.andExpect(jsonPath("$.posts").value(2));
+
+		assertThat(ids(mvc.perform(get("/comments").param("postId", Long.toString(postId))).andReturn()))
+				.containsExactly(othersRoot, othersReply);
+		expectCounters(postId, 0, 2);
+		expectCounters(otherPostId, 0, 0);
+	}
+
+	@Test
+	void commentsOfAPostAreDeletedInRangesAndOthersAreKept() throws Exception {
+		long root = comment(secondUserId, postId, null);
+		comment(thirdUserId, postId, root);
+		comment(thirdUserId, postId, null);
+		comment(secondUserId, postId, null);
+		long kept = comment(secondUserId, otherPostId, null);
+
+		mvc.perform(delete("/comments").param("postId", Long.toString(postId)))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.deleted").value(4))
+				.andExpect(jsonPath("$.posts").value(1))
+				.andExpect(jsonPath("$.chunks").value(3));
+
+		expectCounters(postId, 0, 0);
+		expectCounters(otherPostId, 0, 1);
+		assertThat(ids(mvc.perform(get("/comments").param("userId", Long.toString(secondUserId))).andReturn()))
+				.containsExactly(kept);
+	}
+
+	@Test
+	void aBulkDeleteNeedsAPostOrAUser() throws Exception {
+		mvc.perform(delete("/comments")).andExpect(status().isBadRequest());
+		mvc.perform(delete("/likes")).andExpect(status().isBadRequest());
+	}
+
+	private void like(long userId, long postId) throws Exception {
+		create(post("/likes"), "{\"userId\":" + userId + ",\"postId\":" + postId + "}");
+	}
+
+	private long comment(long userId, long postId, Long parentId) throws Exception {
+		return create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postId
+				+ (parentId == null ? "" : ",\"parentId\":" + parentId) + "}");
+	}
+
+	private void expectCounters(long postId, long likeCount, long commentCount) throws Exception {
+		mvc.perform(get("/posts/" + postId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.likeCount").value(likeCount))
+				.andExpect(jsonPath("$.commentCount").value(commentCount));
+	}
+
+	private static List<Long> ids(MvcResult result) throws Exception {
+		List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), "$[*].id");
+		return ids.stream().map(Number::longValue).toList();
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
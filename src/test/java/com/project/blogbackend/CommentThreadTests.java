@@ -0,0 +1,184 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.config.SchemaMigrations;
+import com.project.blogbackend.service.util.CommentPaths;
+import com.project.blogbackend.service.util.CursorPaging;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Builds a small comment tree on a post and checks that threads and replies are read in depth-first path order with
+ * their cursors, that deleting a comment removes its whole subtree and nothing else, that replies are refused
+ * across posts and beyond the maximum depth, and that the migration replaces a generated path column by a stored
+ * one.
+ *
+ * <pre>
+ * a            b            c
+ * ├─ a1        └─ b1
+ * │  └─ a1x
+ * └─ a2
+ * </pre>
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:commentthread;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/comment-thread-search-index"})
+@AutoConfigureMockMvc
+class CommentThreadTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private SchemaMigrations schemaMigrations;
+
+	private long userId;
+	private long postId;
+	private long a, a1, a1x, a2, b, b1, c;
+
+	@BeforeEach
+	void createThreads() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"threads\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+		a = comment(null);
+		b = comment(null);
+		c = comment(null);
+		a1 = comment(a);
+		b1 = comment(b);
+		a2 = comment(a);
+		a1x = comment(a1);
+	}
+
+	@Test
+	void repliesCarryTheirParentDepthAndPath() throws Exception {
+		String pathOfA = CommentPaths.of(null, a);
+		String pathOfA1 = CommentPaths.of(pathOfA, a1);
+
+		mvc.perform(get("/comments/" + a1x))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.parentId").value(a1))
+				.andExpect(jsonPath("$.depth").value(2))
+				.andExpect(jsonPath("$.path").value(CommentPaths.of(pathOfA1, a1x)));
+		assertThat(path(a1x)).isEqualTo(CommentPaths.of(pathOfA1, a1x));
+	}
+
+	@Test
+	void repliesAreReadDepthFirstAndPagedByPath() throws Exception {
+		MvcResult first = mvc.perform(get("/comments/" + a + "/replies").param("limit", "2"))
+				.andExpect(status().isOk()).andReturn();
+		String cursor = first.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER);
+		MvcResult second = mvc.perform(get("/comments/" + a + "/replies").param("after", cursor).param("limit", "2"))
+				.andExpect(status().isOk()).andReturn();
+
+		assertThat(ids(first, "$[*].id")).containsExactly(a1, a1x);
+		assertThat(cursor).isEqualTo(CommentPaths.of(CommentPaths.of(CommentPaths.of(null, a), a1), a1x));
+		assertThat(ids(second, "$[*].id")).containsExactly(a2);
+		assertThat(second.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER)).isNull();
+	}
+
+	@Test
+	void threadsArePagedByRootWithTheirFirstReplies() throws Exception {
+		MvcResult first = mvc.perform(get("/comments/threads").param("postId", Long.toString(postId))
+						.param("limit", "2").param("replies", "2"))
+				.andExpect(status().isOk()).andReturn();
+		String cursor = first.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER);
+		MvcResult second = mvc.perform(get("/comments/threads").param("postId", Long.toString(postId))
+						.param("after", cursor).param("limit", "2").param("replies", "2"))
+				.andExpect(status().isOk()).andReturn();
+
+		assertThat(ids(first, "$[*].comment.id")).containsExactly(a, b);
+		assertThat(ids(first, "$[0].replies[*].id")).containsExactly(a1, a1x);
+		assertThat(ids(first, "$[1].replies[*].id")).containsExactly(b1);
+		assertThat(cursor).isEqualTo(CursorPaging.encode(b));
+		assertThat(ids(second, "$[*].comment.id")).containsExactly(c);
+		assertThat(ids(second, "$[0].replies[*].id")).isEmpty();
+	}
+
+	@Test
+	void deletingACommentDeletesItsSubtreeOnly() throws Exception {
+		mvc.perform(delete("/comments/" + a1)).andExpect(status().isOk());
+
+		mvc.perform(get("/comments/" + a1)).andExpect(status().isNotFound());
+		mvc.perform(get("/comments/" + a1x)).andExpect(status().isNotFound());
+		assertThat(ids(mvc.perform(get("/comments/" + a + "/replies")).andExpect(status().isOk()).andReturn(), "$[*].id"))
+				.containsExactly(a2);
+		assertThat(ids(mvc.perform(get("/comments").param("postId", Long.toString(postId))).andExpect(status().isOk()).andReturn(), "$[*].id"))
+				.containsExactlyInAnyOrder(a, b, c, b1, a2);
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.commentCount").value(5));
+	}
+
+	@Test
+	void repliesAcrossPostsAndBeyondTheMaximumDepthAreRefused() throws Exception {
+		long otherPostId = create(post("/posts"), "{\"title\":\"o\",\"text\":\"b\",\"userId\":" + userId + "}");
+		mvc.perform(post("/comments").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"text\":\"r\",\"userId\":" + userId + ",\"postId\":" + otherPostId + ",\"parentId\":" + a + "}"))
+				.andExpect(status().isNotFound());
+
+		long deepest = c;
+		for (int depth = 1; depth <= CommentPaths.MAX_DEPTH; depth++) {
+			deepest = comment(deepest);
+		}
+		mvc.perform(get("/comments/" + deepest)).andExpect(jsonPath("$.depth").value(CommentPaths.MAX_DEPTH));
+		mvc.perform(post("/comments").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"text\":\"r\",\"userId\":" + userId + ",\"postId\":" + postId + ",\"parentId\":" + deepest + "}"))
+				.andExpect(status().isBadRequest());
+	}
+
+	@Test
+	void aMalformedCursorOrAMissingCommentIsRefused() throws Exception {
+		mvc.perform(get("/comments/" + a + "/replies").param("after", "12x")).andExpect(status().isBadRequest());
+		mvc.perform(get("/comments/" + Long.MAX_VALUE + "/replies")).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void theMigrationStoresThePathsOfAGeneratedColumn() throws Exception {
+		jdbcTemplate.execute("alter table comment drop index ix_comment_path");
+		jdbcTemplate.execute("alter table comment drop column path");
+		jdbcTemplate.execute("alter table comment add column path varchar(" + CommentPaths.MAX_LENGTH + ") generated always as "
+				+ "(concat(coalesce(parent_path, ''), lpad(id, " + CommentPaths.SEGMENT_LENGTH + ", '0')))");
+
+		schemaMigrations.migrate();
+		schemaMigrations.migrate();
+
+		assertThat(path(a1x)).isEqualTo(CommentPaths.of(CommentPaths.of(CommentPaths.of(null, a), a1), a1x));
+		long a3 = comment(a);
+		assertThat(path(a3)).isEqualTo(CommentPaths.of(CommentPaths.of(null, a), a3));
+		assertThat(ids(mvc.perform(get("/comments/" + a + "/replies")).andExpect(status().isOk()).andReturn(), "$[*].id"))
+				.containsExactly(a1, a1x, a2, a3);
+	}
+
+	private String path(long commentId) {
+		return jdbcTemplate.queryForObject("select path from comment where id = ?", String.class, commentId);
+	}
+
+	private long comment(Long parentId) throws Exception {
+		return create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postId
+				+ (parentId == null ? "" : ",\"parentId\":" + parentId) + "}");
+	}
+
+	private static List<Long> ids(MvcResult result, String path) throws Exception {
+		List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), path);
+		return ids.stream().map(Number::longValue).toList();
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
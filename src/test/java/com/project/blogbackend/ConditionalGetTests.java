@@ -0,0 +1,122 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Replays the ETag of a post, a user and a page of comments in If-None-Match, and checks that the unchanged resource
+ * is answered with 304 and no body, and that a change to it is answered with 200 and a new ETag. The tags are weak,
+ * since the same representation may be sent gzip-compressed or not.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:conditionalget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/conditional-get-search-index"})
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+	@Autowired
+	private MockMvc mvc;
+
+	private long userId;
+	private long otherUserId;
+	private long postId;
+
+	@BeforeEach
+	void createUsersAndPost() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"author\",\"password\":\"p\"}");
+		otherUserId = create(post("/users"), "{\"username\":\"reader\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+	}
+
+	@Test
+	void postIsNotModifiedUntilItIsLiked() throws Exception {
+		String eTag = eTag(get("/posts/" + postId));
+
+		notModified(get("/posts/" + postId), eTag);
+		notModified(get("/posts/" + postId), "\"other\", " + eTag);
+		mvc.perform(put("/posts/" + postId + "/likes/" + otherUserId)).andExpect(status().isCreated());
+
+		assertThat(modified(get("/posts/" + postId), eTag)).isNotEqualTo(eTag);
+	}
+
+	@Test
+	void postIsModifiedByAnUpdate() throws Exception {
+		String eTag = eTag(get("/posts/" + postId));
+
+		mvc.perform(put("/posts/" + postId).contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"u\",\"text\":\"c\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(modified(get("/posts/" + postId), eTag)).isNotEqualTo(eTag);
+	}
+
+	@Test
+	void userIsNotModifiedUntilItIsUpdated() throws Exception {
+		String eTag = eTag(get("/users/" + userId));
+
+		notModified(get("/users/" + userId), eTag);
+		mvc.perform(put("/users/" + userId).contentType(MediaType.APPLICATION_JSON).content("{\"username\":\"author\",\"password\":\"q\"}"))
+				.andExpect(status().isOk());
+
+		assertThat(modified(get("/users/" + userId), eTag)).isNotEqualTo(eTag);
+	}
+
+	@Test
+	void commentsOfAPostAreNotModifiedUntilOneIsAdded() throws Exception {
+		create(post("/comments"), "{\"text\":\"c\",\"userId\":" + otherUserId + ",\"postId\":" + postId + "}");
+		MockHttpServletRequestBuilder comments = get("/comments").param("postId", Long.toString(postId));
+		String eTag = eTag(comments);
+
+		notModified(comments, eTag);
+		create(post("/comments"), "{\"text\":\"d\",\"userId\":" + userId + ",\"postId\":" + postId + "}");
+
+		assertThat(modified(comments, eTag)).isNotEqualTo(eTag);
+	}
+
+	@Test
+	void aStrongFormOfTheTagMatchesToo() throws Exception {
+		String eTag = eTag(get("/posts/" + postId));
+
+		notModified(get("/posts/" + postId), eTag.substring(2));
+	}
+
+	@Test
+	void missingPostIsNotFoundWhateverTheTag() throws Exception {
+		mvc.perform(get("/posts/" + Long.MAX_VALUE).header(HttpHeaders.IF_NONE_MATCH, "*")).andExpect(status().isNotFound());
+	}
+
+	private String eTag(MockHttpServletRequestBuilder request) throws Exception {
+		String eTag = mvc.perform(request).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(eTag).startsWith("W/\"").endsWith("\"");
+		return eTag;
+	}
+
+	private void notModified(MockHttpServletRequestBuilder request, String ifNoneMatch) throws Exception {
+		mvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+	}
+
+	/** Sends the stale tag and returns the new one. */
+	private String modified(MockHttpServletRequestBuilder request, String staleETag) throws Exception {
+		return mvc.perform(request.header(HttpHeaders.IF_NONE_MATCH, staleETag))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,132 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.entity.User;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that posts and users are read from the second-level cache, and that the writes that change their rows
+ * behind Hibernate's back, the counters and the soft deletes, evict them once they commit, so the next read sees
+ * the new row. The subscribers of the outbox load posts too, so each test waits for them to receive the events of
+ * its setup first.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:entitycache;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/entity-cache-search-index",
+		"blog.purge.interval-ms=3600000"})
+@AutoConfigureMockMvc
+class EntityCacheTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long userId;
+	private long readerId;
+	private long postId;
+
+	@BeforeEach
+	void createUsersAndPost() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"cached\",\"password\":\"p\"}");
+		readerId = create(post("/users"), "{\"username\":\"reader\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+		awaitEmptyOutbox();
+	}
+
+	@Test
+	void postsAndUsersAreReadFromTheCache() throws Exception {
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isOk());
+		mvc.perform(get("/users/" + userId)).andExpect(status().isOk());
+		long postHits = hits("post");
+		long userHits = hits("user");
+
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isOk());
+		mvc.perform(get("/users/" + userId)).andExpect(status().isOk());
+
+		assertThat(hits("post")).isGreaterThan(postHits);
+		assertThat(hits("user")).isGreaterThan(userHits);
+	}
+
+	@Test
+	void counterWritesEvictThePostOnceTheyCommit() throws Exception {
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.likeCount").value(0));
+		assertThat(cache().contains(Post.class, postId)).isTrue();
+
+		mvc.perform(put("/posts/" + postId + "/likes/" + readerId)).andExpect(status().isCreated());
+
+		assertThat(cache().contains(Post.class, postId)).isFalse();
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.likeCount").value(1));
+
+		create(post("/comments"), "{\"text\":\"c\",\"userId\":" + readerId + ",\"postId\":" + postId + "}");
+
+		assertThat(cache().contains(Post.class, postId)).isFalse();
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.commentCount").value(1));
+	}
+
+	@Test
+	void updatesAndSoftDeletesAreSeenByTheNextRead() throws Exception {
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isOk());
+		mvc.perform(put("/posts/" + postId).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"changed\",\"text\":\"b\"}")).andExpect(status().isOk());
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.title").value("changed"));
+
+		mvc.perform(delete("/posts/" + postId)).andExpect(status().isOk());
+
+		assertThat(cache().contains(Post.class, postId)).isFalse();
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isNotFound());
+
+		mvc.perform(get("/users/" + readerId)).andExpect(status().isOk());
+		mvc.perform(delete("/users/" + readerId)).andExpect(status().isOk());
+
+		assertThat(cache().contains(User.class, readerId)).isFalse();
+		mvc.perform(get("/users/" + readerId)).andExpect(status().isNotFound());
+	}
+
+	private void awaitEmptyOutbox() throws InterruptedException {
+		for (int i = 0; i < 100 && pendingEvents() > 0; i++) {
+			TimeUnit.MILLISECONDS.sleep(50);
+		}
+		assertThat(pendingEvents()).isZero();
+	}
+
+	private long pendingEvents() {
+		return jdbcTemplate.queryForObject("select count(*) from outbox_event", Long.class);
+	}
+
+	private Cache cache() {
+		return entityManagerFactory.getCache();
+	}
+
+	private long hits(String region) throws Exception {
+		String statistics = mvc.perform(get("/cache/statistics")).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.<List<Object>>read(statistics, "$[?(@.region == '" + region + "')].hits").get(0)).longValue();
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,122 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.service.ExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Streams the post, comment and like exports and checks that they write one JSON object per line in id order,
+ * resume after the cursor, and release their connection when the client goes away mid-stream.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/export-search-index",
+		"spring.datasource.hikari.maximum-pool-size=2"})
+@AutoConfigureMockMvc
+class ExportTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private ExportService exportService;
+
+	private long userId;
+	private final List<Long> postIds = new ArrayList<>();
+
+	@BeforeEach
+	void createUserAndPosts() throws Exception {
+		postIds.clear();
+		userId = create(post("/users"), "{\"username\":\"exporter\",\"password\":\"p\"}");
+		for (int i = 0; i < 3; i++) {
+			postIds.add(create(post("/posts"), "{\"title\":\"t" + i + "\",\"text\":\"b\",\"userId\":" + userId + "}"));
+		}
+	}
+
+	@Test
+	void postsAreStreamedOneObjectPerLineInIdOrder() throws Exception {
+		create(post("/likes"), "{\"userId\":" + userId + ",\"postId\":" + postIds.get(0) + "}");
+
+		List<String> lines = export("/export/posts", postIds.get(0) - 1);
+
+		assertThat(lines).extracting(line -> ((Number) JsonPath.read(line, "$.id")).longValue()).containsExactlyElementsOf(postIds);
+		assertThat(lines).extracting(line -> JsonPath.<String>read(line, "$.title")).containsExactly("t0", "t1", "t2");
+		assertThat(JsonPath.<Integer>read(lines.get(0), "$.likeCount")).isEqualTo(1);
+	}
+
+	@Test
+	void anExportResumesAfterTheCursor() throws Exception {
+		List<String> lines = export("/export/posts", postIds.get(1));
+
+		assertThat(lines).extracting(line -> ((Number) JsonPath.read(line, "$.id")).longValue()).containsExactly(postIds.get(2));
+	}
+
+	@Test
+	void commentsAndLikesAreExported() throws Exception {
+		long commentId = create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postIds.get(1) + "}");
+		long likeId = create(post("/likes"), "{\"userId\":" + userId + ",\"postId\":" + postIds.get(2) + "}");
+
+		List<String> comments = export("/export/comments", commentId - 1);
+		List<String> likes = export("/export/likes", likeId - 1);
+
+		assertThat(comments).hasSize(1);
+		assertThat(JsonPath.<String>read(comments.get(0), "$.text")).isEqualTo("c");
+		assertThat(((Number) JsonPath.read(comments.get(0), "$.postId")).longValue()).isEqualTo(postIds.get(1));
+		assertThat(likes).hasSize(1);
+		assertThat(((Number) JsonPath.read(likes.get(0), "$.postId")).longValue()).isEqualTo(postIds.get(2));
+	}
+
+	@Test
+	void anExportToAClientThatWentAwayReleasesItsConnection() {
+		OutputStream disconnected = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("Broken pipe");
+			}
+		};
+
+		// more failed exports than the pool has connections: a leaked connection would block the next export
+		for (int i = 0; i < 4; i++) {
+			assertThatThrownBy(() -> exportService.exportPosts(Optional.empty(), disconnected)).isInstanceOf(UncheckedIOException.class);
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertThat(exportService.exportPosts(Optional.of(postIds.get(0) - 1), out)).isEqualTo(3);
+	}
+
+	private List<String> export(String path, long after) throws Exception {
+		MvcResult started = mvc.perform(get(path).param("after", Long.toString(after)))
+				.andExpect(request().asyncStarted()).andReturn();
+		String body = mvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+				.andReturn().getResponse().getContentAsString();
+		assertThat(body).endsWith("\n");
+		return List.of(body.split("\n"));
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,167 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.service.FeedTrimmer;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that Posts are fanned out to the feeds of followers, merged into them at read time once their author is
+ * above the fan-out threshold, and trimmed to the maximum feed length, and that following a user leaves the cached
+ * Posts in the second-level cache. Posts reach feeds through the event outbox, so the feeds are polled until they
+ * show the expected Posts.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:feed;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/feed-search-index",
+		"blog.events.poll-interval-ms=50",
+		"blog.feed.fan-out-threshold=1",
+		"blog.feed.max-length=3"})
+@AutoConfigureMockMvc
+class FeedTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private FeedTrimmer trimmer;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private long authorId;
+	private long readerId;
+	private long otherReaderId;
+
+	@BeforeEach
+	void createUsers() throws Exception {
+		authorId = createUser("author");
+		readerId = createUser("reader");
+		otherReaderId = createUser("other");
+	}
+
+	@Test
+	void postsAreFannedOutToFollowersAndBackfilledOnFollow() throws Exception {
+		follow(readerId, authorId);
+		long first = createPost(authorId);
+
+		expectFeed(readerId, List.of(first));
+		expectFeed(authorId, List.of(first));
+		assertThat(feedEntries(readerId)).isEqualTo(1);
+
+		mvc.perform(delete("/users/" + readerId + "/following/" + authorId)).andExpect(status().isOk());
+		expectFeed(readerId, List.of());
+		long second = createPost(otherReaderId);
+		follow(readerId, otherReaderId);
+
+		expectFeed(readerId, List.of(second));
+	}
+
+	@Test
+	void followingKeepsPostsCached() throws Exception {
+		long post = createPost(authorId);
+		mvc.perform(get("/posts/" + post)).andExpect(status().isOk());
+		assertThat(entityManagerFactory.getCache().contains(Post.class, post)).isTrue();
+
+		follow(readerId, authorId);
+		mvc.perform(put("/users/" + readerId + "/following/" + authorId)).andExpect(status().isOk());
+
+		assertThat(entityManagerFactory.getCache().contains(Post.class, post)).isTrue();
+	}
+
+	@Test
+	void postsOfAuthorsAboveTheThresholdAreMergedAtReadTime() throws Exception {
+		follow(readerId, authorId);
+		follow(otherReaderId, authorId);
+		long post = createPost(authorId);
+		long own = createPost(readerId);
+
+		expectFeed(authorId, List.of(post));
+		expectFeed(readerId, List.of(own, post));
+		expectFeed(otherReaderId, List.of(post));
+		assertThat(feedEntries(otherReaderId)).isZero();
+	}
+
+	@Test
+	void feedsOfAnAuthorAndFollowersAreTrimmedToTheNewestPosts() throws Exception {
+		follow(readerId, authorId);
+		List<Long> posts = new ArrayList<>();
+		for (int i = 0; i < 5; i++) {
+			posts.add(createPost(authorId));
+		}
+		long lastPost = posts.get(posts.size() - 1);
+		expectFeed(readerId, List.of(lastPost, posts.get(3), posts.get(2)));
+		awaitFeedEntries(readerId, 5);
+
+		trimmer.trim();
+
+		assertThat(feedEntries(readerId)).isEqualTo(3);
+		assertThat(feedEntries(authorId)).isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from feed_trim", Long.class)).isZero();
+		expectFeed(readerId, List.of(lastPost, posts.get(3), posts.get(2)));
+	}
+
+	private void follow(long followerId, long followeeId) throws Exception {
+		mvc.perform(put("/users/" + followerId + "/following/" + followeeId)).andExpect(status().isCreated());
+	}
+
+	/** Polls the first page of the feed until it lists exactly the given Posts, newest first. */
+	private void expectFeed(long userId, List<Long> postIds) throws Exception {
+		List<Long> feed = List.of();
+		for (int i = 0; i < 100; i++) {
+			feed = ids(mvc.perform(get("/users/" + userId + "/feed").param("limit", "3"))
+					.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+			if (feed.equals(postIds)) {
+				return;
+			}
+			TimeUnit.MILLISECONDS.sleep(50);
+		}
+		assertThat(feed).containsExactlyElementsOf(postIds);
+	}
+
+	private void awaitFeedEntries(long userId, long count) throws Exception {
+		for (int i = 0; i < 100 && feedEntries(userId) < count; i++) {
+			TimeUnit.MILLISECONDS.sleep(50);
+		}
+		assertThat(feedEntries(userId)).isEqualTo(count);
+	}
+
+	private long feedEntries(long userId) {
+		return jdbcTemplate.queryForObject("select count(*) from feed_entry where user_id = ?", Long.class, userId);
+	}
+
+	private static List<Long> ids(String response) {
+		List<Number> ids = JsonPath.read(response, "$[*].id");
+		return ids.stream().map(Number::longValue).toList();
+	}
+
+	private long createUser(String username) throws Exception {
+		return create(post("/users"), "{\"username\":\"" + username + "\",\"password\":\"p\"}");
+	}
+
+	private long createPost(long userId) throws Exception {
+		return create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,129 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.service.util.CursorPaging;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pages through the post, comment and like listings with the {@code after} cursor and checks that every row is
+ * returned exactly once, in id order, that the last page carries no next cursor, and that cursors are opaque and
+ * anything else is refused.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:keyset;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/keyset-search-index"})
+@AutoConfigureMockMvc
+class KeysetPaginationTests {
+	@Autowired
+	private MockMvc mvc;
+
+	private long userId;
+	private final List<Long> postIds = new ArrayList<>();
+
+	@BeforeEach
+	void createUserAndPosts() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"pager\",\"password\":\"p\"}");
+		for (int i = 0; i < 5; i++) {
+			postIds.add(create(post("/posts"), "{\"title\":\"t" + i + "\",\"text\":\"b\",\"userId\":" + userId + "}"));
+		}
+	}
+
+	@Test
+	void postsArePagedInIdOrderUntilAPartialPage() throws Exception {
+		List<List<Long>> pages = pages("/posts", "userId", userId, 2);
+
+		assertThat(pages).containsExactly(postIds.subList(0, 2), postIds.subList(2, 4), postIds.subList(4, 5));
+	}
+
+	@Test
+	void aFullLastPageIsFollowedByAnEmptyPage() throws Exception {
+		List<Long> commentIds = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			commentIds.add(create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postIds.get(0) + "}"));
+		}
+
+		List<List<Long>> pages = pages("/comments", "postId", postIds.get(0), 2);
+
+		assertThat(pages).containsExactly(commentIds.subList(0, 2), commentIds.subList(2, 4), List.of());
+	}
+
+	@Test
+	void likesArePagedAfterTheCursor() throws Exception {
+		List<Long> likeIds = new ArrayList<>();
+		for (Long postId : postIds) {
+			likeIds.add(create(post("/likes"), "{\"userId\":" + userId + ",\"postId\":" + postId + "}"));
+		}
+
+		MvcResult page = mvc.perform(get("/likes").param("userId", Long.toString(userId))
+						.param("after", CursorPaging.encode(likeIds.get(1))).param("limit", "10"))
+				.andExpect(status().isOk()).andReturn();
+
+		assertThat(ids(page)).containsExactlyElementsOf(likeIds.subList(2, 5));
+		assertThat(page.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER)).isNull();
+	}
+
+	@Test
+	void theLimitIsClampedToTheMaximumPageSize() throws Exception {
+		MvcResult page = mvc.perform(get("/posts").param("userId", Long.toString(userId)).param("limit", "0"))
+				.andExpect(status().isOk()).andReturn();
+
+		assertThat(ids(page)).containsExactly(postIds.get(0));
+		assertThat(page.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER)).isEqualTo(CursorPaging.encode(postIds.get(0)));
+	}
+
+	@Test
+	void cursorsAreOpaqueAndMalformedOnesAreRefused() throws Exception {
+		String cursor = mvc.perform(get("/posts").param("userId", Long.toString(userId)).param("limit", "1"))
+				.andExpect(status().isOk()).andReturn().getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER);
+
+		assertThat(cursor).isNotEqualTo(postIds.get(0).toString());
+		for (String malformed : List.of(postIds.get(0).toString(), "not a cursor", CursorPaging.encode(1).substring(1))) {
+			mvc.perform(get("/posts").param("after", malformed)).andExpect(status().isBadRequest());
+			mvc.perform(get("/comments").param("after", malformed)).andExpect(status().isBadRequest());
+			mvc.perform(get("/likes").param("after", malformed)).andExpect(status().isBadRequest());
+		}
+	}
+
+	/** Follows the next cursor from the first page until a page comes without one. */
+	private List<List<Long>> pages(String path, String filter, long filterId, int limit) throws Exception {
+		List<List<Long>> pages = new ArrayList<>();
+		String cursor = null;
+		do {
+			MockHttpServletRequestBuilder request = get(path).param(filter, Long.toString(filterId)).param("limit", Integer.toString(limit));
+			if (cursor != null) {
+				request.param("after", cursor);
+			}
+			MvcResult page = mvc.perform(request).andExpect(status().isOk()).andReturn();
+			pages.add(ids(page));
+			cursor = page.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER);
+		} while (cursor != null && pages.size() < 10);
+		return pages;
+	}
+
+	private static List<Long> ids(MvcResult page) throws Exception {
+		List<Number> ids = JsonPath.read(page.getResponse().getContentAsString(), "$[*].id");
+		return ids.stream().map(Number::longValue).toList();
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,150 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.config.SchemaMigrations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Likes and unlikes one post from many threads at once and checks that every user has at most one like on it and
+ * that the like counter matches the rows, and that the migration that runs before Hibernate's schema update removes
+ * the duplicate likes of an existing database, corrects their counters and adds the unique key.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:liketoggle;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/like-toggle-search-index"})
+@AutoConfigureMockMvc
+class LikeToggleTests {
+	private static final int THREADS = 8;
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private SchemaMigrations schemaMigrations;
+
+	private final List<Long> userIds = new ArrayList<>();
+	private long postId;
+
+	@BeforeEach
+	void createUsersAndPost() throws Exception {
+		for (int i = 0; i < 4; i++) {
+			userIds.add(create(post("/users"), "{\"username\":\"toggler" + i + "\",\"password\":\"p\"}"));
+		}
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userIds.get(0) + "}");
+	}
+
+	@Test
+	void concurrentRepeatedLikesCreateOneLike() throws Exception {
+		List<Integer> statuses = concurrently(Collections.nCopies(4 * THREADS, () ->
+				mvc.perform(put("/posts/" + postId + "/likes/" + userIds.get(1))).andReturn().getResponse().getStatus()));
+
+		assertThat(statuses).containsOnly(200, 201);
+		assertThat(Collections.frequency(statuses, 201)).isEqualTo(1);
+		assertThat(likes(userIds.get(1))).isEqualTo(1);
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.likeCount").value(1));
+	}
+
+	@Test
+	void concurrentTogglingKeepsOneLikePerUserAndTheCounterRight() throws Exception {
+		List<Callable<Integer>> toggles = new ArrayList<>();
+		for (int i = 0; i < 20 * THREADS; i++) {
+			long userId = userIds.get(i % userIds.size());
+			boolean like = ThreadLocalRandom.current().nextBoolean();
+			toggles.add(() -> mvc.perform(like ? put("/posts/" + postId + "/likes/" + userId) : delete("/posts/" + postId + "/likes/" + userId))
+					.andReturn().getResponse().getStatus());
+		}
+
+		assertThat(concurrently(toggles)).allMatch(status -> status == 200 || status == 201 || status == 404);
+
+		long rows = 0;
+		for (long userId : userIds) {
+			assertThat(likes(userId)).isBetween(0L, 1L);
+			rows += likes(userId);
+		}
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.likeCount").value(rows));
+	}
+
+	@Test
+	void theMigrationRemovesDuplicateLikesAndAddsTheUniqueKey() throws Exception {
+		jdbcTemplate.execute("alter table post_like drop constraint uk_post_like_user_post");
+		for (int i = 0; i < 3; i++) {
+			insertLike(userIds.get(1));
+		}
+		insertLike(userIds.get(2));
+		jdbcTemplate.update("update post set like_count = 4 where id = ?", postId);
+
+		schemaMigrations.migrate();
+		schemaMigrations.migrate();
+
+		assertThat(likes(userIds.get(1))).isEqualTo(1);
+		assertThat(likes(userIds.get(2))).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("select like_count from post where id = ?", Long.class, postId)).isEqualTo(2);
+		assertThatThrownBy(() -> insertLike(userIds.get(2))).isInstanceOf(DataIntegrityViolationException.class);
+		jdbcTemplate.update("delete from post_like where post_id = ?", postId);
+	}
+
+	private long likes(long userId) {
+		return jdbcTemplate.queryForObject("select count(*) from post_like where post_id = ? and user_id = ?", Long.class, postId, userId);
+	}
+
+	private void insertLike(long userId) {
+		jdbcTemplate.update("insert into post_like (post_id, user_id, created_at) values (?, ?, ?)", postId, userId, Timestamp.from(Instant.now()));
+	}
+
+	/** Runs the requests on a pool of threads that all start at once, and returns their results in order. */
+	private static <T> List<T> concurrently(List<Callable<T>> requests) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		try {
+			CountDownLatch start = new CountDownLatch(1);
+			List<Future<T>> futures = new ArrayList<>();
+			for (Callable<T> request : requests) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					return request.call();
+				}));
+			}
+			start.countDown();
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,171 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.service.LikeBatchWriter;
+import com.project.blogbackend.service.LikeWriteBuffer;
+import com.project.blogbackend.service.dto.LikeWriteBufferStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Flushes the write-behind like buffer against the database, and against a writer that fails or blocks, to check
+ * which likes are written, dropped or kept for a retry.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:likewritebuffer;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/like-write-buffer-search-index",
+		"blog.likes.write-behind.enabled=true",
+		"blog.likes.write-behind.flush-size=1000",
+		"blog.likes.write-behind.flush-interval-ms=3600000",
+		"blog.likes.write-behind.batch-size=2"})
+@AutoConfigureMockMvc
+class LikeWriteBufferTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private LikeWriteBuffer buffer;
+
+	private long postId;
+	private final List<Long> userIds = new ArrayList<>();
+
+	@BeforeEach
+	void createUsersAndPost() throws Exception {
+		userIds.clear();
+		for (int i = 0; i < 3; i++) {
+			userIds.add(create(post("/users"), "{\"username\":\"liker" + i + "\",\"password\":\"p\"}"));
+		}
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userIds.get(0) + "}");
+	}
+
+	@Test
+	void bufferedLikesAreWrittenInBatchesWithTheirCounter() throws Exception {
+		for (Long userId : userIds) {
+			like(userId, postId);
+		}
+		like(userIds.get(0), postId);
+
+		buffer.flush();
+
+		assertThat(buffer.getStatistics().pending()).isZero();
+		mvc.perform(get("/likes").param("postId", Long.toString(postId))).andExpect(jsonPath("$.length()").value(3));
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.likeCount").value(3));
+	}
+
+	@Test
+	void existingLikesAreSkippedAndLikesOfMissingPostsDropped() throws Exception {
+		mvc.perform(put("/posts/" + postId + "/likes/" + userIds.get(0))).andExpect(status().isCreated());
+		LikeWriteBufferStatistics before = buffer.getStatistics();
+		like(userIds.get(0), postId);
+		like(userIds.get(1), Long.MAX_VALUE);
+		like(userIds.get(2), postId);
+
+		buffer.flush();
+
+		LikeWriteBufferStatistics after = buffer.getStatistics();
+		assertThat(after.failedRows() - before.failedRows()).isEqualTo(1);
+		assertThat(after.requeuedRows()).isEqualTo(before.requeuedRows());
+		assertThat(after.pending()).isZero();
+		mvc.perform(get("/likes").param("postId", Long.toString(postId))).andExpect(jsonPath("$.length()").value(2));
+		mvc.perform(get("/posts/" + postId)).andExpect(jsonPath("$.likeCount").value(2));
+	}
+
+	@Test
+	void likesAreKeptAndFlushesBackOffWhileTheDatabaseIsUnreachable() throws Exception {
+		LikeBatchWriter writer = mock(LikeBatchWriter.class);
+		PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+		when(transactionManager.getTransaction(any()))
+				.thenThrow(new CannotCreateTransactionException("Could not open JDBC Connection"))
+				.thenReturn(null);
+		LikeWriteBuffer unreachable = new LikeWriteBuffer(writer, new TransactionTemplate(transactionManager),
+				new SyncTaskExecutor(), true, 1000, 1000, 2, 200, 1000);
+		unreachable.offer(1L, 10L);
+		unreachable.offer(2L, 10L);
+		unreachable.offer(3L, 11L);
+
+		unreachable.flush();
+		unreachable.flush();
+
+		LikeWriteBufferStatistics failed = unreachable.getStatistics();
+		assertThat(failed.pending()).isEqualTo(3);
+		assertThat(failed.requeuedRows()).isEqualTo(3);
+		assertThat(failed.failedRows()).isZero();
+		verify(transactionManager, times(1)).getTransaction(any());
+		verifyNoInteractions(writer);
+
+		TimeUnit.MILLISECONDS.sleep(300);
+		unreachable.flush();
+
+		LikeWriteBufferStatistics recovered = unreachable.getStatistics();
+		assertThat(recovered.pending()).isZero();
+		assertThat(recovered.flushedRows()).isEqualTo(3);
+		assertThat(recovered.failedRows()).isZero();
+	}
+
+	@Test
+	void shutdownWaitsForTheRunningFlushAndWritesLikesOfferedMeanwhile() throws Exception {
+		CountDownLatch writing = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		List<Object[]> written = Collections.synchronizedList(new ArrayList<>());
+		LikeBatchWriter writer = mock(LikeBatchWriter.class);
+		doAnswer(invocation -> {
+			writing.countDown();
+			release.await(10, TimeUnit.SECONDS);
+			written.addAll(invocation.<List<Object[]>>getArgument(0));
+			return 0;
+		}).when(writer).insert(anyList());
+		LikeWriteBuffer shuttingDown = new LikeWriteBuffer(writer, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+				new SyncTaskExecutor(), true, 1000, 1000, 500, 1000, 1000);
+		shuttingDown.offer(1L, 10L);
+		Thread flush = new Thread(shuttingDown::flush);
+		flush.start();
+		assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+
+		shuttingDown.offer(2L, 11L);
+		Thread shutdown = new Thread(shuttingDown::flushOnShutdown);
+		shutdown.start();
+		while (shutdown.getState() != Thread.State.WAITING && shutdown.isAlive()) {
+			Thread.onSpinWait();
+		}
+		release.countDown();
+		flush.join(10_000);
+		shutdown.join(10_000);
+
+		assertThat(written).extracting(row -> row[0]).containsExactlyInAnyOrder(10L, 11L);
+		assertThat(shuttingDown.getStatistics().pending()).isZero();
+	}
+
+	private void like(long userId, long postId) throws Exception {
+		mvc.perform(post("/likes").contentType(MediaType.APPLICATION_JSON).content("{\"userId\":" + userId + ",\"postId\":" + postId + "}"))
+				.andExpect(status().isAccepted());
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,90 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Serves a few requests and checks that the service and repository calls and the Hibernate work they caused are
+ * recorded per endpoint, and that these meters, Hibernate's and the connection pool's are scraped in Prometheus
+ * format.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:metrics;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/metrics-search-index",
+		"management.endpoints.web.exposure.include=prometheus"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private long userId;
+	private long postId;
+
+	@BeforeEach
+	void createUserAndPost() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"measured\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+	}
+
+	@Test
+	void serviceAndRepositoryCallsAreTimedPerEndpoint() throws Exception {
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isOk());
+
+		Timer service = meterRegistry.find("blog.service.invocations")
+				.tags("class", "PostService", "method", "getPostById", "exception", "none", "uri", "/posts/{id}").timer();
+		assertThat(service).isNotNull();
+		assertThat(service.count()).isPositive();
+		assertThat(meterRegistry.find("spring.data.repository.invocations")
+				.tags("repository", "PostRepository", "method", "findById", "uri", "/posts/{id}").timers()).isNotEmpty();
+	}
+
+	@Test
+	void statementsOfARequestAreRecordedPerEndpoint() throws Exception {
+		create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postId + "}");
+
+		DistributionSummary statements = meterRegistry.find("blog.request.statements")
+				.tags("uri", "/comments", "method", "POST").summary();
+		assertThat(statements).isNotNull();
+		assertThat(statements.count()).isPositive();
+		assertThat(statements.totalAmount()).isPositive();
+	}
+
+	@Test
+	void theMetersAreScrapedInPrometheusFormat() throws Exception {
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isOk());
+
+		String scrape = mvc.perform(get("/actuator/prometheus")).andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape).containsPattern("blog_service_invocations_seconds_count\\{[^}]*method=\"getPostById\"[^}]*uri=\"/posts/\\{id}\"")
+				.contains("spring_data_repository_invocations_seconds_count{")
+				.contains("blog_request_statements_count{")
+				.contains("hibernate_")
+				.contains("hikaricp_connections");
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,219 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.event.DomainEvent;
+import com.project.blogbackend.event.DomainEventPublisher;
+import com.project.blogbackend.event.DomainEventSubscriber;
+import com.project.blogbackend.event.PostCreated;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that every subscriber has its own events in the outbox: a subscriber that keeps failing holds back only its
+ * own events and does not make the others receive theirs again, node-local subscribers are consumers of this node,
+ * the events of a shared subscriber are delivered only by the node that holds its lease, consumers that are gone are
+ * dropped with their events, and a consumer registered again tells its subscriber to rebuild.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:outboxdispatch;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/outbox-dispatch-search-index",
+		"blog.events.poll-interval-ms=50",
+		"blog.events.node-id=test-node",
+		"blog.events.consumer-retention-ms=2000"})
+@AutoConfigureMockMvc
+class OutboxDispatchTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private DomainEventPublisher publisher;
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+	@Autowired
+	private RecordingSubscriber recordingSubscriber;
+	@Autowired
+	private SharedRecordingSubscriber sharedRecordingSubscriber;
+
+	@Test
+	void aFailingSubscriberDoesNotMakeTheOthersReceiveEventsAgain() throws Exception {
+		long userId = create(post("/users"), "{\"username\":\"dispatched\",\"password\":\"p\"}");
+		long postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+
+		await(() -> recordingSubscriber.postIds.contains(postId));
+		await(() -> pending("RecordingSubscriber@test-node") == 0 && pending("PostSearchIndex@test-node") == 0
+				&& pending("FeedService") == 0);
+		Thread.sleep(300);
+
+		assertThat(Collections.frequency(recordingSubscriber.postIds, postId)).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from outbox_event where consumer = 'FailingSubscriber' "
+				+ "and type = 'PostCreated' and payload like ?", Long.class, "%\"postId\":" + postId + ",%")).isEqualTo(1);
+	}
+
+	@Test
+	void nodeLocalSubscribersAreConsumersOfThisNodeAndEveryConsumerGetsARow() {
+		List<String> consumers = jdbcTemplate.queryForList("select name from outbox_consumer", String.class);
+		assertThat(consumers).contains("FeedService", "FailingSubscriber", "SharedRecordingSubscriber",
+				"PostSearchIndex@test-node", "TrendingPosts@test-node", "RecordingSubscriber@test-node");
+
+		Long rows = transactionTemplate.execute(status -> {
+			publisher.publish(new PostCreated(Long.MAX_VALUE, 1L, Instant.now()));
+			status.setRollbackOnly();
+			return jdbcTemplate.queryForObject("select count(*) from outbox_event where payload like ?", Long.class,
+					"%\"postId\":" + Long.MAX_VALUE + ",%");
+		});
+
+		assertThat(rows).isEqualTo(jdbcTemplate.queryForObject("select count(*) from outbox_consumer", Long.class));
+	}
+
+	@Test
+	void consumersNotSeenWithinTheRetentionAreDroppedWithTheirEvents() throws Exception {
+		jdbcTemplate.update("insert into outbox_consumer (name, last_seen_at) values ('PostSearchIndex@gone', ?)",
+				Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+		for (String consumer : List.of("PostSearchIndex@gone", "")) {
+			jdbcTemplate.update("insert into outbox_event (consumer, type, payload, created_at) values (?, 'PostDeleted', ?, ?)",
+					consumer, "{\"postId\":1}", Timestamp.from(Instant.now()));
+		}
+
+		await(() -> pending("PostSearchIndex@gone") == 0 && pending("") == 0);
+
+		assertThat(jdbcTemplate.queryForList("select name from outbox_consumer", String.class))
+				.doesNotContain("PostSearchIndex@gone")
+				.contains("PostSearchIndex@test-node");
+	}
+
+	@Test
+	void aSharedConsumerIsDeliveredOnlyByTheNodeHoldingItsLease() throws Exception {
+		jdbcTemplate.update("update outbox_consumer set leased_by = 'other-node', leased_until = ? where name = 'SharedRecordingSubscriber'",
+				Timestamp.from(Instant.now().plus(Duration.ofHours(1))));
+		long userId = create(post("/users"), "{\"username\":\"leased\",\"password\":\"p\"}");
+		long postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+
+		await(() -> recordingSubscriber.postIds.contains(postId));
+		Thread.sleep(300);
+		assertThat(sharedRecordingSubscriber.postIds).doesNotContain(postId);
+		assertThat(pending("SharedRecordingSubscriber")).isPositive();
+
+		jdbcTemplate.update("update outbox_consumer set leased_until = ? where name = 'SharedRecordingSubscriber'",
+				Timestamp.from(Instant.now().minus(Duration.ofSeconds(1))));
+
+		await(() -> sharedRecordingSubscriber.postIds.contains(postId));
+		assertThat(jdbcTemplate.queryForObject("select leased_by from outbox_consumer where name = 'SharedRecordingSubscriber'",
+				String.class)).startsWith("test-node/");
+	}
+
+	@Test
+	void aConsumerRegisteredAgainIsToldToRebuild() throws Exception {
+		int registrations = recordingSubscriber.registrations.get();
+
+		jdbcTemplate.update("delete from outbox_consumer where name = 'RecordingSubscriber@test-node'");
+
+		await(() -> recordingSubscriber.registrations.get() > registrations);
+		assertThat(jdbcTemplate.queryForList("select name from outbox_consumer", String.class))
+				.contains("RecordingSubscriber@test-node");
+	}
+
+	private long pending(String consumer) {
+		return jdbcTemplate.queryForObject("select count(*) from outbox_event where consumer = ?", Long.class, consumer);
+	}
+
+	private static void await(BooleanSupplier condition) throws InterruptedException {
+		for (int i = 0; i < 100 && !condition.getAsBoolean(); i++) {
+			Thread.sleep(50);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+
+	@TestConfiguration
+	static class Subscribers {
+		@Bean
+		FailingSubscriber failingSubscriber() {
+			return new FailingSubscriber();
+		}
+
+		@Bean
+		RecordingSubscriber recordingSubscriber() {
+			return new RecordingSubscriber();
+		}
+
+		@Bean
+		SharedRecordingSubscriber sharedRecordingSubscriber() {
+			return new SharedRecordingSubscriber();
+		}
+	}
+
+	/** A shared subscriber whose every delivery fails. */
+	static class FailingSubscriber implements DomainEventSubscriber {
+		@Override
+		public void onEvents(List<DomainEvent> events) {
+			throw new IllegalStateException("Unavailable");
+		}
+	}
+
+	/** A node-local subscriber that records the created posts it receives and how often it was registered. */
+	static class RecordingSubscriber implements DomainEventSubscriber {
+		final List<Long> postIds = new CopyOnWriteArrayList<>();
+		final AtomicInteger registrations = new AtomicInteger();
+
+		@Override
+		public boolean isNodeLocal() {
+			return true;
+		}
+
+		@Override
+		public void onRegistered() {
+			registrations.incrementAndGet();
+		}
+
+		@Override
+		public void onEvents(List<DomainEvent> events) {
+			for (DomainEvent event : events) {
+				if (event instanceof PostCreated created) {
+					postIds.add(created.postId());
+				}
+			}
+		}
+	}
+
+	/** A shared subscriber that records the created posts it receives. */
+	static class SharedRecordingSubscriber implements DomainEventSubscriber {
+		final List<Long> postIds = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onEvents(List<DomainEvent> events) {
+			for (DomainEvent event : events) {
+				if (event instanceof PostCreated created) {
+					postIds.add(created.postId());
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,85 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.service.PostCounterReconciler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the denormalized like and comment counters of a post follow its likes and comments, and that the
+ * reconciliation job rewrites counters that have drifted from the like and comment tables.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:postcounter;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/post-counter-search-index"})
+@AutoConfigureMockMvc
+class PostCounterTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private PostCounterReconciler reconciler;
+
+	private long userId;
+	private long otherUserId;
+	private long postId;
+
+	@BeforeEach
+	void createUsersAndPost() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"author\",\"password\":\"p\"}");
+		otherUserId = create(post("/users"), "{\"username\":\"reader\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+	}
+
+	@Test
+	void countersFollowLikesAndComments() throws Exception {
+		long likeId = create(post("/likes"), "{\"userId\":" + userId + ",\"postId\":" + postId + "}");
+		mvc.perform(put("/posts/" + postId + "/likes/" + otherUserId)).andExpect(status().isCreated());
+		long commentId = create(post("/comments"), "{\"text\":\"c\",\"userId\":" + otherUserId + ",\"postId\":" + postId + "}");
+		create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postId + "}");
+
+		expectCounters(2, 2);
+
+		mvc.perform(delete("/likes/" + likeId)).andExpect(status().isOk());
+		mvc.perform(delete("/posts/" + postId + "/likes/" + otherUserId)).andExpect(status().isOk());
+		mvc.perform(delete("/comments/" + commentId)).andExpect(status().isOk());
+
+		expectCounters(0, 1);
+	}
+
+	@Test
+	void reconciliationRewritesDriftedCounters() throws Exception {
+		create(post("/likes"), "{\"userId\":" + otherUserId + ",\"postId\":" + postId + "}");
+		create(post("/comments"), "{\"text\":\"c\",\"userId\":" + otherUserId + ",\"postId\":" + postId + "}");
+		jdbcTemplate.update("update post set like_count = 42, comment_count = 7 where id = ?", postId);
+
+		reconciler.reconcile();
+
+		expectCounters(1, 1);
+	}
+
+	private void expectCounters(long likeCount, long commentCount) throws Exception {
+		mvc.perform(get("/posts/" + postId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.likeCount").value(likeCount))
+				.andExpect(jsonPath("$.commentCount").value(commentCount));
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
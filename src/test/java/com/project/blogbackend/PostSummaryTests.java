@@ -0,0 +1,125 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.service.util.CursorPaging;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the summary listing of posts returns only their id, title and author, pages like the full listing,
+ * and selects neither the text column nor anything else from the database.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:postsummary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/post-summary-search-index"})
+@AutoConfigureMockMvc
+class PostSummaryTests {
+	/** The statements sent from the test thread, that is, by the requests MockMvc serves. */
+	private static final ConcurrentLinkedQueue<String> STATEMENTS = new ConcurrentLinkedQueue<>();
+
+	@Autowired
+	private MockMvc mvc;
+
+	private long userId;
+	private final List<Long> postIds = new ArrayList<>();
+
+	@TestConfiguration
+	static class RecordingDataSourceConfiguration {
+		@Bean
+		static BeanPostProcessor recordingDataSourcePostProcessor() {
+			Thread testThread = Thread.currentThread();
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+						return ProxyDataSourceBuilder.create(dataSource).afterQuery((execution, queries) -> {
+							if (Thread.currentThread() == testThread) {
+								queries.stream().map(QueryInfo::getQuery).forEach(STATEMENTS::add);
+							}
+						}).build();
+					}
+					return bean;
+				}
+			};
+		}
+	}
+
+	@BeforeEach
+	void createUserAndPosts() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"summarized\",\"password\":\"p\"}");
+		for (int i = 0; i < 3; i++) {
+			postIds.add(create(post("/posts"), "{\"title\":\"t" + i + "\",\"text\":\"a long text\",\"userId\":" + userId + "}"));
+		}
+	}
+
+	@Test
+	void summariesCarryOnlyIdTitleAndAuthor() throws Exception {
+		MvcResult page = mvc.perform(get("/posts").param("userId", Long.toString(userId)).param("view", "summary"))
+				.andExpect(status().isOk()).andReturn();
+
+		List<Map<String, Object>> summaries = JsonPath.read(page.getResponse().getContentAsString(), "$");
+		assertThat(summaries).hasSize(3).allSatisfy(summary -> assertThat(summary).containsOnlyKeys("id", "title", "userId"));
+		assertThat(summaries.get(0)).containsEntry("title", "t0").containsEntry("userId", (int) userId);
+	}
+
+	@Test
+	void summariesArePagedLikeTheFullListing() throws Exception {
+		MvcResult first = mvc.perform(get("/posts").param("userId", Long.toString(userId)).param("view", "summary").param("limit", "2"))
+				.andExpect(status().isOk()).andReturn();
+		String cursor = first.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER);
+		MvcResult second = mvc.perform(get("/posts").param("userId", Long.toString(userId)).param("view", "summary").param("after", cursor))
+				.andExpect(status().isOk()).andReturn();
+
+		assertThat(ids(first)).containsExactlyElementsOf(postIds.subList(0, 2));
+		assertThat(cursor).isEqualTo(CursorPaging.encode(postIds.get(1)));
+		assertThat(ids(second)).containsExactly(postIds.get(2));
+	}
+
+	@Test
+	void summariesAreSelectedWithoutTheText() throws Exception {
+		STATEMENTS.clear();
+		mvc.perform(get("/posts").param("userId", Long.toString(userId)).param("view", "summary")).andExpect(status().isOk());
+		List<String> summary = List.copyOf(STATEMENTS);
+		STATEMENTS.clear();
+		mvc.perform(get("/posts").param("userId", Long.toString(userId))).andExpect(status().isOk());
+		List<String> full = List.copyOf(STATEMENTS);
+
+		assertThat(summary).hasSize(1);
+		assertThat(summary.get(0)).contains("title").doesNotContain("text");
+		assertThat(full).anySatisfy(statement -> assertThat(statement).contains("text"));
+	}
+
+	private static List<Long> ids(MvcResult page) throws Exception {
+		List<Number> ids = JsonPath.read(page.getResponse().getContentAsString(), "$[*].id");
+		return ids.stream().map(Number::longValue).toList();
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,208 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.service.SoftDeletePurger;
+import net.ttddyy.dsproxy.QueryCount;
+import net.ttddyy.dsproxy.QueryCountHolder;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Pins the number of SQL statements the write endpoints send, so that a mapping or service change that brings back
+ * a SELECT of the parents, or a cascade through them, fails the build.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:querycount;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/query-count-search-index"})
+@AutoConfigureMockMvc
+class QueryCountTests {
+	private static final String DATA_SOURCE = "counted";
+	/** The domain event of a write is appended to the outbox in its transaction. */
+	private static final int OUTBOX_INSERT = 1;
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private SoftDeletePurger purger;
+
+	private long userId;
+	private long otherUserId;
+	private long postId;
+
+	@TestConfiguration
+	static class CountingDataSourceConfiguration {
+		@Bean
+		static BeanPostProcessor countingDataSourcePostProcessor() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+						return ProxyDataSourceBuilder.create(dataSource).name(DATA_SOURCE).countQuery().build();
+					}
+					return bean;
+				}
+			};
+		}
+	}
+
+	@BeforeEach
+	void createUsersAndPost() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"author\",\"password\":\"p\"}");
+		otherUserId = create(post("/users"), "{\"username\":\"reader\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}");
+		// draws a block from the comment id sequence, so that the measured requests do not query the sequence
+		create(post("/comments"), comment(userId, postId));
+	}
+
+	@Test
+	void createCommentIsCounterUpdateAndOneInsertPlusItsEvent() throws Exception {
+		QueryCount count = measure(post("/comments").contentType(MediaType.APPLICATION_JSON).content(comment(otherUserId, postId)), 201);
+
+		assertThat(count.getSelect()).isZero();
+		assertThat(count.getUpdate()).isEqualTo(1);
+		assertThat(count.getInsert()).isEqualTo(1 + OUTBOX_INSERT);
+		assertThat(count.getTotal()).isEqualTo(2 + OUTBOX_INSERT);
+	}
+
+	@Test
+	void createCommentOnMissingPostIsOneUpdate() throws Exception {
+		QueryCount count = measure(post("/comments").contentType(MediaType.APPLICATION_JSON).content(comment(userId, Long.MAX_VALUE)), 404);
+
+		assertThat(count.getTotal()).isEqualTo(1);
+	}
+
+	@Test
+	void createCommentOfMissingUserIsNotFound() throws Exception {
+		mvc.perform(post("/comments").contentType(MediaType.APPLICATION_JSON).content(comment(Long.MAX_VALUE, postId)))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void createLikeIsCounterUpdateAndOneInsertPlusItsEvent() throws Exception {
+		QueryCount count = measure(post("/likes").contentType(MediaType.APPLICATION_JSON).content(like(otherUserId, postId)), 200);
+
+		assertThat(count.getSelect()).isZero();
+		assertThat(count.getUpdate()).isEqualTo(1);
+		assertThat(count.getInsert()).isEqualTo(1 + OUTBOX_INSERT);
+		assertThat(count.getTotal()).isEqualTo(2 + OUTBOX_INSERT);
+	}
+
+	@Test
+	void createLikeTwiceIsConflictAndOfMissingUserIsNotFound() throws Exception {
+		mvc.perform(post("/likes").contentType(MediaType.APPLICATION_JSON).content(like(otherUserId, postId)))
+				.andExpect(status().isOk());
+		mvc.perform(post("/likes").contentType(MediaType.APPLICATION_JSON).content(like(otherUserId, postId)))
+				.andExpect(status().isConflict());
+		mvc.perform(post("/likes").contentType(MediaType.APPLICATION_JSON).content(like(Long.MAX_VALUE, postId)))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void createLikeTwiceLooksUpOnlyThatLike() throws Exception {
+		mvc.perform(post("/likes").contentType(MediaType.APPLICATION_JSON).content(like(otherUserId, postId)))
+				.andExpect(status().isOk());
+
+		QueryCount count = measure(post("/likes").contentType(MediaType.APPLICATION_JSON).content(like(otherUserId, postId)), 409);
+
+		assertThat(count.getSelect()).isEqualTo(1);
+	}
+
+	@Test
+	void likeToggleIsOneInsertAndOneUpdatePlusItsEvent() throws Exception {
+		assertThat(measure(put("/posts/" + postId + "/likes/" + otherUserId), 201).getTotal()).isEqualTo(2 + OUTBOX_INSERT);
+
+		QueryCount repeated = measure(put("/posts/" + postId + "/likes/" + otherUserId), 200);
+
+		assertThat(repeated.getInsert()).isEqualTo(1);
+		assertThat(repeated.getSelect()).isEqualTo(1);
+		assertThat(repeated.getTotal()).isEqualTo(2);
+	}
+
+	@Test
+	void followTwiceUpdatesTheFollowerCountOnce() throws Exception {
+		assertThat(measure(put("/users/" + otherUserId + "/following/" + userId), 201).getUpdate()).isEqualTo(1);
+
+		QueryCount count = measure(put("/users/" + otherUserId + "/following/" + userId), 200);
+
+		assertThat(count.getInsert()).isEqualTo(1);
+		assertThat(count.getUpdate()).isZero();
+	}
+
+	@Test
+	void deleteCommentKeepsItsAuthor() throws Exception {
+		long commentId = create(post("/comments"), comment(otherUserId, postId));
+
+		QueryCount count = measure(delete("/comments/" + commentId), 200);
+
+		assertThat(count.getSelect()).isEqualTo(1);
+		assertThat(count.getDelete()).isEqualTo(1);
+		assertThat(count.getUpdate()).isEqualTo(1);
+		mvc.perform(get("/users/" + otherUserId)).andExpect(status().isOk());
+	}
+
+	@Test
+	void deletePostRemovesItsCommentsAndLikesButNotItsAuthor() throws Exception {
+		mvc.perform(put("/posts/" + postId + "/likes/" + otherUserId)).andExpect(status().isCreated());
+
+		mvc.perform(delete("/posts/" + postId)).andExpect(status().isOk());
+
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isNotFound());
+		purger.purge();
+		mvc.perform(get("/comments").param("postId", Long.toString(postId))).andExpect(content().json("[]"));
+		mvc.perform(get("/likes").param("postId", Long.toString(postId))).andExpect(content().json("[]"));
+		mvc.perform(get("/users/" + userId)).andExpect(status().isOk());
+	}
+
+	@Test
+	void deleteUserHidesTheUserAndTheirPostsUntilTheyArePurged() throws Exception {
+		mvc.perform(put("/posts/" + postId + "/likes/" + otherUserId)).andExpect(status().isCreated());
+
+		mvc.perform(delete("/users/" + userId)).andExpect(status().isOk());
+
+		mvc.perform(get("/users/" + userId)).andExpect(status().isNotFound());
+		mvc.perform(get("/posts/" + postId)).andExpect(status().isNotFound());
+		mvc.perform(delete("/users/" + userId)).andExpect(status().isNotFound());
+		purger.purge();
+		mvc.perform(get("/likes").param("postId", Long.toString(postId))).andExpect(content().json("[]"));
+		mvc.perform(get("/users/" + otherUserId)).andExpect(status().isOk());
+	}
+
+	private QueryCount measure(RequestBuilder request, int expectedStatus) throws Exception {
+		QueryCountHolder.clear();
+		mvc.perform(request).andExpect(status().is(expectedStatus));
+		QueryCount count = QueryCountHolder.get(DATA_SOURCE);
+		return count == null ? new QueryCount() : count;
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+
+	private static String comment(long userId, long postId) {
+		return "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postId + "}";
+	}
+
+	private static String like(long userId, long postId) {
+		return "{\"userId\":" + userId + ",\"postId\":" + postId + "}";
+	}
+}
@@ -0,0 +1,137 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.entity.User;
+import com.project.blogbackend.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the application against two H2 databases, a primary and a replica that never receives the primary's
+ * writes, and tells from which of them a request read by the rows it sees: read-only transactions read the replica,
+ * writes go to the primary, and a client that just wrote reads the primary until the read-your-writes window closes.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=" + ReadReplicaRoutingTests.PRIMARY_URL,
+		"spring.datasource.username=sa",
+		"blog.search.index-dir=target/read-replica-search-index",
+		"blog.datasource.replica.enabled=true",
+		"blog.datasource.replica.urls[0]=" + ReadReplicaRoutingTests.REPLICA_URL,
+		"blog.datasource.replica.username=sa",
+		"blog.datasource.replica.read-your-writes-ms=60000"})
+@AutoConfigureMockMvc
+class ReadReplicaRoutingTests {
+	static final String PRIMARY_URL = "jdbc:h2:mem:routingprimary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+	static final String REPLICA_URL = "jdbc:h2:mem:routingreplica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1";
+	private static final long REPLICA_ONLY_USER_ID = 1_000_000;
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final JdbcTemplate primary = new JdbcTemplate(new DriverManagerDataSource(PRIMARY_URL, "sa", ""));
+	private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+	/**
+	 * Reads a user in a read-only transaction, then creates one, in the same request. It is mapped to GET, which the
+	 * read-your-writes filter does not pin to the primary, so the read runs on the replica.
+	 */
+	@TestConfiguration
+	static class ReadThenWriteConfiguration {
+		@Bean
+		ReadThenWriteController readThenWriteController(UserService userService) {
+			return new ReadThenWriteController(userService);
+		}
+	}
+
+	@RestController
+	static class ReadThenWriteController {
+		private final UserService userService;
+
+		ReadThenWriteController(UserService userService) {
+			this.userService = userService;
+		}
+
+		@GetMapping("/test/read-then-write/{readId}")
+		Long readThenWrite(@PathVariable Long readId) {
+			String readUsername = this.userService.getUserById(readId).getUsername();
+			User user = new User();
+			user.setUsername("copy of " + readUsername);
+			user.setPassword("p");
+			return this.userService.saveUser(user).getId();
+		}
+	}
+
+	@BeforeEach
+	void copySchemaToReplica() {
+		// reads served from the second-level cache would not show which database they came from
+		entityManagerFactory.getCache().evictAll();
+		if (replica.queryForObject("select count(*) from information_schema.tables where table_name = 'user'", Long.class) == 0) {
+			List<String> script = primary.queryForList("script nodata", String.class);
+			script.stream().filter(statement -> !statement.startsWith("CREATE USER")).forEach(replica::execute);
+		}
+		replica.update("merge into user (id, username, password, follower_count, version) key (id) values (?, 'on replica', 'p', 0, 0)",
+				REPLICA_ONLY_USER_ID);
+	}
+
+	@Test
+	void readOnlyTransactionsReadTheReplica() throws Exception {
+		mvc.perform(get("/users/" + REPLICA_ONLY_USER_ID))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.username").value("on replica"));
+	}
+
+	@Test
+	void writesGoToThePrimaryAndPinTheWriterToIt() throws Exception {
+		MvcResult created = mvc.perform(post("/users").contentType(MediaType.APPLICATION_JSON).content("{\"username\":\"writer\",\"password\":\"p\"}"))
+				.andExpect(status().isCreated()).andReturn();
+		long userId = ((Number) JsonPath.read(created.getResponse().getContentAsString(), "$.id")).longValue();
+		Cookie lastWrite = created.getResponse().getCookie("blog_last_write");
+
+		assertThat(usernames(primary, userId)).containsExactly("writer");
+		assertThat(usernames(replica, userId)).isEmpty();
+		assertThat(lastWrite).isNotNull();
+		// the writer reads the primary within the window, other clients read the replica, which has not caught up
+		mvc.perform(get("/users/" + userId).cookie(lastWrite)).andExpect(status().isOk());
+		mvc.perform(get("/users/" + REPLICA_ONLY_USER_ID).cookie(lastWrite)).andExpect(status().isNotFound());
+		mvc.perform(get("/users/" + userId)).andExpect(status().isNotFound());
+	}
+
+	@Test
+	void aWriteAfterAReadOnlyTransactionInTheSameRequestGoesToThePrimary() throws Exception {
+		String response = mvc.perform(get("/test/read-then-write/" + REPLICA_ONLY_USER_ID))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		long userId = Long.parseLong(response);
+
+		assertThat(usernames(primary, userId)).containsExactly("copy of on replica");
+		assertThat(usernames(replica, userId)).isEmpty();
+	}
+
+	private static List<String> usernames(JdbcTemplate database, long userId) {
+		return database.queryForList("select username from user where id = ?", String.class, userId);
+	}
+}
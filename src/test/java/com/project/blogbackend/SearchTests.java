@@ -0,0 +1,201 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.repository.PostRepository;
+import com.project.blogbackend.service.PostSearchIndex;
+import com.project.blogbackend.service.util.CursorPaging;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that created, updated and deleted posts reach the full-text index, and that searches rank title matches
+ * first and page with the cursor, and that a post deleted while the index is rebuilt stays deleted. Posts reach the index through the event outbox and become searchable at the next
+ * refresh, so searches are polled until they return the expected posts. Each test searches for words of its own,
+ * since the index directory outlives the in-memory database.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:search;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/search-search-index",
+		"blog.search.refresh-interval-ms=50",
+		"blog.events.poll-interval-ms=50"})
+@AutoConfigureMockMvc
+class SearchTests {
+	private static final Path INDEX_DIR = Paths.get("target/search-search-index");
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private PostSearchIndex index;
+	@SpyBean
+	private PostRepository postRepository;
+
+	private long userId;
+
+	@BeforeEach
+	void createUser() throws Exception {
+		userId = create(post("/users"), "{\"username\":\"searcher\",\"password\":\"p\"}");
+	}
+
+	@Test
+	void titleMatchesRankAboveTextMatches() throws Exception {
+		String word = uniqueWord();
+		long inText = createPost("other", word);
+		long inTitle = createPost(word, "other");
+
+		expectHits(word, List.of(inTitle, inText));
+	}
+
+	@Test
+	void anUpdatedPostIsFoundByItsNewTextOnly() throws Exception {
+		String before = uniqueWord();
+		String after = uniqueWord();
+		long postId = createPost("title", before);
+		expectHits(before, List.of(postId));
+
+		mvc.perform(put("/posts/" + postId).contentType(MediaType.APPLICATION_JSON)
+				.content("{\"title\":\"title\",\"text\":\"" + after + "\"}")).andExpect(status().isOk());
+
+		expectHits(after, List.of(postId));
+		expectHits(before, List.of());
+	}
+
+	@Test
+	void aDeletedPostIsNoLongerFound() throws Exception {
+		String word = uniqueWord();
+		long deleted = createPost("title", word);
+		long kept = createPost("title", word);
+		expectHits(word, List.of(deleted, kept));
+
+		mvc.perform(delete("/posts/" + deleted)).andExpect(status().isOk());
+
+		expectHits(word, List.of(kept));
+	}
+
+	@Test
+	void aPostDeletedDuringARebuildIsNotBroughtBack() throws Exception {
+		String word = uniqueWord();
+		long deleted = createPost("title", word);
+		long kept = createPost("title", word);
+		expectHits(word, List.of(deleted, kept));
+		List<Path> generations = generations();
+		CountDownLatch read = new CountDownLatch(1);
+		CountDownLatch proceed = new CountDownLatch(1);
+		AtomicBoolean paused = new AtomicBoolean();
+		// the spy delegates to the repository proxy through its default answer, it has no real method to call
+		Answer<?> repository = mockingDetails(postRepository).getMockCreationSettings().getDefaultAnswer();
+		doAnswer(invocation -> {
+			Object chunk = repository.answer(invocation);
+			if (paused.compareAndSet(false, true)) {
+				read.countDown();
+				proceed.await();
+			}
+			return chunk;
+		}).when(postRepository).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Pageable.class));
+
+		assertThat(index.rebuild()).isTrue();
+		assertThat(read.await(5, TimeUnit.SECONDS)).isTrue();
+		mvc.perform(delete("/posts/" + deleted)).andExpect(status().isOk());
+		expectHits(word, List.of(kept));
+		proceed.countDown();
+
+		for (int i = 0; i < 100 && generations().stream().anyMatch(generations::contains); i++) {
+			TimeUnit.MILLISECONDS.sleep(50);
+		}
+		assertThat(generations()).hasSize(1).doesNotContainAnyElementsOf(generations);
+		expectHits(word, List.of(kept));
+		assertThat(ids(search(word, null, 10))).containsExactly(kept);
+	}
+
+	@Test
+	void hitsArePagedWithTheCursor() throws Exception {
+		String word = uniqueWord();
+		long first = createPost("title", word);
+		long second = createPost("title", word);
+		long third = createPost("title", word);
+		expectHits(word, List.of(first, second, third));
+
+		MvcResult page = search(word, null, 2);
+		String cursor = page.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER);
+		MvcResult lastPage = search(word, cursor, 2);
+
+		assertThat(ids(page)).containsExactly(first, second);
+		assertThat(ids(lastPage)).containsExactly(third);
+		assertThat(lastPage.getResponse().getHeader(CursorPaging.NEXT_CURSOR_HEADER)).isNull();
+		mvc.perform(get("/posts/search").param("q", word).param("after", "not a cursor")).andExpect(status().isBadRequest());
+	}
+
+	/** Polls the search until it returns exactly the given posts, in that order. */
+	private void expectHits(String q, List<Long> postIds) throws Exception {
+		List<Long> hits = List.of();
+		for (int i = 0; i < 100; i++) {
+			hits = ids(search(q, null, 10));
+			if (hits.equals(postIds)) {
+				return;
+			}
+			TimeUnit.MILLISECONDS.sleep(50);
+		}
+		assertThat(hits).containsExactlyElementsOf(postIds);
+	}
+
+	private static List<Path> generations() throws Exception {
+		try (Stream<Path> generations = Files.list(INDEX_DIR)) {
+			return generations.toList();
+		}
+	}
+
+	private MvcResult search(String q, String after, int limit) throws Exception {
+		MockHttpServletRequestBuilder request = get("/posts/search").param("q", q).param("limit", Integer.toString(limit));
+		if (after != null) {
+			request.param("after", after);
+		}
+		return mvc.perform(request).andExpect(status().isOk()).andReturn();
+	}
+
+	private static List<Long> ids(MvcResult page) throws Exception {
+		List<Number> ids = JsonPath.read(page.getResponse().getContentAsString(), "$[*].id");
+		return ids.stream().map(Number::longValue).toList();
+	}
+
+	/** A word no earlier run has indexed: letters only, so the analyzer keeps it as one term. */
+	private static String uniqueWord() {
+		return UUID.randomUUID().toString().replaceAll("[^a-f]", "");
+	}
+
+	private long createPost(String title, String text) throws Exception {
+		return create(post("/posts"), "{\"title\":\"" + title + "\",\"text\":\"" + text + "\",\"userId\":" + userId + "}");
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
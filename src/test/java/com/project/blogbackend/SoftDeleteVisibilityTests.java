@@ -0,0 +1,161 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.entity.Post;
+import com.project.blogbackend.service.SoftDeletePurger;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Soft-deletes a post and a user and checks that their comments and likes disappear at once from the listings, the
+ * single reads, the threads and the exports, while their rows are still waiting for the purger, and that a deleted
+ * user can no longer like or comment. The counters of other users' posts keep counting the likes and comments of a
+ * deleted user until the purger removes them, and purging leaves the other cached posts in the second-level cache.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:softdeletevisibility;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/soft-delete-visibility-search-index",
+		"blog.purge.interval-ms=3600000"})
+@AutoConfigureMockMvc
+class SoftDeleteVisibilityTests {
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+	@Autowired
+	private SoftDeletePurger purger;
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private long authorId;
+	private long readerId;
+	private long postId;
+	private long otherPostId;
+	private long commentId;
+	private long replyId;
+	private long likeId;
+
+	@BeforeEach
+	void createPostsWithCommentsAndLikes() throws Exception {
+		authorId = create(post("/users"), "{\"username\":\"author\",\"password\":\"p\"}");
+		readerId = create(post("/users"), "{\"username\":\"reader\",\"password\":\"p\"}");
+		postId = create(post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + authorId + "}");
+		otherPostId = create(post("/posts"), "{\"title\":\"o\",\"text\":\"b\",\"userId\":" + readerId + "}");
+		commentId = create(post("/comments"), "{\"text\":\"c\",\"userId\":" + readerId + ",\"postId\":" + postId + "}");
+		replyId = create(post("/comments"), "{\"text\":\"r\",\"userId\":" + authorId + ",\"postId\":" + postId + ",\"parentId\":" + commentId + "}");
+		likeId = create(post("/likes"), "{\"userId\":" + readerId + ",\"postId\":" + postId + "}");
+	}
+
+	@Test
+	void commentsAndLikesOfADeletedPostDisappearAtOnce() throws Exception {
+		mvc.perform(delete("/posts/" + postId)).andExpect(status().isOk());
+
+		mvc.perform(get("/comments").param("postId", Long.toString(postId))).andExpect(jsonPath("$.length()").value(0));
+		mvc.perform(get("/comments").param("userId", Long.toString(readerId))).andExpect(jsonPath("$.length()").value(0));
+		mvc.perform(get("/comments/threads").param("postId", Long.toString(postId))).andExpect(jsonPath("$.length()").value(0));
+		mvc.perform(get("/comments/" + commentId + "/replies")).andExpect(jsonPath("$.length()").value(0));
+		mvc.perform(get("/comments/" + replyId)).andExpect(status().isNotFound());
+		mvc.perform(get("/likes").param("postId", Long.toString(postId))).andExpect(jsonPath("$.length()").value(0));
+		mvc.perform(get("/likes/" + likeId)).andExpect(status().isNotFound());
+		assertThat(exportedIds("/export/comments")).doesNotContain(commentId, replyId);
+		assertThat(exportedIds("/export/likes")).doesNotContain(likeId);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from comment where post_id = ?", Long.class, postId)).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from post_like where post_id = ?", Long.class, postId)).isEqualTo(1);
+	}
+
+	@Test
+	void commentsAndLikesOfADeletedUserOnOtherPostsDisappearAtOnce() throws Exception {
+		long authorsComment = create(post("/comments"), "{\"text\":\"a\",\"userId\":" + authorId + ",\"postId\":" + otherPostId + "}");
+		long readersReply = create(post("/comments"), "{\"text\":\"r\",\"userId\":" + readerId + ",\"postId\":" + otherPostId + ",\"parentId\":" + authorsComment + "}");
+		long readersRoot = create(post("/comments"), "{\"text\":\"c\",\"userId\":" + readerId + ",\"postId\":" + otherPostId + "}");
+		create(post("/comments"), "{\"text\":\"a\",\"userId\":" + authorId + ",\"postId\":" + otherPostId + ",\"parentId\":" + readersRoot + "}");
+		long authorsLike = create(post("/likes"), "{\"userId\":" + authorId + ",\"postId\":" + otherPostId + "}");
+
+		mvc.perform(delete("/users/" + authorId)).andExpect(status().isOk());
+
+		assertThat(ids(mvc.perform(get("/comments").param("postId", Long.toString(otherPostId))).andExpect(status().isOk()).andReturn(), "$[*].id"))
+				.containsExactly(readersReply, readersRoot);
+		MvcResult threads = mvc.perform(get("/comments/threads").param("postId", Long.toString(otherPostId))).andExpect(status().isOk()).andReturn();
+		assertThat(ids(threads, "$[*].comment.id")).containsExactly(readersRoot);
+		assertThat(ids(threads, "$[0].replies[*].id")).isEmpty();
+		mvc.perform(get("/comments/" + authorsComment)).andExpect(status().isNotFound());
+		mvc.perform(get("/likes").param("postId", Long.toString(otherPostId))).andExpect(jsonPath("$.length()").value(0));
+		mvc.perform(get("/likes/" + authorsLike)).andExpect(status().isNotFound());
+		assertThat(exportedIds("/export/comments")).doesNotContain(authorsComment).contains(readersReply, readersRoot);
+		assertThat(exportedIds("/export/likes")).doesNotContain(authorsLike);
+	}
+
+	@Test
+	void aDeletedUserCanNeitherLikeNorComment() throws Exception {
+		mvc.perform(delete("/users/" + authorId)).andExpect(status().isOk());
+
+		mvc.perform(put("/posts/" + otherPostId + "/likes/" + authorId)).andExpect(status().isNotFound());
+		mvc.perform(post("/likes").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"userId\":" + authorId + ",\"postId\":" + otherPostId + "}")).andExpect(status().isNotFound());
+		mvc.perform(post("/comments").contentType(MediaType.APPLICATION_JSON)
+				.content("{\"text\":\"c\",\"userId\":" + authorId + ",\"postId\":" + otherPostId + "}")).andExpect(status().isNotFound());
+
+		assertThat(jdbcTemplate.queryForObject("select count(*) from post_like where user_id = ?", Long.class, authorId)).isZero();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from comment where user_id = ? and post_id = ?", Long.class, authorId, otherPostId)).isZero();
+		mvc.perform(get("/posts/" + otherPostId)).andExpect(jsonPath("$.likeCount").value(0)).andExpect(jsonPath("$.commentCount").value(0));
+	}
+
+	@Test
+	void countersOfOtherPostsDropTheLikesAndCommentsOfADeletedUserWhenTheyArePurged() throws Exception {
+		create(post("/comments"), "{\"text\":\"a\",\"userId\":" + authorId + ",\"postId\":" + otherPostId + "}");
+		create(post("/likes"), "{\"userId\":" + authorId + ",\"postId\":" + otherPostId + "}");
+
+		mvc.perform(delete("/users/" + authorId)).andExpect(status().isOk());
+
+		mvc.perform(get("/posts/" + otherPostId)).andExpect(jsonPath("$.likeCount").value(1)).andExpect(jsonPath("$.commentCount").value(1));
+
+		purger.purge();
+
+		mvc.perform(get("/posts/" + otherPostId)).andExpect(jsonPath("$.likeCount").value(0)).andExpect(jsonPath("$.commentCount").value(0));
+	}
+
+	@Test
+	void purgingADeletedPostKeepsOtherPostsCached() throws Exception {
+		mvc.perform(get("/posts/" + otherPostId)).andExpect(status().isOk());
+		assertThat(entityManagerFactory.getCache().contains(Post.class, otherPostId)).isTrue();
+		mvc.perform(delete("/posts/" + postId)).andExpect(status().isOk());
+
+		purger.purge();
+
+		assertThat(jdbcTemplate.queryForObject("select count(*) from comment where post_id = ?", Long.class, postId)).isZero();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from post_like where post_id = ?", Long.class, postId)).isZero();
+		assertThat(entityManagerFactory.getCache().contains(Post.class, otherPostId)).isTrue();
+	}
+
+	private List<Long> exportedIds(String path) throws Exception {
+		MvcResult started = mvc.perform(get(path)).andExpect(request().asyncStarted()).andReturn();
+		String body = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn().getResponse().getContentAsString();
+		return body.lines().map(line -> ((Number) JsonPath.read(line, "$.id")).longValue()).toList();
+	}
+
+	private static List<Long> ids(MvcResult result, String path) throws Exception {
+		List<Number> ids = JsonPath.read(result.getResponse().getContentAsString(), path);
+		return ids.stream().map(Number::longValue).toList();
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
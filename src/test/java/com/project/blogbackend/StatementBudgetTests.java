@@ -0,0 +1,176 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.controller.CommentController;
+import com.project.blogbackend.controller.LikeController;
+import com.project.blogbackend.controller.PostController;
+import com.project.blogbackend.controller.UserController;
+import com.project.blogbackend.metrics.SqlDiagnosticsFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.*;
+
+import static java.util.Map.entry;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Holds every endpoint of the post, comment, like and user controllers to a maximum number of SQL statements per
+ * request, as counted by the per-request SQL diagnostics, so that an N+1 or a redundant lookup fails the build.
+ *
+ * The budgets of the create endpoints include drawing a block of ids from the sequence on the first insert.
+ * Statements run after the response, such as the delivery of domain events, are not part of a request. Lower a
+ * budget when an endpoint gets cheaper.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:statementbudget;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/statement-budget-search-index",
+		"blog.diagnostics.sql.enabled=true",
+		"blog.rate-limit.enabled=false"})
+@AutoConfigureMockMvc
+class StatementBudgetTests {
+	private static final Set<Class<?>> CONTROLLERS = Set.of(PostController.class, CommentController.class,
+			LikeController.class, UserController.class);
+	private static final Map<String, Integer> BUDGETS = Map.ofEntries(
+			entry("GET /posts", 1),
+			entry("GET /posts/search", 0),
+			entry("GET /posts/trending", 0),
+			entry("POST /posts/search/rebuild", 0),
+			entry("GET /posts/{id}", 1),
+			entry("POST /posts", 3),
+			entry("POST /posts/batch", 4),
+			entry("PUT /posts/{id}", 2),
+			entry("DELETE /posts/{id}", 2),
+			entry("GET /comments", 2),
+			entry("GET /comments/threads", 2),
+			entry("GET /comments/{id}", 1),
+			entry("GET /comments/{id}/replies", 2),
+			entry("POST /comments", 4),
+			entry("POST /comments/batch", 6),
+			entry("PUT /comments/{id}", 2),
+			entry("DELETE /comments/{id}", 3),
+			entry("DELETE /comments", 4),
+			entry("GET /likes", 1),
+			entry("GET /likes/{id}", 1),
+			entry("POST /likes", 3),
+			entry("POST /likes/batch", 6),
+			entry("DELETE /likes/{id}", 3),
+			entry("DELETE /likes", 4),
+			entry("GET /users", 1),
+			entry("GET /users/{id}", 1),
+			entry("POST /users", 1),
+			entry("PUT /users/{id}", 1),
+			entry("DELETE /users/{id}", 2));
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	@Qualifier("requestMappingHandlerMapping")
+	private RequestMappingHandlerMapping handlerMapping;
+
+	private final Set<String> measured = new HashSet<>();
+
+	@Test
+	void everyEndpointHasABudget() {
+		Set<String> endpoints = new HashSet<>();
+		this.handlerMapping.getHandlerMethods().forEach((mapping, handler) -> {
+			if (CONTROLLERS.contains(handler.getBeanType())) {
+				for (RequestMethod method : mapping.getMethodsCondition().getMethods()) {
+					for (String pattern : mapping.getPatternValues()) {
+						endpoints.add(method + " " + pattern);
+					}
+				}
+			}
+		});
+		assertThat(BUDGETS.keySet()).containsExactlyInAnyOrderElementsOf(endpoints);
+	}
+
+	@Test
+	void everyEndpointStaysWithinItsBudget() throws Exception {
+		long userId = id(within("POST /users", post("/users"), "{\"username\":\"author\",\"password\":\"p\"}"));
+		long readerId = id(within("POST /users", post("/users"), "{\"username\":\"reader\",\"password\":\"p\"}"));
+		within("GET /users", get("/users"));
+		within("GET /users/{id}", get("/users/" + userId));
+		within("PUT /users/{id}", put("/users/" + readerId), "{\"username\":\"reader\",\"password\":\"q\"}");
+
+		long postId = id(within("POST /posts", post("/posts"), "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}"));
+		within("POST /posts/batch", post("/posts/batch"), "[" + postBody(userId, "one") + "," + postBody(userId, "two") + "," + postBody(userId, "three") + "]");
+		within("GET /posts", get("/posts"));
+		within("GET /posts", get("/posts").param("userId", Long.toString(userId)).param("view", "summary"));
+		within("GET /posts/{id}", get("/posts/" + postId));
+		within("PUT /posts/{id}", put("/posts/" + postId), "{\"title\":\"u\",\"text\":\"c\"}");
+		within("GET /posts/search", get("/posts/search").param("q", "one"));
+		within("GET /posts/trending", get("/posts/trending"));
+		within("POST /posts/search/rebuild", post("/posts/search/rebuild"));
+
+		long commentId = id(within("POST /comments", post("/comments"), commentBody(readerId, postId)));
+		within("POST /comments/batch", post("/comments/batch"), "[" + commentBody(readerId, postId) + "," + commentBody(userId, postId) + "," + commentBody(readerId, postId) + "]");
+		within("GET /comments", get("/comments").param("postId", Long.toString(postId)));
+		within("GET /comments", get("/comments").param("userId", Long.toString(readerId)));
+		long replyId = id(within("POST /comments", post("/comments"), "{\"text\":\"r\",\"userId\":" + userId + ",\"postId\":" + postId + ",\"parentId\":" + commentId + "}"));
+		within("POST /comments", post("/comments"), "{\"text\":\"r\",\"userId\":" + readerId + ",\"postId\":" + postId + ",\"parentId\":" + replyId + "}");
+		within("GET /comments/threads", get("/comments/threads").param("postId", Long.toString(postId)));
+		within("GET /comments/{id}/replies", get("/comments/" + commentId + "/replies"));
+		within("GET /comments/{id}", get("/comments/" + commentId));
+		within("PUT /comments/{id}", put("/comments/" + commentId), "{\"text\":\"d\"}");
+		within("DELETE /comments/{id}", delete("/comments/" + commentId));
+
+		long likeId = id(within("POST /likes", post("/likes"), likeBody(readerId, postId)));
+		within("POST /likes/batch", post("/likes/batch"), "[" + likeBody(userId, postId) + "," + likeBody(readerId, postId + 1) + "," + likeBody(readerId, postId + 2) + "]");
+		within("GET /likes", get("/likes").param("postId", Long.toString(postId)));
+		within("GET /likes", get("/likes").param("userId", Long.toString(readerId)));
+		within("GET /likes/{id}", get("/likes/" + likeId));
+		within("DELETE /likes/{id}", delete("/likes/" + likeId));
+		within("DELETE /likes", delete("/likes").param("userId", Long.toString(readerId)));
+		within("DELETE /likes", delete("/likes").param("postId", Long.toString(postId)));
+		within("DELETE /comments", delete("/comments").param("userId", Long.toString(readerId)));
+		within("DELETE /comments", delete("/comments").param("postId", Long.toString(postId)));
+
+		within("DELETE /posts/{id}", delete("/posts/" + postId));
+		long loneUserId = id(within("POST /users", post("/users"), "{\"username\":\"lone\",\"password\":\"p\"}"));
+		within("DELETE /users/{id}", delete("/users/" + loneUserId));
+
+		assertThat(this.measured).containsExactlyInAnyOrderElementsOf(BUDGETS.keySet());
+	}
+
+	private MvcResult within(String endpoint, MockHttpServletRequestBuilder request, String body) throws Exception {
+		return within(endpoint, request.contentType(MediaType.APPLICATION_JSON).content(body));
+	}
+
+	private MvcResult within(String endpoint, MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult result = this.mvc.perform(request).andExpect(status().is2xxSuccessful()).andReturn();
+		String statements = result.getResponse().getHeader(SqlDiagnosticsFilter.STATEMENTS_HEADER);
+		assertThat(statements).as("%s header of %s", SqlDiagnosticsFilter.STATEMENTS_HEADER, endpoint).isNotNull();
+		assertThat(Long.parseLong(statements)).as("SQL statements of %s", endpoint).isLessThanOrEqualTo(BUDGETS.get(endpoint));
+		this.measured.add(endpoint);
+		return result;
+	}
+
+	private static long id(MvcResult result) throws Exception {
+		return ((Number) JsonPath.read(result.getResponse().getContentAsString(), "$.id")).longValue();
+	}
+
+	private static String postBody(long userId, String title) {
+		return "{\"title\":\"" + title + "\",\"text\":\"b\",\"userId\":" + userId + "}";
+	}
+
+	private static String commentBody(long userId, long postId) {
+		return "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postId + "}";
+	}
+
+	private static String likeBody(long userId, long postId) {
+		return "{\"userId\":" + userId + ",\"postId\":" + postId + "}";
+	}
+}
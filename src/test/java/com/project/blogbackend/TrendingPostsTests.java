@@ -0,0 +1,178 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.event.CommentAdded;
+import com.project.blogbackend.event.DomainEvent;
+import com.project.blogbackend.event.LikeAdded;
+import com.project.blogbackend.event.PostDeleted;
+import com.project.blogbackend.service.TrendingPosts;
+import com.project.blogbackend.service.dto.TrendingPostDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Rebuilds the trending posts from likes of different ages and feeds them like and comment events, to check that a
+ * bucket loses half its weight every half-life, that activity older than the window is ignored, that only the best
+ * top-k posts are ranked, and that likes and deletes reach the ranking through their events.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:trending;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/trending-search-index",
+		"blog.events.poll-interval-ms=50",
+		"blog.trending.window-minutes=1440",
+		"blog.trending.bucket-minutes=60",
+		"blog.trending.half-life-minutes=360",
+		"blog.trending.comment-weight=2",
+		"blog.trending.top-k=3",
+		"blog.trending.refresh-interval-ms=3600000"})
+@AutoConfigureMockMvc
+class TrendingPostsTests {
+	/** The weight of the current bucket, taken at its middle: half an hour into a six-hour half-life. */
+	private static final double CURRENT = Math.pow(2, -0.5 / 6);
+
+	@Autowired
+	private MockMvc mvc;
+	@Autowired
+	private TrendingPosts trendingPosts;
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final List<Long> userIds = new ArrayList<>();
+	private final List<Long> postIds = new ArrayList<>();
+
+	@BeforeEach
+	void createUsersAndPosts() throws Exception {
+		for (int i = 0; i < 4; i++) {
+			userIds.add(create(post("/users"), "{\"username\":\"trending" + i + "\",\"password\":\"p\"}"));
+		}
+		for (int i = 0; i < 4; i++) {
+			postIds.add(create(post("/posts"), "{\"title\":\"t" + i + "\",\"text\":\"b\",\"userId\":" + userIds.get(0) + "}"));
+		}
+	}
+
+	@AfterEach
+	void forgetActivity() {
+		jdbcTemplate.update("delete from post_like");
+		jdbcTemplate.update("delete from comment");
+		trendingPosts.onEvents(postIds.stream().<DomainEvent>map(id -> new PostDeleted(id, Instant.now())).toList());
+		trendingPosts.refresh();
+		userIds.clear();
+		postIds.clear();
+	}
+
+	@Test
+	void aBucketLosesHalfItsWeightEveryHalfLife() throws Exception {
+		Instant now = Instant.now().minusSeconds(1);
+		storeLikes(postIds.get(0), now, 1);
+		storeLikes(postIds.get(1), now.minus(Duration.ofHours(6)), 1);
+		storeLikes(postIds.get(2), now.minus(Duration.ofHours(12)), 3);
+
+		List<TrendingPostDTO> trending = rebuild();
+
+		assertThat(trending).extracting(TrendingPostDTO::id).containsExactly(postIds.get(0), postIds.get(2), postIds.get(1));
+		assertThat(trending.get(0).score()).isCloseTo(CURRENT, within(1e-9));
+		assertThat(trending.get(1).score()).isCloseTo(3 * CURRENT / 4, within(1e-9));
+		assertThat(trending.get(2).score()).isCloseTo(CURRENT / 2, within(1e-9));
+		assertThat(trending.get(1).likes()).isEqualTo(3);
+	}
+
+	@Test
+	void activityOutsideTheWindowIsIgnoredAndACommentCountsAsTwoLikes() throws Exception {
+		Instant now = Instant.now().minusSeconds(1);
+		storeLikes(postIds.get(0), now, 1);
+		storeLikes(postIds.get(2), now.minus(Duration.ofHours(25)), 4);
+		List<TrendingPostDTO> rebuilt = rebuild();
+		trendingPosts.onEvents(List.of(new CommentAdded(1L, postIds.get(1), userIds.get(1), Instant.now())));
+
+		trendingPosts.refresh();
+
+		assertThat(rebuilt).extracting(TrendingPostDTO::id).containsExactly(postIds.get(0));
+		List<TrendingPostDTO> trending = trendingPosts.getTrending(10);
+		assertThat(trending).extracting(TrendingPostDTO::id).containsExactly(postIds.get(1), postIds.get(0));
+		assertThat(trending.get(0).score()).isCloseTo(2 * CURRENT, within(1e-9));
+		assertThat(trending.get(0).comments()).isEqualTo(1);
+	}
+
+	@Test
+	void onlyTheTopKPostsAreRankedAndTheLimitCutsThem() throws Exception {
+		Instant now = Instant.now();
+		for (int i = 0; i < postIds.size(); i++) {
+			for (int likes = 0; likes <= i; likes++) {
+				trendingPosts.onEvents(List.of(new LikeAdded(postIds.get(i), userIds.get(likes), now)));
+			}
+		}
+
+		trendingPosts.refresh();
+
+		assertThat(trendingPosts.getTrending(10)).extracting(TrendingPostDTO::id)
+				.containsExactly(postIds.get(3), postIds.get(2), postIds.get(1));
+		List<Number> ids = JsonPath.read(mvc.perform(get("/posts/trending").param("limit", "2"))
+				.andExpect(status().isOk()).andReturn().getResponse().getContentAsString(), "$[*].id");
+		assertThat(ids).extracting(Number::longValue).containsExactly(postIds.get(3), postIds.get(2));
+	}
+
+	@Test
+	void likesAndDeletesReachTheRankingThroughTheirEvents() throws Exception {
+		mvc.perform(put("/posts/" + postIds.get(0) + "/likes/" + userIds.get(1))).andExpect(status().isCreated());
+		create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userIds.get(1) + ",\"postId\":" + postIds.get(1) + "}");
+
+		awaitTrending(List.of(postIds.get(1), postIds.get(0)));
+
+		mvc.perform(delete("/posts/" + postIds.get(1))).andExpect(status().isOk());
+
+		awaitTrending(List.of(postIds.get(0)));
+	}
+
+	/** Stores likes of different users with the given creation time, as if they had been made back then. */
+	private void storeLikes(long postId, Instant createdAt, int count) {
+		for (int i = 0; i < count; i++) {
+			jdbcTemplate.update("insert into post_like (post_id, user_id, created_at) values (?, ?, ?)",
+					postId, userIds.get(i), Timestamp.from(createdAt));
+		}
+	}
+
+	/** Rebuilds the rings from the stored likes, as on startup, and waits for the ranking it publishes. */
+	private List<TrendingPostDTO> rebuild() throws InterruptedException {
+		trendingPosts.start();
+		for (int i = 0; i < 100 && trendingPosts.getTrending(10).isEmpty(); i++) {
+			Thread.sleep(50);
+		}
+		return trendingPosts.getTrending(10);
+	}
+
+	private void awaitTrending(List<Long> expected) throws InterruptedException {
+		for (int i = 0; i < 100; i++) {
+			trendingPosts.refresh();
+			if (trendingPosts.getTrending(10).stream().map(TrendingPostDTO::id).toList().equals(expected)) {
+				break;
+			}
+			Thread.sleep(50);
+		}
+		assertThat(trendingPosts.getTrending(10)).extracting(TrendingPostDTO::id).containsExactlyElementsOf(expected);
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}
@@ -0,0 +1,108 @@
+package com.project.blogbackend;
+
+import com.jayway.jsonpath.JsonPath;
+import com.project.blogbackend.ratelimit.WriteRateLimiter;
+import com.project.blogbackend.ratelimit.WriteRateLimiterStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks that the per-user write limit admits a burst, rejects the writes beyond it until the bucket refills, and
+ * answers the rejected requests with 429 and the number of seconds to wait in Retry-After.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:ratelimit;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER,VALUE;DB_CLOSE_DELAY=-1",
+		"blog.search.index-dir=target/rate-limit-search-index",
+		"blog.rate-limit.enabled=true",
+		"blog.rate-limit.writes-per-second=0.1",
+		"blog.rate-limit.burst=2"})
+@AutoConfigureMockMvc
+class WriteRateLimiterTests {
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void writesBeyondTheBurstAreRejectedWithRetryAfter() throws Exception {
+		long userId = create(post("/users"), "{\"username\":\"writer\",\"password\":\"p\"}");
+		long otherUserId = create(post("/users"), "{\"username\":\"other\",\"password\":\"p\"}");
+		long postId = create(post("/posts"), postBody(userId));
+		create(post("/comments"), "{\"text\":\"c\",\"userId\":" + userId + ",\"postId\":" + postId + "}");
+
+		// one write every 10 seconds: the burst is spent, the next write is due in just under 10 seconds
+		mvc.perform(post("/posts").contentType(MediaType.APPLICATION_JSON).content(postBody(userId)))
+				.andExpect(status().isTooManyRequests())
+				.andExpect(header().string(HttpHeaders.RETRY_AFTER, "10"));
+		mvc.perform(post("/likes").contentType(MediaType.APPLICATION_JSON).content("{\"userId\":" + userId + ",\"postId\":" + postId + "}"))
+				.andExpect(status().isTooManyRequests());
+		create(post("/posts"), postBody(otherUserId));
+	}
+
+	@Test
+	void theBucketAdmitsTheBurstAndRefillsAtTheRate() throws Exception {
+		WriteRateLimiter limiter = new WriteRateLimiter(true, 10, 3);
+
+		assertThat(limiter.tryAcquire(1L)).isZero();
+		assertThat(limiter.tryAcquire(1L)).isZero();
+		assertThat(limiter.tryAcquire(1L)).isZero();
+		long wait = limiter.tryAcquire(1L);
+		assertThat(wait).isPositive().isLessThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+		assertThat(limiter.tryAcquire(2L)).isZero();
+
+		TimeUnit.NANOSECONDS.sleep(wait);
+		assertThat(limiter.tryAcquire(1L)).isZero();
+		assertThat(limiter.tryAcquire(1L)).isPositive();
+
+		WriteRateLimiterStatistics statistics = limiter.getStatistics();
+		assertThat(statistics.admitted()).isEqualTo(5);
+		assertThat(statistics.rejected()).isEqualTo(2);
+	}
+
+	@Test
+	void refilledBucketsAreEvicted() throws Exception {
+		WriteRateLimiter limiter = new WriteRateLimiter(true, 100, 1);
+		limiter.tryAcquire(1L);
+		limiter.tryAcquire(2L);
+
+		TimeUnit.MILLISECONDS.sleep(20);
+		limiter.evictIdleBuckets();
+
+		assertThat(limiter.getStatistics().buckets()).isZero();
+		assertThat(limiter.getStatistics().evicted()).isEqualTo(2);
+		assertThat(limiter.tryAcquire(1L)).isZero();
+	}
+
+	@Test
+	void aDisabledLimiterAndWritesWithoutAUserAreNotLimited() {
+		WriteRateLimiter disabled = new WriteRateLimiter(false, 1, 1);
+		WriteRateLimiter enabled = new WriteRateLimiter(true, 1, 1);
+
+		for (int i = 0; i < 10; i++) {
+			assertThat(disabled.tryAcquire(1L)).isZero();
+			assertThat(enabled.tryAcquire(null)).isZero();
+		}
+		assertThat(disabled.getStatistics().buckets()).isZero();
+	}
+
+	private static String postBody(long userId) {
+		return "{\"title\":\"t\",\"text\":\"b\",\"userId\":" + userId + "}";
+	}
+
+	private long create(MockHttpServletRequestBuilder request, String body) throws Exception {
+		String response = mvc.perform(request.contentType(MediaType.APPLICATION_JSON).content(body))
+				.andExpect(status().is2xxSuccessful()).andReturn().getResponse().getContentAsString();
+		return ((Number) JsonPath.read(response, "$.id")).longValue();
+	}
+}